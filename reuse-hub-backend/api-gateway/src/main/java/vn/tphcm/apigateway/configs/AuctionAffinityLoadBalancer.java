@@ -0,0 +1,83 @@
+/*
+ * @ (#) AuctionAffinityLoadBalancer.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.apigateway.configs;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.*;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Sends every command on one auction (bid, buy now, cancel) to the same auction-service instance, the one that holds
+ * its order book. Instances are picked by rendezvous hashing of auction id and instance id, so adding or removing an
+ * instance only moves the auctions of that instance. Everything else is spread round robin.
+ */
+public class AuctionAffinityLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+    private static final Pattern AUCTION_COMMAND = Pattern.compile("/auctions/([^/]+)/(bid|buy-now|cancel)/");
+
+    private final ObjectProvider<ServiceInstanceListSupplier> suppliers;
+    private final AtomicInteger position = new AtomicInteger();
+
+    public AuctionAffinityLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> suppliers) {
+        this.suppliers = suppliers;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = suppliers.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        String auctionId = auctionId(request);
+
+        return supplier.get(request).next().map(instances -> {
+            if (instances.isEmpty()) {
+                return new EmptyResponse();
+            }
+            return new DefaultResponse(auctionId != null ? owner(instances, auctionId) : next(instances));
+        });
+    }
+
+    private ServiceInstance owner(List<ServiceInstance> instances, String auctionId) {
+        ServiceInstance owner = null;
+        long highest = -1;
+        for (ServiceInstance instance : instances) {
+            CRC32 crc = new CRC32();
+            crc.update((auctionId + "@" + instance.getInstanceId()).getBytes(StandardCharsets.UTF_8));
+            if (crc.getValue() > highest) {
+                highest = crc.getValue();
+                owner = instance;
+            }
+        }
+        return owner;
+    }
+
+    private ServiceInstance next(List<ServiceInstance> instances) {
+        return instances.get(Math.floorMod(position.getAndIncrement(), instances.size()));
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static String auctionId(Request request) {
+        if (!(request.getContext() instanceof RequestDataContext context) || context.getClientRequest() == null) {
+            return null;
+        }
+        Matcher matcher = AUCTION_COMMAND.matcher(context.getClientRequest().getUrl().getPath());
+        return matcher.find() ? matcher.group(1) : null;
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * @ (#) AuctionLoadBalancerConfig.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.apigateway.configs;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+@LoadBalancerClient(name = "auction-service", configuration = AuctionLoadBalancerConfig.AuctionClientConfig.class)
+public class AuctionLoadBalancerConfig {
+
+    // Registered in the auction-service client context only, so it is not a @Configuration of its own
+    static class AuctionClientConfig {
+        @Bean
+        public ReactorLoadBalancer<ServiceInstance> auctionAffinityLoadBalancer(Environment environment,
+                                                                                LoadBalancerClientFactory factory) {
+            String name = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+            return new AuctionAffinityLoadBalancer(factory.getLazyProvider(name, ServiceInstanceListSupplier.class));
+        }
+    }
+}
@@ -42,6 +42,9 @@ public class RabbitMQConfig {
     @Value("${rabbitmq.routing-key.auction.ended}")
     private String auctionEndedRoutingKey;
 
+    @Value("${auction.scheduler.fanout-exchange:auction.scheduler.fanout}")
+    private String schedulerFanoutExchange;
+
     // Exchanges
     @Bean
     public TopicExchange auctionExchange() {
@@ -103,6 +106,22 @@ public class RabbitMQConfig {
                 .with(auctionEndedRoutingKey);
     }
 
+    // Moved deadlines, copied to every replica's scheduler through its own temporary queue
+    @Bean
+    public FanoutExchange auctionSchedulerExchange() {
+        return new FanoutExchange(schedulerFanoutExchange, true, false);
+    }
+
+    @Bean
+    public Queue auctionSchedulerQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("auction.scheduler."));
+    }
+
+    @Bean
+    public Binding auctionSchedulerBinding() {
+        return BindingBuilder.bind(auctionSchedulerQueue()).to(auctionSchedulerExchange());
+    }
+
     // Message Converter
     @Bean
     public MessageConverter jsonMessageConverter() {
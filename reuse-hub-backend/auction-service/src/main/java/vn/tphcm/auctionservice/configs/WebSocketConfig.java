@@ -1,5 +1,7 @@
 package vn.tphcm.auctionservice.configs;
 
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
@@ -8,12 +10,17 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    // Present with websocket.broker.fanout.enabled, so broadcasts reach the subscribers of every replica
+    private final ObjectProvider<WebSocketFanoutBridge> fanoutBridge;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // Enable simple broker for broadcasting to subscribers
         config.enableSimpleBroker("/topic", "/queue");
+        fanoutBridge.ifAvailable(bridge -> config.configureBrokerChannel().interceptors(bridge));
         // Prefix for messages from client to server
         config.setApplicationDestinationPrefixes("/app");
         // Prefix for user-specific messages
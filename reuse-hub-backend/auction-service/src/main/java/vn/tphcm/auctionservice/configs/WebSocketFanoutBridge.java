@@ -0,0 +1,100 @@
+package vn.tphcm.auctionservice.configs;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Lets every replica's in-process STOMP broker deliver every broadcast. Messages the application sends to a bridged
+ * destination are delivered locally as usual and copied to a RabbitMQ fanout exchange; each replica consumes the
+ * exchange through its own temporary queue and hands the copies of the other replicas to its local broker.
+ * <p>
+ * User destinations are bridged before they are resolved, so each replica resolves them to its own sessions.
+ */
+@Slf4j(topic = "WEBSOCKET-FANOUT")
+public class WebSocketFanoutBridge implements ChannelInterceptor {
+    static final String DESTINATION_HEADER = "ws-destination";
+    static final String ORIGIN_HEADER = "ws-origin";
+    // Marks copies received from the exchange so they are not published again
+    private static final String BRIDGED_HEADER = "wsFanoutBridged";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final String exchange;
+    private final List<String> destinationPrefixes;
+    private final MessageChannel brokerChannel;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public WebSocketFanoutBridge(RabbitTemplate rabbitTemplate, String exchange, List<String> destinationPrefixes,
+                                 MessageChannel brokerChannel) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.exchange = exchange;
+        this.destinationPrefixes = destinationPrefixes;
+        this.brokerChannel = brokerChannel;
+    }
+
+    /**
+     * Broker channel interceptor: copies outgoing broadcasts to the exchange and lets the local delivery go on.
+     */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE
+                || message.getHeaders().containsKey(BRIDGED_HEADER)
+                || !(message.getPayload() instanceof byte[] payload)) {
+            return message;
+        }
+
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination == null || destinationPrefixes.stream().noneMatch(destination::startsWith)) {
+            return message;
+        }
+
+        MessageProperties properties = new MessageProperties();
+        properties.setHeader(DESTINATION_HEADER, destination);
+        properties.setHeader(ORIGIN_HEADER, instanceId);
+        Object contentType = message.getHeaders().get(MessageHeaders.CONTENT_TYPE);
+        if (contentType != null) {
+            properties.setContentType(contentType.toString());
+        }
+
+        try {
+            rabbitTemplate.send(exchange, "", new org.springframework.amqp.core.Message(payload, properties));
+        } catch (AmqpException e) {
+            // Local subscribers still get it; only the other replicas miss this one
+            log.error("Could not fan out message for {}: {}", destination, e.getMessage());
+        }
+        return message;
+    }
+
+    /**
+     * Delivers the other replicas' broadcasts to the local broker.
+     */
+    @RabbitListener(queues = "#{webSocketFanoutQueue.name}")
+    public void onMessage(org.springframework.amqp.core.Message message) {
+        MessageProperties properties = message.getMessageProperties();
+        if (instanceId.equals(properties.getHeader(ORIGIN_HEADER))) {
+            return;
+        }
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(properties.getHeader(DESTINATION_HEADER));
+        if (properties.getContentType() != null) {
+            accessor.setContentType(MimeTypeUtils.parseMimeType(properties.getContentType()));
+        }
+        accessor.setHeader(BRIDGED_HEADER, true);
+
+        brokerChannel.send(MessageBuilder.createMessage(message.getBody(), accessor.getMessageHeaders()));
+    }
+}
@@ -2,6 +2,7 @@ package vn.tphcm.auctionservice.controllers;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.SendTo;
@@ -9,8 +10,11 @@ import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 import vn.tphcm.auctionservice.dtos.request.PlaceBidRequest;
 import vn.tphcm.auctionservice.dtos.response.BidResponse;
+import vn.tphcm.auctionservice.engine.AuctionExtendedEvent;
 import vn.tphcm.auctionservice.services.AuctionService;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Controller
@@ -67,6 +71,20 @@ public class AuctionWebSocketController {
         messagingTemplate.convertAndSend("/topic/auction/" + auctionId, update);
     }
 
+    /**
+     * Tell subscribers that a last-minute bid extended a soft-close auction
+     */
+    @EventListener
+    public void onAuctionExtended(AuctionExtendedEvent event) {
+        broadcastAuctionUpdate(event.auctionId(), Map.of(
+                "type", "AUCTION_EXTENDED",
+                "auctionId", event.auctionId(),
+                "bidId", event.bidId(),
+                "endTime", event.endTime(),
+                "timeRemaining", Math.max(0, Duration.between(LocalDateTime.now(), event.endTime()).getSeconds())
+        ));
+    }
+
     /**
      * Send notification to specific user
      */
@@ -44,6 +44,16 @@ public class CreateAuctionRequest {
     @NotNull(message = "Thời gian kết thúc không được để trống")
     private LocalDateTime endTime;
 
+    // Chống đặt giá phút chót: giá đặt trong khoảng này trước khi kết thúc sẽ gia hạn phiên
+    @Min(value = 10, message = "Khoảng gia hạn tự động tối thiểu 10 giây")
+    @Max(value = 3600, message = "Khoảng gia hạn tự động tối đa 3600 giây")
+    private Integer softCloseWindowSeconds;
+
+    // Mặc định bằng softCloseWindowSeconds
+    @Min(value = 10, message = "Thời gian gia hạn tối thiểu 10 giây")
+    @Max(value = 3600, message = "Thời gian gia hạn tối đa 3600 giây")
+    private Integer softCloseExtensionSeconds;
+
     private String categoryId;
 
     private String address;
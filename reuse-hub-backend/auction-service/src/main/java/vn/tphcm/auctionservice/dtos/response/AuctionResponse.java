@@ -27,6 +27,8 @@ public class AuctionResponse {
     private Long reservePrice;
     private LocalDateTime startTime;
     private LocalDateTime endTime;
+    private Integer softCloseWindowSeconds;
+    private Integer softCloseExtensionSeconds;
     private AuctionStatus status;
     private Integer bidCount;
     private Integer uniqueBidders;
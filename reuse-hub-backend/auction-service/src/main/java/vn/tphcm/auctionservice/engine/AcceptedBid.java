@@ -0,0 +1,48 @@
+package vn.tphcm.auctionservice.engine;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import vn.tphcm.auctionservice.commons.BidStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the append-only bid log, as ordered by the auction's sequencer partition.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class AcceptedBid {
+    private final String bidId;
+
+    private final String auctionId;
+
+    private final String auctionTitle;
+
+    // 1, 2, 3... per auction, in acceptance order
+    private final long sequence;
+
+    private final String bidderId;
+
+    private final long amount;
+
+    private final Long maxAutoBid;
+
+    // Placed by the proxy engine on the bidder's behalf, or raised above what they typed
+    private final boolean autoBid;
+
+    // ACTIVE for the bid that leads after it, OUTBID for a bid a proxy beat in the same step
+    private final BidStatus status;
+
+    // Bidder who lost the lead to this bid and gets the outbid notification, null when nobody did
+    private final String outbidBidderId;
+
+    // New end time when this bid extended a soft-close auction, otherwise null
+    private final LocalDateTime extendedEndTime;
+
+    // Bid count of the auction including this bid
+    private final int bidCount;
+
+    private final LocalDateTime placedAt;
+}
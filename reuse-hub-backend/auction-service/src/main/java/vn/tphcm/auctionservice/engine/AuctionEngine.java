@@ -0,0 +1,218 @@
+package vn.tphcm.auctionservice.engine;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import vn.tphcm.auctionservice.models.Bid;
+import vn.tphcm.auctionservice.repositories.AuctionRepository;
+import vn.tphcm.auctionservice.repositories.BidRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Entry point of the in-memory auction engine: bids are validated and ordered by the auction's {@link BidSequencer}
+ * partition and written behind through the {@link BidLog}. Every change to a live auction (bid, buy now, cancel, end)
+ * must go through {@link #placeBid} or {@link #execute} so it is ordered with the bids.
+ * <p>
+ * A book lives on one instance at a time, see {@link AuctionOwnership}; the gateway routes an auction's commands to
+ * the same instance, and a command that reaches another one while the book is held is refused.
+ */
+@Component
+@Slf4j(topic = "AUCTION-ENGINE")
+public class AuctionEngine implements DisposableBean {
+    private final BidSequencer sequencer;
+    private final BidLog bidLog;
+    private final long commandTimeoutMs;
+    private final long idleTimeoutMs;
+
+    @Autowired
+    public AuctionEngine(AuctionRepository auctionRepository,
+                         BidRepository bidRepository,
+                         BidLog bidLog,
+                         AuctionOwnership ownership,
+                         @Value("${auction.engine.partitions:0}") int partitions,
+                         @Value("${auction.engine.queue-capacity:10000}") int queueCapacity,
+                         @Value("${auction.engine.command-timeout-ms:2000}") long commandTimeoutMs,
+                         @Value("${auction.engine.idle-timeout-ms:60000}") long idleTimeoutMs) {
+        this(auctionId -> loadOwnedBook(ownership, auctionRepository, bidRepository, auctionId), bidLog,
+                partitions, queueCapacity, commandTimeoutMs, idleTimeoutMs);
+
+        // Whichever way a book goes, its auction may move to another instance
+        sequencer.onEviction(ownership::release);
+        ownership.onLost(sequencer::evict);
+    }
+
+    public AuctionEngine(Function<String, AuctionOrderBook> loader, BidLog bidLog,
+                         int partitions, int queueCapacity, long commandTimeoutMs) {
+        this(loader, bidLog, partitions, queueCapacity, commandTimeoutMs, 0);
+    }
+
+    private AuctionEngine(Function<String, AuctionOrderBook> loader, BidLog bidLog,
+                          int partitions, int queueCapacity, long commandTimeoutMs, long idleTimeoutMs) {
+        int partitionCount = partitions > 0 ? partitions : Runtime.getRuntime().availableProcessors();
+        this.sequencer = new BidSequencer(partitionCount, queueCapacity, loader);
+        this.bidLog = bidLog;
+        this.commandTimeoutMs = commandTimeoutMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+
+        // The log refuses the stale book's entries until the reloaded book takes over
+        bidLog.onSequenceConflict(auctionId -> {
+            log.warn("Bid log refused the book of auction {}, reloading it", auctionId);
+            sequencer.evict(auctionId, () -> bidLog.resume(auctionId));
+        });
+    }
+
+    /**
+     * Sequences one bid. A bid that could not start within the command timeout is rejected as {@link BidRejection#BUSY}
+     * and is guaranteed not to be applied later.
+     */
+    public BidOutcome placeBid(String auctionId, String bidderId, long amount, Long maxAutoBid) {
+        // Whoever flips this first decides: the partition applies the bid, or the caller gives up on it
+        AtomicBoolean claimed = new AtomicBoolean();
+
+        CompletableFuture<BidOutcome> outcome = sequencer.submit(auctionId, book -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return null;
+            }
+            if (book == null) {
+                return BidOutcome.rejected(BidRejection.AUCTION_NOT_FOUND, 0);
+            }
+            return book.placeBid(bidderId, amount, maxAutoBid, LocalDateTime.now(), bidLog);
+        });
+
+        try {
+            return outcome.get(commandTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (claimed.compareAndSet(false, true)) {
+                log.warn("Bid on auction {} timed out in the sequencer queue", auctionId);
+                return BidOutcome.rejected(BidRejection.BUSY, 0);
+            }
+            // Already running on the partition, its result is only microseconds away
+            return outcome.join();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                log.warn("Sequencer queue of auction {} is full", auctionId);
+                return BidOutcome.rejected(BidRejection.BUSY, 0);
+            }
+            if (e.getCause() instanceof AuctionOwnedElsewhereException) {
+                log.warn("Bid on auction {} reached an instance that does not hold its book", auctionId);
+                return BidOutcome.rejected(BidRejection.OWNED_ELSEWHERE, 0);
+            }
+            throw new IllegalStateException("Could not sequence bid on auction " + auctionId, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return BidOutcome.rejected(BidRejection.BUSY, 0);
+        }
+    }
+
+    /**
+     * Runs a command on the auction's book, ordered with its bids. The book is {@code null} when the auction does not exist.
+     */
+    public <T> T execute(String auctionId, Function<AuctionOrderBook, T> command) {
+        try {
+            return sequencer.submit(auctionId, command).get(commandTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Auction engine command failed for " + auctionId, e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Auction engine command timed out for " + auctionId, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for auction " + auctionId, e);
+        }
+    }
+
+    /**
+     * Drops the in-memory book once the database holds the auction's new state; the next command reloads it.
+     */
+    public CompletableFuture<Void> evict(String auctionId) {
+        return sequencer.evict(auctionId);
+    }
+
+    /**
+     * Drops books nobody used for the idle timeout, and books past their end at once, so their auctions can move to
+     * the instance that receives their next command. Books with bids still being written stay.
+     */
+    @Scheduled(fixedDelayString = "${auction.engine.idle-check-ms:5000}")
+    public void evictIdleBooks() {
+        if (idleTimeoutMs <= 0) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        sequencer.evictIdle(0, book -> book.getLastPersisted().isDone()
+                && (book.isClosed() || book.getEndTime().isBefore(now)));
+        sequencer.evictIdle(idleTimeoutMs, book -> book.getLastPersisted().isDone());
+    }
+
+    @Override
+    public void destroy() {
+        sequencer.close();
+    }
+
+    private static AuctionOrderBook loadOwnedBook(AuctionOwnership ownership, AuctionRepository auctionRepository,
+                                                  BidRepository bidRepository, String auctionId) {
+        if (!ownership.acquire(auctionId)) {
+            throw new AuctionOwnedElsewhereException(auctionId);
+        }
+
+        AuctionOrderBook book = null;
+        try {
+            book = loadBook(auctionRepository, bidRepository, auctionId);
+            return book;
+        } finally {
+            if (book == null) {
+                ownership.release(auctionId);
+            }
+        }
+    }
+
+    private static AuctionOrderBook loadBook(AuctionRepository auctionRepository, BidRepository bidRepository,
+                                             String auctionId) {
+        return auctionRepository.findById(auctionId)
+                .map(auction -> {
+                    Bid highestBid = bidRepository.findHighestBid(auctionId).orElse(null);
+
+                    return AuctionOrderBook.builder()
+                            .auctionId(auction.getId())
+                            .sellerId(auction.getSellerId())
+                            .title(auction.getTitle())
+                            .bidIncrement(auction.getBidIncrement())
+                            .softCloseWindow(seconds(auction.getSoftCloseWindowSeconds()))
+                            .softCloseExtension(seconds(auction.getSoftCloseExtensionSeconds()))
+                            .status(auction.getStatus())
+                            .endTime(auction.getEndTime())
+                            .currentPrice(auction.getCurrentPrice())
+                            .bidCount(auction.getBidCount() == null ? 0 : auction.getBidCount())
+                            .lastSequence(bidRepository.findMaxSequence(auctionId))
+                            .highestBidderId(highestBid != null ? highestBid.getBidderId() : null)
+                            .highestBidId(highestBid != null ? highestBid.getId() : null)
+                            .proxies(highestCeilings(bidRepository.findProxyCeilings(auctionId, auction.getCurrentPrice())))
+                            .build();
+                })
+                .orElse(null);
+    }
+
+    private static Duration seconds(Integer seconds) {
+        return seconds != null && seconds > 0 ? Duration.ofSeconds(seconds) : null;
+    }
+
+    // Keeps each bidder's highest ceiling, and of equal ones the first, as the order book does while bidding
+    private static Collection<ProxyCeiling> highestCeilings(List<ProxyCeiling> ceilingsInLogOrder) {
+        Map<String, ProxyCeiling> highest = new HashMap<>();
+        for (ProxyCeiling ceiling : ceilingsInLogOrder) {
+            highest.merge(ceiling.getBidderId(), ceiling,
+                    (current, next) -> next.getCeiling() > current.getCeiling() ? next : current);
+        }
+        return highest.values();
+    }
+}
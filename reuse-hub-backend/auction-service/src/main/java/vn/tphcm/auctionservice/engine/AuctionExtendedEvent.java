@@ -0,0 +1,10 @@
+package vn.tphcm.auctionservice.engine;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published once a bid that extended a soft-close auction is persisted, so the closing deadline and the auction's
+ * subscribers follow the new end time.
+ */
+public record AuctionExtendedEvent(String auctionId, LocalDateTime endTime, String bidId) {
+}
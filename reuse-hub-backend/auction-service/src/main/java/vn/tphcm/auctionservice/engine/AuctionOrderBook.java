@@ -0,0 +1,192 @@
+package vn.tphcm.auctionservice.engine;
+
+import lombok.Builder;
+import lombok.Getter;
+import vn.tphcm.auctionservice.commons.AuctionStatus;
+import vn.tphcm.auctionservice.commons.BidStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * In-memory state of one auction. Only the sequencer partition that owns the auction reads or writes it,
+ * so nothing here is synchronized; the database follows through the {@link BidLog}.
+ */
+@Getter
+public class AuctionOrderBook {
+    private final String auctionId;
+    private final String sellerId;
+    private final String title;
+    private final long bidIncrement;
+    // Null for a hard close
+    private final Duration softCloseWindow;
+    private final Duration softCloseExtension;
+
+    private AuctionStatus status;
+    private LocalDateTime endTime;
+    private long currentPrice;
+    private int bidCount;
+    private long lastSequence;
+    private String highestBidderId;
+    private String highestBidId;
+    private boolean closed;
+    // Ceiling of every bidder who can still take the lead, keyed by bidder
+    private final Map<String, ProxyCeiling> proxies = new HashMap<>();
+    // Persistence of the last accepted bid; the log writes in order, so this covers every earlier bid too
+    private CompletableFuture<Void> lastPersisted = CompletableFuture.completedFuture(null);
+
+    @Builder
+    public AuctionOrderBook(String auctionId, String sellerId, String title, long bidIncrement,
+                            Duration softCloseWindow, Duration softCloseExtension, AuctionStatus status,
+                            LocalDateTime endTime, long currentPrice, int bidCount, long lastSequence,
+                            String highestBidderId, String highestBidId, Collection<ProxyCeiling> proxies) {
+        this.auctionId = auctionId;
+        this.sellerId = sellerId;
+        this.title = title;
+        this.bidIncrement = bidIncrement;
+        this.softCloseWindow = softCloseWindow;
+        this.softCloseExtension = softCloseExtension != null ? softCloseExtension : softCloseWindow;
+        this.status = status;
+        this.endTime = endTime;
+        this.currentPrice = currentPrice;
+        this.bidCount = bidCount;
+        this.lastSequence = lastSequence;
+        this.highestBidderId = highestBidderId;
+        this.highestBidId = highestBidId;
+        if (proxies != null) {
+            proxies.forEach(proxy -> this.proxies.put(proxy.getBidderId(), proxy));
+        }
+    }
+
+    public long minimumBid() {
+        return currentPrice + bidIncrement;
+    }
+
+    /**
+     * Validates a bid against the current state and settles it against the other bidders' proxy ceilings in one pass:
+     * the highest ceiling leads at the runner-up's ceiling plus one increment, capped at its own ceiling. Only the final
+     * state is logged, the incoming bid and, when another proxy beats it straight away, that proxy's answer.
+     * <p>
+     * In soft-close mode a bid within the final window moves the end to at least one extension after the bid, as part
+     * of the same step, so no bid can slip in between the acceptance and the new end.
+     */
+    public BidOutcome placeBid(String bidderId, long amount, Long maxAutoBid, LocalDateTime now, BidLog bidLog) {
+        if (closed || status != AuctionStatus.ACTIVE) {
+            return BidOutcome.rejected(BidRejection.NOT_ACTIVE, minimumBid());
+        }
+        if (now.isAfter(endTime)) {
+            return BidOutcome.rejected(BidRejection.ENDED, minimumBid());
+        }
+        if (sellerId.equals(bidderId)) {
+            return BidOutcome.rejected(BidRejection.OWN_AUCTION, minimumBid());
+        }
+        if (amount < minimumBid()) {
+            return BidOutcome.rejected(BidRejection.TOO_LOW, minimumBid());
+        }
+
+        LocalDateTime extendedEndTime = extendForSoftClose(now);
+
+        long ceiling = maxAutoBid != null ? Math.max(amount, maxAutoBid) : amount;
+        raiseCeiling(bidderId, ceiling, lastSequence + 1);
+
+        ProxyCeiling leader = null;
+        ProxyCeiling runnerUp = null;
+        for (ProxyCeiling proxy : proxies.values()) {
+            if (leader == null || proxy.beats(leader)) {
+                runnerUp = leader;
+                leader = proxy;
+            } else if (runnerUp == null || proxy.beats(runnerUp)) {
+                runnerUp = proxy;
+            }
+        }
+
+        String previousLeader = highestBidderId;
+        AcceptedBid bid;
+        AcceptedBid leadingBid;
+        if (leader.getBidderId().equals(bidderId)) {
+            // The incoming bid wins; it pays what it typed or just enough to stay above the runner-up's ceiling
+            long price = runnerUp == null
+                    ? amount
+                    : Math.max(amount, Math.min(leader.getCeiling(), runnerUp.getCeiling() + bidIncrement));
+            bid = append(bidderId, price, maxAutoBid, price > amount, BidStatus.ACTIVE,
+                    bidderId.equals(previousLeader) ? null : previousLeader, extendedEndTime, now, bidLog);
+            leadingBid = bid;
+        } else {
+            // Another bidder's proxy holds a higher ceiling and answers right away
+            bid = append(bidderId, amount, maxAutoBid, false, BidStatus.OUTBID, null, null, now, bidLog);
+            long price = Math.min(leader.getCeiling(), runnerUp.getCeiling() + bidIncrement);
+            leadingBid = append(leader.getBidderId(), price, leader.getCeiling(), true, BidStatus.ACTIVE,
+                    bidderId, extendedEndTime, now, bidLog);
+        }
+
+        // A ceiling below the next minimum bid can never lead again without a new bid, which brings its own ceiling
+        long minimum = minimumBid();
+        String leaderId = leader.getBidderId();
+        proxies.values().removeIf(proxy -> proxy.getCeiling() < minimum && !proxy.getBidderId().equals(leaderId));
+
+        return BidOutcome.accepted(bid, leadingBid, lastPersisted);
+    }
+
+    /**
+     * Stops accepting bids, e.g. before the auction is sold, cancelled or ended in the database.
+     */
+    public void close() {
+        closed = true;
+    }
+
+    // A burst of final-second bids moves the end once, to one extension after the last of them, instead of stacking
+    private LocalDateTime extendForSoftClose(LocalDateTime now) {
+        if (softCloseWindow == null || now.isBefore(endTime.minus(softCloseWindow))) {
+            return null;
+        }
+
+        LocalDateTime extended = now.plus(softCloseExtension);
+        if (!extended.isAfter(endTime)) {
+            return null;
+        }
+        endTime = extended;
+        return extended;
+    }
+
+    private void raiseCeiling(String bidderId, long ceiling, long sequence) {
+        ProxyCeiling current = proxies.get(bidderId);
+        if (current == null || ceiling > current.getCeiling()) {
+            proxies.put(bidderId, new ProxyCeiling(bidderId, ceiling, sequence));
+        }
+    }
+
+    private AcceptedBid append(String bidderId, long amount, Long maxAutoBid, boolean autoBid, BidStatus bidStatus,
+                               String outbidBidderId, LocalDateTime extendedEndTime, LocalDateTime now,
+                               BidLog bidLog) {
+        AcceptedBid bid = AcceptedBid.builder()
+                .bidId(UUID.randomUUID().toString())
+                .auctionId(auctionId)
+                .auctionTitle(title)
+                .sequence(lastSequence + 1)
+                .bidderId(bidderId)
+                .amount(amount)
+                .maxAutoBid(maxAutoBid)
+                .autoBid(autoBid)
+                .status(bidStatus)
+                .outbidBidderId(outbidBidderId)
+                .extendedEndTime(extendedEndTime)
+                .bidCount(bidCount + 1)
+                .placedAt(now)
+                .build();
+
+        lastSequence = bid.getSequence();
+        bidCount = bid.getBidCount();
+        if (bidStatus == BidStatus.ACTIVE) {
+            currentPrice = amount;
+            highestBidderId = bidderId;
+            highestBidId = bid.getBidId();
+        }
+        lastPersisted = bidLog.append(bid);
+        return bid;
+    }
+}
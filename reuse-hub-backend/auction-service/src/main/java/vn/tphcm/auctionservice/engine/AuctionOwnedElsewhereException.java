@@ -0,0 +1,10 @@
+package vn.tphcm.auctionservice.engine;
+
+/**
+ * Raised while loading a book whose auction is held by another instance, see {@link AuctionOwnership}.
+ */
+class AuctionOwnedElsewhereException extends RuntimeException {
+    AuctionOwnedElsewhereException(String auctionId) {
+        super("Auction " + auctionId + " is held by another instance");
+    }
+}
@@ -0,0 +1,134 @@
+package vn.tphcm.auctionservice.engine;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Redis lease per auction that lets one instance at a time hold its order book. The lease is taken when the book is
+ * loaded, renewed while it stays loaded and released when the book goes idle, so an auction moves to whichever
+ * instance receives its next command once the previous owner stopped using it.
+ * <p>
+ * Like the scheduler's transition leases it fails open when Redis is unreachable; the bid log's sequence fence still
+ * keeps two books of one auction from storing conflicting bids then.
+ */
+@Component
+@Slf4j(topic = "AUCTION-OWNERSHIP")
+public class AuctionOwnership implements DisposableBean {
+    // Takes the lease or renews our own, in one round trip
+    private static final RedisScript<Long> ACQUIRE_LEASE = new DefaultRedisScript<>(
+            "local owner = redis.call('get', KEYS[1]) " +
+                    "if owner == false or owner == ARGV[1] then redis.call('set', KEYS[1], ARGV[1], 'PX', ARGV[2]) return 1 end " +
+                    "return 0",
+            Long.class);
+
+    private static final RedisScript<Long> RENEW_LEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+
+    private static final RedisScript<Long> RELEASE_LEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration leaseTtl;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final Set<String> owned = ConcurrentHashMap.newKeySet();
+    private volatile Consumer<String> lostListener = auctionId -> {
+    };
+
+    public AuctionOwnership(StringRedisTemplate redisTemplate,
+                            @Value("${auction.engine.ownership.lease-ms:30000}") long leaseMs) {
+        this.redisTemplate = redisTemplate;
+        this.leaseTtl = Duration.ofMillis(leaseMs);
+    }
+
+    /**
+     * @return false when another instance holds the auction
+     */
+    public boolean acquire(String auctionId) {
+        try {
+            Long taken = redisTemplate.execute(ACQUIRE_LEASE, List.of(key(auctionId)), instanceId,
+                    String.valueOf(leaseTtl.toMillis()));
+            if (!Long.valueOf(1).equals(taken)) {
+                return false;
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not take the lease of auction {}, relying on the bid log fence: {}", auctionId, e.getMessage());
+        }
+        owned.add(auctionId);
+        return true;
+    }
+
+    /**
+     * @return true when another instance holds the auction right now; false when this one does, nobody does, or Redis
+     * cannot tell
+     */
+    public boolean isOwnedElsewhere(String auctionId) {
+        if (owned.contains(auctionId)) {
+            return false;
+        }
+        try {
+            String owner = redisTemplate.opsForValue().get(key(auctionId));
+            return owner != null && !owner.equals(instanceId);
+        } catch (DataAccessException e) {
+            log.warn("Could not read the lease of auction {}: {}", auctionId, e.getMessage());
+            return false;
+        }
+    }
+
+    public void release(String auctionId) {
+        owned.remove(auctionId);
+        try {
+            redisTemplate.execute(RELEASE_LEASE, List.of(key(auctionId)), instanceId);
+        } catch (DataAccessException e) {
+            log.warn("Could not release the lease of auction {}, it expires in {}: {}", auctionId, leaseTtl, e.getMessage());
+        }
+    }
+
+    /**
+     * Called with the auction id when a lease could not be renewed because another instance took it over.
+     */
+    public void onLost(Consumer<String> listener) {
+        this.lostListener = listener;
+    }
+
+    @Scheduled(fixedDelayString = "${auction.engine.ownership.renew-interval-ms:10000}")
+    public void renew() {
+        for (String auctionId : owned) {
+            try {
+                Long renewed = redisTemplate.execute(RENEW_LEASE, List.of(key(auctionId)), instanceId,
+                        String.valueOf(leaseTtl.toMillis()));
+                if (!Long.valueOf(1).equals(renewed) && owned.remove(auctionId)) {
+                    log.warn("Lost the lease of auction {}, dropping its book", auctionId);
+                    lostListener.accept(auctionId);
+                }
+            } catch (DataAccessException e) {
+                log.warn("Could not renew the lease of auction {}: {}", auctionId, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        owned.forEach(this::release);
+    }
+
+    private static String key(String auctionId) {
+        return "auction:owner:" + auctionId;
+    }
+}
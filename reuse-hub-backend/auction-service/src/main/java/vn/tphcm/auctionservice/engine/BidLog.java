@@ -0,0 +1,28 @@
+package vn.tphcm.auctionservice.engine;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Append-only log of accepted bids. Entries of one auction are appended by its sequencer partition in sequence order
+ * and must be persisted in that order.
+ */
+public interface BidLog {
+    /**
+     * @return completes when the bid is durable, or exceptionally when it could not be stored
+     */
+    CompletableFuture<Void> append(AcceptedBid bid);
+
+    /**
+     * Called with the auction id when a stored sequence number already existed, i.e. the in-memory book was stale, or
+     * when its entries could not be stored at all, so the book is ahead of the database for good. The auction's entries
+     * are refused from then on, until {@link #resume}.
+     */
+    void onSequenceConflict(Consumer<String> listener);
+
+    /**
+     * Accepts entries of the auction again after a conflict or a failed write. Called on the partition thread once the stale book is
+     * dropped, so every entry the stale book appended is ahead of it and is refused.
+     */
+    void resume(String auctionId);
+}
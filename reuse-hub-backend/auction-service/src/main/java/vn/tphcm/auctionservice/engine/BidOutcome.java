@@ -0,0 +1,44 @@
+package vn.tphcm.auctionservice.engine;
+
+import lombok.Getter;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Result of sequencing one bid: either the accepted log entry, or why it was rejected.
+ * An accepted bid may already be beaten by a proxy, then {@code leadingBid} is that proxy's bid.
+ */
+@Getter
+public class BidOutcome {
+    private final AcceptedBid bid;
+    private final AcceptedBid leadingBid;
+    private final BidRejection rejection;
+    private final long minimumBid;
+    // Completes once the bid is in the database, see BidLog
+    private final CompletableFuture<Void> persisted;
+
+    private BidOutcome(AcceptedBid bid, AcceptedBid leadingBid, BidRejection rejection, long minimumBid,
+                       CompletableFuture<Void> persisted) {
+        this.bid = bid;
+        this.leadingBid = leadingBid;
+        this.rejection = rejection;
+        this.minimumBid = minimumBid;
+        this.persisted = persisted;
+    }
+
+    public static BidOutcome accepted(AcceptedBid bid, AcceptedBid leadingBid, CompletableFuture<Void> persisted) {
+        return new BidOutcome(bid, leadingBid, null, leadingBid.getAmount(), persisted);
+    }
+
+    public static BidOutcome rejected(BidRejection rejection, long minimumBid) {
+        return new BidOutcome(null, null, rejection, minimumBid, null);
+    }
+
+    public boolean isAccepted() {
+        return bid != null;
+    }
+
+    public boolean isLeading() {
+        return bid != null && bid == leadingBid;
+    }
+}
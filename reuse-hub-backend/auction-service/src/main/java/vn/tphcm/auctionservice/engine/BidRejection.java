@@ -0,0 +1,11 @@
+package vn.tphcm.auctionservice.engine;
+
+public enum BidRejection {
+    AUCTION_NOT_FOUND,  // Không có phiên đấu giá
+    NOT_ACTIVE,         // Phiên chưa bắt đầu, đã đóng hoặc đã hủy
+    ENDED,              // Đã quá thời gian kết thúc
+    OWN_AUCTION,        // Người bán tự đấu giá
+    TOO_LOW,            // Thấp hơn giá tối thiểu
+    BUSY,               // Sequencer quá tải hoặc quá thời gian chờ
+    OWNED_ELSEWHERE     // Sổ lệnh của phiên đang do máy chủ khác giữ
+}
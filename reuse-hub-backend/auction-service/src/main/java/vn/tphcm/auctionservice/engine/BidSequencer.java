@@ -0,0 +1,168 @@
+package vn.tphcm.auctionservice.engine;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Single-writer sequencer for auction order books. Auctions are partitioned by id over a fixed number of threads;
+ * each partition owns the books of its auctions and runs their commands one at a time, in arrival order.
+ * A book is loaded on the partition thread the first time one of its commands runs.
+ */
+@Slf4j(topic = "BID-SEQUENCER")
+public class BidSequencer implements AutoCloseable {
+    private final Partition[] partitions;
+    private final Function<String, AuctionOrderBook> loader;
+    private volatile Consumer<String> evictionListener = auctionId -> {
+    };
+
+    public BidSequencer(int partitionCount, int queueCapacity, Function<String, AuctionOrderBook> loader) {
+        this.loader = loader;
+        this.partitions = new Partition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new Partition(i, queueCapacity);
+        }
+        log.info("Started {} sequencer partitions, queue capacity {}", partitionCount, queueCapacity);
+    }
+
+    /**
+     * Runs the command on the auction's partition. The command receives {@code null} when the auction does not exist.
+     *
+     * @return completes with the command's result, or exceptionally with {@link RejectedExecutionException} when the
+     * partition queue is full
+     */
+    public <T> CompletableFuture<T> submit(String auctionId, Function<AuctionOrderBook, T> command) {
+        Partition partition = partitionOf(auctionId);
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        try {
+            partition.executor.execute(() -> {
+                try {
+                    result.complete(command.apply(partition.book(auctionId)));
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+
+        return result;
+    }
+
+    /**
+     * Drops the in-memory book, the next command reloads it from the database.
+     */
+    public CompletableFuture<Void> evict(String auctionId) {
+        return evict(auctionId, () -> {
+        });
+    }
+
+    /**
+     * Drops the in-memory book and then runs {@code afterEvict} on the partition thread, before any later command.
+     */
+    public CompletableFuture<Void> evict(String auctionId, Runnable afterEvict) {
+        Partition partition = partitionOf(auctionId);
+
+        return CompletableFuture.runAsync(() -> {
+            partition.remove(auctionId);
+            afterEvict.run();
+        }, partition.executor);
+    }
+
+    /**
+     * Drops every book unused for {@code idleMs} that {@code evictable} allows to go.
+     */
+    public void evictIdle(long idleMs, Predicate<AuctionOrderBook> evictable) {
+        for (Partition partition : partitions) {
+            try {
+                partition.executor.execute(() -> partition.evictIdle(System.currentTimeMillis() - idleMs, evictable));
+            } catch (RejectedExecutionException e) {
+                log.debug("Sequencer partition {} is full, skipping idle eviction", partition.index);
+            }
+        }
+    }
+
+    /**
+     * Called on the partition thread with the auction id whenever a loaded book is dropped.
+     */
+    public void onEviction(Consumer<String> listener) {
+        this.evictionListener = listener;
+    }
+
+    @Override
+    public void close() {
+        for (Partition partition : partitions) {
+            partition.executor.shutdown();
+        }
+        for (Partition partition : partitions) {
+            try {
+                if (!partition.executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                    log.warn("Sequencer partition {} did not drain in time", partition.index);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private Partition partitionOf(String auctionId) {
+        return partitions[Math.floorMod(auctionId.hashCode(), partitions.length)];
+    }
+
+    private class Partition {
+        private final int index;
+        private final ThreadPoolExecutor executor;
+        // Confined to the partition thread
+        private final Map<String, AuctionOrderBook> books = new HashMap<>();
+        private final Map<String, Long> lastUsedMs = new HashMap<>();
+
+        Partition(int index, int queueCapacity) {
+            this.index = index;
+            this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    new CustomizableThreadFactory("auction-sequencer-" + index + "-"));
+        }
+
+        AuctionOrderBook book(String auctionId) {
+            AuctionOrderBook book = books.get(auctionId);
+            if (book == null) {
+                book = loader.apply(auctionId);
+                if (book != null) {
+                    books.put(auctionId, book);
+                }
+            }
+            if (book != null) {
+                lastUsedMs.put(auctionId, System.currentTimeMillis());
+            }
+            return book;
+        }
+
+        void remove(String auctionId) {
+            lastUsedMs.remove(auctionId);
+            if (books.remove(auctionId) != null) {
+                evictionListener.accept(auctionId);
+            }
+        }
+
+        void evictIdle(long unusedSinceMs, Predicate<AuctionOrderBook> evictable) {
+            Iterator<Map.Entry<String, AuctionOrderBook>> iterator = books.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, AuctionOrderBook> entry = iterator.next();
+                if (lastUsedMs.getOrDefault(entry.getKey(), 0L) < unusedSinceMs && evictable.test(entry.getValue())) {
+                    iterator.remove();
+                    lastUsedMs.remove(entry.getKey());
+                    evictionListener.accept(entry.getKey());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package vn.tphcm.auctionservice.engine;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.tphcm.auctionservice.commons.BidStatus;
+import vn.tphcm.auctionservice.models.Auction;
+import vn.tphcm.auctionservice.models.Bid;
+import vn.tphcm.auctionservice.services.MessageProducer;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Writes the bid log to tbl_bids with group commit: one writer thread drains whatever accumulated, inserts the bids,
+ * moves every touched auction to its latest price, bid count and soft-close end time and marks the bids below it
+ * OUTBID, all in one transaction, so a burst of bids costs one auction row update per batch rather than one lock each.
+ * Bid, outbid and extension events go out after the commit, in log order.
+ * <p>
+ * (auction_id, sequence) is unique. On the first sequence of an auction that was already stored, the batch is rolled
+ * back and written again without that entry and the auction's later ones, and the auction is fenced: everything its
+ * stale book still appends is refused until the reloaded book resumes it. So a second writer never stores bids behind
+ * newer ones, and MARK_OUTBID never demotes a real leading bid.
+ * <p>
+ * Only transient and recoverable failures are retried. Any other failure cannot go away by itself, so the batch is
+ * written again auction by auction: the entries of an auction that still fails are refused and the auction is fenced
+ * like after a conflict, its book is reloaded from what is stored, and the other auctions keep going.
+ */
+@Component
+@Slf4j(topic = "BID-LOG")
+public class JdbcBidLog implements BidLog, DisposableBean {
+    private static final String INSERT_BID = """
+            INSERT INTO tbl_bids (id, auction_id, sequence, bidder_id, amount, max_auto_bid, status, is_auto_bid,
+                                  created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (auction_id, sequence) DO NOTHING
+            """;
+
+    private static final String ADVANCE_AUCTION = """
+            UPDATE tbl_auctions
+            SET current_price = GREATEST(current_price, ?),
+                bid_count     = GREATEST(COALESCE(bid_count, 0), ?),
+                end_time      = GREATEST(end_time, COALESCE(?, end_time)),
+                updated_at    = ?
+            WHERE id = ?
+            """;
+
+    private static final String MARK_OUTBID = """
+            UPDATE tbl_bids
+            SET status = 'OUTBID', updated_at = ?
+            WHERE auction_id = ? AND status = 'ACTIVE' AND (sequence IS NULL OR sequence < ?)
+            """;
+
+    private static final long MAX_RETRY_BACKOFF_MS = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MessageProducer messageProducer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    private final LinkedBlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    // Auctions whose book turned out stale, only touched by the writer thread
+    private final Set<String> fenced = new HashSet<>();
+    private final Thread writer;
+    private volatile boolean running = true;
+    private volatile Consumer<String> conflictListener = auctionId -> {
+    };
+
+    public JdbcBidLog(JdbcTemplate jdbcTemplate,
+                      PlatformTransactionManager transactionManager,
+                      MessageProducer messageProducer,
+                      ApplicationEventPublisher eventPublisher,
+                      @Value("${auction.engine.log.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.messageProducer = messageProducer;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+
+        this.writer = new Thread(this::run, "auction-bid-log");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public CompletableFuture<Void> append(AcceptedBid bid) {
+        Entry entry = new Entry(bid);
+        if (!running) {
+            entry.persisted.completeExceptionally(new IllegalStateException("Bid log is shutting down"));
+            return entry.persisted;
+        }
+
+        queue.add(entry);
+        return entry.persisted;
+    }
+
+    @Override
+    public void onSequenceConflict(Consumer<String> listener) {
+        this.conflictListener = listener;
+    }
+
+    @Override
+    public void resume(String auctionId) {
+        queue.add(new Entry(auctionId));
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        if (!queue.isEmpty()) {
+            log.error("Bid log stopped with {} bids not written", queue.size());
+        }
+    }
+
+    private void run() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeWithRetry(unfenced(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Bid log writer failed on a batch of {}", batch.size(), e);
+                batch.forEach(entry -> entry.persisted.completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // The books are already ahead of the database, so a batch that failed for a passing reason is retried, not dropped
+    private void writeWithRetry(List<Entry> batch) throws InterruptedException {
+        long backoffMs = 100;
+
+        while (true) {
+            try {
+                write(batch);
+                return;
+            } catch (TransientDataAccessException | RecoverableDataAccessException e) {
+                if (!running) {
+                    throw e;
+                }
+                log.error("Could not write {} bids, retrying in {} ms: {}", batch.size(), backoffMs, e.getMessage());
+                Thread.sleep(backoffMs);
+                backoffMs = Math.min(backoffMs * 2, MAX_RETRY_BACKOFF_MS);
+            } catch (DataAccessException e) {
+                writePerAuction(batch, e);
+                return;
+            }
+        }
+    }
+
+    // Narrows a failure that a retry cannot fix down to the auctions causing it
+    private void writePerAuction(List<Entry> batch, DataAccessException failure) throws InterruptedException {
+        Map<String, List<Entry>> perAuction = new LinkedHashMap<>();
+        for (Entry entry : batch) {
+            perAuction.computeIfAbsent(entry.bid.getAuctionId(), auctionId -> new ArrayList<>()).add(entry);
+        }
+
+        if (perAuction.size() == 1) {
+            String auctionId = batch.get(0).bid.getAuctionId();
+            log.error("Could not write {} bids of auction {}, reloading its book: {}", batch.size(), auctionId,
+                    failure.getMessage());
+            fenced.add(auctionId);
+            conflictListener.accept(auctionId);
+            batch.forEach(entry -> entry.persisted.completeExceptionally(new IllegalStateException(
+                    "Bids of auction " + auctionId + " could not be stored", failure)));
+            return;
+        }
+
+        for (List<Entry> entries : perAuction.values()) {
+            writeWithRetry(entries);
+        }
+    }
+
+    // Queue order matters here: entries of a fenced auction ahead of its resume marker come from the stale book
+    private List<Entry> unfenced(List<Entry> batch) {
+        List<Entry> entries = new ArrayList<>(batch.size());
+        for (Entry entry : batch) {
+            if (entry.bid == null) {
+                fenced.remove(entry.resumedAuctionId);
+            } else if (fenced.contains(entry.bid.getAuctionId())) {
+                entry.persisted.completeExceptionally(new IllegalStateException(
+                        "Auction " + entry.bid.getAuctionId() + " is reloading after a sequence conflict"));
+            } else {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    // Drops conflicting entries from the list as it goes, so a retry after a failure only writes what is left
+    private void write(List<Entry> entries) {
+        while (!entries.isEmpty()) {
+            int[] inserted = transactionTemplate.execute(status -> {
+                int[] counts = insert(entries);
+                if (firstConflicts(entries, counts).isEmpty()) {
+                    advance(entries);
+                } else {
+                    status.setRollbackOnly();
+                }
+                return counts;
+            });
+
+            Map<String, Integer> conflicts = firstConflicts(entries, inserted);
+            if (conflicts.isEmpty()) {
+                break;
+            }
+
+            // Fenced before anything is refused, so the reload starts while the callers are told
+            fenced.addAll(conflicts.keySet());
+            conflicts.keySet().forEach(conflictListener);
+            for (int i = entries.size() - 1; i >= 0; i--) {
+                AcceptedBid bid = entries.get(i).bid;
+                Integer firstConflict = conflicts.get(bid.getAuctionId());
+                if (firstConflict != null && i >= firstConflict) {
+                    entries.remove(i).persisted.completeExceptionally(new IllegalStateException(i == firstConflict
+                            ? "Sequence " + bid.getSequence() + " of auction " + bid.getAuctionId() + " was already stored"
+                            : "Auction " + bid.getAuctionId() + " is reloading after a sequence conflict"));
+                }
+            }
+        }
+
+        for (Entry entry : entries) {
+            entry.persisted.complete(null);
+            publish(entry.bid);
+        }
+    }
+
+    private int[] insert(List<Entry> entries) {
+        return jdbcTemplate.batchUpdate(INSERT_BID, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                AcceptedBid bid = entries.get(i).bid;
+                Timestamp placedAt = Timestamp.valueOf(bid.getPlacedAt());
+                ps.setString(1, bid.getBidId());
+                ps.setString(2, bid.getAuctionId());
+                ps.setLong(3, bid.getSequence());
+                ps.setString(4, bid.getBidderId());
+                ps.setLong(5, bid.getAmount());
+                ps.setObject(6, bid.getMaxAutoBid());
+                ps.setString(7, bid.getStatus().name());
+                ps.setBoolean(8, bid.isAutoBid());
+                ps.setTimestamp(9, placedAt);
+                ps.setTimestamp(10, placedAt);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return entries.size();
+            }
+        });
+    }
+
+    private void advance(List<Entry> entries) {
+        List<Advance> advances = advancesPerAuction(entries);
+        jdbcTemplate.batchUpdate(ADVANCE_AUCTION, advances, advances.size(), (ps, advance) -> {
+            ps.setLong(1, advance.price());
+            ps.setInt(2, advance.bidCount());
+            ps.setTimestamp(3, advance.endTime() != null ? Timestamp.valueOf(advance.endTime()) : null);
+            ps.setTimestamp(4, Timestamp.valueOf(advance.placedAt()));
+            ps.setString(5, advance.auctionId());
+        });
+        List<Advance> leading = advances.stream().filter(advance -> advance.leadingSequence() > 0).toList();
+        jdbcTemplate.batchUpdate(MARK_OUTBID, leading, leading.size(), (ps, advance) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(advance.placedAt()));
+            ps.setString(2, advance.auctionId());
+            ps.setLong(3, advance.leadingSequence());
+        });
+    }
+
+    // Index of the first entry per auction whose sequence was already stored
+    private static Map<String, Integer> firstConflicts(List<Entry> entries, int[] inserted) {
+        Map<String, Integer> conflicts = new HashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (!isInserted(inserted, i)) {
+                conflicts.putIfAbsent(entries.get(i).bid.getAuctionId(), i);
+            }
+        }
+        return conflicts;
+    }
+
+    // A batch may end between a bid and the proxy answer to it, so the price only moves with ACTIVE bids
+    private static List<Advance> advancesPerAuction(List<Entry> entries) {
+        Map<String, Advance> advances = new LinkedHashMap<>();
+        for (Entry entry : entries) {
+            AcceptedBid bid = entry.bid;
+            boolean leading = bid.getStatus() == BidStatus.ACTIVE;
+            Advance advance = new Advance(bid.getAuctionId(), leading ? bid.getAmount() : 0, bid.getBidCount(),
+                    leading ? bid.getSequence() : 0, bid.getExtendedEndTime(), bid.getPlacedAt());
+            advances.merge(bid.getAuctionId(), advance, Advance::merge);
+        }
+        return new ArrayList<>(advances.values());
+    }
+
+    // Rewritten batch inserts report SUCCESS_NO_INFO instead of a row count
+    private static boolean isInserted(int[] counts, int i) {
+        return counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO;
+    }
+
+    private void publish(AcceptedBid accepted) {
+        Auction auction = Auction.builder()
+                .title(accepted.getAuctionTitle())
+                .currentPrice(accepted.getAmount())
+                .bidCount(accepted.getBidCount())
+                .build();
+        auction.setId(accepted.getAuctionId());
+
+        Bid bid = Bid.builder()
+                .bidderId(accepted.getBidderId())
+                .amount(accepted.getAmount())
+                .isAutoBid(accepted.isAutoBid())
+                .status(accepted.getStatus())
+                .build();
+        bid.setId(accepted.getBidId());
+
+        if (accepted.getOutbidBidderId() != null) {
+            messageProducer.sendOutbidNotification(auction, accepted.getOutbidBidderId(), accepted.getAmount());
+        }
+        // A bid beaten by a proxy in the same step is only history; watchers see the proxy's answer right after it
+        if (accepted.getStatus() == BidStatus.ACTIVE) {
+            messageProducer.sendBidPlacedEvent(auction, bid);
+        }
+        if (accepted.getExtendedEndTime() != null) {
+            eventPublisher.publishEvent(new AuctionExtendedEvent(accepted.getAuctionId(), accepted.getExtendedEndTime(),
+                    accepted.getBidId()));
+        }
+    }
+
+    private record Advance(String auctionId, long price, int bidCount, long leadingSequence, LocalDateTime endTime,
+                           LocalDateTime placedAt) {
+        Advance merge(Advance later) {
+            return new Advance(auctionId, Math.max(price, later.price), Math.max(bidCount, later.bidCount),
+                    Math.max(leadingSequence, later.leadingSequence), later.endTime != null ? later.endTime : endTime,
+                    later.placedAt);
+        }
+    }
+
+    // A bid to write, or the marker that resumes a fenced auction
+    private static final class Entry {
+        private final AcceptedBid bid;
+        private final String resumedAuctionId;
+        private final CompletableFuture<Void> persisted = new CompletableFuture<>();
+
+        private Entry(AcceptedBid bid) {
+            this.bid = bid;
+            this.resumedAuctionId = null;
+        }
+
+        private Entry(String resumedAuctionId) {
+            this.bid = null;
+            this.resumedAuctionId = resumedAuctionId;
+        }
+    }
+}
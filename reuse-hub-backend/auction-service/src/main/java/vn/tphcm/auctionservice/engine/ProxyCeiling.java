@@ -0,0 +1,22 @@
+package vn.tphcm.auctionservice.engine;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Highest amount a bidder lets the engine bid for them: their {@code maxAutoBid}, or the bid itself without one.
+ */
+@Getter
+@AllArgsConstructor
+public class ProxyCeiling {
+    private final String bidderId;
+
+    private final long ceiling;
+
+    // Log sequence of the bid that set this ceiling; of two equal ceilings the earlier one wins
+    private final long sequence;
+
+    boolean beats(ProxyCeiling other) {
+        return ceiling > other.ceiling || (ceiling == other.ceiling && sequence < other.sequence);
+    }
+}
@@ -45,7 +45,8 @@ public class Auction extends AbstractEntity<String> implements Serializable {
     @Column(name = "starting_price", nullable = false)
     private Long startingPrice;
 
-    @Column(name = "current_price", nullable = false)
+    // Price and bid count follow the bid log (JdbcBidLog), a stale entity must never write them back
+    @Column(name = "current_price", nullable = false, updatable = false)
     private Long currentPrice;
 
     @Column(name = "bid_increment", nullable = false)
@@ -63,12 +64,19 @@ public class Auction extends AbstractEntity<String> implements Serializable {
     @Column(name = "end_time", nullable = false)
     private LocalDateTime endTime;
 
+    // Soft close: a bid within this many seconds of the end keeps the auction open for the extension, null = hard close
+    @Column(name = "soft_close_window_seconds")
+    private Integer softCloseWindowSeconds;
+
+    @Column(name = "soft_close_extension_seconds")
+    private Integer softCloseExtensionSeconds;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     @Builder.Default
     private AuctionStatus status = AuctionStatus.PENDING;
 
-    @Column(name = "bid_count")
+    @Column(name = "bid_count", updatable = false)
     @Builder.Default
     private Integer bidCount = 0;
 
@@ -15,6 +15,8 @@ import java.io.Serializable;
         @Index(name = "idx_bid_auction", columnList = "auction_id"),
         @Index(name = "idx_bid_bidder", columnList = "bidderId"),
         @Index(name = "idx_bid_amount", columnList = "amount")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_bid_auction_sequence", columnNames = {"auction_id", "sequence"})
 })
 @Builder
 public class Bid extends AbstractEntity<String> implements Serializable {
@@ -23,6 +25,10 @@ public class Bid extends AbstractEntity<String> implements Serializable {
     @JoinColumn(name = "auction_id", nullable = false)
     private Auction auction;
 
+    // Position in the auction's bid log, assigned by the sequencer
+    @Column(name = "sequence")
+    private Long sequence;
+
     @Column(name = "bidder_id", nullable = false)
     private String bidderId;
 
@@ -1,8 +1,11 @@
 package vn.tphcm.auctionservice.repositories;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -28,6 +31,19 @@ public interface AuctionRepository extends JpaRepository<Auction, String> {
     @Query("SELECT a FROM Auction a WHERE a.status = :status AND a.startTime <= :now")
     List<Auction> findAuctionsToStart(@Param("status") AuctionStatus status, @Param("now") LocalDateTime now);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Auction a WHERE a.id = :auctionId")
+    Optional<Auction> findByIdForUpdate(@Param("auctionId") String auctionId);
+
+    // Overdue deadlines included, so the same query serves the startup catch-up
+    @Query("""
+            SELECT a.id AS id, a.status AS status, a.startTime AS startTime, a.endTime AS endTime
+            FROM Auction a
+            WHERE (a.status = 'PENDING' AND a.startTime <= :horizon)
+               OR (a.status IN ('PENDING', 'ACTIVE') AND a.endTime <= :horizon)
+            """)
+    List<AuctionDeadlines> findDeadlinesBefore(@Param("horizon") LocalDateTime horizon);
+
     @Query("SELECT a FROM Auction a WHERE a.status = 'ACTIVE' ORDER BY a.endTime ASC")
     Page<Auction> findActiveAuctionsEndingSoon(Pageable pageable);
 
@@ -39,9 +55,24 @@ public interface AuctionRepository extends JpaRepository<Auction, String> {
 
     Optional<Auction> findByItemId(String itemId);
 
+    // current_price is not updatable through the entity, see Auction#currentPrice
+    @Modifying
+    @Query("UPDATE Auction a SET a.currentPrice = :price WHERE a.id = :auctionId")
+    int updateCurrentPrice(@Param("auctionId") String auctionId, @Param("price") Long price);
+
     @Query("SELECT DISTINCT a FROM Auction a JOIN a.bids b WHERE b.bidderId = :userId")
     Page<Auction> findAuctionsUserBidOn(@Param("userId") String userId, Pageable pageable);
 
     @Query("SELECT a FROM Auction a WHERE a.winnerId = :userId")
     Page<Auction> findWonAuctions(@Param("userId") String userId, Pageable pageable);
+
+    interface AuctionDeadlines {
+        String getId();
+
+        AuctionStatus getStatus();
+
+        LocalDateTime getStartTime();
+
+        LocalDateTime getEndTime();
+    }
 }
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import vn.tphcm.auctionservice.engine.ProxyCeiling;
 import vn.tphcm.auctionservice.models.Bid;
 
 import java.util.List;
@@ -18,7 +19,8 @@ public interface BidRepository extends JpaRepository<Bid, String> {
 
     List<Bid> findByAuctionIdOrderByAmountDesc(String auctionId);
 
-    @Query("SELECT b FROM Bid b WHERE b.auction.id = :auctionId ORDER BY b.amount DESC LIMIT 1")
+    // A proxy answering at the incoming bid's own amount wins the tie, and it comes later in the log
+    @Query("SELECT b FROM Bid b WHERE b.auction.id = :auctionId ORDER BY b.amount DESC, b.sequence DESC NULLS LAST LIMIT 1")
     Optional<Bid> findHighestBid(@Param("auctionId") String auctionId);
 
     @Query("SELECT b FROM Bid b WHERE b.auction.id = :auctionId AND b.bidderId = :bidderId ORDER BY b.amount DESC LIMIT 1")
@@ -26,6 +28,18 @@ public interface BidRepository extends JpaRepository<Bid, String> {
 
     List<Bid> findByBidderId(String bidderId);
 
+    @Query("SELECT COALESCE(MAX(b.sequence), 0) FROM Bid b WHERE b.auction.id = :auctionId")
+    long findMaxSequence(@Param("auctionId") String auctionId);
+
+    // Every ceiling at or above the floor in log order; bids from before the log (no sequence) count as earliest
+    @Query("""
+            SELECT new vn.tphcm.auctionservice.engine.ProxyCeiling(b.bidderId, COALESCE(b.maxAutoBid, b.amount), COALESCE(b.sequence, 0))
+            FROM Bid b
+            WHERE b.auction.id = :auctionId AND COALESCE(b.maxAutoBid, b.amount) >= :floor
+            ORDER BY COALESCE(b.sequence, 0)
+            """)
+    List<ProxyCeiling> findProxyCeilings(@Param("auctionId") String auctionId, @Param("floor") long floor);
+
     @Query("SELECT COUNT(DISTINCT b.bidderId) FROM Bid b WHERE b.auction.id = :auctionId")
     Integer countUniqueBidders(@Param("auctionId") String auctionId);
 
@@ -0,0 +1,13 @@
+package vn.tphcm.auctionservice.scheduler;
+
+import vn.tphcm.auctionservice.commons.AuctionStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published inside the transaction that creates an auction or moves its start or end time;
+ * {@link AuctionScheduler} puts the new deadlines on its timing wheel after the commit.
+ */
+public record AuctionDeadlinesChangedEvent(String auctionId, AuctionStatus status, LocalDateTime startTime,
+                                           LocalDateTime endTime) {
+}
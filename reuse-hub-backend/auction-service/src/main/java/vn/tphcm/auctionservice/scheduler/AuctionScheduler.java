@@ -1,33 +1,242 @@
 package vn.tphcm.auctionservice.scheduler;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import vn.tphcm.auctionservice.commons.AuctionStatus;
+import vn.tphcm.auctionservice.engine.AuctionExtendedEvent;
+import vn.tphcm.auctionservice.engine.AuctionOwnership;
+import vn.tphcm.auctionservice.repositories.AuctionRepository;
 import vn.tphcm.auctionservice.services.AuctionService;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+/**
+ * Starts and ends auctions at their deadlines. Upcoming deadlines sit on a {@link TimingWheel} and fire within one tick;
+ * new auctions are added after their transaction commits, and a periodic refresh loads what other instances created.
+ * The refresh also runs at startup as catch-up, which fires everything that came due while no instance was running.
+ * <p>
+ * Soft-close extensions move the end deadline as soon as the extending bid is persisted; until then the old deadline
+ * fires harmlessly, because ending re-checks the end time in the order book. The instance that persisted the bid copies
+ * the new deadline to the others through a RabbitMQ fanout, so they do not wait for the next refresh.
+ * <p>
+ * Every instance schedules every deadline. Ending needs the order book, so while another instance holds the auction
+ * the transition is left to that instance and only checked again once its ownership lease could have expired. Among
+ * the rest, a Redis lease per transition lets only one of them run it, and the row lock taken by the transition itself
+ * keeps it single even when Redis is unreachable.
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j(topic = "AUCTION-SCHEDULER")
-public class AuctionScheduler {
+public class AuctionScheduler implements DisposableBean {
+    private static final RedisScript<Long> RELEASE_LEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private static final long RETRY_DELAY_MS = 5000;
+
+    private static final String AUCTION_ID_HEADER = "auction-id";
+    private static final String END_TIME_HEADER = "end-time-ms";
+    private static final String ORIGIN_HEADER = "origin";
+
+    private enum Transition {START, END}
 
     private final AuctionService auctionService;
+    private final AuctionRepository auctionRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final AuctionOwnership ownership;
+    private final RabbitTemplate rabbitTemplate;
+    private final String fanoutExchange;
+    private final ExecutorService workers;
+    private final TimingWheel wheel;
+    private final long horizonMs;
+    private final Duration leaseTtl;
+    private final String instanceId = UUID.randomUUID().toString();
 
-    /**
-     * Check and process ended auctions every 30 seconds
-     */
-    @Scheduled(fixedRate = 30000)
-    public void processEndedAuctions() {
-        log.debug("Running scheduled task: processEndedAuctions");
-        auctionService.processEndedAuctions();
+    // One pending timeout per auction and transition, so refreshes do not stack duplicates
+    private final Map<String, TimingWheel.Timeout> scheduled = new ConcurrentHashMap<>();
+
+    public AuctionScheduler(AuctionService auctionService,
+                            AuctionRepository auctionRepository,
+                            StringRedisTemplate redisTemplate,
+                            AuctionOwnership ownership,
+                            RabbitTemplate rabbitTemplate,
+                            @Value("${auction.scheduler.fanout-exchange:auction.scheduler.fanout}") String fanoutExchange,
+                            @Value("${auction.scheduler.tick-ms:50}") long tickMs,
+                            @Value("${auction.scheduler.horizon-ms:600000}") long horizonMs,
+                            @Value("${auction.scheduler.lease-ms:30000}") long leaseMs,
+                            @Value("${auction.scheduler.workers:4}") int workerCount) {
+        this.auctionService = auctionService;
+        this.auctionRepository = auctionRepository;
+        this.redisTemplate = redisTemplate;
+        this.ownership = ownership;
+        this.rabbitTemplate = rabbitTemplate;
+        this.fanoutExchange = fanoutExchange;
+        this.horizonMs = horizonMs;
+        this.leaseTtl = Duration.ofMillis(leaseMs);
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("auction-transition-"));
+        // 512 slots per level: 25.6 s, 3.6 h, 77 days, then far beyond any auction
+        this.wheel = new TimingWheel("auction-timing-wheel", tickMs, 512, 4, workers, System.currentTimeMillis());
+        this.wheel.start();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUp() {
+        log.info("Catching up on auction deadlines missed while stopped");
+        refresh();
     }
 
     /**
-     * Check and activate pending auctions every minute
+     * Loads every start and end due within the horizon, overdue ones included, onto the wheel.
      */
-    @Scheduled(fixedRate = 60000)
-    public void processStartingAuctions() {
-        log.debug("Running scheduled task: processStartingAuctions");
-        auctionService.processStartingAuctions();
+    @Scheduled(fixedDelayString = "${auction.scheduler.refresh-interval-ms:60000}",
+            initialDelayString = "${auction.scheduler.refresh-interval-ms:60000}")
+    public void refresh() {
+        List<AuctionRepository.AuctionDeadlines> deadlines =
+                auctionRepository.findDeadlinesBefore(LocalDateTime.now().plus(Duration.ofMillis(horizonMs)));
+
+        for (AuctionRepository.AuctionDeadlines deadline : deadlines) {
+            schedule(deadline.getId(), deadline.getStatus(), deadline.getStartTime(), deadline.getEndTime());
+        }
+        log.debug("Loaded {} auction deadlines, {} pending on the wheel", deadlines.size(), scheduled.size());
+    }
+
+    @TransactionalEventListener
+    public void onDeadlinesChanged(AuctionDeadlinesChangedEvent event) {
+        schedule(event.auctionId(), event.status(), event.startTime(), event.endTime());
+    }
+
+    // Raised by the bid log after commit, outside any transaction
+    @EventListener
+    public void onAuctionExtended(AuctionExtendedEvent event) {
+        long endTimeMs = toEpochMs(event.endTime());
+        schedule(event.auctionId(), Transition.END, endTimeMs);
+
+        MessageProperties properties = new MessageProperties();
+        properties.setHeader(AUCTION_ID_HEADER, event.auctionId());
+        properties.setHeader(END_TIME_HEADER, endTimeMs);
+        properties.setHeader(ORIGIN_HEADER, instanceId);
+        try {
+            rabbitTemplate.send(fanoutExchange, "", new Message(new byte[0], properties));
+        } catch (AmqpException e) {
+            // The other instances pick the new end time up with their next refresh
+            log.warn("Could not share the extension of auction {}: {}", event.auctionId(), e.getMessage());
+        }
+    }
+
+    @RabbitListener(queues = "#{auctionSchedulerQueue.name}")
+    public void onRemoteExtension(Message message) {
+        MessageProperties properties = message.getMessageProperties();
+        if (instanceId.equals(properties.getHeader(ORIGIN_HEADER))) {
+            return;
+        }
+        Number endTimeMs = properties.getHeader(END_TIME_HEADER);
+        schedule(properties.getHeader(AUCTION_ID_HEADER), Transition.END, endTimeMs.longValue());
+    }
+
+    @Override
+    public void destroy() {
+        wheel.close();
+        workers.shutdown();
+    }
+
+    private void schedule(String auctionId, AuctionStatus status, LocalDateTime startTime, LocalDateTime endTime) {
+        if (status == AuctionStatus.PENDING) {
+            schedule(auctionId, Transition.START, toEpochMs(startTime));
+        }
+        if (status == AuctionStatus.PENDING || status == AuctionStatus.ACTIVE) {
+            schedule(auctionId, Transition.END, toEpochMs(endTime));
+        }
+    }
+
+    private void schedule(String auctionId, Transition transition, long deadlineMs) {
+        scheduled.compute(key(auctionId, transition), (key, current) -> {
+            if (current != null && !current.isCancelled() && current.getDeadlineMs() == deadlineMs) {
+                return current;
+            }
+            if (current != null) {
+                current.cancel();
+            }
+            return wheel.schedule(() -> fire(auctionId, transition, deadlineMs), deadlineMs);
+        });
+    }
+
+    private void fire(String auctionId, Transition transition, long deadlineMs) {
+        scheduled.computeIfPresent(key(auctionId, transition),
+                (key, current) -> current.getDeadlineMs() == deadlineMs ? null : current);
+
+        if (ownership.isOwnedElsewhere(auctionId)) {
+            log.debug("{} of auction {} is left to the instance holding its book", transition, auctionId);
+            schedule(auctionId, transition, System.currentTimeMillis() + leaseTtl.toMillis());
+            return;
+        }
+
+        // The deadline is part of the lease, so a moved deadline is not blocked by the lease of the old one
+        String lease = "auction:lease:" + key(auctionId, transition) + ":" + deadlineMs;
+        if (!acquireLease(lease)) {
+            log.debug("{} of auction {} is handled by another instance", transition, auctionId);
+            return;
+        }
+
+        try {
+            boolean changed = transition == Transition.END
+                    ? auctionService.endAuction(auctionId)
+                    : auctionService.startAuction(auctionId);
+
+            if (changed) {
+                log.info("{} of auction {} ran {} ms after its deadline", transition, auctionId,
+                        System.currentTimeMillis() - deadlineMs);
+            }
+        } catch (RuntimeException e) {
+            log.error("{} of auction {} failed, retrying in {} ms", transition, auctionId, RETRY_DELAY_MS, e);
+            releaseLease(lease);
+            schedule(auctionId, transition, System.currentTimeMillis() + RETRY_DELAY_MS);
+        }
+    }
+
+    private boolean acquireLease(String lease) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lease, instanceId, leaseTtl));
+        } catch (DataAccessException e) {
+            log.warn("Could not take lease {}, relying on the row lock: {}", lease, e.getMessage());
+            return true;
+        }
+    }
+
+    private void releaseLease(String lease) {
+        try {
+            redisTemplate.execute(RELEASE_LEASE, List.of(lease), instanceId);
+        } catch (DataAccessException e) {
+            log.warn("Could not release lease {}, it expires in {}: {}", lease, leaseTtl, e.getMessage());
+        }
+    }
+
+    private static String key(String auctionId, Transition transition) {
+        return auctionId + ":" + transition;
+    }
+
+    private static long toEpochMs(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
     }
 }
@@ -0,0 +1,212 @@
+package vn.tphcm.auctionservice.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hierarchical timing wheel: level 0 has one slot per tick, every higher level one slot per full turn of the level
+ * below. Scheduling and cancelling are O(1); a timeout moves down one level each time its slot comes up, and fires on
+ * the first tick at or after its deadline, never before.
+ * <p>
+ * One ticker thread owns the slots. Other threads only enqueue, and expired tasks run on the given executor so a slow
+ * task never holds up the wheel.
+ */
+@Slf4j(topic = "TIMING-WHEEL")
+public class TimingWheel implements AutoCloseable {
+    private final String name;
+    private final long tickMs;
+    private final int bits;
+    private final int mask;
+    private final int levels;
+    private final Executor executor;
+
+    // [level][slot], only touched by the ticker thread (or the caller of advanceTo in tests)
+    private final ArrayDeque<Timeout>[][] slots;
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private long currentTick;
+
+    private volatile boolean running;
+    private Thread ticker;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(String name, long tickMs, int wheelSize, int levels, Executor executor, long startMs) {
+        if (Integer.bitCount(wheelSize) != 1 || wheelSize < 2) {
+            throw new IllegalArgumentException("Wheel size must be a power of two, got " + wheelSize);
+        }
+        this.name = name;
+        this.tickMs = tickMs;
+        this.bits = Integer.numberOfTrailingZeros(wheelSize);
+        this.mask = wheelSize - 1;
+        this.levels = levels;
+        this.executor = executor;
+        this.currentTick = startMs / tickMs;
+
+        this.slots = new ArrayDeque[levels][wheelSize];
+        for (int level = 0; level < levels; level++) {
+            for (int slot = 0; slot < wheelSize; slot++) {
+                slots[level][slot] = new ArrayDeque<>();
+            }
+        }
+    }
+
+    /**
+     * Runs the task on the first tick at or after {@code deadlineMs} (epoch millis); a deadline in the past fires on
+     * the next tick.
+     */
+    public Timeout schedule(Runnable task, long deadlineMs) {
+        // Rounded up so a timeout never fires before its deadline
+        Timeout timeout = new Timeout(task, deadlineMs, Math.floorDiv(deadlineMs + tickMs - 1, tickMs));
+        pending.add(timeout);
+        return timeout;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        ticker = new Thread(this::run, name);
+        ticker.setDaemon(true);
+        ticker.start();
+        log.info("Timing wheel {} started: tick {} ms, {} levels of {} slots", name, tickMs, levels, mask + 1);
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (ticker != null) {
+            ticker.interrupt();
+        }
+    }
+
+    /**
+     * Processes every tick up to {@code nowMs}. Called by the ticker thread; tests drive it with their own clock.
+     */
+    void advanceTo(long nowMs) {
+        long nowTick = Math.floorDiv(nowMs, tickMs);
+
+        while (currentTick <= nowTick) {
+            drainPending();
+            cascade();
+
+            ArrayDeque<Timeout> slot = slots[0][(int) (currentTick & mask)];
+            for (int i = slot.size(); i > 0; i--) {
+                Timeout timeout = slot.poll();
+                if (timeout.deadlineTick <= currentTick) {
+                    expire(timeout);
+                } else {
+                    // Was clamped to the top level, not due yet
+                    place(timeout);
+                }
+            }
+            currentTick++;
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                advanceTo(System.currentTimeMillis());
+
+                long sleepMs = currentTick * tickMs - System.currentTimeMillis();
+                if (sleepMs > 0) {
+                    TimeUnit.MILLISECONDS.sleep(sleepMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Timing wheel {} failed on tick {}", name, currentTick, e);
+            }
+        }
+    }
+
+    private void drainPending() {
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (!timeout.cancelled) {
+                place(timeout);
+            }
+        }
+    }
+
+    // When a level wraps around, the next slot of the level above is spread over the levels below
+    private void cascade() {
+        for (int level = 1; level < levels; level++) {
+            if ((currentTick & ((1L << (bits * level)) - 1)) != 0) {
+                return;
+            }
+            ArrayDeque<Timeout> slot = slots[level][(int) ((currentTick >> (bits * level)) & mask)];
+            for (int i = slot.size(); i > 0; i--) {
+                place(slot.poll());
+            }
+        }
+    }
+
+    private void place(Timeout timeout) {
+        if (timeout.cancelled) {
+            return;
+        }
+
+        long delta = timeout.deadlineTick - currentTick;
+        if (delta <= 0) {
+            slots[0][(int) (currentTick & mask)].add(timeout);
+            return;
+        }
+
+        for (int level = 0; level < levels; level++) {
+            if ((delta >> (bits * (level + 1))) == 0) {
+                slots[level][(int) ((timeout.deadlineTick >> (bits * level)) & mask)].add(timeout);
+                return;
+            }
+        }
+
+        // Beyond the top level: park it in the farthest top slot, it is placed again when that slot comes up
+        int top = levels - 1;
+        long farthest = currentTick + (1L << (bits * levels)) - 1;
+        slots[top][(int) ((farthest >> (bits * top)) & mask)].add(timeout);
+    }
+
+    private void expire(Timeout timeout) {
+        if (timeout.cancelled) {
+            return;
+        }
+        try {
+            executor.execute(timeout.task);
+        } catch (RejectedExecutionException e) {
+            log.error("Timing wheel {} could not run a task due at {}", name, timeout.deadlineMs, e);
+        }
+    }
+
+    public static final class Timeout {
+        private final Runnable task;
+        private final long deadlineMs;
+        private final long deadlineTick;
+        private volatile boolean cancelled;
+
+        private Timeout(Runnable task, long deadlineMs, long deadlineTick) {
+            this.task = task;
+            this.deadlineMs = deadlineMs;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public long getDeadlineMs() {
+            return deadlineMs;
+        }
+
+        // The slot keeps the entry until its tick comes up, it is skipped there
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
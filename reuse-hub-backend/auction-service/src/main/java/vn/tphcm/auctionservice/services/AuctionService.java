@@ -38,7 +38,17 @@ public interface AuctionService {
 
     ApiResponse<PageResponse<BidResponse>> getAuctionBids(String auctionId, int pageNo, int pageSize);
 
-    void processEndedAuctions();
-
-    void processStartingAuctions();
+    /**
+     * Ends the auction if it is active and past its end time.
+     *
+     * @return false when there was nothing to do
+     */
+    boolean endAuction(String auctionId);
+
+    /**
+     * Activates the auction if it is pending and past its start time.
+     *
+     * @return false when there was nothing to do
+     */
+    boolean startAuction(String auctionId);
 }
@@ -6,9 +6,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import vn.tphcm.auctionservice.commons.AuctionStatus;
 import vn.tphcm.auctionservice.commons.BidStatus;
 import vn.tphcm.auctionservice.dtos.ApiResponse;
@@ -17,18 +21,28 @@ import vn.tphcm.auctionservice.dtos.request.CreateAuctionRequest;
 import vn.tphcm.auctionservice.dtos.request.PlaceBidRequest;
 import vn.tphcm.auctionservice.dtos.response.AuctionResponse;
 import vn.tphcm.auctionservice.dtos.response.BidResponse;
+import vn.tphcm.auctionservice.engine.AcceptedBid;
+import vn.tphcm.auctionservice.engine.AuctionEngine;
+import vn.tphcm.auctionservice.engine.AuctionOrderBook;
+import vn.tphcm.auctionservice.engine.BidOutcome;
 import vn.tphcm.auctionservice.mapper.AuctionMapper;
 import vn.tphcm.auctionservice.mapper.BidMapper;
 import vn.tphcm.auctionservice.models.Auction;
 import vn.tphcm.auctionservice.models.Bid;
 import vn.tphcm.auctionservice.repositories.AuctionRepository;
 import vn.tphcm.auctionservice.repositories.BidRepository;
+import vn.tphcm.auctionservice.scheduler.AuctionDeadlinesChangedEvent;
 import vn.tphcm.auctionservice.services.AuctionService;
 import vn.tphcm.auctionservice.services.MessageProducer;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
 
 @Service
 @RequiredArgsConstructor
@@ -41,6 +55,11 @@ public class AuctionServiceImpl implements AuctionService {
     private final BidMapper bidMapper;
     private final MessageProducer messageProducer;
     private final vn.tphcm.auctionservice.services.SupabaseStorageService supabaseStorageService;
+    private final AuctionEngine auctionEngine;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${auction.engine.log.persist-timeout-ms:5000}")
+    private long persistTimeoutMs;
 
     @Override
     @Transactional
@@ -93,6 +112,10 @@ public class AuctionServiceImpl implements AuctionService {
 
         auction = auctionRepository.save(auction);
 
+        // Picked up by AuctionScheduler once the auction is committed
+        eventPublisher.publishEvent(new AuctionDeadlinesChangedEvent(auction.getId(), auction.getStatus(),
+                auction.getStartTime(), auction.getEndTime()));
+
         // Send notification
         messageProducer.sendAuctionCreatedEvent(auction);
 
@@ -141,95 +164,51 @@ public class AuctionServiceImpl implements AuctionService {
     }
 
     @Override
-    @Transactional
     public ApiResponse<BidResponse> placeBid(String auctionId, String bidderId, PlaceBidRequest request) {
         log.info("Placing bid on auction: {} by user: {}", auctionId, bidderId);
 
-        Optional<Auction> auctionOpt = auctionRepository.findById(auctionId);
-        
-        if (auctionOpt.isEmpty()) {
-            return ApiResponse.<BidResponse>builder()
-                    .status(HttpStatus.NOT_FOUND.value())
-                    .message("Không tìm thấy phiên đấu giá")
-                    .build();
-        }
+        // Validated and ordered by the auction's sequencer partition, see AuctionEngine
+        BidOutcome outcome = auctionEngine.placeBid(auctionId, bidderId, request.getAmount(), request.getMaxAutoBid());
 
-        Auction auction = auctionOpt.get();
-
-        // Validate auction status
-        if (auction.getStatus() != AuctionStatus.ACTIVE) {
-            return ApiResponse.<BidResponse>builder()
-                    .status(HttpStatus.BAD_REQUEST.value())
-                    .message("Phiên đấu giá không còn hoạt động")
-                    .build();
+        if (!outcome.isAccepted()) {
+            return bidRejected(outcome);
         }
 
-        // Check if auction has ended
-        if (LocalDateTime.now().isAfter(auction.getEndTime())) {
-            return ApiResponse.<BidResponse>builder()
-                    .status(HttpStatus.BAD_REQUEST.value())
-                    .message("Phiên đấu giá đã kết thúc")
-                    .build();
-        }
+        AcceptedBid bid = outcome.getBid();
 
-        // Seller cannot bid on their own auction
-        if (auction.getSellerId().equals(bidderId)) {
+        try {
+            outcome.getPersisted().get(persistTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // The bid holds its place in the book, the log keeps retrying the write
+            log.warn("Bid {} on auction {} accepted but not yet persisted", bid.getBidId(), auctionId);
+        } catch (ExecutionException e) {
+            log.error("Bid {} on auction {} could not be persisted: {}", bid.getBidId(), auctionId, e.getCause().getMessage());
             return ApiResponse.<BidResponse>builder()
-                    .status(HttpStatus.BAD_REQUEST.value())
-                    .message("Bạn không thể đấu giá sản phẩm của chính mình")
+                    .status(HttpStatus.CONFLICT.value())
+                    .message("Giá đấu chưa được ghi nhận, vui lòng thử lại")
                     .build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
 
-        // Validate bid amount
-        Long minBid = auction.getCurrentPrice() + auction.getBidIncrement();
-        if (request.getAmount() < minBid) {
-            return ApiResponse.<BidResponse>builder()
-                    .status(HttpStatus.BAD_REQUEST.value())
-                    .message("Giá đấu tối thiểu là " + minBid + "đ")
-                    .build();
-        }
-
-        // Get previous highest bidder for outbid notification
-        Optional<Bid> previousHighestBid = bidRepository.findHighestBid(auctionId);
-        String previousHighestBidderId = previousHighestBid.map(Bid::getBidderId).orElse(null);
-
-        // Mark previous highest bid as outbid
-        if (previousHighestBid.isPresent() && !previousHighestBid.get().getBidderId().equals(bidderId)) {
-            Bid prevBid = previousHighestBid.get();
-            prevBid.setStatus(BidStatus.OUTBID);
-            bidRepository.save(prevBid);
-        }
-
-        // Create new bid
-        Bid bid = Bid.builder()
-                .auction(auction)
-                .bidderId(bidderId)
-                .amount(request.getAmount())
-                .maxAutoBid(request.getMaxAutoBid())
-                .status(BidStatus.ACTIVE)
-                .isAutoBid(false)
+        BidResponse response = BidResponse.builder()
+                .id(bid.getBidId())
+                .auctionId(bid.getAuctionId())
+                .bidderId(bid.getBidderId())
+                .amount(bid.getAmount())
+                .status(bid.getStatus())
+                .isAutoBid(bid.isAutoBid())
+                .createdAt(bid.getPlacedAt())
                 .build();
 
-        bid = bidRepository.save(bid);
-
-        // Update auction
-        auction.setCurrentPrice(request.getAmount());
-        auction.incrementBidCount();
-        auctionRepository.save(auction);
-
-        // Send outbid notification to previous highest bidder
-        if (previousHighestBidderId != null && !previousHighestBidderId.equals(bidderId)) {
-            messageProducer.sendOutbidNotification(auction, previousHighestBidderId, request.getAmount());
-        }
-
-        // Send bid placed event for realtime update
-        messageProducer.sendBidPlacedEvent(auction, bid);
-
-        BidResponse response = bidMapper.toResponse(bid);
+        // The bid is recorded either way, but another bidder's proxy ceiling may already have answered it
+        String message = outcome.isLeading()
+                ? "Đặt giá thành công"
+                : "Giá của bạn đã bị vượt qua bởi đấu giá tự động, giá hiện tại là " + outcome.getLeadingBid().getAmount();
 
         return ApiResponse.<BidResponse>builder()
                 .status(HttpStatus.OK.value())
-                .message("Đặt giá thành công")
+                .message(message)
                 .data(response)
                 .build();
     }
@@ -271,12 +250,21 @@ public class AuctionServiceImpl implements AuctionService {
                     .build();
         }
 
+        // Stop the book first so no bid can be accepted after the sale
+        if (!closeOrderBook(auctionId, book -> true)) {
+            return ApiResponse.<AuctionResponse>builder()
+                    .status(HttpStatus.BAD_REQUEST.value())
+                    .message("Phiên đấu giá không còn hoạt động")
+                    .build();
+        }
+
         // End auction immediately
         auction.setStatus(AuctionStatus.SOLD);
         auction.setWinnerId(buyerId);
         auction.setCurrentPrice(auction.getBuyNowPrice());
         auction.setEndTime(LocalDateTime.now());
         auctionRepository.save(auction);
+        auctionRepository.updateCurrentPrice(auctionId, auction.getBuyNowPrice());
 
         // Send auction ended event
         messageProducer.sendAuctionEndedEvent(auction);
@@ -311,7 +299,8 @@ public class AuctionServiceImpl implements AuctionService {
                     .build();
         }
 
-        if (auction.getBidCount() > 0) {
+        // The book may hold bids the database has not seen yet
+        if (auction.getBidCount() > 0 || !closeOrderBook(auctionId, book -> book.getBidCount() == 0)) {
             return ApiResponse.<Void>builder()
                     .status(HttpStatus.BAD_REQUEST.value())
                     .message("Không thể hủy phiên đấu giá đã có người đặt giá")
@@ -415,54 +404,145 @@ public class AuctionServiceImpl implements AuctionService {
 
     @Override
     @Transactional
-    public void processEndedAuctions() {
-        log.info("Processing ended auctions...");
-        
-        List<Auction> endedAuctions = auctionRepository.findEndedAuctions(
-                AuctionStatus.ACTIVE, LocalDateTime.now());
-
-        for (Auction auction : endedAuctions) {
-            Optional<Bid> highestBid = bidRepository.findHighestBid(auction.getId());
-
-            if (highestBid.isPresent()) {
-                Bid winningBid = highestBid.get();
-                
-                // Check reserve price
-                if (auction.getReservePrice() != null && 
-                    winningBid.getAmount() < auction.getReservePrice()) {
-                    auction.setStatus(AuctionStatus.NO_BIDS);
-                    log.info("Auction {} ended without meeting reserve price", auction.getId());
-                } else {
-                    auction.setStatus(AuctionStatus.SOLD);
-                    auction.setWinnerId(winningBid.getBidderId());
-                    auction.setWinningBidId(winningBid.getId());
-                    winningBid.setStatus(BidStatus.WON);
-                    bidRepository.save(winningBid);
-                    log.info("Auction {} won by user {}", auction.getId(), winningBid.getBidderId());
-                }
-            } else {
+    public boolean endAuction(String auctionId) {
+        LocalDateTime now = LocalDateTime.now();
+
+        // Stop the book and wait for its last bids to reach tbl_bids before picking the winner. This comes before the
+        // row lock, which the bid log needs to move the auction's price.
+        if (!closeOrderBook(auctionId, book -> !book.getEndTime().isAfter(now))) {
+            return false;
+        }
+
+        // Row lock: an instance whose lease expired mid-transition cannot end the same auction twice
+        Optional<Auction> auctionOpt = auctionRepository.findByIdForUpdate(auctionId);
+        if (auctionOpt.isEmpty()) {
+            return false;
+        }
+
+        Auction auction = auctionOpt.get();
+        if (auction.getStatus() != AuctionStatus.ACTIVE || auction.getEndTime().isAfter(now)) {
+            return false;
+        }
+
+        Optional<Bid> highestBid = bidRepository.findHighestBid(auctionId);
+
+        if (highestBid.isPresent()) {
+            Bid winningBid = highestBid.get();
+
+            // Check reserve price
+            if (auction.getReservePrice() != null &&
+                winningBid.getAmount() < auction.getReservePrice()) {
                 auction.setStatus(AuctionStatus.NO_BIDS);
-                log.info("Auction {} ended with no bids", auction.getId());
+                log.info("Auction {} ended without meeting reserve price", auctionId);
+            } else {
+                auction.setStatus(AuctionStatus.SOLD);
+                auction.setWinnerId(winningBid.getBidderId());
+                auction.setWinningBidId(winningBid.getId());
+                winningBid.setStatus(BidStatus.WON);
+                bidRepository.save(winningBid);
+                log.info("Auction {} won by user {}", auctionId, winningBid.getBidderId());
             }
-
-            auctionRepository.save(auction);
-            messageProducer.sendAuctionEndedEvent(auction);
+        } else {
+            auction.setStatus(AuctionStatus.NO_BIDS);
+            log.info("Auction {} ended with no bids", auctionId);
         }
+
+        auctionRepository.save(auction);
+        messageProducer.sendAuctionEndedEvent(auction);
+        return true;
     }
 
     @Override
     @Transactional
-    public void processStartingAuctions() {
-        log.info("Processing starting auctions...");
-        
-        List<Auction> auctionsToStart = auctionRepository.findAuctionsToStart(
-                AuctionStatus.PENDING, LocalDateTime.now());
+    public boolean startAuction(String auctionId) {
+        Optional<Auction> auctionOpt = auctionRepository.findByIdForUpdate(auctionId);
+        if (auctionOpt.isEmpty()) {
+            return false;
+        }
 
-        for (Auction auction : auctionsToStart) {
-            auction.setStatus(AuctionStatus.ACTIVE);
-            auctionRepository.save(auction);
-            log.info("Auction {} is now active", auction.getId());
+        Auction auction = auctionOpt.get();
+        if (auction.getStatus() != AuctionStatus.PENDING || auction.getStartTime().isAfter(LocalDateTime.now())) {
+            return false;
         }
+
+        auction.setStatus(AuctionStatus.ACTIVE);
+        auctionRepository.save(auction);
+        evictOrderBookAfterCompletion(auctionId);
+        log.info("Auction {} is now active", auctionId);
+        return true;
+    }
+
+    /**
+     * Closes the auction's in-memory book when {@code condition} holds for it, waits until its accepted bids are
+     * persisted, and drops the book once the surrounding transaction completes so the next command reloads it from the
+     * database, whether the change committed or rolled back.
+     *
+     * @return false when the book exists and the condition did not hold
+     */
+    private boolean closeOrderBook(String auctionId, Predicate<AuctionOrderBook> condition) {
+        CompletableFuture<Void> persisted = auctionEngine.execute(auctionId, book -> {
+            if (book == null) {
+                return CompletableFuture.<Void>completedFuture(null);
+            }
+            if (!condition.test(book)) {
+                return null;
+            }
+            book.close();
+            return book.getLastPersisted();
+        });
+
+        if (persisted == null) {
+            return false;
+        }
+
+        evictOrderBookAfterCompletion(auctionId);
+
+        try {
+            persisted.get(persistTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Bids of auction " + auctionId + " are not persisted yet", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while closing auction " + auctionId, e);
+        }
+        return true;
+    }
+
+    private void evictOrderBookAfterCompletion(String auctionId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            auctionEngine.evict(auctionId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                auctionEngine.evict(auctionId);
+            }
+        });
+    }
+
+    private ApiResponse<BidResponse> bidRejected(BidOutcome outcome) {
+        String message = switch (outcome.getRejection()) {
+            case AUCTION_NOT_FOUND -> "Không tìm thấy phiên đấu giá";
+            case NOT_ACTIVE -> "Phiên đấu giá không còn hoạt động";
+            case ENDED -> "Phiên đấu giá đã kết thúc";
+            case OWN_AUCTION -> "Bạn không thể đấu giá sản phẩm của chính mình";
+            case TOO_LOW -> "Giá đấu tối thiểu là " + outcome.getMinimumBid() + "đ";
+            case BUSY -> "Hệ thống đấu giá đang bận, vui lòng thử lại";
+            case OWNED_ELSEWHERE -> "Phiên đấu giá đang được xử lý ở máy chủ khác, vui lòng thử lại";
+        };
+
+        HttpStatus status = switch (outcome.getRejection()) {
+            case AUCTION_NOT_FOUND -> HttpStatus.NOT_FOUND;
+            case BUSY, OWNED_ELSEWHERE -> HttpStatus.SERVICE_UNAVAILABLE;
+            default -> HttpStatus.BAD_REQUEST;
+        };
+
+        return ApiResponse.<BidResponse>builder()
+                .status(status.value())
+                .message(message)
+                .build();
     }
 
     private ApiResponse<PageResponse<AuctionResponse>> buildPageResponse(Page<Auction> page, String message) {
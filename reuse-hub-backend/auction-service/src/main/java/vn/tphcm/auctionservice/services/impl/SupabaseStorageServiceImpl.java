@@ -1,33 +1,42 @@
 package vn.tphcm.auctionservice.services.impl;
 
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
 import org.apache.commons.io.FilenameUtils;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import vn.tphcm.auctionservice.configs.FileUploadConfig;
 import vn.tphcm.auctionservice.dtos.response.ImageUploadResponse;
 import vn.tphcm.auctionservice.services.SupabaseStorageService;
 
+import java.io.IOException;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j(topic = "SUPABASE-STORAGE-SERVICE")
-public class SupabaseStorageServiceImpl implements SupabaseStorageService {
+public class SupabaseStorageServiceImpl implements SupabaseStorageService, DisposableBean {
     private final FileUploadConfig fileUploadConfig;
-    private final OkHttpClient httpClient = new OkHttpClient().newBuilder()
-            .connectTimeout(30, TimeUnit.MINUTES)
-            .writeTimeout(30, TimeUnit.MINUTES)
-            .readTimeout(30, TimeUnit.MINUTES)
-            .build();
+
+    // Uploads run on OkHttp's dispatcher, bounded to `parallelism` concurrent calls across all requests
+    private final ExecutorService uploadExecutor;
+    private final OkHttpClient httpClient;
 
     @Value("${supabase.bucket}")
     private String bucketName;
@@ -41,6 +50,28 @@ public class SupabaseStorageServiceImpl implements SupabaseStorageService {
     @Value("${supabase.public-url}")
     private String publicUrl;
 
+    public SupabaseStorageServiceImpl(FileUploadConfig fileUploadConfig,
+                                      @Value("${file.upload.parallelism:4}") int parallelism,
+                                      @Value("${file.upload.timeout-seconds:60}") long timeoutSeconds) {
+        this.fileUploadConfig = fileUploadConfig;
+        // Unbounded on purpose: the dispatcher hands it every call under maxRequests and treats a rejection as a
+        // failed call, so concurrency is limited by the dispatcher alone
+        this.uploadExecutor = Executors.newCachedThreadPool(new CustomizableThreadFactory("supabase-upload-"));
+
+        Dispatcher dispatcher = new Dispatcher(uploadExecutor);
+        dispatcher.setMaxRequests(parallelism);
+        dispatcher.setMaxRequestsPerHost(parallelism);
+
+        this.httpClient = new OkHttpClient().newBuilder()
+                .dispatcher(dispatcher)
+                .connectTimeout(10, TimeUnit.SECONDS)
+                .writeTimeout(timeoutSeconds, TimeUnit.SECONDS)
+                .readTimeout(timeoutSeconds, TimeUnit.SECONDS)
+                // Upper bound for one file, from connect to the last response byte
+                .callTimeout(timeoutSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
     @Override
     public ImageUploadResponse uploadImage(MultipartFile file, String folder) {
         log.info("Uploading single image: {} to Supabase Storage in folder: {}", file.getOriginalFilename(), folder);
@@ -48,50 +79,9 @@ public class SupabaseStorageServiceImpl implements SupabaseStorageService {
         validateImage(file);
 
         try {
-            String fileName = generateFileName(file.getOriginalFilename());
-            String objectPath = joinPath(folder, fileName);
-
-            byte[] bytes = file.getBytes();
-            String ct = file.getContentType();
-
-            MediaType mediaType = (ct != null) ? MediaType.get(ct) : MediaType.parse("application/octet-stream");
-            RequestBody requestBody = RequestBody.create(bytes, mediaType);
-
-            HttpUrl url = Objects.requireNonNull(HttpUrl.parse(supabaseUrl))
-                    .newBuilder()
-                    .addPathSegments("storage/v1/object")
-                    .addPathSegment(bucketName)
-                    .addPathSegments(objectPath)
-                    .build();
-
-            Request request = new Request.Builder()
-                    .url(url)
-                    .post(requestBody)
-                    .addHeader("Authorization", "Bearer " + serviceKey)
-                    .addHeader("apikey", serviceKey)
-                    .addHeader("x-upsert", "true")
-                    .build();
-
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    String errorBody = response.body() != null ? response.body().string() : "Unknown error";
-                    log.error("Failed to upload file: {}. Response code: {}, Body: {}", file.getOriginalFilename(), response.code(), errorBody);
-                    throw new RuntimeException("Failed to upload file: " + file.getOriginalFilename());
-                }
-
-                String imageUrl = getPublicUrl(objectPath);
-
-                log.info("Successfully uploaded file: {} to Supabase Storage. URL: {}", file.getOriginalFilename(), imageUrl);
-
-                return ImageUploadResponse.builder()
-                        .fileName(fileName)
-                        .imageUrl(imageUrl)
-                        .fileSize(file.getSize())
-                        .build();
-            }
-
-        } catch (Exception e) {
-            log.error("Error uploading file: {}", file.getOriginalFilename(), e);
+            return startUpload(file, folder).getResult().join();
+        } catch (CompletionException e) {
+            log.error("Error uploading file: {}", file.getOriginalFilename(), e.getCause());
             throw new RuntimeException("Error uploading file: " + file.getOriginalFilename());
         }
     }
@@ -108,21 +98,43 @@ public class SupabaseStorageServiceImpl implements SupabaseStorageService {
             throw new RuntimeException("Exceeded maximum number of files: " + fileUploadConfig.getMaxImages());
         }
 
-        List<ImageUploadResponse> response = new ArrayList<>();
-        List<String> uploadUrls = new ArrayList<>();
+        // Reject the whole batch before anything is sent
+        files.forEach(this::validateImage);
 
-        for (MultipartFile file : files) {
-            try {
-                ImageUploadResponse uploadResponse = uploadImage(file, folder);
-                response.add(uploadResponse);
-                uploadUrls.add(uploadResponse.getImageUrl());
-            } catch (Exception e) {
-                log.error("Error uploading file: {}", file.getOriginalFilename(), e);
-                deleteImages(uploadUrls);
-                throw new RuntimeException("Error uploading file: " + file.getOriginalFilename());
+        List<PendingUpload> uploads = files.stream()
+                .map(file -> startUpload(file, folder))
+                .toList();
+
+        // The first failure cancels the uploads still in flight
+        uploads.forEach(upload -> upload.getResult().whenComplete((response, error) -> {
+            if (error != null) {
+                uploads.forEach(pending -> pending.getCall().cancel());
+            }
+        }));
+
+        CompletableFuture.allOf(uploads.stream().map(PendingUpload::getResult).toArray(CompletableFuture[]::new))
+                .exceptionally(error -> null)
+                .join();
+
+        List<ImageUploadResponse> response = new ArrayList<>();
+        String failedFile = null;
+
+        for (int i = 0; i < uploads.size(); i++) {
+            CompletableFuture<ImageUploadResponse> result = uploads.get(i).getResult();
+            if (!result.isCompletedExceptionally()) {
+                response.add(result.join());
+            } else if (failedFile == null) {
+                failedFile = files.get(i).getOriginalFilename();
             }
         }
 
+        if (failedFile != null) {
+            // A cancelled or timed out call may still have been stored, so every object of the batch is rolled back
+            log.error("Error uploading file: {}, rolling back {} uploads", failedFile, uploads.size());
+            deleteImages(uploads.stream().map(PendingUpload::getImageUrl).toList());
+            throw new RuntimeException("Error uploading file: " + failedFile);
+        }
+
         log.info("Successfully uploaded {} files to Supabase Storage", response.size());
 
         return response;
@@ -224,4 +236,100 @@ public class SupabaseStorageServiceImpl implements SupabaseStorageService {
         }
         return url;
     }
+
+    @Override
+    public void destroy() {
+        uploadExecutor.shutdown();
+    }
+
+    private PendingUpload startUpload(MultipartFile file, String folder) {
+        String fileName = generateFileName(file.getOriginalFilename());
+        String objectPath = joinPath(folder, fileName);
+
+        String ct = file.getContentType();
+        MediaType mediaType = (ct != null) ? MediaType.get(ct) : MediaType.parse("application/octet-stream");
+
+        HttpUrl url = Objects.requireNonNull(HttpUrl.parse(supabaseUrl))
+                .newBuilder()
+                .addPathSegments("storage/v1/object")
+                .addPathSegment(bucketName)
+                .addPathSegments(objectPath)
+                .build();
+
+        Request request = new Request.Builder()
+                .url(url)
+                .post(streamingBody(file, mediaType))
+                .addHeader("Authorization", "Bearer " + serviceKey)
+                .addHeader("apikey", serviceKey)
+                .addHeader("x-upsert", "true")
+                .build();
+
+        String imageUrl = getPublicUrl(objectPath);
+        CompletableFuture<ImageUploadResponse> result = new CompletableFuture<>();
+        Call call = httpClient.newCall(request);
+
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                result.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) throws IOException {
+                try (response) {
+                    if (!response.isSuccessful()) {
+                        String errorBody = response.body() != null ? response.body().string() : "Unknown error";
+                        log.error("Failed to upload file: {}. Response code: {}, Body: {}", file.getOriginalFilename(), response.code(), errorBody);
+                        result.completeExceptionally(new RuntimeException("Failed to upload file: " + file.getOriginalFilename()));
+                        return;
+                    }
+
+                    log.info("Successfully uploaded file: {} to Supabase Storage. URL: {}", file.getOriginalFilename(), imageUrl);
+
+                    result.complete(ImageUploadResponse.builder()
+                            .fileName(fileName)
+                            .imageUrl(imageUrl)
+                            .fileSize(file.getSize())
+                            .build());
+                }
+            }
+        });
+
+        return new PendingUpload(call, imageUrl, result);
+    }
+
+    // Streams the multipart content (temp file or in-memory part) instead of copying it into a byte[]
+    private RequestBody streamingBody(MultipartFile file, MediaType mediaType) {
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return mediaType;
+            }
+
+            @Override
+            public long contentLength() {
+                return file.getSize();
+            }
+
+            @Override
+            public boolean isOneShot() {
+                return true;
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                try (Source source = Okio.source(file.getInputStream())) {
+                    sink.writeAll(source);
+                }
+            }
+        };
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class PendingUpload {
+        private final Call call;
+        private final String imageUrl;
+        private final CompletableFuture<ImageUploadResponse> result;
+    }
 }
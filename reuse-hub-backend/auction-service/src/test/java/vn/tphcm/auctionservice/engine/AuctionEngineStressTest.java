@@ -0,0 +1,169 @@
+package vn.tphcm.auctionservice.engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import vn.tphcm.auctionservice.commons.AuctionStatus;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Thousands of bidders race on a handful of auctions. Whatever the interleaving, each auction's log must hold
+ * contiguous sequences with strictly increasing prices, at least one increment apart, and every accepted bid exactly once.
+ */
+class AuctionEngineStressTest {
+    private static final int AUCTIONS = 4;
+    private static final int BIDDERS = 5_000;
+    private static final int ATTEMPTS_PER_BIDDER = 5;
+    private static final int CALLER_THREADS = 128;
+    private static final long STARTING_PRICE = 100_000;
+    private static final long BID_INCREMENT = 10_000;
+
+    private RecordingBidLog bidLog;
+    private AuctionEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        bidLog = new RecordingBidLog();
+        engine = new AuctionEngine(AuctionEngineStressTest::newBook, bidLog, 4, 100_000, 30_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.destroy();
+    }
+
+    @Test
+    void concurrentBiddersOnlyEverRaiseThePrice() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(CALLER_THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        Map<String, AcceptedBid> acceptedByCallers = new ConcurrentHashMap<>();
+        AtomicInteger tooLow = new AtomicInteger();
+        List<Future<?>> bidders = new ArrayList<>();
+
+        for (int b = 0; b < BIDDERS; b++) {
+            String bidderId = "bidder-" + b;
+            String auctionId = auctionId(b % AUCTIONS);
+
+            bidders.add(callers.submit(() -> {
+                start.await();
+                long knownMinimum = STARTING_PRICE + BID_INCREMENT;
+
+                for (int attempt = 0; attempt < ATTEMPTS_PER_BIDDER; attempt++) {
+                    // Most bidders bid exactly the minimum they last saw, so many of them collide on the same price
+                    long amount = knownMinimum + ThreadLocalRandom.current().nextInt(3) * BID_INCREMENT;
+                    BidOutcome outcome = engine.placeBid(auctionId, bidderId, amount, null);
+
+                    if (outcome.isAccepted()) {
+                        assertNull(acceptedByCallers.put(outcome.getBid().getBidId(), outcome.getBid()));
+                        knownMinimum = amount + BID_INCREMENT;
+                    } else {
+                        assertEquals(BidRejection.TOO_LOW, outcome.getRejection());
+                        tooLow.incrementAndGet();
+                        knownMinimum = outcome.getMinimumBid();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> bidder : bidders) {
+            bidder.get(2, TimeUnit.MINUTES);
+        }
+        callers.shutdown();
+
+        assertTrue(tooLow.get() > 0, "bidders never collided, the test did not exercise contention");
+        assertEquals(acceptedByCallers.size(), bidLog.size(), "every accepted bid is logged exactly once");
+
+        for (int a = 0; a < AUCTIONS; a++) {
+            String auctionId = auctionId(a);
+            List<AcceptedBid> log = bidLog.entries(auctionId);
+            assertFalse(log.isEmpty());
+
+            long previousPrice = STARTING_PRICE;
+            for (int i = 0; i < log.size(); i++) {
+                AcceptedBid bid = log.get(i);
+                assertEquals(i + 1, bid.getSequence(), "sequences are contiguous");
+                assertEquals(i + 1, bid.getBidCount());
+                assertTrue(bid.getAmount() >= previousPrice + BID_INCREMENT,
+                        "price " + bid.getAmount() + " at sequence " + bid.getSequence() + " does not beat " + previousPrice);
+                assertSame(bid, acceptedByCallers.get(bid.getBidId()));
+                previousPrice = bid.getAmount();
+            }
+
+            long finalPrice = previousPrice;
+            AcceptedBid last = log.get(log.size() - 1);
+            engine.execute(auctionId, book -> {
+                assertEquals(finalPrice, book.getCurrentPrice());
+                assertEquals(log.size(), book.getBidCount());
+                assertEquals(last.getBidderId(), book.getHighestBidderId());
+                return null;
+            });
+        }
+    }
+
+    @Test
+    void closedBookRejectsLateBids() {
+        String auctionId = auctionId(0);
+        assertTrue(engine.placeBid(auctionId, "bidder-1", STARTING_PRICE + BID_INCREMENT, null).isAccepted());
+
+        engine.execute(auctionId, book -> {
+            book.close();
+            return null;
+        });
+
+        BidOutcome late = engine.placeBid(auctionId, "bidder-2", STARTING_PRICE * 10, null);
+        assertEquals(BidRejection.NOT_ACTIVE, late.getRejection());
+        assertEquals(1, bidLog.size());
+    }
+
+    private static String auctionId(int index) {
+        return "auction-" + index;
+    }
+
+    private static AuctionOrderBook newBook(String auctionId) {
+        return AuctionOrderBook.builder()
+                .auctionId(auctionId)
+                .sellerId("seller")
+                .title("Stress " + auctionId)
+                .bidIncrement(BID_INCREMENT)
+                .status(AuctionStatus.ACTIVE)
+                .endTime(LocalDateTime.now().plusDays(1))
+                .currentPrice(STARTING_PRICE)
+                .build();
+    }
+
+    private static class RecordingBidLog implements BidLog {
+        private final Map<String, List<AcceptedBid>> entries = new ConcurrentHashMap<>();
+
+        @Override
+        public CompletableFuture<Void> append(AcceptedBid bid) {
+            // Appends of one auction come from its partition thread in order; the lock only publishes them to the test thread
+            entries.computeIfAbsent(bid.getAuctionId(), id -> Collections.synchronizedList(new ArrayList<>())).add(bid);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void onSequenceConflict(Consumer<String> listener) {
+        }
+
+        @Override
+        public void resume(String auctionId) {
+        }
+
+        int size() {
+            return entries.values().stream().mapToInt(List::size).sum();
+        }
+
+        List<AcceptedBid> entries(String auctionId) {
+            return entries.getOrDefault(auctionId, List.of());
+        }
+    }
+}
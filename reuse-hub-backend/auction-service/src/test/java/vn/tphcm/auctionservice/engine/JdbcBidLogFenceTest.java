@@ -0,0 +1,188 @@
+package vn.tphcm.auctionservice.engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import vn.tphcm.auctionservice.commons.BidStatus;
+import vn.tphcm.auctionservice.services.MessageProducer;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * A stale book whose first entry hits a sequence another writer already stored: that entry and everything the stale
+ * book appends after it must be refused, while other auctions in the same batch are written, until the reloaded book
+ * resumes the auction. The same holds for an entry the database rejects for good, while a passing failure is retried.
+ */
+class JdbcBidLogFenceTest {
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    // (auction, sequence) pairs in the table, and the ones inserted by the open transaction
+    private final Set<String> stored = Collections.synchronizedSet(new HashSet<>());
+    private final List<String> uncommitted = new ArrayList<>();
+    private final List<String> conflicts = new CopyOnWriteArrayList<>();
+    // Entries whose insert fails for good, and how many more inserts fail for a passing reason
+    private final Set<String> rejected = Collections.synchronizedSet(new HashSet<>());
+    private int transientFailures;
+
+    private JdbcBidLog bidLog;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            uncommitted.clear();
+            return new SimpleTransactionStatus();
+        });
+        doAnswer(invocation -> {
+            if (!invocation.<TransactionStatus>getArgument(0).isRollbackOnly()) {
+                stored.addAll(uncommitted);
+            }
+            return null;
+        }).when(transactionManager).commit(any());
+
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT"), any(BatchPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> insert(invocation.getArgument(1)));
+
+        bidLog = new JdbcBidLog(jdbcTemplate, transactionManager, mock(MessageProducer.class),
+                mock(ApplicationEventPublisher.class), 500);
+        bidLog.onSequenceConflict(conflicts::add);
+
+        // Another instance already stored bids 1 to 3 of auction A
+        stored.addAll(List.of("A:1", "A:2", "A:3"));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        bidLog.destroy();
+    }
+
+    @Test
+    void staleEntriesAfterAConflictAreNeverStored() throws Exception {
+        CompletableFuture<Void> conflicting = bidLog.append(bid("A", 3, 130_000));
+        CompletableFuture<Void> staleNext = bidLog.append(bid("A", 4, 120_000));
+        CompletableFuture<Void> otherAuction = bidLog.append(bid("B", 1, 50_000));
+        CompletableFuture<Void> staleLater = bidLog.append(bid("A", 5, 125_000));
+
+        assertRefused(conflicting);
+        assertRefused(staleNext);
+        assertRefused(staleLater);
+        otherAuction.get(5, TimeUnit.SECONDS);
+
+        assertEquals(Set.of("A:1", "A:2", "A:3", "B:1"), stored);
+        assertEquals(List.of("A"), conflicts);
+
+        // Appended by the stale book before it was dropped
+        assertRefused(bidLog.append(bid("A", 6, 140_000)));
+
+        bidLog.resume("A");
+        bidLog.append(bid("A", 4, 150_000)).get(5, TimeUnit.SECONDS);
+        assertTrue(stored.contains("A:4"), "the reloaded book writes again");
+    }
+
+    @Test
+    void entryTheDatabaseRejectsOnlyFailsItsOwnAuction() throws Exception {
+        rejected.add("A:4");
+
+        CompletableFuture<Void> bad = bidLog.append(bid("A", 4, 120_000));
+        CompletableFuture<Void> otherAuction = bidLog.append(bid("B", 1, 50_000));
+        CompletableFuture<Void> staleNext = bidLog.append(bid("A", 5, 125_000));
+
+        assertRefused(bad);
+        assertRefused(staleNext);
+        otherAuction.get(5, TimeUnit.SECONDS);
+
+        assertEquals(Set.of("A:1", "A:2", "A:3", "B:1"), stored);
+        assertEquals(List.of("A"), conflicts);
+
+        // The writer is not stuck on the bad entry
+        bidLog.append(bid("B", 2, 55_000)).get(5, TimeUnit.SECONDS);
+
+        assertTrue(stored.contains("B:2"));
+
+        rejected.clear();
+        bidLog.resume("A");
+        bidLog.append(bid("A", 4, 150_000)).get(5, TimeUnit.SECONDS);
+        assertTrue(stored.contains("A:4"), "the reloaded book writes again");
+    }
+
+    @Test
+    void passingFailureIsRetried() throws Exception {
+        transientFailures = 2;
+
+        bidLog.append(bid("B", 1, 50_000)).get(5, TimeUnit.SECONDS);
+
+        assertEquals(Set.of("A:1", "A:2", "A:3", "B:1"), stored);
+        assertEquals(List.of(), conflicts);
+    }
+
+    private int[] insert(BatchPreparedStatementSetter setter) throws Exception {
+        if (transientFailures > 0) {
+            transientFailures--;
+            throw new TransientDataAccessResourceException("connection reset");
+        }
+
+        int[] counts = new int[setter.getBatchSize()];
+        for (int i = 0; i < counts.length; i++) {
+            PreparedStatement ps = mock(PreparedStatement.class);
+            setter.setValues(ps, i);
+
+            String[] auctionId = new String[1];
+            long[] sequence = new long[1];
+            verify(ps).setString(eq(2), argThat(value -> {
+                auctionId[0] = value;
+                return true;
+            }));
+            verify(ps).setLong(eq(3), longThat(value -> {
+                sequence[0] = value;
+                return true;
+            }));
+
+            String key = auctionId[0] + ":" + sequence[0];
+            if (rejected.contains(key)) {
+                throw new DataIntegrityViolationException("new row violates check constraint");
+            }
+            if (!stored.contains(key) && !uncommitted.contains(key)) {
+                uncommitted.add(key);
+                counts[i] = 1;
+            }
+        }
+        return counts;
+    }
+
+    private static void assertRefused(CompletableFuture<Void> persisted) {
+        ExecutionException refused = assertThrows(ExecutionException.class, () -> persisted.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, refused.getCause());
+    }
+
+    private static AcceptedBid bid(String auctionId, long sequence, long amount) {
+        return AcceptedBid.builder()
+                .bidId(UUID.randomUUID().toString())
+                .auctionId(auctionId)
+                .auctionTitle("Fence")
+                .sequence(sequence)
+                .bidderId("bidder-" + sequence)
+                .amount(amount)
+                .status(BidStatus.ACTIVE)
+                .bidCount((int) sequence)
+                .placedAt(LocalDateTime.now())
+                .build();
+    }
+}
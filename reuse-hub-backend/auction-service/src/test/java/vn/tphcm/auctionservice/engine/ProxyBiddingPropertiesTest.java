@@ -0,0 +1,217 @@
+package vn.tphcm.auctionservice.engine;
+
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.Size;
+import net.jqwik.api.constraints.UniqueElements;
+import vn.tphcm.auctionservice.commons.AuctionStatus;
+import vn.tphcm.auctionservice.commons.BidStatus;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Random bid streams against one order book, checked against a reference that recomputes every bidder's ceiling
+ * from the full history after each bid instead of keeping (and pruning) them incrementally.
+ */
+class ProxyBiddingPropertiesTest {
+    private static final long STARTING_PRICE = 100_000;
+    private static final long BID_INCREMENT = 10_000;
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 18, 12, 0);
+
+    @Property(tries = 300)
+    void highestCeilingLeadsAtRunnerUpPlusIncrement(@ForAll("bidStreams") List<BidRequest> requests) {
+        ListBidLog bidLog = new ListBidLog();
+        AuctionOrderBook book = newBook();
+        Map<String, ProxyCeiling> reference = new HashMap<>();
+        long previousPrice = STARTING_PRICE;
+
+        for (BidRequest request : requests) {
+            long minimumBefore = book.minimumBid();
+            long amount = request.amount(minimumBefore);
+            Long maxAutoBid = request.maxAutoBid(amount);
+            int logSizeBefore = bidLog.size();
+
+            BidOutcome outcome = book.placeBid(request.bidderId(), amount, maxAutoBid, NOW, bidLog);
+
+            if (amount < minimumBefore) {
+                assertEquals(BidRejection.TOO_LOW, outcome.getRejection());
+                assertEquals(logSizeBefore, bidLog.size(), "a rejected bid logs nothing");
+                assertEquals(previousPrice, book.getCurrentPrice(), "a rejected bid changes nothing");
+                continue;
+            }
+            assertTrue(outcome.isAccepted());
+
+            long ceiling = maxAutoBid != null ? Math.max(amount, maxAutoBid) : amount;
+            reference.merge(request.bidderId(), new ProxyCeiling(request.bidderId(), ceiling, logSizeBefore + 1),
+                    (current, next) -> next.getCeiling() > current.getCeiling() ? next : current);
+
+            List<AcceptedBid> appended = bidLog.since(logSizeBefore);
+            assertTrue(appended.size() == 1 || appended.size() == 2, "one step logs at most the bid and one proxy answer");
+            AcceptedBid leading = appended.get(appended.size() - 1);
+            assertEquals(BidStatus.ACTIVE, leading.getStatus());
+            assertSame(leading, outcome.getLeadingBid());
+            assertSame(appended.get(0), outcome.getBid());
+            if (appended.size() == 2) {
+                assertEquals(BidStatus.OUTBID, appended.get(0).getStatus());
+                assertEquals(request.bidderId(), leading.getOutbidBidderId());
+                assertTrue(leading.isAutoBid());
+            }
+
+            ProxyCeiling expectedLeader = best(reference.values(), null);
+            ProxyCeiling expectedRunnerUp = best(reference.values(), expectedLeader.getBidderId());
+            assertEquals(expectedLeader.getBidderId(), book.getHighestBidderId(), "the highest ceiling leads");
+            assertEquals(expectedLeader.getBidderId(), leading.getBidderId());
+
+            long price = book.getCurrentPrice();
+            assertEquals(leading.getAmount(), price);
+            assertTrue(price <= expectedLeader.getCeiling(), "the leader never pays above its ceiling");
+            assertTrue(price >= previousPrice + BID_INCREMENT, "the price rises by at least one increment");
+            for (ProxyCeiling other : reference.values()) {
+                if (!other.getBidderId().equals(expectedLeader.getBidderId())) {
+                    assertTrue(price >= other.getCeiling(), "no other bidder was willing to pay more");
+                }
+            }
+            if (expectedRunnerUp != null) {
+                long ownAmount = leading.getBidderId().equals(request.bidderId()) ? amount : 0;
+                long expectedPrice = Math.max(ownAmount,
+                        Math.min(expectedLeader.getCeiling(), expectedRunnerUp.getCeiling() + BID_INCREMENT));
+                assertEquals(expectedPrice, price, "runner-up ceiling plus one increment, capped at the leader's");
+            }
+            previousPrice = price;
+        }
+
+        for (int i = 0; i < bidLog.size(); i++) {
+            assertEquals(i + 1, bidLog.get(i).getSequence(), "sequences are contiguous");
+            assertEquals(i + 1, bidLog.get(i).getBidCount());
+        }
+    }
+
+    @Property(tries = 200)
+    void arrivalOrderDoesNotChangeTheWinner(@ForAll @Size(min = 2, max = 300) @UniqueElements
+                                            List<@IntRange(min = 1, max = 5_000) Integer> ceilingSteps,
+                                            @ForAll Random random) {
+        // Ceilings in whole increments, every bidder bids once at the minimum it sees with its ceiling as proxy
+        List<Integer> arrivals = new ArrayList<>(ceilingSteps);
+        Collections.shuffle(arrivals, random);
+        ListBidLog bidLog = new ListBidLog();
+        AuctionOrderBook book = newBook();
+
+        for (int steps : arrivals) {
+            long ceiling = STARTING_PRICE + steps * BID_INCREMENT;
+            if (ceiling >= book.minimumBid()) {
+                assertTrue(book.placeBid("bidder-" + steps, book.minimumBid(), ceiling, NOW, bidLog).isAccepted());
+            }
+        }
+
+        List<Integer> sorted = new ArrayList<>(ceilingSteps);
+        sorted.sort(Comparator.reverseOrder());
+        long highest = STARTING_PRICE + sorted.get(0) * BID_INCREMENT;
+        long second = STARTING_PRICE + sorted.get(1) * BID_INCREMENT;
+
+        assertEquals("bidder-" + sorted.get(0), book.getHighestBidderId());
+        assertTrue(book.getCurrentPrice() >= second, "the winner pays at least the runner-up's ceiling");
+        assertTrue(book.getCurrentPrice() <= Math.min(highest, second + BID_INCREMENT),
+                "the winner pays at most one increment over the runner-up's ceiling");
+        assertTrue(bidLog.size() <= 2 * arrivals.size(), "no bidding war is replayed step by step");
+    }
+
+    @Property(tries = 200)
+    void tiedCeilingsGoToTheEarlierBidder(@ForAll @IntRange(min = 2, max = 50) int ceilingSteps,
+                                          @ForAll @IntRange(min = 0, max = 9_999) int jitter) {
+        long ceiling = STARTING_PRICE + ceilingSteps * BID_INCREMENT + jitter;
+        ListBidLog bidLog = new ListBidLog();
+        AuctionOrderBook book = newBook();
+
+        book.placeBid("early", book.minimumBid(), ceiling, NOW, bidLog);
+        BidOutcome late = book.placeBid("late", book.minimumBid(), ceiling, NOW, bidLog);
+
+        assertTrue(late.isAccepted());
+        assertFalse(late.isLeading());
+        assertEquals("early", book.getHighestBidderId());
+        assertEquals(ceiling, book.getCurrentPrice());
+    }
+
+    @Provide
+    Arbitrary<List<BidRequest>> bidStreams() {
+        Arbitrary<Integer> bidders = Arbitraries.integers().between(0, 299);
+        // Mostly valid bids, some a step below the minimum
+        Arbitrary<Integer> raiseSteps = Arbitraries.integers().between(-1, 3);
+        Arbitrary<Integer> jitter = Arbitraries.integers().between(0, (int) BID_INCREMENT - 1);
+        Arbitrary<Integer> proxySteps = Arbitraries.integers().between(0, 60).injectNull(0.3);
+
+        return Combinators.combine(bidders, raiseSteps, jitter, proxySteps)
+                .as(BidRequest::new)
+                .list().ofMinSize(1).ofMaxSize(400);
+    }
+
+    private static ProxyCeiling best(Collection<ProxyCeiling> ceilings, String excludedBidderId) {
+        ProxyCeiling best = null;
+        for (ProxyCeiling ceiling : ceilings) {
+            if (!ceiling.getBidderId().equals(excludedBidderId) && (best == null || ceiling.beats(best))) {
+                best = ceiling;
+            }
+        }
+        return best;
+    }
+
+    private static AuctionOrderBook newBook() {
+        return AuctionOrderBook.builder()
+                .auctionId("auction-1")
+                .sellerId("seller")
+                .title("Proxy properties")
+                .bidIncrement(BID_INCREMENT)
+                .status(AuctionStatus.ACTIVE)
+                .endTime(NOW.plusDays(1))
+                .currentPrice(STARTING_PRICE)
+                .build();
+    }
+
+    record BidRequest(int bidder, int raiseSteps, int jitter, Integer proxySteps) {
+        String bidderId() {
+            return "bidder-" + bidder;
+        }
+
+        long amount(long minimumBid) {
+            return raiseSteps < 0 ? minimumBid - 1 - jitter : minimumBid + raiseSteps * BID_INCREMENT + jitter;
+        }
+
+        Long maxAutoBid(long amount) {
+            return proxySteps == null ? null : amount + proxySteps * BID_INCREMENT + jitter;
+        }
+    }
+
+    private static class ListBidLog implements BidLog {
+        private final List<AcceptedBid> entries = new ArrayList<>();
+
+        @Override
+        public CompletableFuture<Void> append(AcceptedBid bid) {
+            entries.add(bid);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void onSequenceConflict(Consumer<String> listener) {
+        }
+
+        @Override
+        public void resume(String auctionId) {
+        }
+
+        int size() {
+            return entries.size();
+        }
+
+        AcceptedBid get(int index) {
+            return entries.get(index);
+        }
+
+        List<AcceptedBid> since(int index) {
+            return entries.subList(index, entries.size());
+        }
+    }
+}
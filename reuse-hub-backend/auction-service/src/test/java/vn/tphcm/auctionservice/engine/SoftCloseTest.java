@@ -0,0 +1,145 @@
+package vn.tphcm.auctionservice.engine;
+
+import org.junit.jupiter.api.Test;
+import vn.tphcm.auctionservice.commons.AuctionStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Anti-sniping: a bid in the final window keeps the auction open for one extension after it, and a burst of
+ * final-second bids leaves the end one extension after the last of them rather than one extension per bid.
+ */
+class SoftCloseTest {
+    private static final long STARTING_PRICE = 100_000;
+    private static final long BID_INCREMENT = 10_000;
+    private static final Duration WINDOW = Duration.ofSeconds(30);
+    private static final Duration EXTENSION = Duration.ofSeconds(60);
+    private static final LocalDateTime END = LocalDateTime.of(2026, 10, 18, 20, 0);
+
+    private final ListBidLog bidLog = new ListBidLog();
+
+    @Test
+    void bidBeforeTheWindowKeepsTheEnd() {
+        AuctionOrderBook book = newBook(END, WINDOW, EXTENSION);
+
+        BidOutcome outcome = book.placeBid("bidder-1", book.minimumBid(), null, END.minusMinutes(5), bidLog);
+
+        assertTrue(outcome.isAccepted());
+        assertNull(outcome.getBid().getExtendedEndTime());
+        assertEquals(END, book.getEndTime());
+    }
+
+    @Test
+    void bidInTheWindowExtendsFromTheBid() {
+        AuctionOrderBook book = newBook(END, WINDOW, EXTENSION);
+        LocalDateTime snipe = END.minusSeconds(2);
+
+        BidOutcome outcome = book.placeBid("bidder-1", book.minimumBid(), null, snipe, bidLog);
+
+        assertEquals(snipe.plus(EXTENSION), book.getEndTime());
+        assertEquals(snipe.plus(EXTENSION), outcome.getLeadingBid().getExtendedEndTime());
+
+        // Beyond the original end but in the window of the moved one: accepted, and it extends again
+        assertTrue(book.placeBid("bidder-2", book.minimumBid(), null, END.plusSeconds(40), bidLog).isAccepted());
+        assertEquals(END.plusSeconds(40).plus(EXTENSION), book.getEndTime());
+    }
+
+    @Test
+    void hardCloseNeverExtends() {
+        AuctionOrderBook book = newBook(END, null, null);
+
+        book.placeBid("bidder-1", book.minimumBid(), null, END.minusSeconds(1), bidLog);
+        BidOutcome late = book.placeBid("bidder-2", book.minimumBid(), null, END.plusSeconds(1), bidLog);
+
+        assertEquals(END, book.getEndTime());
+        assertEquals(BidRejection.ENDED, late.getRejection());
+    }
+
+    @Test
+    void finalSecondBurstExtendsOnlyUpToOneExtensionAfterTheLastBid() throws Exception {
+        LocalDateTime end = LocalDateTime.now().plusSeconds(1);
+        AuctionEngine engine = new AuctionEngine(id -> newBook(end, WINDOW, EXTENSION), bidLog, 1, 100_000, 30_000);
+        ExecutorService callers = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> bidders = new ArrayList<>();
+
+        try {
+            for (int b = 0; b < 2_000; b++) {
+                String bidderId = "bidder-" + b;
+                bidders.add(callers.submit(() -> {
+                    start.await();
+                    long minimum = STARTING_PRICE + BID_INCREMENT;
+                    for (int attempt = 0; attempt < 3; attempt++) {
+                        BidOutcome outcome = engine.placeBid("auction-1", bidderId, minimum, null);
+                        minimum = outcome.getMinimumBid() + (outcome.isAccepted() ? BID_INCREMENT : 0);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> bidder : bidders) {
+                bidder.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            callers.shutdown();
+            engine.destroy();
+        }
+
+        List<AcceptedBid> log = bidLog.entries;
+        assertFalse(log.isEmpty());
+
+        LocalDateTime endInForce = end;
+        LocalDateTime lastBid = end;
+        for (AcceptedBid bid : log) {
+            assertFalse(bid.getPlacedAt().isAfter(endInForce), "bid at " + bid.getPlacedAt() + " after end " + endInForce);
+            if (bid.getExtendedEndTime() != null) {
+                assertTrue(bid.getExtendedEndTime().isAfter(endInForce), "an extension only ever moves the end later");
+                assertEquals(bid.getPlacedAt().plus(EXTENSION), bid.getExtendedEndTime());
+                endInForce = bid.getExtendedEndTime();
+            }
+            lastBid = bid.getPlacedAt();
+        }
+        assertFalse(endInForce.isAfter(lastBid.plus(EXTENSION)), "extensions must not stack across the burst");
+    }
+
+    private static AuctionOrderBook newBook(LocalDateTime endTime, Duration window, Duration extension) {
+        return AuctionOrderBook.builder()
+                .auctionId("auction-1")
+                .sellerId("seller")
+                .title("Soft close")
+                .bidIncrement(BID_INCREMENT)
+                .softCloseWindow(window)
+                .softCloseExtension(extension)
+                .status(AuctionStatus.ACTIVE)
+                .endTime(endTime)
+                .currentPrice(STARTING_PRICE)
+                .build();
+    }
+
+    private static class ListBidLog implements BidLog {
+        // Written by the single partition thread, read by the test after the engine stopped
+        private final List<AcceptedBid> entries = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public CompletableFuture<Void> append(AcceptedBid bid) {
+            entries.add(bid);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void onSequenceConflict(Consumer<String> listener) {
+        }
+
+        @Override
+        public void resume(String auctionId) {
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package vn.tphcm.auctionservice.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives the wheel with a fake clock: every timeout must fire on the first tick at or after its deadline, across level
+ * cascades and beyond the top level.
+ */
+class TimingWheelTest {
+    private static final long TICK_MS = 50;
+    private static final long START_MS = 1_760_000_000_000L;
+
+    private final List<Long> fired = new ArrayList<>();
+    private long now = START_MS;
+
+    @Test
+    void firesOnTheFirstTickAtOrAfterTheDeadline() {
+        // 16 slots of 50 ms over 3 levels cover 204.8 s, the largest deadlines need the top-level parking
+        TimingWheel wheel = new TimingWheel("test", TICK_MS, 16, 3, Runnable::run, START_MS);
+        Random random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            long deadline = START_MS + random.nextLong(600_000);
+            deadlines.add(deadline);
+            wheel.schedule(record(deadline), deadline);
+        }
+
+        for (now = START_MS; now <= START_MS + 600_000 + TICK_MS; now += TICK_MS) {
+            wheel.advanceTo(now);
+        }
+
+        assertEquals(deadlines.size(), fired.size(), "every timeout fires exactly once");
+    }
+
+    @Test
+    void pastDeadlinesFireOnTheNextTick() {
+        TimingWheel wheel = new TimingWheel("test", TICK_MS, 16, 3, Runnable::run, START_MS);
+        wheel.schedule(record(START_MS - 60_000), START_MS - 60_000);
+
+        wheel.advanceTo(START_MS);
+
+        assertEquals(1, fired.size());
+    }
+
+    @Test
+    void cancelledTimeoutsDoNotFire() {
+        TimingWheel wheel = new TimingWheel("test", TICK_MS, 16, 3, Runnable::run, START_MS);
+        TimingWheel.Timeout kept = wheel.schedule(record(START_MS + 1_000), START_MS + 1_000);
+        TimingWheel.Timeout cancelled = wheel.schedule(record(START_MS + 30_000), START_MS + 30_000);
+        wheel.advanceTo(START_MS);
+        cancelled.cancel();
+
+        for (now = START_MS + TICK_MS; now <= START_MS + 60_000; now += TICK_MS) {
+            wheel.advanceTo(now);
+        }
+
+        assertFalse(kept.isCancelled());
+        assertEquals(List.of(START_MS + 1_000), fired);
+    }
+
+    private Runnable record(long deadline) {
+        return () -> {
+            assertTrue(now >= deadline, "fired " + (deadline - now) + " ms early");
+            assertTrue(now < Math.max(deadline, START_MS) + TICK_MS, "fired " + (now - deadline) + " ms late");
+            fired.add(deadline);
+        };
+    }
+}
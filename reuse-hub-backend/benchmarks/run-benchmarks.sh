@@ -0,0 +1,22 @@
+#!/usr/bin/env bash
+# Builds the service jars and the benchmark uber jar, then runs JMH and writes results/<commit>.json.
+# Extra arguments are passed to JMH, e.g. ./run-benchmarks.sh StoragePaths -f 1
+# Compare two commits with:
+#   java -cp target/benchmarks.jar vn.tphcm.benchmarks.ResultComparator results/<base>.json results/<head>.json 10
+set -euo pipefail
+
+cd "$(dirname "$0")"
+
+mvn -B -q -f ../item-service/pom.xml install -DskipTests
+mvn -B -q -f ../profile-service/pom.xml install -DskipTests
+mvn -B -q -f ../auction-service/pom.xml install -DskipTests
+mvn -B -q package
+
+commit=$(git rev-parse --short HEAD)
+if [ -n "$(git status --porcelain -- ..)" ]; then
+  commit="${commit}-dirty"
+fi
+
+mkdir -p results
+java -jar target/benchmarks.jar -rf json -rff "results/${commit}.json" "$@"
+echo "Results written to results/${commit}.json"
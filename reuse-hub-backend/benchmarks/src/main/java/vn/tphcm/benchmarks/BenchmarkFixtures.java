@@ -0,0 +1,83 @@
+/*
+ * @ (#) BenchmarkFixtures.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.benchmarks;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import vn.tphcm.itemservice.commons.ItemStatus;
+import vn.tphcm.itemservice.dtos.ItemSummary;
+import vn.tphcm.itemservice.models.Category;
+import vn.tphcm.itemservice.models.Item;
+import vn.tphcm.itemservice.models.Tag;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Deterministic sample data shared by the benchmarks, shaped like a typical listing row.
+ */
+final class BenchmarkFixtures {
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory(new PrecisionModel(), 4326);
+    private static final String STORAGE_URL = "https://project.supabase.co/storage/v1/object/public/items/";
+
+    private BenchmarkFixtures() {
+    }
+
+    static Item item(int seq) {
+        Category category = Category.builder()
+                .name("Đồ điện tử")
+                .slug("do-dien-tu")
+                .build();
+        category.setId("category-" + (seq % 8));
+
+        Set<Tag> tags = new LinkedHashSet<>();
+        for (String name : List.of("dien-thoai", "iphone", "con-bao-hanh", "hcm")) {
+            tags.add(Tag.builder().id(name.hashCode()).name(name).build());
+        }
+
+        Item item = Item.builder()
+                .userId("user-" + (seq % 100))
+                .title("iPhone 13 Pro Max 256GB cũ #" + seq)
+                .description("Máy còn đẹp 98%, pin 89%, đầy đủ phụ kiện, bảo hành 3 tháng. Giao dịch trực tiếp tại quận 1.")
+                .images(List.of(STORAGE_URL + "user-1/" + seq + "/a.jpg", STORAGE_URL + "user-1/" + seq + "/b.jpg",
+                        STORAGE_URL + "user-1/" + seq + "/c.jpg"))
+                .thumbnails(List.of(STORAGE_URL + "user-1/" + seq + "/thumb_a.jpg"))
+                .tags(tags)
+                .location(GEOMETRY_FACTORY.createPoint(new Coordinate(106.7009, 10.7769)))
+                .address("12 Nguyễn Huệ, Bến Nghé, Quận 1, TP.HCM")
+                .status(ItemStatus.AVAILABLE)
+                .price(15_500_000L)
+                .viewCount(1200 + seq)
+                .commentCount(14)
+                .likeCount(87)
+                .rating(4.6)
+                .ratingCount(12)
+                .category(category)
+                .build();
+        item.setId("item-" + seq);
+        item.setCreatedAt(LocalDateTime.of(2026, 10, 1, 9, 30));
+        item.setUpdatedAt(LocalDateTime.of(2026, 10, 17, 18, 5));
+        return item;
+    }
+
+    static ItemSummary summary(int seq) {
+        Item item = item(seq);
+        ItemSummary summary = new ItemSummary(item.getId(), item.getUserId(), item.getTitle(), item.getDescription(),
+                item.getImages(), item.getThumbnails(), item.getLocation(), item.getAddress(), item.getStatus(),
+                item.getPrice(), item.getViewCount(), item.getCommentCount(), item.getLikeCount(),
+                item.getCategory().getName(), item.getCategory().getSlug());
+        summary.setTags(item.getTags().stream().map(Tag::getName).toList());
+        return summary;
+    }
+}
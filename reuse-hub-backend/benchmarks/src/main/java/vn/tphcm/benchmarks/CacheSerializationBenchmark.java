@@ -0,0 +1,130 @@
+/*
+ * @ (#) CacheSerializationBenchmark.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.benchmarks;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import vn.tphcm.itemservice.configs.CompactRedisSerializer;
+import vn.tphcm.itemservice.dtos.PageResponse;
+import vn.tphcm.itemservice.dtos.response.ItemResponse;
+import vn.tphcm.itemservice.mapper.ItemMapperImpl;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Cache value encoding used by {@code CacheServiceImpl}: the compact Smile/JSON serializer of the item templates
+ * against the default-typed JSON serializer they replaced. Payload sizes are printed once per fork.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class CacheSerializationBenchmark {
+    private static final int PAGE_SIZE = 20;
+    private static final int COMPRESSION_THRESHOLD = 2048; // item.cache.compression-threshold-bytes default
+
+    @Param({"compact-smile", "compact-json", "default-typed-json"})
+    public String serializer;
+
+    private RedisSerializer<ItemResponse> itemSerializer;
+    private RedisSerializer<PageResponse<ItemResponse>> pageSerializer;
+    private ItemResponse item;
+    private PageResponse<ItemResponse> page;
+    private byte[] itemBytes;
+    private byte[] pageBytes;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        ItemMapperImpl itemMapper = new ItemMapperImpl();
+        item = itemMapper.toResponse(BenchmarkFixtures.item(1));
+        page = PageResponse.<ItemResponse>builder()
+                .content(IntStream.range(0, PAGE_SIZE)
+                        .mapToObj(i -> itemMapper.toResponse(BenchmarkFixtures.summary(i)))
+                        .toList())
+                .pageNo(0)
+                .pageSize(PAGE_SIZE)
+                .totalElements(1000)
+                .totalPages(1000 / PAGE_SIZE)
+                .last(false)
+                .build();
+
+        switch (serializer) {
+            case "compact-smile" -> {
+                itemSerializer = compact(CompactRedisSerializer.FORMAT_SMILE, false);
+                pageSerializer = compact(CompactRedisSerializer.FORMAT_SMILE, true);
+            }
+            case "compact-json" -> {
+                itemSerializer = compact(CompactRedisSerializer.FORMAT_JSON, false);
+                pageSerializer = compact(CompactRedisSerializer.FORMAT_JSON, true);
+            }
+            case "default-typed-json" -> {
+                RedisSerializer<Object> typed = defaultTyped();
+                itemSerializer = (RedisSerializer<ItemResponse>) (RedisSerializer<?>) typed;
+                pageSerializer = (RedisSerializer<PageResponse<ItemResponse>>) (RedisSerializer<?>) typed;
+            }
+            default -> throw new IllegalArgumentException("Unknown serializer " + serializer);
+        }
+
+        itemBytes = itemSerializer.serialize(item);
+        pageBytes = pageSerializer.serialize(page);
+        System.out.printf("%n%s payload: item=%d bytes, page of %d=%d bytes%n",
+                serializer, itemBytes.length, PAGE_SIZE, pageBytes.length);
+    }
+
+    @Benchmark
+    public byte[] serializeItem() {
+        return itemSerializer.serialize(item);
+    }
+
+    @Benchmark
+    public ItemResponse deserializeItem() {
+        return itemSerializer.deserialize(itemBytes);
+    }
+
+    @Benchmark
+    public byte[] serializePage() {
+        return pageSerializer.serialize(page);
+    }
+
+    @Benchmark
+    public PageResponse<ItemResponse> deserializePage() {
+        return pageSerializer.deserialize(pageBytes);
+    }
+
+    private static <T> RedisSerializer<T> compact(String format, boolean paged) {
+        ObjectMapper om = CompactRedisSerializer.createMapper(format);
+        JavaType type = paged
+                ? om.getTypeFactory().constructParametricType(PageResponse.class, ItemResponse.class)
+                : om.getTypeFactory().constructType(ItemResponse.class);
+        return new CompactRedisSerializer<>(om, type, COMPRESSION_THRESHOLD);
+    }
+
+    // Same mapper as the generic RedisTemplate<String, Object> in RedisConfig
+    private static RedisSerializer<Object> defaultTyped() {
+        ObjectMapper om = new ObjectMapper();
+        om.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
+        om.activateDefaultTyping(LaissezFaireSubTypeValidator.instance, ObjectMapper.DefaultTyping.NON_FINAL);
+        om.registerModule(new JavaTimeModule());
+        return new Jackson2JsonRedisSerializer<>(om, Object.class);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * @ (#) ImageProcessingBenchmark.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.benchmarks;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockMultipartFile;
+import vn.tphcm.itemservice.configs.FileUploadConfig;
+import vn.tphcm.itemservice.dtos.ProcessedImage;
+import vn.tphcm.itemservice.services.impl.ImageProcessingServiceImpl;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Upload image resize and re-encode with the default {@code file.upload.image} settings.
+ * Scale the callers with {@code -t N} and the processing pool with {@code -p parallelism=N}
+ * to read throughput per core.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(1)
+@State(Scope.Benchmark)
+public class ImageProcessingBenchmark {
+    @Param({"1"})
+    public int parallelism;
+
+    @Param({"2000x1500"})
+    public String sourceSize;
+
+    private ImageProcessingServiceImpl imageProcessingService;
+    private MockMultipartFile upload;
+
+    @Setup
+    public void setUp() throws IOException {
+        imageProcessingService = new ImageProcessingServiceImpl(new FileUploadConfig(), new SimpleMeterRegistry(), parallelism);
+
+        String[] size = sourceSize.split("x");
+        upload = new MockMultipartFile("images", "photo.jpg", "image/jpeg",
+                sampleJpeg(Integer.parseInt(size[0]), Integer.parseInt(size[1])));
+    }
+
+    @TearDown
+    public void tearDown() {
+        imageProcessingService.destroy();
+    }
+
+    @Benchmark
+    public ProcessedImage process() {
+        return imageProcessingService.process(upload).join();
+    }
+
+    // Gradients and shapes so the encoder has real work, unlike a flat fill
+    private static byte[] sampleJpeg(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, Color.ORANGE, width, height, Color.BLUE));
+        g.fillRect(0, 0, width, height);
+        for (int i = 0; i < 200; i++) {
+            g.setColor(new Color((i * 37) % 256, (i * 73) % 256, (i * 151) % 256));
+            g.fillOval((i * 97) % width, (i * 61) % height, 40 + i % 120, 30 + i % 90);
+        }
+        g.dispose();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * @ (#) ItemMapperBenchmark.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.benchmarks;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import org.openjdk.jmh.annotations.*;
+import vn.tphcm.itemservice.dtos.ItemSummary;
+import vn.tphcm.itemservice.dtos.response.ItemResponse;
+import vn.tphcm.itemservice.mapper.ItemMapper;
+import vn.tphcm.itemservice.mapper.ItemMapperImpl;
+import vn.tphcm.itemservice.models.Item;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity and listing-row mapping done for every item of every page served by item-service.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ItemMapperBenchmark {
+    private ItemMapper itemMapper;
+    private Item item;
+    private ItemSummary summary;
+
+    @Setup
+    public void setUp() {
+        itemMapper = new ItemMapperImpl();
+        item = BenchmarkFixtures.item(1);
+        summary = BenchmarkFixtures.summary(1);
+    }
+
+    @Benchmark
+    public ItemResponse toResponseFromEntity() {
+        return itemMapper.toResponse(item);
+    }
+
+    @Benchmark
+    public ItemResponse toResponseFromSummary() {
+        return itemMapper.toResponse(summary);
+    }
+}
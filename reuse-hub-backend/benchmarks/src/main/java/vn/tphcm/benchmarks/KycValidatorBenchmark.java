@@ -0,0 +1,75 @@
+/*
+ * @ (#) KycValidatorBenchmark.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.benchmarks;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockMultipartFile;
+import vn.tphcm.profileservice.commons.DocumentType;
+import vn.tphcm.profileservice.dtos.request.KycSubmitRequest;
+import vn.tphcm.profileservice.exceptions.AppException;
+import vn.tphcm.profileservice.utils.KycValidator;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * KYC submission validation, for an accepted request and for one rejected on its document number.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class KycValidatorBenchmark {
+    private KycSubmitRequest validRequest;
+    private KycSubmitRequest invalidRequest;
+    private MockMultipartFile front;
+    private MockMultipartFile back;
+    private MockMultipartFile selfie;
+
+    @Setup
+    public void setUp() {
+        validRequest = KycSubmitRequest.builder()
+                .documentType(DocumentType.CCCD)
+                .documentNumber("079201001234")
+                .fullName("Nguyễn Văn An")
+                .dateOfBirth(LocalDate.of(2001, 5, 20))
+                .address("12 Nguyễn Huệ, Quận 1, TP.HCM")
+                .build();
+        invalidRequest = KycSubmitRequest.builder()
+                .documentType(DocumentType.PASSPORT)
+                .documentNumber("12AB")
+                .fullName("Nguyễn Văn An")
+                .build();
+
+        byte[] image = new byte[256 * 1024];
+        front = new MockMultipartFile("front", "front.jpg", "image/jpeg", image);
+        back = new MockMultipartFile("back", "back.png", "image/png", image);
+        selfie = new MockMultipartFile("selfie", "selfie.webp", "image/webp", image);
+    }
+
+    @Benchmark
+    public KycSubmitRequest validRequest() {
+        KycValidator.validateKycRequest(validRequest, front, back, selfie);
+        return validRequest;
+    }
+
+    @Benchmark
+    public AppException invalidDocumentNumber() {
+        try {
+            KycValidator.validateKycRequest(invalidRequest, front, back, selfie);
+            throw new IllegalStateException("Request should have been rejected");
+        } catch (AppException e) {
+            return e;
+        }
+    }
+}
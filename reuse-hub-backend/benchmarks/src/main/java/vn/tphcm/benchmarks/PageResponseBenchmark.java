@@ -0,0 +1,51 @@
+/*
+ * @ (#) PageResponseBenchmark.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.benchmarks;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import vn.tphcm.itemservice.dtos.PageResponse;
+import vn.tphcm.itemservice.dtos.response.ItemResponse;
+import vn.tphcm.itemservice.mapper.ItemMapperImpl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Wrapping a Spring Data page into the {@link PageResponse} returned by every listing endpoint.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class PageResponseBenchmark {
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private Page<ItemResponse> page;
+
+    @Setup
+    public void setUp() {
+        ItemMapperImpl itemMapper = new ItemMapperImpl();
+        page = new PageImpl<>(IntStream.range(0, pageSize)
+                .mapToObj(i -> itemMapper.toResponse(BenchmarkFixtures.summary(i)))
+                .toList(), PageRequest.of(3, pageSize), 10_000);
+    }
+
+    @Benchmark
+    public PageResponse<ItemResponse> of() {
+        return PageResponse.of(page);
+    }
+}
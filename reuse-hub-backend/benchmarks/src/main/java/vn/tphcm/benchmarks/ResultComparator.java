@@ -0,0 +1,117 @@
+/*
+ * @ (#) ResultComparator.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.benchmarks;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files, e.g. {@code results/<base-sha>.json} and {@code results/<head-sha>.json}.
+ * <p>
+ * Usage: {@code java -cp target/benchmarks.jar vn.tphcm.benchmarks.ResultComparator base.json head.json [threshold%]}
+ * <p>
+ * Exits with status 1 when a benchmark got slower by more than the threshold (default 10%) and the change is
+ * larger than the combined score errors of both runs.
+ */
+public final class ResultComparator {
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10.0;
+
+    private ResultComparator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ResultComparator <base.json> <head.json> [threshold-percent]");
+            System.exit(2);
+        }
+
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+        Map<String, JsonNode> base = read(new File(args[0]));
+        Map<String, JsonNode> head = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s%n", "Benchmark", "Base", "Head", "Change");
+        for (Map.Entry<String, JsonNode> entry : head.entrySet()) {
+            JsonNode before = base.get(entry.getKey());
+            JsonNode after = entry.getValue();
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s%n", entry.getKey(), "-", score(after), "new");
+                continue;
+            }
+
+            double oldScore = score(before);
+            double newScore = score(after);
+            // Throughput modes improve upwards, time modes downwards; normalize so positive means slower
+            double change = (newScore - oldScore) / oldScore * 100.0;
+            double slowdown = higherIsBetter(after) ? -change : change;
+            double noise = error(before) + error(after);
+            boolean regressed = slowdown > threshold && Math.abs(newScore - oldScore) > noise;
+            if (regressed) {
+                regressions++;
+            }
+
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%% %s%s%n", entry.getKey(), oldScore, newScore, change,
+                    after.path("primaryMetric").path("scoreUnit").asText(), regressed ? "  REGRESSION" : "");
+        }
+
+        for (String missing : base.keySet()) {
+            if (!head.containsKey(missing)) {
+                System.out.printf("%-90s %14.3f %14s %9s%n", missing, score(base.get(missing)), "-", "removed");
+            }
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.1f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> results = new TreeMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            results.put(key(result), result);
+        }
+        return results;
+    }
+
+    private static String key(JsonNode result) {
+        Map<String, String> params = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = result.path("params").fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> param = fields.next();
+            params.put(param.getKey(), param.getValue().asText());
+        }
+
+        String name = result.path("benchmark").asText().replace("vn.tphcm.benchmarks.", "");
+        return name + ":" + result.path("mode").asText() + ":t" + result.path("threads").asInt()
+                + (params.isEmpty() ? "" : params.toString());
+    }
+
+    private static double score(JsonNode result) {
+        return result.path("primaryMetric").path("score").asDouble();
+    }
+
+    private static double error(JsonNode result) {
+        double error = result.path("primaryMetric").path("scoreError").asDouble();
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    private static boolean higherIsBetter(JsonNode result) {
+        return "thrpt".equals(result.path("mode").asText());
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * @ (#) StompFanoutBenchmark.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.benchmarks;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+import vn.tphcm.auctionservice.configs.WebSocketFanoutBridge;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One bid broadcast on a hot auction topic with 10,000 subscribers, until the last of them has its frame on the
+ * outbound channel. {@code local} is the in-process broker alone; {@code bridged} adds the {@code WebSocketFanoutBridge}
+ * hop of another replica: the copy made by the sending side and its delivery by the receiving side. The RabbitMQ round
+ * trip itself is not included, add the broker's publish-to-consume latency to compare against a single instance.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class StompFanoutBenchmark {
+    private static final String TOPIC = "/topic/auction/hot";
+    private static final int SUBSCRIBERS = 10_000;
+
+    @Param({"local", "bridged"})
+    public String mode;
+
+    private ExecutorSubscribableChannel brokerChannel;
+    private SimpleBrokerMessageHandler broker;
+    private WebSocketFanoutBridge sender;
+    private WebSocketFanoutBridge receiver;
+    private CapturingRabbitTemplate exchange;
+    private org.springframework.messaging.Message<byte[]> bid;
+    private int delivered;
+
+    @Setup
+    public void setUp() {
+        // Synchronous channels, so one send returns once every subscriber got its frame
+        ExecutorSubscribableChannel clientInboundChannel = new ExecutorSubscribableChannel();
+        MessageChannel clientOutboundChannel = (message, timeout) -> {
+            delivered++;
+            return true;
+        };
+        brokerChannel = new ExecutorSubscribableChannel();
+        broker = new SimpleBrokerMessageHandler(clientInboundChannel, clientOutboundChannel, brokerChannel,
+                List.of("/topic/", "/queue/"));
+        broker.start();
+
+        // The broker only delivers to sessions it saw connect
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            SimpMessageHeaderAccessor connect = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT);
+            connect.setSessionId("session-" + i);
+            broker.handleMessage(MessageBuilder.createMessage(new byte[0], connect.getMessageHeaders()));
+
+            SimpMessageHeaderAccessor subscribe = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+            subscribe.setSessionId("session-" + i);
+            subscribe.setSubscriptionId("sub-0");
+            subscribe.setDestination(TOPIC);
+            broker.handleMessage(MessageBuilder.createMessage(new byte[0], subscribe.getMessageHeaders()));
+        }
+
+        exchange = new CapturingRabbitTemplate();
+        sender = new WebSocketFanoutBridge(exchange, "auction.websocket.fanout", List.of("/topic/"), brokerChannel);
+        receiver = new WebSocketFanoutBridge(exchange, "auction.websocket.fanout", List.of("/topic/"), brokerChannel);
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(TOPIC);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        byte[] payload = ("{\"type\":\"BID_PLACED\",\"auctionId\":\"hot\",\"bidderId\":\"bidder-42\","
+                + "\"amount\":1250000,\"bidCount\":318}").getBytes(StandardCharsets.UTF_8);
+        bid = MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+
+    @TearDown
+    public void tearDown() {
+        broker.stop();
+    }
+
+    @Benchmark
+    public int broadcast() {
+        delivered = 0;
+        if ("local".equals(mode)) {
+            brokerChannel.send(bid);
+        } else {
+            sender.preSend(bid, brokerChannel);
+            receiver.onMessage(exchange.last);
+        }
+        if (delivered != SUBSCRIBERS) {
+            throw new IllegalStateException("Delivered to " + delivered + " of " + SUBSCRIBERS + " subscribers");
+        }
+        return delivered;
+    }
+
+    // Stands in for the fanout exchange: keeps what the sending replica published
+    private static class CapturingRabbitTemplate extends RabbitTemplate {
+        private Message last;
+
+        @Override
+        public void send(String exchange, String routingKey, Message message) {
+            last = message;
+        }
+    }
+}
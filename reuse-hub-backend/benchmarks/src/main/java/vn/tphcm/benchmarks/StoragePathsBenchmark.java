@@ -0,0 +1,65 @@
+/*
+ * @ (#) StoragePathsBenchmark.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.benchmarks;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import org.openjdk.jmh.annotations.*;
+import vn.tphcm.itemservice.utils.StoragePaths;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regex based object path helpers run for every uploaded and deleted image.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class StoragePathsBenchmark {
+    private static final String BASE_URL = "https://project.supabase.co/storage/v1/object/public/";
+    private static final String BUCKET = "items";
+
+    private String folder;
+    private String fileName;
+    private String objectPath;
+    private String publicUrl;
+    private String foreignUrl;
+
+    @Setup
+    public void setUp() {
+        folder = "/items/user-42/";
+        fileName = "2f0c8a4e-6c1b-4a59-9d8e-3f1f0f8f0a11.jpg";
+        objectPath = StoragePaths.join(folder, fileName);
+        publicUrl = StoragePaths.publicUrl(BASE_URL, BUCKET, objectPath);
+        foreignUrl = "https://cdn.example.com/images/" + fileName;
+    }
+
+    @Benchmark
+    public String join() {
+        return StoragePaths.join(folder, fileName);
+    }
+
+    @Benchmark
+    public String publicUrl() {
+        return StoragePaths.publicUrl(BASE_URL, BUCKET, objectPath);
+    }
+
+    @Benchmark
+    public String objectPathOfPublicUrl() {
+        return StoragePaths.objectPath(publicUrl, BUCKET);
+    }
+
+    @Benchmark
+    public String objectPathOfForeignUrl() {
+        return StoragePaths.objectPath(foreignUrl, BUCKET);
+    }
+}
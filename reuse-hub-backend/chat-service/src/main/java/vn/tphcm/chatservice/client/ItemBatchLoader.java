@@ -0,0 +1,147 @@
+/*
+ * @ (#) ItemBatchLoader.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.chatservice.client;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import vn.tphcm.chatservice.dtos.ApiResponse;
+import vn.tphcm.chatservice.dtos.response.ItemResponse;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Coalesces concurrent single-item lookups into one {@code POST /item-feign/batch} call. The first id of a batch opens
+ * a short window, every lookup arriving inside it (or until the batch is full) is sent together, and duplicate ids
+ * share one future. Batches are sent from the loader's own threads and therefore without the caller's token.
+ */
+@Component
+@Slf4j(topic = "ITEM-BATCH-LOADER")
+public class ItemBatchLoader implements DisposableBean {
+    private final ItemServiceClient itemServiceClient;
+    private final long windowMillis;
+    private final int maxBatchSize;
+    private final long timeoutMillis;
+    private final ScheduledExecutorService executor;
+
+    private final Object lock = new Object();
+    private Map<String, CompletableFuture<ItemResponse>> pending = new LinkedHashMap<>();
+    private ScheduledFuture<?> scheduledDispatch;
+
+    public ItemBatchLoader(ItemServiceClient itemServiceClient,
+                           @Value("${item-service.batch.window-ms:5}") long windowMillis,
+                           @Value("${item-service.batch.max-size:100}") int maxBatchSize,
+                           @Value("${item-service.batch.timeout-ms:5000}") long timeoutMillis,
+                           @Value("${item-service.batch.threads:4}") int threads) {
+        this.itemServiceClient = itemServiceClient;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.timeoutMillis = timeoutMillis;
+        this.executor = Executors.newScheduledThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "item-batch-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return a future completed with the item, or with {@code null} when item-service does not know the id
+     */
+    public CompletableFuture<ItemResponse> load(String itemId) {
+        Map<String, CompletableFuture<ItemResponse>> full = null;
+        CompletableFuture<ItemResponse> future;
+
+        synchronized (lock) {
+            future = pending.computeIfAbsent(itemId, id -> new CompletableFuture<>());
+
+            if (pending.size() >= maxBatchSize) {
+                full = takePending();
+            } else if (scheduledDispatch == null) {
+                scheduledDispatch = executor.schedule(this::dispatchPending, windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        if (full != null) {
+            Map<String, CompletableFuture<ItemResponse>> batch = full;
+            executor.execute(() -> dispatch(batch));
+        }
+
+        return future;
+    }
+
+    /**
+     * Blocking variant of {@link #load(String)} for the synchronous service code.
+     */
+    public ItemResponse getItem(String itemId) {
+        try {
+            return load(itemId).get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while fetching item " + itemId, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to fetch item " + itemId + ": " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out fetching item " + itemId, e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void dispatchPending() {
+        Map<String, CompletableFuture<ItemResponse>> batch;
+
+        synchronized (lock) {
+            batch = takePending();
+        }
+
+        dispatch(batch);
+    }
+
+    // Caller holds the lock
+    private Map<String, CompletableFuture<ItemResponse>> takePending() {
+        Map<String, CompletableFuture<ItemResponse>> batch = pending;
+        pending = new LinkedHashMap<>();
+
+        if (scheduledDispatch != null) {
+            scheduledDispatch.cancel(false);
+            scheduledDispatch = null;
+        }
+
+        return batch;
+    }
+
+    private void dispatch(Map<String, CompletableFuture<ItemResponse>> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            ApiResponse<List<ItemResponse>> response = itemServiceClient.getItemsByIds(new ArrayList<>(batch.keySet()));
+
+            Map<String, ItemResponse> items = new HashMap<>();
+            if (response != null && response.getData() != null) {
+                response.getData().forEach(item -> items.put(item.getId(), item));
+            }
+
+            log.debug("Fetched {} of {} items in one batch", items.size(), batch.size());
+
+            batch.forEach((itemId, future) -> future.complete(items.get(itemId)));
+        } catch (Exception e) {
+            log.error("Failed to fetch a batch of {} items: {}", batch.size(), e.getMessage());
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+}
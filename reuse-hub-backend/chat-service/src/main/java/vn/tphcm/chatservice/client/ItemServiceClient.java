@@ -13,13 +13,20 @@ package vn.tphcm.chatservice.client;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import vn.tphcm.chatservice.configs.AuthenticationRequestInterceptor;
 import vn.tphcm.chatservice.dtos.ApiResponse;
 import vn.tphcm.chatservice.dtos.response.ItemResponse;
 
+import java.util.List;
+
 @FeignClient(name = "item-service", url = "${feign.client.config.item-service.url}",
         configuration = {AuthenticationRequestInterceptor.class})
 public interface ItemServiceClient {
     @GetMapping(value = "/item-feign/{itemId}")
     ApiResponse<ItemResponse> getItemById(@PathVariable String itemId);
+
+    @PostMapping(value = "/item-feign/batch")
+    ApiResponse<List<ItemResponse>> getItemsByIds(@RequestBody List<String> itemIds);
 }
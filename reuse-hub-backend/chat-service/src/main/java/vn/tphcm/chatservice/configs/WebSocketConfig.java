@@ -12,6 +12,7 @@ package vn.tphcm.chatservice.configs;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.ChannelRegistration;
@@ -28,6 +29,9 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final WebSocketAuthInterceptor webSocketAuthInterceptor;
 
+    // Present with websocket.broker.fanout.enabled, so broadcasts reach the subscribers of every replica
+    private final ObjectProvider<WebSocketFanoutBridge> fanoutBridge;
+
     @Value("${websocket.allow-origin}")
     private String allowedOrigins;
 
@@ -46,6 +50,7 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         registry.enableSimpleBroker(destinationPrefix.split(","));
+        fanoutBridge.ifAvailable(bridge -> registry.configureBrokerChannel().interceptors(bridge));
 
         registry.setApplicationDestinationPrefixes(applicationPrefix);
 
@@ -0,0 +1,61 @@
+/*
+ * @ (#) WebSocketFanoutConfig.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.chatservice.configs;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.MessageChannel;
+
+import java.util.List;
+
+/**
+ * RabbitMQ fanout between the WebSocket brokers of all chat-service replicas, see {@link WebSocketFanoutBridge}.
+ * Off by default, a single instance does not need it.
+ */
+@Configuration
+@ConditionalOnProperty(name = "websocket.broker.fanout.enabled", havingValue = "true")
+public class WebSocketFanoutConfig {
+
+    @Value("${websocket.broker.fanout.exchange:chat.websocket.fanout}")
+    private String exchange;
+
+    @Value("${websocket.broker.fanout.destination-prefixes:/topic/,/user/}")
+    private List<String> destinationPrefixes;
+
+    @Bean
+    public FanoutExchange webSocketFanoutExchange() {
+        return new FanoutExchange(exchange, true, false);
+    }
+
+    // One exclusive, auto-deleted queue per replica, gone with the replica
+    @Bean
+    public Queue webSocketFanoutQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("chat.websocket."));
+    }
+
+    @Bean
+    public Binding webSocketFanoutBinding() {
+        return BindingBuilder.bind(webSocketFanoutQueue()).to(webSocketFanoutExchange());
+    }
+
+    // The broker channel is built from WebSocketConfig, which itself needs this bridge
+    @Bean
+    public WebSocketFanoutBridge webSocketFanoutBridge(RabbitTemplate rabbitTemplate,
+                                                       @Lazy @Qualifier("brokerChannel") MessageChannel brokerChannel) {
+        return new WebSocketFanoutBridge(rabbitTemplate, exchange, destinationPrefixes, brokerChannel);
+    }
+}
@@ -17,7 +17,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import vn.tphcm.chatservice.client.ItemServiceClient;
+import vn.tphcm.chatservice.client.ItemBatchLoader;
 import vn.tphcm.chatservice.client.ProfileServiceClient;
 import vn.tphcm.chatservice.dtos.ApiResponse;
 import vn.tphcm.chatservice.dtos.PageResponse;
@@ -44,7 +44,7 @@ public class ConversationServiceImpl implements ConversationService {
     private final ConversationRepository conversationRepository;
     private final ConversationMapper conversationMapper;
     private final ProfileServiceClient profileClient;
-    private final ItemServiceClient itemServiceClient;
+    private final ItemBatchLoader itemBatchLoader;
 
     @Override
     public ApiResponse<ConversationResponse> createConversation(String userFirstId, String userSecondId, String itemId) {
@@ -109,9 +109,8 @@ public class ConversationServiceImpl implements ConversationService {
         
         if (itemId != null && !itemId.isBlank()) {
             try {
-                ApiResponse<ItemResponse> itemResponse = itemServiceClient.getItemById(itemId);
-                if (itemResponse != null && itemResponse.getData() != null) {
-                    ItemResponse item = itemResponse.getData();
+                ItemResponse item = itemBatchLoader.getItem(itemId);
+                if (item != null) {
                     builder.itemId(item.getId())
                            .itemTitle(item.getTitle())
                            .itemPrice(item.getPrice() != null ? item.getPrice().doubleValue() : null)
@@ -181,9 +180,8 @@ public class ConversationServiceImpl implements ConversationService {
      */
     private void enrichWithItemInfo(ConversationResponse response, String itemId) {
         try {
-            ApiResponse<ItemResponse> itemResponse = itemServiceClient.getItemById(itemId);
-            if (itemResponse != null && itemResponse.getData() != null) {
-                ItemResponse item = itemResponse.getData();
+            ItemResponse item = itemBatchLoader.getItem(itemId);
+            if (item != null) {
                 response.setItemId(item.getId());
                 response.setItemTitle(item.getTitle());
                 response.setItemPrice(item.getPrice() != null ? item.getPrice().doubleValue() : null);
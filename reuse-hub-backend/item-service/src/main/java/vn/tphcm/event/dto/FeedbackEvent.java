@@ -18,8 +18,11 @@ import lombok.*;
 @AllArgsConstructor
 @Builder
 public class FeedbackEvent {
+    private String eventId;
+    private String transactionId;
     private String itemId;
     private String reviewerId;
-    private Double rating;
+    private String sellerId;
     private String comment;
+    private Double rating;
 }
@@ -0,0 +1,24 @@
+/*
+ * @ (#) ExportFormat.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.commons;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+}
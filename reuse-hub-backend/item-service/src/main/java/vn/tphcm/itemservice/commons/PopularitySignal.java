@@ -0,0 +1,15 @@
+/*
+ * @ (#) PopularitySignal.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.commons;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+public enum PopularitySignal {
+    CREATED, VIEW, LIKE, UNLIKE, COMMENT, PREMIUM
+}
@@ -0,0 +1,100 @@
+/*
+ * @ (#) DataSourceConfig.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.configs;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Primary pool from {@code spring.datasource}, optional replica pool from {@code item.datasource.replica}.
+ * Both are Hikari beans with their own pool name, so {@code hikaricp.*} metrics are reported per pool.
+ * The {@code dataSource} everything else uses routes read-only transactions to the replica when one is configured.
+ */
+@Configuration
+@Slf4j(topic = "DATA-SOURCE-CONFIG")
+public class DataSourceConfig {
+    private static final String REPLICA_ENABLED = "!'${item.datasource.replica.url:}'.isBlank()";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("item-primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConditionalOnExpression(REPLICA_ENABLED)
+    @ConfigurationProperties("item.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties primaryProperties,
+                                              @Value("${item.datasource.replica.url}") String url,
+                                              @Value("${item.datasource.replica.username:}") String username,
+                                              @Value("${item.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username.isBlank() ? primaryProperties.determineUsername() : username);
+        dataSource.setPassword(password.isBlank() ? primaryProperties.determinePassword() : password);
+        dataSource.setPoolName("item-replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @ConditionalOnExpression(REPLICA_ENABLED)
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                               @Value("${item.datasource.replica.max-lag-ms:1000}") long maxLagMs,
+                                               @Value("${item.datasource.replica.lag-check-interval-ms:1000}") long checkIntervalMs,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(replicaDataSource, maxLagMs, checkIntervalMs, meterRegistry);
+    }
+
+    /**
+     * The lazy proxy takes a physical connection only at the first statement, after the transaction's read-only flag is
+     * set, and not at all for transactions that are answered from the cache.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") ObjectProvider<DataSource> replicaDataSource,
+                                 ObjectProvider<ReplicaLagMonitor> replicaLagMonitor,
+                                 StringRedisTemplate stringRedisTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${item.datasource.replica.read-your-writes-ms:5000}") long readYourWritesMs) {
+        DataSource replica = replicaDataSource.getIfAvailable();
+        if (replica == null) {
+            log.info("No read replica configured, all queries use the primary");
+            return new LazyConnectionDataSourceProxy(primaryDataSource);
+        }
+
+        log.info("Routing read-only transactions to the replica, read-your-writes window {} ms", readYourWritesMs);
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(stringRedisTemplate, Duration.ofMillis(readYourWritesMs));
+
+        return new LazyConnectionDataSourceProxy(new ReadReplicaRoutingDataSource(primaryDataSource, replica,
+                replicaLagMonitor.getObject(), tracker, meterRegistry));
+    }
+}
@@ -38,7 +38,7 @@ public class FileUploadConfig {
     @Setter
     public static class Image {
         @Value("${file.upload.image.max-width}")
-        private int maxWidth;
+        private int maxWidth = 1920;
         @Value("${file.upload.image.max-height}")
         private int maxHeight = 1080;
         @Value("${file.upload.image.thumbnail-size}")
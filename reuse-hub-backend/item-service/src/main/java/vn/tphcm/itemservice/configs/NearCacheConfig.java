@@ -0,0 +1,76 @@
+/*
+ * @ (#) NearCacheConfig.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.configs;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import vn.tphcm.itemservice.dtos.PageResponse;
+import vn.tphcm.itemservice.dtos.response.ItemResponse;
+import vn.tphcm.itemservice.services.impl.NearCacheInvalidationListener;
+
+import java.time.Duration;
+
+@Configuration
+@Slf4j(topic = "NEAR-CACHE-CONFIG")
+public class NearCacheConfig {
+    public static final String INVALIDATION_CHANNEL = "item-service:near-cache:invalidate";
+
+    @Value("${item.near-cache.detail-max-size:10000}")
+    private long detailMaxSize;
+    @Value("${item.near-cache.detail-ttl-seconds:30}")
+    private long detailTtlSeconds;
+    @Value("${item.near-cache.list-max-size:200}")
+    private long listMaxSize;
+    @Value("${item.near-cache.list-ttl-seconds:10}")
+    private long listTtlSeconds;
+
+    @Bean
+    public Cache<String, ItemResponse> itemNearCache(MeterRegistry meterRegistry) {
+        Cache<String, ItemResponse> cache = Caffeine.newBuilder()
+                .maximumSize(detailMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(detailTtlSeconds))
+                .recordStats()
+                .build();
+
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "item.near.detail");
+    }
+
+    @Bean
+    public Cache<String, PageResponse<ItemResponse>> itemListNearCache(MeterRegistry meterRegistry) {
+        Cache<String, PageResponse<ItemResponse>> cache = Caffeine.newBuilder()
+                .maximumSize(listMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(listTtlSeconds))
+                .recordStats()
+                .build();
+
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "item.near.list");
+    }
+
+    @Bean
+    public RedisMessageListenerContainer nearCacheListenerContainer(RedisConnectionFactory factory,
+                                                                    NearCacheInvalidationListener listener) {
+        log.info("Subscribing near cache to channel {}", INVALIDATION_CHANNEL);
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        container.addMessageListener(listener, new ChannelTopic(INVALIDATION_CHANNEL));
+        return container;
+    }
+}
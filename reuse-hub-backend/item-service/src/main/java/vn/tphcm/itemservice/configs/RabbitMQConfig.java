@@ -41,6 +41,8 @@ public class RabbitMQConfig {
     private String queueItemUpdated;
     @Value("${rabbitmq.queue.item.viewed}")
     private String queueItemViewed;
+    @Value("${rabbitmq.queue.item.popularity:q.item.popularity}")
+    private String queueItemPopularity;
 
     @Value("${rabbitmq.routing-key.item.created}")
     private String routingKeyItemCreated;
@@ -78,6 +80,9 @@ public class RabbitMQConfig {
     private static final String AI_TAGS_QUEUE = "q.item.update-tags";
     private static final String AI_TAGS_RK = "r.ai.tags.generated";
 
+    // Every item event (created, viewed, liked, ...) feeds the popularity ranking
+    private static final String ITEM_ACTIVITY_RK = "r.item.*";
+
     private static final String DEAD_LETTER_EXCHANGE = "ex.dead-letter";
 
     private static final String ITEM_PROCESS_DLQ = "q.saga.item-process.dlq";
@@ -275,6 +280,22 @@ public class RabbitMQConfig {
                 .with(routingKeyItemViewed);
     }
 
+    @Bean
+    public Queue itemPopularityQueue() {
+        log.info("Declaring Queue Item Popularity: {}", queueItemPopularity);
+        return new Queue(queueItemPopularity, true);
+    }
+
+    @Bean
+    public Binding itemPopularityBinding() {
+        log.info("Binding Queue Item Popularity {} to Exchange {} with Routing Key: {}", queueItemPopularity, exchangeItem, ITEM_ACTIVITY_RK);
+
+        return BindingBuilder
+                .bind(itemPopularityQueue())
+                .to(itemExchange())
+                .with(ITEM_ACTIVITY_RK);
+    }
+
     @Bean
     public Queue itemPaymentQueue() {
         log.info("Declaring Queue Item Payment Boost Process: {}", itemPaymentQueue);
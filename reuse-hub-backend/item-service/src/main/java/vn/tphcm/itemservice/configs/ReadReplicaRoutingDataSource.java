@@ -0,0 +1,168 @@
+/*
+ * @ (#) ReadReplicaRoutingDataSource.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.configs;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Sends connections of {@code @Transactional(readOnly = true)} work to the replica pool and everything else to the primary.
+ * A read still goes to the primary when the replica lags behind or is unreachable, or when the current user wrote
+ * something a moment ago (read-your-writes, see {@link ReadYourWritesTracker}), and for reads that fill the shared
+ * caches (see {@link #readOnPrimary}).
+ * <p>
+ * The key is looked up when a physical connection is taken, so this must sit behind a {@code LazyConnectionDataSourceProxy}:
+ * the transaction's read-only flag is only known after the transaction manager has begun.
+ */
+@Slf4j(topic = "READ-REPLICA-ROUTING")
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    enum Route {PRIMARY, REPLICA}
+
+    private static final ThreadLocal<Boolean> CACHE_FILL = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    private final Counter replicaReads;
+    private final Counter lagFallbacks;
+    private final Counter stickyFallbacks;
+    private final Counter connectionFallbacks;
+    private final Counter cacheFillReads;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                        ReadYourWritesTracker readYourWritesTracker, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagMonitor = lagMonitor;
+        this.readYourWritesTracker = readYourWritesTracker;
+
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+
+        this.replicaReads = routedReads(meterRegistry, "replica", "none");
+        this.lagFallbacks = routedReads(meterRegistry, "primary", "replica-lag");
+        this.stickyFallbacks = routedReads(meterRegistry, "primary", "read-your-writes");
+        this.connectionFallbacks = routedReads(meterRegistry, "primary", "replica-unavailable");
+        this.cacheFillReads = routedReads(meterRegistry, "primary", "cache-fill");
+    }
+
+    /**
+     * Runs a read whose result is written to the shared Redis and near caches against the primary. A write bumps the
+     * cache generation on commit; a lagging replica read that follows would be cached under the new generation and
+     * served to every user until the entry expires.
+     * <p>
+     * Only connections taken inside {@code read} are affected, so it must wrap the first statement of the transaction.
+     */
+    public static <T> T readOnPrimary(Supplier<T> read) {
+        if (CACHE_FILL.get() != null) {
+            return read.get();
+        }
+
+        CACHE_FILL.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            CACHE_FILL.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Route.PRIMARY;
+        }
+
+        String userId = ReadRoutingFilter.currentUserId();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWriteOnCommit(userId);
+            return Route.PRIMARY;
+        }
+
+        if (CACHE_FILL.get() != null) {
+            cacheFillReads.increment();
+            return Route.PRIMARY;
+        }
+
+        if (!lagMonitor.isReplicaUsable()) {
+            lagFallbacks.increment();
+            return Route.PRIMARY;
+        }
+
+        if (userId != null && readYourWritesTracker.hasRecentWrite(userId)) {
+            stickyFallbacks.increment();
+            return Route.PRIMARY;
+        }
+
+        return Route.REPLICA;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object route = determineCurrentLookupKey();
+        if (route != Route.REPLICA) {
+            return primary.getConnection();
+        }
+
+        try {
+            Connection connection = replica.getConnection();
+            replicaReads.increment();
+            return connection;
+        } catch (SQLException e) {
+            // A replica that cannot hand out a connection is taken out until the next successful lag probe
+            log.warn("Replica connection failed, reading from primary: {}", e.getMessage());
+            lagMonitor.markUnavailable();
+            connectionFallbacks.increment();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Both pools carry their own credentials
+        return getConnection();
+    }
+
+    private void rememberWriteOnCommit(String userId) {
+        if (userId == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                readYourWritesTracker.recordWrite(userId);
+            }
+        });
+    }
+
+    private static Counter routedReads(MeterRegistry meterRegistry, String target, String fallback) {
+        return Counter.builder("item.datasource.routing")
+                .description("Physical connections taken by read-only transactions, per pool and fallback reason")
+                .tag("target", target)
+                .tag("fallback", fallback)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * @ (#) ReadRoutingFilter.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.configs;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Exposes the caller set by the api-gateway ({@code X-User-Id}) to {@link ReadReplicaRoutingDataSource}
+ * for the duration of the request.
+ */
+@Component
+public class ReadRoutingFilter extends OncePerRequestFilter {
+    private static final String USER_ID_HEADER = "X-User-Id";
+    private static final ThreadLocal<String> CURRENT_USER = new ThreadLocal<>();
+
+    public static String currentUserId() {
+        return CURRENT_USER.get();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String userId = request.getHeader(USER_ID_HEADER);
+        if (!StringUtils.hasText(userId)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        CURRENT_USER.set(userId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            CURRENT_USER.remove();
+        }
+    }
+}
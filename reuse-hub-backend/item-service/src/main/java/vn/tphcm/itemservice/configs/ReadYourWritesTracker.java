@@ -0,0 +1,64 @@
+/*
+ * @ (#) ReadYourWritesTracker.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.configs;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+/**
+ * Remembers users who committed a write in the last {@code item.datasource.replica.read-your-writes-ms}, so their
+ * reads stay on the primary until the replica has caught up. The mark is kept locally and in Redis, so it holds
+ * whichever item-service instance serves the next request.
+ */
+@Slf4j(topic = "READ-YOUR-WRITES")
+public class ReadYourWritesTracker {
+    private static final String KEY_PREFIX = "item:rw-sticky:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration window;
+    private final Cache<String, Boolean> localWriters;
+
+    public ReadYourWritesTracker(StringRedisTemplate redisTemplate, Duration window) {
+        this.redisTemplate = redisTemplate;
+        this.window = window;
+        this.localWriters = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    public void recordWrite(String userId) {
+        localWriters.put(userId, Boolean.TRUE);
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + userId, "1", window);
+        } catch (DataAccessException e) {
+            log.warn("Could not share the write mark of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    public boolean hasRecentWrite(String userId) {
+        if (localWriters.getIfPresent(userId) != null) {
+            return true;
+        }
+
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + userId));
+        } catch (DataAccessException e) {
+            // Without the shared mark the primary is the only safe answer
+            return true;
+        }
+    }
+}
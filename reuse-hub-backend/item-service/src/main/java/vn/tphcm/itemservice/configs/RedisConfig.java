@@ -12,11 +12,13 @@ package vn.tphcm.itemservice.configs;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
@@ -28,6 +30,8 @@ import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import vn.tphcm.itemservice.dtos.PageResponse;
+import vn.tphcm.itemservice.dtos.response.ItemResponse;
 
 import java.time.Duration;
 
@@ -35,6 +39,38 @@ import java.time.Duration;
 @EnableCaching
 @Slf4j(topic = "REDIS-CONFIG")
 public class RedisConfig {
+    @Value("${item.cache.serializer:smile}")
+    private String cacheSerializer;
+
+    @Value("${item.cache.compression-threshold-bytes:2048}")
+    private int compressionThreshold;
+
+    @Bean
+    public RedisTemplate<String, ItemResponse> itemRedisTemplate(RedisConnectionFactory factory) {
+        ObjectMapper om = CompactRedisSerializer.createMapper(cacheSerializer);
+
+        return compactTemplate(factory, om, om.constructType(ItemResponse.class));
+    }
+
+    @Bean
+    public RedisTemplate<String, PageResponse<ItemResponse>> itemPageRedisTemplate(RedisConnectionFactory factory) {
+        ObjectMapper om = CompactRedisSerializer.createMapper(cacheSerializer);
+
+        return compactTemplate(factory, om, om.getTypeFactory().constructParametricType(PageResponse.class, ItemResponse.class));
+    }
+
+    private <T> RedisTemplate<String, T> compactTemplate(RedisConnectionFactory factory, ObjectMapper om, JavaType type) {
+        log.info("Initializing {} cache template for {}", cacheSerializer, type);
+
+        RedisTemplate<String, T> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(factory);
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(new CompactRedisSerializer<T>(om, type, compressionThreshold));
+        redisTemplate.afterPropertiesSet();
+
+        return redisTemplate;
+    }
+
     @Bean
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory factory) {
         RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
@@ -0,0 +1,93 @@
+/*
+ * @ (#) ReplicaLagMonitor.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.configs;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Probes the replica's replay lag on a fixed delay. The replica is usable while the last probe succeeded, was recent
+ * and measured a lag under {@code item.datasource.replica.max-lag-ms}; otherwise reads fall back to the primary.
+ */
+@Slf4j(topic = "REPLICA-LAG-MONITOR")
+public class ReplicaLagMonitor {
+    // An idle primary sends no WAL, so the replay timestamp ages without any real lag: only count it while WAL is pending
+    private static final String LAG_SQL = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+                   END
+            """;
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final long maxLagMs;
+    private final long staleAfterMs;
+
+    private volatile double lagMs = Double.NaN;
+    private volatile long lastProbeAt;
+    private volatile boolean usable;
+
+    public ReplicaLagMonitor(DataSource replica, long maxLagMs, long checkIntervalMs, MeterRegistry meterRegistry) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replica);
+        this.replicaJdbcTemplate.setQueryTimeout((int) Math.max(1, checkIntervalMs / 1000));
+        this.maxLagMs = maxLagMs;
+        // A probe stuck behind a hung replica must not keep an old "healthy" verdict alive
+        this.staleAfterMs = checkIntervalMs * 3;
+
+        Gauge.builder("item.datasource.replica.lag", this, monitor -> monitor.lagMs)
+                .description("Replay lag of the read replica measured by the last probe, NaN when it failed")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("item.datasource.replica.usable", this, monitor -> monitor.isReplicaUsable() ? 1 : 0)
+                .description("1 while read-only transactions are routed to the replica")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${item.datasource.replica.lag-check-interval-ms:1000}")
+    public void probe() {
+        try {
+            Double lag = replicaJdbcTemplate.queryForObject(LAG_SQL, Double.class);
+            lagMs = lag != null ? lag : 0;
+            lastProbeAt = System.currentTimeMillis();
+
+            boolean withinLimit = lagMs <= maxLagMs;
+            if (withinLimit != usable) {
+                log.info("Replica {} (lag {} ms, limit {} ms)", withinLimit ? "back in rotation" : "taken out of rotation",
+                        Math.round(lagMs), maxLagMs);
+            }
+            usable = withinLimit;
+        } catch (DataAccessException e) {
+            if (usable) {
+                log.warn("Replica lag probe failed, reading from primary: {}", e.getMessage());
+            }
+            lagMs = Double.NaN;
+            usable = false;
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        return usable && System.currentTimeMillis() - lastProbeAt <= staleAfterMs;
+    }
+
+    /**
+     * Takes the replica out of rotation until the next successful probe.
+     */
+    public void markUnavailable() {
+        usable = false;
+    }
+}
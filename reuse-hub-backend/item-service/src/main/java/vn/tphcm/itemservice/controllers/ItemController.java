@@ -17,7 +17,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import vn.tphcm.itemservice.commons.ItemStatus;
 import vn.tphcm.itemservice.dtos.ApiResponse;
+import vn.tphcm.itemservice.dtos.CursorPageResponse;
 import vn.tphcm.itemservice.dtos.PageResponse;
 import vn.tphcm.itemservice.dtos.request.ItemCreationRequest;
 import vn.tphcm.itemservice.dtos.request.ItemSearchRequest;
@@ -117,7 +119,7 @@ public class ItemController {
     @GetMapping("/public/popular")
     public ApiResponse<PageResponse<ItemResponse>> getPopularItems(@RequestParam(defaultValue = "0") int pageNo,
                                                                   @RequestParam(defaultValue = "10") int pageSize,
-                                                                  @RequestParam(defaultValue = "likeCount") String sortBy,
+                                                                  @RequestParam(defaultValue = "popularity") String sortBy,
                                                                   @RequestParam(defaultValue = "desc") String sortDirection) {
         log.info("Received request to get popular items");
 
@@ -136,15 +138,25 @@ public class ItemController {
     }
 
     @GetMapping("/public/search")
-    public ApiResponse<PageResponse<ItemResponse>> searchItems(@RequestParam String keyword,
+    @Operation(summary = "Search items",
+            description = "Full-text search over title, tags and description (diacritics are ignored), filtered by category, price range and status. sortBy=relevance ranks by match quality.")
+    public ApiResponse<PageResponse<ItemResponse>> searchItems(@RequestParam(required = false) String keyword,
+                                                       @RequestParam(required = false) String categorySlug,
+                                                       @RequestParam(required = false) Long minPrice,
+                                                       @RequestParam(required = false) Long maxPrice,
+                                                       @RequestParam(defaultValue = "AVAILABLE") ItemStatus status,
                                                        @RequestParam(defaultValue = "0") int pageNo,
                                                        @RequestParam(defaultValue = "10") int pageSize,
-                                                       @RequestParam(defaultValue = "createdAt") String sortBy,
+                                                       @RequestParam(defaultValue = "relevance") String sortBy,
                                                        @RequestParam(defaultValue = "desc") String sortDirection) {
         log.info("Received request to search items with keyword: {}", keyword);
         
         ItemSearchRequest request = new ItemSearchRequest();
         request.setKeyword(keyword);
+        request.setCategorySlug(categorySlug);
+        request.setMinPrice(minPrice);
+        request.setMaxPrice(maxPrice);
+        request.setStatus(status);
 
         return itemService.searchItems(request, pageNo, pageSize, sortBy, sortDirection);
     }
@@ -185,6 +197,88 @@ public class ItemController {
         return itemService.searchItemsNearby(latitude, longitude, radius, pageNo, pageSize);
     }
 
+    @GetMapping("/public/nearby/closest")
+    @Operation(summary = "Get closest items", description = "Retrieve the closest available items to the given latitude and longitude, nearest first, up to a maximum distance.")
+    public ApiResponse<PageResponse<ItemResponse>> getClosestItems(@RequestParam double latitude,
+                                                                   @RequestParam double longitude,
+                                                                   @RequestParam(defaultValue = "5000") double maxDistance,
+                                                                   @RequestParam(defaultValue = "10") int limit) {
+        log.info("Received request to get {} closest items at lat: {}, long: {}", limit, latitude, longitude);
+
+        return itemService.getClosestItems(latitude, longitude, maxDistance, limit);
+    }
+
+    @GetMapping("/public/cursor/all")
+    @Operation(summary = "Get all items (cursor)",
+            description = "Keyset-paginated variant of /public/all. Pass nextCursor from the previous page as 'after'. No total count is returned.")
+    public ApiResponse<CursorPageResponse<ItemResponse>> getAllItemsAfter(@RequestParam(required = false) String after,
+                                                                          @RequestParam(defaultValue = "10") int pageSize,
+                                                                          @RequestParam(defaultValue = "createdAt") String sortBy,
+                                                                          @RequestParam(defaultValue = "desc") String sortDirection) {
+        log.info("Received request to get all items after cursor: {}", after);
+
+        return itemService.getAllItemsAfter(after, pageSize, sortBy, sortDirection);
+    }
+
+    @GetMapping("/my-items/{userId}/cursor")
+    @Operation(summary = "Get my items (cursor)", description = "Keyset-paginated variant of /my-items/{userId}.")
+    public ApiResponse<CursorPageResponse<ItemResponse>> getMyItemsAfter(@PathVariable String userId,
+                                                                         @RequestParam(required = false) String after,
+                                                                         @RequestParam(defaultValue = "10") int pageSize,
+                                                                         @RequestParam(defaultValue = "createdAt") String sortBy,
+                                                                         @RequestParam(defaultValue = "desc") String sortDirection) {
+        log.info("Received request to get my items by user: {} after cursor: {}", userId, after);
+
+        return itemService.getMyItemAfter(userId, after, pageSize, sortBy, sortDirection);
+    }
+
+    @GetMapping("/public/cursor/category/{categorySlug}")
+    @Operation(summary = "Get items by category (cursor)", description = "Keyset-paginated variant of /public/{categorySlug}.")
+    public ApiResponse<CursorPageResponse<ItemResponse>> getItemsByCategoryAfter(@PathVariable String categorySlug,
+                                                                                 @RequestParam(required = false) String after,
+                                                                                 @RequestParam(defaultValue = "10") int pageSize,
+                                                                                 @RequestParam(defaultValue = "createdAt") String sortBy,
+                                                                                 @RequestParam(defaultValue = "desc") String sortDirection) {
+        log.info("Received request to get items by category: {} after cursor: {}", categorySlug, after);
+
+        return itemService.getItemsByCategoryAfter(categorySlug, after, pageSize, sortBy, sortDirection);
+    }
+
+    @GetMapping("/public/cursor/tags")
+    @Operation(summary = "Get items by tags (cursor)", description = "Keyset-paginated variant of /public/tags.")
+    public ApiResponse<CursorPageResponse<ItemResponse>> getItemsByTagsAfter(@RequestParam List<String> tags,
+                                                                             @RequestParam(required = false) String after,
+                                                                             @RequestParam(defaultValue = "10") int pageSize,
+                                                                             @RequestParam(defaultValue = "createdAt") String sortBy,
+                                                                             @RequestParam(defaultValue = "desc") String sortDirection) {
+        log.info("Received request to get items by tags: {} after cursor: {}", tags, after);
+
+        return itemService.getItemsByTagsAfter(tags, after, pageSize, sortBy, sortDirection);
+    }
+
+    @GetMapping("/public/cursor/search")
+    @Operation(summary = "Search items (cursor)", description = "Keyset-paginated variant of /public/search.")
+    public ApiResponse<CursorPageResponse<ItemResponse>> searchItemsAfter(@RequestParam(required = false) String keyword,
+                                                                          @RequestParam(required = false) String categorySlug,
+                                                                          @RequestParam(required = false) Long minPrice,
+                                                                          @RequestParam(required = false) Long maxPrice,
+                                                                          @RequestParam(defaultValue = "AVAILABLE") ItemStatus status,
+                                                                          @RequestParam(required = false) String after,
+                                                                          @RequestParam(defaultValue = "10") int pageSize,
+                                                                          @RequestParam(defaultValue = "relevance") String sortBy,
+                                                                          @RequestParam(defaultValue = "desc") String sortDirection) {
+        log.info("Received request to search items with keyword: {} after cursor: {}", keyword, after);
+
+        ItemSearchRequest request = new ItemSearchRequest();
+        request.setKeyword(keyword);
+        request.setCategorySlug(categorySlug);
+        request.setMinPrice(minPrice);
+        request.setMaxPrice(maxPrice);
+        request.setStatus(status);
+
+        return itemService.searchItemsAfter(request, after, pageSize, sortBy, sortDirection);
+    }
+
     @GetMapping("/public/categories")
     @Operation(summary = "Get all categories", description = "Returns list of all categories for dropdowns")
     public ApiResponse<List<CategoryResponse>> getAllCategories() {
@@ -12,13 +12,24 @@ package vn.tphcm.itemservice.controllers;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import vn.tphcm.itemservice.commons.ExportFormat;
+import vn.tphcm.itemservice.commons.ItemStatus;
 import vn.tphcm.itemservice.dtos.ApiResponse;
 import vn.tphcm.itemservice.dtos.PageResponse;
 import vn.tphcm.itemservice.dtos.response.ItemResponse;
 import vn.tphcm.itemservice.dtos.response.ItemStatisticsResponse;
+import vn.tphcm.itemservice.services.ItemAggregateService;
+import vn.tphcm.itemservice.services.ItemExportService;
 import vn.tphcm.itemservice.services.ItemService;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -27,6 +38,8 @@ import java.util.Map;
 @Slf4j(topic = "ITEM-FEIGN-CONTROLLER")
 public class ItemFeignController {
     private final ItemService itemService;
+    private final ItemAggregateService itemAggregateService;
+    private final ItemExportService itemExportService;
 
     @GetMapping("/{itemId}")
     public ApiResponse<ItemResponse> getItemById(@PathVariable String itemId){
@@ -35,6 +48,13 @@ public class ItemFeignController {
         return itemService.getItemFeignById(itemId);
     }
 
+    @PostMapping("/batch")
+    public ApiResponse<List<ItemResponse>> getItemsByIds(@RequestBody List<String> itemIds) {
+        log.info("Feign client request to get {} items by ids", itemIds == null ? 0 : itemIds.size());
+
+        return itemService.getItemsByIds(itemIds);
+    }
+
     @GetMapping
     public ApiResponse<PageResponse<ItemResponse>> getAllItems(@RequestParam(defaultValue = "0") int pageNo,
                                                                @RequestParam(defaultValue = "10") int pageSize,
@@ -59,4 +79,26 @@ public class ItemFeignController {
 
         return itemService.deleteItemForAdmin(itemId);
     }
+
+    @PostMapping("/aggregates/rebuild")
+    public ApiResponse<Integer> rebuildAggregates() {
+        log.info("Feign client request to rebuild item rating aggregates");
+
+        return itemAggregateService.rebuildAggregates();
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportItems(@RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                                                             @RequestParam(required = false) ItemStatus status,
+                                                             @RequestParam(required = false) String categorySlug,
+                                                             @RequestParam(required = false)
+                                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince) {
+        log.info("Feign client request to export items as {}, status: {}, category: {}, updated since: {}",
+                format, status, categorySlug, updatedSince);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"items." + format.getExtension() + "\"")
+                .body(itemExportService.exportItems(format, status, categorySlug, updatedSince));
+    }
 }
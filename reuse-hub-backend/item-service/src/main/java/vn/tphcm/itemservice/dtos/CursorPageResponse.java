@@ -0,0 +1,33 @@
+/*
+ * @ (#) CursorPageResponse.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.dtos;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Keyset counterpart of {@link PageResponse}: no total count, pass {@code nextCursor} as {@code after} to get the next page.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageResponse<T> {
+    private List<T> content;
+
+    private int pageSize;
+
+    private String nextCursor;
+
+    private boolean hasNext;
+}
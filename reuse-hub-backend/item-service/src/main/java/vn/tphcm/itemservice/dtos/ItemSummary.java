@@ -0,0 +1,80 @@
+/*
+ * @ (#) ItemSummary.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.dtos;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import lombok.Getter;
+import lombok.Setter;
+import org.locationtech.jts.geom.Point;
+import vn.tphcm.itemservice.commons.ItemStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Flat row of an item listing, selected together with its category in one query.
+ * Tags are filled in afterwards for the whole page, see {@code ItemRepository#fillTags}.
+ */
+@Getter
+@Setter
+public class ItemSummary {
+    private String id;
+
+    private String userId;
+
+    private String title;
+
+    private String description;
+
+    private List<String> images;
+
+    private List<String> thumbnails;
+
+    private List<String> tags = new ArrayList<>();
+
+    private Point location;
+
+    private String address;
+
+    private ItemStatus status;
+
+    private Long price;
+
+    private int viewCount;
+
+    private int commentCount;
+
+    private int likeCount;
+
+    private String categoryName;
+
+    private String categorySlug;
+
+    public ItemSummary(String id, String userId, String title, String description,
+                       List<String> images, List<String> thumbnails, Point location, String address,
+                       ItemStatus status, Long price, int viewCount, int commentCount, int likeCount,
+                       String categoryName, String categorySlug) {
+        this.id = id;
+        this.userId = userId;
+        this.title = title;
+        this.description = description;
+        this.images = images;
+        this.thumbnails = thumbnails;
+        this.location = location;
+        this.address = address;
+        this.status = status;
+        this.price = price;
+        this.viewCount = viewCount;
+        this.commentCount = commentCount;
+        this.likeCount = likeCount;
+        this.categoryName = categoryName;
+        this.categorySlug = categorySlug;
+    }
+}
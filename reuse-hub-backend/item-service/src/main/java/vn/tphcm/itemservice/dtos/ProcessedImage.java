@@ -0,0 +1,24 @@
+/*
+ * @ (#) ProcessedImage.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.dtos;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import lombok.*;
+
+@Getter
+@AllArgsConstructor
+@Builder
+public class ProcessedImage {
+    private byte[] content;
+
+    private byte[] thumbnail;
+
+    private String contentType;
+}
@@ -7,6 +7,10 @@
 package vn.tphcm.itemservice.dtos.request;
 
 import lombok.Getter;
+import lombok.Setter;
+import vn.tphcm.itemservice.commons.ItemStatus;
+
+import java.util.List;
 
 
 /*
@@ -15,10 +19,20 @@ import lombok.Getter;
  */
 
 @Getter
+@Setter
 public class ItemSearchRequest {
     private String keyword;
-    
-    public void setKeyword(String keyword) {
-        this.keyword = keyword;
-    }
+
+    private String categorySlug;
+
+    private Long minPrice;
+
+    private Long maxPrice;
+
+    private List<String> tags;
+
+    private String userId;
+
+    // null means every status except DELETED
+    private ItemStatus status = ItemStatus.AVAILABLE;
 }
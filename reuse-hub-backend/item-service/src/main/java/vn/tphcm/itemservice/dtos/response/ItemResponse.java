@@ -19,7 +19,7 @@ import java.util.List;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class ItemResponse {
     private String id;
 
@@ -31,6 +31,10 @@ public class ItemResponse {
 
     private List<String> images;
 
+    private List<String> thumbnails;
+
+    private String thumbnailUrl;
+
     private List<String> tags;
 
     private String address;
@@ -16,12 +16,19 @@ import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.PrecisionModel;
 import org.mapstruct.*;
+import vn.tphcm.itemservice.dtos.ItemSummary;
 import vn.tphcm.itemservice.dtos.request.ItemCreationRequest;
 import vn.tphcm.itemservice.dtos.request.ItemUpdateRequest;
 import vn.tphcm.itemservice.dtos.request.LocationRequest;
 import vn.tphcm.itemservice.dtos.response.ItemResponse;
 import vn.tphcm.itemservice.dtos.response.LocationResponse;
 import vn.tphcm.itemservice.models.Item;
+import vn.tphcm.itemservice.models.Tag;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
 public interface ItemMapper {
@@ -33,13 +40,22 @@ public interface ItemMapper {
     @Mapping(target = "commentCount", ignore = true)
     @Mapping(target = "likeCount", ignore = true)
     @Mapping(target = "itemInteractions", ignore = true)
+    @Mapping(target = "tags", ignore = true)
     @Mapping(target = "location", source = "location", qualifiedByName = "locationRequestToPoint")
     Item toItem(ItemCreationRequest request);
 
     @Mapping(target = "location", source = "location", qualifiedByName = "pointToLocationResponse")
     @Mapping(target = "category", source = "category.name")
     @Mapping(target = "categorySlug", source = "category.slug")
+    @Mapping(target = "thumbnailUrl", expression = "java(coverThumbnail(item.getThumbnails(), item.getImages()))")
     ItemResponse toResponse(Item item);
+
+    @Mapping(target = "location", source = "location", qualifiedByName = "pointToLocationResponse")
+    @Mapping(target = "category", source = "categoryName")
+    @Mapping(target = "thumbnailUrl", expression = "java(coverThumbnail(summary.getThumbnails(), summary.getImages()))")
+    @Mapping(target = "comments", ignore = true)
+    @Mapping(target = "ratings", ignore = true)
+    ItemResponse toResponse(ItemSummary summary);
     
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "userId", ignore = true)
@@ -47,6 +63,8 @@ public interface ItemMapper {
     @Mapping(target = "viewCount", ignore = true)
     @Mapping(target = "commentCount", ignore = true)
     @Mapping(target = "likeCount", ignore = true)
+    // Resolved against the tag dictionary by the service
+    @Mapping(target = "tags", ignore = true)
     @Mapping(target = "location", source = "location", qualifiedByName = "locationRequestToPoint")
     void updateItem(@MappingTarget Item item, ItemUpdateRequest request);
 
@@ -59,6 +77,22 @@ public interface ItemMapper {
         return geometryFactory.createPoint(new Coordinate(request.getLongitude(), request.getLatitude()));
     }
 
+    default List<String> tagNames(Set<Tag> tags) {
+        if (tags == null) {
+            return new ArrayList<>();
+        }
+        return tags.stream().map(Tag::getName).collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    // Items uploaded before thumbnails existed fall back to their first image
+    @Named("coverThumbnail")
+    default String coverThumbnail(List<String> thumbnails, List<String> images) {
+        if (thumbnails != null && !thumbnails.isEmpty()) {
+            return thumbnails.get(0);
+        }
+        return images != null && !images.isEmpty() ? images.get(0) : null;
+    }
+
     @Named("pointToLocationResponse")
     default LocationResponse pointToLocationResponse(Point point) {
         if (point == null) {
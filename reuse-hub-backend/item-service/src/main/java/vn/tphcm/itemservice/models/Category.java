@@ -12,6 +12,7 @@ package vn.tphcm.itemservice.models;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -26,6 +27,7 @@ import java.util.List;
         @Index(name = "idx_category_name", columnList = "name")
 })
 @Builder
+@BatchSize(size = 100)
 public class Category extends AbstractEntity<String> implements Serializable {
     private String name;
 
@@ -12,6 +12,7 @@ package vn.tphcm.itemservice.models;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 import org.locationtech.jts.geom.Point;
@@ -19,7 +20,9 @@ import vn.tphcm.itemservice.commons.ItemStatus;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @Getter
 @Setter
@@ -43,11 +46,20 @@ public class Item extends AbstractEntity<String> implements Serializable {
     @Builder.Default
     private List<String> images = new ArrayList<>();
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "tbl_item_tags", joinColumns = @JoinColumn(name = "item_id"))
-    @Column(name = "tag_name")
+    @Column(columnDefinition = "jsonb")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Builder.Default
+    private List<String> thumbnails = new ArrayList<>();
+
+    // Entity reads of several items (search, nearby, popular) load tags, comments and ratings in batches, not per row
+    // Tags link to the tbl_tags dictionary by id
+    @ManyToMany(fetch = FetchType.EAGER)
+    @BatchSize(size = 100)
+    @JoinTable(name = "tbl_item_tags",
+            joinColumns = @JoinColumn(name = "item_id"),
+            inverseJoinColumns = @JoinColumn(name = "tag_id"))
     @Builder.Default
-    private List<String> tags = new ArrayList<>();
+    private Set<Tag> tags = new LinkedHashSet<>();
 
     @Column(columnDefinition = "geometry(Point, 4326)")
     @JdbcTypeCode(SqlTypes.GEOMETRY)
@@ -60,26 +72,31 @@ public class Item extends AbstractEntity<String> implements Serializable {
     @Builder.Default
     private ItemStatus status = ItemStatus.AVAILABLE;
 
-    @Column(nullable = false, columnDefinition = "INT DEFAULT 0", name = "view_count")
+    // Counters and rating aggregates are maintained by SQL deltas, a stale entity must never write them back
+    @Column(nullable = false, columnDefinition = "INT DEFAULT 0", name = "view_count", updatable = false)
     @Builder.Default
     private int viewCount = 0;
 
-    @Column(nullable = false, columnDefinition = "INT DEFAULT 0", name = "comment_count")
+    @Column(nullable = false, columnDefinition = "INT DEFAULT 0", name = "comment_count", updatable = false)
     @Builder.Default
     private int commentCount = 0;
 
-    @Column(nullable = false, columnDefinition = "INT DEFAULT 0", name = "like_count")
+    @Column(nullable = false, columnDefinition = "INT DEFAULT 0", name = "like_count", updatable = false)
     @Builder.Default
     private int likeCount = 0;
 
-    @Column(nullable = false, columnDefinition = "DOUBLE PRECISION DEFAULT 0.0")
+    @Column(nullable = false, columnDefinition = "DOUBLE PRECISION DEFAULT 0.0", updatable = false)
     @Builder.Default
     private Double rating = 0.0;
 
-    @Column(nullable = false, columnDefinition = "INT DEFAULT 0", name = "rating_count")
+    @Column(nullable = false, columnDefinition = "INT DEFAULT 0", name = "rating_count", updatable = false)
     @Builder.Default
     private Integer ratingCount = 0;
 
+    @Column(nullable = false, columnDefinition = "DOUBLE PRECISION DEFAULT 0.0", name = "rating_sum", updatable = false)
+    @Builder.Default
+    private Double ratingSum = 0.0;
+
     private Long price;
 
     @Column(nullable = false, columnDefinition = "BOOLEAN DEFAULT FALSE")
@@ -88,11 +105,13 @@ public class Item extends AbstractEntity<String> implements Serializable {
 
     @OneToMany(mappedBy = "item", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @ToString.Exclude
+    @BatchSize(size = 100)
     @Builder.Default
     private List<ItemComment> comments = new ArrayList<>();
 
     @OneToMany(mappedBy = "item", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @ToString.Exclude
+    @BatchSize(size = 100)
     @Builder.Default
     private List<ItemRating> ratings = new ArrayList<>();
 
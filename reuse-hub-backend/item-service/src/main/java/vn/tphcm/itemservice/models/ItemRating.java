@@ -26,6 +26,9 @@ public class ItemRating extends AbstractEntity<String> implements Serializable {
     private String userId;
     private Double rating;
 
+    @Column(name = "transaction_id", unique = true)
+    private String transactionId;
+
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "item_id")
     private Item item;
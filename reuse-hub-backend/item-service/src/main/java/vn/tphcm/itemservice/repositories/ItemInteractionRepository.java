@@ -13,13 +13,8 @@ package vn.tphcm.itemservice.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
-import vn.tphcm.itemservice.commons.InteractionType;
-import vn.tphcm.itemservice.models.Item;
 import vn.tphcm.itemservice.models.ItemInteraction;
 
-import java.util.Optional;
-
 @Repository
 public interface ItemInteractionRepository extends JpaRepository<ItemInteraction, String> {
-    Optional<ItemInteraction> findByItemAndUserIdAndInteractionType(Item item, String userId, InteractionType interactionType);
 }
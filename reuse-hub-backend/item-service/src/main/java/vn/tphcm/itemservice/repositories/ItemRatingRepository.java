@@ -12,6 +12,7 @@ package vn.tphcm.itemservice.repositories;
  */
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -24,9 +25,18 @@ public interface ItemRatingRepository extends JpaRepository<ItemRating, String>
 
     Optional<ItemRating> findByItemIdAndUserId(String itemId, String userId);
 
-    @Query("SELECT AVG(r.rating) FROM tbl_ratings r WHERE r.item.id = :itemId")
-    Double calculateAverageRating(@Param("itemId") String itemId);
-
-    @Query("SELECT COUNT(r) FROM tbl_ratings r WHERE r.item.id = :itemId")
-    Integer countRatingsByItemId(@Param("itemId") String itemId);
+    /**
+     * Inserts the rating unless one already exists for the transaction.
+     *
+     * @return 0 when the transaction was already rated
+     */
+    @Modifying
+    @Query(value = "INSERT INTO tbl_ratings (id, user_id, rating, item_id, transaction_id, created_at, updated_at) " +
+            "VALUES (:id, :userId, :rating, :itemId, :transactionId, NOW(), NOW()) " +
+            "ON CONFLICT (transaction_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("id") String id,
+                       @Param("userId") String userId,
+                       @Param("rating") Double rating,
+                       @Param("itemId") String itemId,
+                       @Param("transactionId") String transactionId);
 }
@@ -14,54 +14,115 @@ import io.lettuce.core.dynamic.annotation.Param;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import vn.tphcm.itemservice.commons.ItemStatus;
+import vn.tphcm.itemservice.dtos.ItemSummary;
 import vn.tphcm.itemservice.models.Item;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Repository
-public interface ItemRepository extends JpaRepository<Item, String> {
-    Page<Item> findByUserIdAndStatusNot(String userId, ItemStatus status, Pageable pageable);
+public interface ItemRepository extends JpaRepository<Item, String>, ItemSearchRepository {
+    // Listing pages select flat rows joined with their category; tags follow in one query per page (fillTags)
+    String SELECT_SUMMARY = "SELECT new vn.tphcm.itemservice.dtos.ItemSummary(" +
+            "i.id, i.userId, i.title, i.description, i.images, i.thumbnails, i.location, i.address, " +
+            "i.status, i.price, i.viewCount, i.commentCount, i.likeCount, c.name, c.slug) " +
+            "FROM Item i JOIN i.category c ";
 
-    Page<Item> findByStatus(ItemStatus status, Pageable pageable);
+    @Query(value = SELECT_SUMMARY + "WHERE i.userId = :userId AND i.status <> :status",
+            countQuery = "SELECT COUNT(i) FROM Item i WHERE i.userId = :userId AND i.status <> :status")
+    Page<ItemSummary> findByUserIdAndStatusNot(@Param("userId") String userId,
+                                               @Param("status") ItemStatus status,
+                                               Pageable pageable);
 
-    @Query("SELECT i FROM Item i " +
-            "WHERE i.title LIKE (CONCAT('%', :keyword, '%') ) " +
-            "AND i.status = 'AVAILABLE'")
-    Page<Item> findByKeyword(@Param("keyword") String keyword,
-                                      Pageable pageable);
+    @Query(value = SELECT_SUMMARY + "WHERE i.status = :status",
+            countQuery = "SELECT COUNT(i) FROM Item i WHERE i.status = :status")
+    Page<ItemSummary> findByStatus(@Param("status") ItemStatus status, Pageable pageable);
 
-    Page<Item> findByCategorySlugAndStatus(String categorySlug, ItemStatus status, Pageable pageable);
-
-    @Query("SELECT i FROM Item i " +
-            "WHERE i.status = :status " +
-            "ORDER BY i.viewCount DESC")
-    Page<Item> findPopularItemsByStatus(ItemStatus status, Pageable pageable);
+    @Query(value = SELECT_SUMMARY + "WHERE c.slug = :categorySlug AND i.status = :status",
+            countQuery = "SELECT COUNT(i) FROM Item i WHERE i.category.slug = :categorySlug AND i.status = :status")
+    Page<ItemSummary> findByCategorySlugAndStatus(@Param("categorySlug") String categorySlug,
+                                                  @Param("status") ItemStatus status,
+                                                  Pageable pageable);
 
+    // geog is the stored geography twin of location, both queries below are served by its partial GiST index
     @Query(value = "SELECT * FROM tbl_items i " +
             "WHERE i.status = 'AVAILABLE' AND " +
-            "ST_DWithin(" +
-            "  i.location, " +
-            "  ST_MakePoint(:longitude, :latitude)::geography, " +
-            "  :radius " +
-            ") " +
-            "ORDER BY ST_Distance(i.location, ST_MakePoint(:longitude, :latitude)::geography)",
+            "ST_DWithin(i.geog, ST_MakePoint(:longitude, :latitude)::geography, :radius) " +
+            "ORDER BY i.geog <-> ST_MakePoint(:longitude, :latitude)::geography, i.id",
+            countQuery = "SELECT COUNT(*) FROM tbl_items i " +
+                    "WHERE i.status = 'AVAILABLE' AND " +
+                    "ST_DWithin(i.geog, ST_MakePoint(:longitude, :latitude)::geography, :radius)",
             nativeQuery = true)
     Page<Item> searchItemNearby(@Param("latitude") double latitude,
                                 @Param("longitude") double longitude,
                                 @Param("radius") double radius,
                                 Pageable pageable);
 
-    @Query("SELECT DISTINCT i FROM Item i " +
+    // k-NN: the index returns rows in distance order and the scan stops after :limit rows
+    @Query(value = "SELECT * FROM tbl_items i " +
             "WHERE i.status = 'AVAILABLE' AND " +
-            "EXISTS (SELECT t FROM i.tags t WHERE t IN :tags)")
-    Page<Item> findByTagsInAndStatusAvailable(@Param("tags") List<String> tags,
-                                              Pageable pageable);
+            "ST_DWithin(i.geog, ST_MakePoint(:longitude, :latitude)::geography, :maxDistance) " +
+            "ORDER BY i.geog <-> ST_MakePoint(:longitude, :latitude)::geography " +
+            "LIMIT :limit",
+            nativeQuery = true)
+    List<Item> findClosestItems(@Param("latitude") double latitude,
+                                @Param("longitude") double longitude,
+                                @Param("maxDistance") double maxDistance,
+                                @Param("limit") int limit);
+
+    // EXISTS keeps one row per item, so the page needs no DISTINCT
+    @Query(value = SELECT_SUMMARY + "WHERE i.status = 'AVAILABLE' AND " +
+            "EXISTS (SELECT t FROM i.tags t WHERE t.name IN :tags)",
+            countQuery = "SELECT COUNT(i) FROM Item i WHERE i.status = 'AVAILABLE' AND " +
+                    "EXISTS (SELECT t FROM i.tags t WHERE t.name IN :tags)")
+    Page<ItemSummary> findByTagsInAndStatusAvailable(@Param("tags") List<String> tags,
+                                                     Pageable pageable);
 
-    Page<Item> findByCategorySlug(String categorySlug, Pageable pageable);
+    @Query(value = SELECT_SUMMARY + "WHERE c.slug = :categorySlug",
+            countQuery = "SELECT COUNT(i) FROM Item i WHERE i.category.slug = :categorySlug")
+    Page<ItemSummary> findByCategorySlug(@Param("categorySlug") String categorySlug, Pageable pageable);
+
+    @Query("SELECT i.id, t.name FROM Item i JOIN i.tags t WHERE i.id IN :itemIds")
+    List<Object[]> findTagsByItemIds(@Param("itemIds") Collection<String> itemIds);
+
+    /**
+     * Loads the tags of every summary on a page with a single query.
+     */
+    default List<ItemSummary> fillTags(List<ItemSummary> summaries) {
+        if (summaries.isEmpty()) {
+            return summaries;
+        }
+
+        Map<String, List<String>> tagsByItem = findTagsByItemIds(summaries.stream().map(ItemSummary::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(row -> (String) row[0],
+                        Collectors.mapping(row -> (String) row[1], Collectors.toList())));
+
+        summaries.forEach(summary -> summary.setTags(tagsByItem.getOrDefault(summary.getId(), List.of())));
+        return summaries;
+    }
 
      @Query("SELECT i.status, COUNT(i) FROM Item i GROUP BY i.status")
     List<Object[]> countItemsByStatus();
+
+    /**
+     * Folds one feedback into the running aggregates; every right-hand side reads the pre-update row.
+     */
+    @Modifying
+    @Query(value = "UPDATE tbl_items SET rating_count = rating_count + :ratingDelta, " +
+            "rating_sum = rating_sum + :rating, " +
+            "rating = CASE WHEN rating_count + :ratingDelta = 0 THEN 0 ELSE (rating_sum + :rating) / (rating_count + :ratingDelta) END, " +
+            "comment_count = comment_count + :commentDelta, " +
+            "updated_at = now() " +
+            "WHERE id = :itemId", nativeQuery = true)
+    int applyFeedback(@Param("itemId") String itemId,
+                      @Param("rating") double rating,
+                      @Param("ratingDelta") int ratingDelta,
+                      @Param("commentDelta") int commentDelta);
 }
@@ -0,0 +1,39 @@
+/*
+ * @ (#) ItemSearchRepository.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.repositories;
+
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import vn.tphcm.itemservice.dtos.CursorPageResponse;
+import vn.tphcm.itemservice.dtos.request.ItemSearchRequest;
+import vn.tphcm.itemservice.models.Item;
+import vn.tphcm.itemservice.utils.ItemCursor;
+
+public interface ItemSearchRepository {
+    /**
+     * Full-text search over the {@code search_vector} GIN index.
+     *
+     * @param tsQuery prefix tsquery built by {@code SearchTextNormalizer}, or {@code null} to only apply the filters
+     * @param filter  category, tags, owner, price range and status filters
+     * @param pageable page and sort, {@code relevance} sorts by ts_rank_cd
+     */
+    Page<Item> searchItems(String tsQuery, ItemSearchRequest filter, Pageable pageable);
+
+    /**
+     * Keyset variant of {@link #searchItems}: seeks past {@code after} on the (sort key, id) index
+     * instead of using OFFSET, and never runs a count query.
+     *
+     * @param after cursor of the last row of the previous page, {@code null} for the first page
+     */
+    CursorPageResponse<Item> searchItemsAfter(String tsQuery, ItemSearchRequest filter, Sort.Order order, ItemCursor after, int limit);
+}
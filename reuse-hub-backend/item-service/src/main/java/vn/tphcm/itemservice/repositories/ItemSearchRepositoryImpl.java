@@ -0,0 +1,193 @@
+/*
+ * @ (#) ItemSearchRepositoryImpl.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.repositories;
+
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import vn.tphcm.itemservice.dtos.CursorPageResponse;
+import vn.tphcm.itemservice.dtos.request.ItemSearchRequest;
+import vn.tphcm.itemservice.exceptions.InvalidDataException;
+import vn.tphcm.itemservice.models.Item;
+import vn.tphcm.itemservice.utils.ItemCursor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ItemSearchRepositoryImpl implements ItemSearchRepository {
+    private static final String RELEVANCE = "relevance";
+    private static final String RANK_EXPRESSION = "ts_rank_cd(i.search_vector, to_tsquery('simple', :tsQuery))";
+
+    // Whitelist of sortable properties, native SQL cannot bind ORDER BY columns
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "createdAt", "i.created_at",
+            "updatedAt", "i.updated_at",
+            "price", "i.price",
+            "viewCount", "i.view_count",
+            "likeCount", "i.like_count",
+            "rating", "i.rating",
+            "title", "i.title"
+    );
+
+    // Keyset needs NOT NULL sort keys backed by a (key, id) index, value is the SQL type to cast the cursor to
+    private static final Map<String, String> KEYSET_COLUMN_TYPES = Map.of(
+            "i.created_at", "TIMESTAMP",
+            "i.view_count", "INTEGER",
+            "i.like_count", "INTEGER",
+            RANK_EXPRESSION, "REAL"
+    );
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Page<Item> searchItems(String tsQuery, ItemSearchRequest filter, Pageable pageable) {
+        Map<String, Object> params = new HashMap<>();
+        String where = buildWhereClause(tsQuery, filter, params);
+
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(Sort.Order.desc(RELEVANCE));
+        String direction = order.isAscending() ? " ASC" : " DESC";
+
+        Query query = entityManager.createNativeQuery(
+                "SELECT i.* FROM tbl_items i " + where +
+                        " ORDER BY " + sortExpression(tsQuery, order.getProperty()) + direction + ", i.id" + direction, Item.class);
+        params.forEach(query::setParameter);
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize());
+
+        List<Item> content = query.getResultList();
+
+        // Skip the count when the first page is already short
+        if (pageable.getOffset() == 0 && content.size() < pageable.getPageSize()) {
+            return new PageImpl<>(content, pageable, content.size());
+        }
+
+        Query countQuery = entityManager.createNativeQuery("SELECT COUNT(*) FROM tbl_items i " + where);
+        params.forEach(countQuery::setParameter);
+        long total = ((Number) countQuery.getSingleResult()).longValue();
+
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public CursorPageResponse<Item> searchItemsAfter(String tsQuery, ItemSearchRequest filter, Sort.Order order, ItemCursor after, int limit) {
+        String sortExpression = sortExpression(tsQuery, order.getProperty());
+        String sqlType = KEYSET_COLUMN_TYPES.get(sortExpression);
+        if (sqlType == null) {
+            throw new InvalidDataException("Cursor pagination only supports sortBy createdAt, viewCount, likeCount or relevance");
+        }
+
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder where = new StringBuilder(buildWhereClause(tsQuery, filter, params));
+
+        if (after != null) {
+            where.append(" AND (").append(sortExpression).append(", i.id) ")
+                    .append(order.isAscending() ? ">" : "<")
+                    .append(" (CAST(:afterValue AS ").append(sqlType).append("), :afterId)");
+            params.put("afterValue", after.getSortValue());
+            params.put("afterId", after.getId());
+        }
+
+        String direction = order.isAscending() ? " ASC" : " DESC";
+        String sql = "SELECT i.*, CAST(" + sortExpression + " AS TEXT) AS sort_value FROM tbl_items i " + where +
+                " ORDER BY " + sortExpression + direction + ", i.id" + direction;
+
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addEntity("i", Item.class)
+                .addScalar("sort_value", StandardBasicTypes.STRING);
+        params.forEach(query::setParameter);
+        // One extra row tells whether there is a next page without counting
+        query.setMaxResults(limit + 1);
+
+        List<Object[]> rows = query.getResultList();
+        boolean hasNext = rows.size() > limit;
+        List<Object[]> pageRows = hasNext ? rows.subList(0, limit) : rows;
+
+        List<Item> content = new ArrayList<>(pageRows.size());
+        pageRows.forEach(row -> content.add((Item) row[0]));
+
+        String nextCursor = null;
+        if (hasNext) {
+            Object[] last = pageRows.get(pageRows.size() - 1);
+            nextCursor = new ItemCursor(ItemCursor.sortKey(order), (String) last[1], ((Item) last[0]).getId()).encode();
+        }
+
+        return CursorPageResponse.<Item>builder()
+                .content(content)
+                .pageSize(limit)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    private String sortExpression(String tsQuery, String property) {
+        if (RELEVANCE.equals(property)) {
+            return tsQuery != null ? RANK_EXPRESSION : "i.created_at";
+        }
+        return SORT_COLUMNS.getOrDefault(property, "i.created_at");
+    }
+
+    private String buildWhereClause(String tsQuery, ItemSearchRequest filter, Map<String, Object> params) {
+        StringBuilder where = new StringBuilder();
+
+        if (filter.getStatus() != null) {
+            where.append("WHERE i.status = CAST(:status AS item_status)");
+            params.put("status", filter.getStatus().name());
+        } else {
+            where.append("WHERE i.status <> CAST('DELETED' AS item_status)");
+        }
+
+        if (filter.getUserId() != null) {
+            where.append(" AND i.user_id = :userId");
+            params.put("userId", filter.getUserId());
+        }
+
+        if (tsQuery != null) {
+            where.append(" AND i.search_vector @@ to_tsquery('simple', :tsQuery)");
+            params.put("tsQuery", tsQuery);
+        }
+
+        if (filter.getCategorySlug() != null && !filter.getCategorySlug().isBlank()) {
+            where.append(" AND i.category_id IN (SELECT c.id FROM tbl_category c WHERE c.slug = :categorySlug)");
+            params.put("categorySlug", filter.getCategorySlug());
+        }
+
+        if (filter.getTags() != null && !filter.getTags().isEmpty()) {
+            where.append(" AND EXISTS (SELECT 1 FROM tbl_item_tags t WHERE t.item_id = i.id" +
+                    " AND t.tag_id IN (SELECT g.id FROM tbl_tags g WHERE g.name IN (:tags)))");
+            params.put("tags", filter.getTags());
+        }
+
+        if (filter.getMinPrice() != null) {
+            where.append(" AND i.price >= :minPrice");
+            params.put("minPrice", filter.getMinPrice());
+        }
+
+        if (filter.getMaxPrice() != null) {
+            where.append(" AND i.price <= :maxPrice");
+            params.put("maxPrice", filter.getMaxPrice());
+        }
+
+        return where.toString();
+    }
+}
@@ -11,31 +11,36 @@ package vn.tphcm.itemservice.services;
  * @date: 9/20/2025
  */
 
+import org.locationtech.jts.geom.Point;
 import vn.tphcm.itemservice.dtos.PageResponse;
 import vn.tphcm.itemservice.dtos.response.ItemResponse;
 
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
 public interface CacheService {
-    // Cache single item
+    // Cache single item, for read-through fills and new items that no replica can hold yet
     void cacheItem(String itemId, ItemResponse response);
 
+    // Cache single item after it was changed, other replicas drop their stale near cache copy
+    void updateCachedItem(String itemId, ItemResponse response);
+
     ItemResponse getCachedItem(String itemId);
 
     void evictCachedItem(String itemId);
 
-    // Cache popular items
-    void cachePopularItems(PageResponse<ItemResponse> items);
+    // Read-through with single-flight loading and probabilistic early refresh
+    ItemResponse getOrLoadItem(String itemId, Supplier<ItemResponse> loader);
 
-    PageResponse<ItemResponse> getCachedPopularItems();
-
-    void evictCachedPopularItems();
+    // Batch read-through for ranked pages, loader receives the ids missing from both cache levels
+    List<ItemResponse> getOrLoadItems(List<String> itemIds, Function<List<String>, List<ItemResponse>> loader);
 
     // Cache user-specific items
     void cacheUserItems(String userId, PageResponse<ItemResponse> items, int page, int size, String sortBy, String sortDirection);
 
     PageResponse<ItemResponse> getCachedUserItems(String userId, int page, int size, String sortBy, String sortDirection);
 
-    Long incrementItemViewCount(String itemId);
-
     void evictAllUserItems(String userId);
 
     // Cache all items
@@ -47,4 +52,12 @@ public interface CacheService {
     void evictAllItems();
 
     void evictAllRelatedCaches(String itemId, String userId);
+
+    // Cache nearby results per geohash cell, the query part identifies radius, mode and paging inside the cell
+    void cacheNearbyItems(String cell, String query, PageResponse<ItemResponse> items);
+
+    PageResponse<ItemResponse> getCachedNearbyItems(String cell, String query);
+
+    // Drops every cached nearby result that may contain an item at this location
+    void evictNearbyItems(Point location);
 }
@@ -0,0 +1,24 @@
+/*
+ * @ (#) ImageProcessingService.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.services;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import org.springframework.web.multipart.MultipartFile;
+import vn.tphcm.itemservice.dtos.ProcessedImage;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface ImageProcessingService {
+    /**
+     * Downscales and re-encodes an image and renders its thumbnail on the bounded processing pool.
+     * Completes with {@code null} when the image has to be stored as is (animated GIF, WebP, unreadable content).
+     */
+    CompletableFuture<ProcessedImage> process(MultipartFile file);
+}
@@ -0,0 +1,20 @@
+/*
+ * @ (#) ItemAggregateService.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.services;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import vn.tphcm.itemservice.dtos.ApiResponse;
+
+public interface ItemAggregateService {
+    /**
+     * Recomputes rating, rating_count and comment_count of every item from tbl_ratings and tbl_item_comments.
+     */
+    ApiResponse<Integer> rebuildAggregates();
+}
@@ -0,0 +1,30 @@
+/*
+ * @ (#) ItemExportService.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.services;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import vn.tphcm.itemservice.commons.ExportFormat;
+import vn.tphcm.itemservice.commons.ItemStatus;
+
+import java.time.LocalDateTime;
+
+public interface ItemExportService {
+    /**
+     * Streams every item matching the filters, ordered by (updated_at, id) so that an export can resume from the
+     * last updated_at it has seen.
+     *
+     * @param status       optional status filter
+     * @param categorySlug optional category filter
+     * @param updatedSince optional lower bound on updated_at, moved back by a safety overlap so that rows of writes
+     *                     that committed late are not skipped; rows inside the overlap come again
+     */
+    StreamingResponseBody exportItems(ExportFormat format, ItemStatus status, String categorySlug, LocalDateTime updatedSince);
+}
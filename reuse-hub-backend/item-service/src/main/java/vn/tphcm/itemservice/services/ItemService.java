@@ -14,6 +14,7 @@ package vn.tphcm.itemservice.services;
 import org.springframework.web.multipart.MultipartFile;
 import vn.tphcm.event.dto.FeedbackEvent;
 import vn.tphcm.itemservice.dtos.ApiResponse;
+import vn.tphcm.itemservice.dtos.CursorPageResponse;
 import vn.tphcm.itemservice.dtos.PageResponse;
 import vn.tphcm.itemservice.dtos.request.ItemCreationRequest;
 import vn.tphcm.itemservice.dtos.request.ItemSearchRequest;
@@ -44,6 +45,17 @@ public interface ItemService {
 
     ApiResponse<PageResponse<ItemResponse>> searchItems(ItemSearchRequest request, int pageNo, int pageSize, String sortBy, String sortDirection);
 
+    // Keyset (cursor) variants of the listing endpoints, no total count
+    ApiResponse<CursorPageResponse<ItemResponse>> getAllItemsAfter(String after, int pageSize, String sortBy, String sortDirection);
+
+    ApiResponse<CursorPageResponse<ItemResponse>> getMyItemAfter(String userId, String after, int pageSize, String sortBy, String sortDirection);
+
+    ApiResponse<CursorPageResponse<ItemResponse>> getItemsByCategoryAfter(String categorySlug, String after, int pageSize, String sortBy, String sortDirection);
+
+    ApiResponse<CursorPageResponse<ItemResponse>> getItemsByTagsAfter(List<String> tags, String after, int pageSize, String sortBy, String sortDirection);
+
+    ApiResponse<CursorPageResponse<ItemResponse>> searchItemsAfter(ItemSearchRequest request, String after, int pageSize, String sortBy, String sortDirection);
+
     ApiResponse<PageResponse<ItemResponse>> getPopularItems(int pageNo, int pageSize, String sortBy, String sortDirection);
 
     ApiResponse<PageResponse<ItemResponse>> getItemsByCategory(String categorySlug, int pageNo, int pageSize, String sortBy, String sortDirection);
@@ -52,8 +64,15 @@ public interface ItemService {
 
     ApiResponse<ItemResponse> getItemFeignById(String itemId);
 
+    /**
+     * Returns the existing items among the given ids in request order, missing ids are skipped.
+     */
+    ApiResponse<List<ItemResponse>> getItemsByIds(List<String> itemIds);
+
     ApiResponse<PageResponse<ItemResponse>> searchItemsNearby(double latitude, double longitude, double radius, int pageNo, int pageSize);
 
+    ApiResponse<PageResponse<ItemResponse>> getClosestItems(double latitude, double longitude, double maxDistance, int limit);
+
     ApiResponse<PageResponse<ItemResponse>> getItemsByTags(List<String> tags, int pageNo, int pageSize, String sortBy, String sortDirection);
 
     ApiResponse<PageResponse<ItemResponse>> getItems(int pageNo, int pageSize, String sortBy, String sortDirection, String categorySlug);
@@ -0,0 +1,32 @@
+/*
+ * @ (#) LikeService.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.services;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+public interface LikeService {
+    /**
+     * Adds the user to the item's like set.
+     *
+     * @return false when the user already liked the item
+     */
+    boolean like(String itemId, String userId);
+
+    /**
+     * Removes the user from the item's like set.
+     *
+     * @return false when the user did not like the item
+     */
+    boolean unlike(String itemId, String userId);
+
+    /**
+     * Applies the buffered like_count deltas and LIKE/UNLIKE interactions to Postgres.
+     */
+    void flush();
+}
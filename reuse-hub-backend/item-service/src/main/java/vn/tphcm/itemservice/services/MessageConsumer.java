@@ -13,6 +13,7 @@ package vn.tphcm.itemservice.services;
 import com.rabbitmq.client.Channel;
 import org.springframework.amqp.core.Message;
 import vn.tphcm.event.dto.AiTagsGeneratedEvent;
+import vn.tphcm.event.dto.EventMessage;
 import vn.tphcm.event.dto.FeedbackEvent;
 import vn.tphcm.event.dto.PaymentEvent;
 import vn.tphcm.event.dto.TransactionEventMessage;
@@ -25,4 +26,6 @@ public interface MessageConsumer {
     void handlePaymentEvent(PaymentEvent event, Channel channel, Message message) throws Exception;
 
     void handleAiTagsGenerated(AiTagsGeneratedEvent event, Channel channel, Message message) throws Exception;
+
+    void handleItemActivity(EventMessage event, Channel channel, Message message) throws Exception;
 }
@@ -0,0 +1,24 @@
+/*
+ * @ (#) OutboxService.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.services;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+public interface OutboxService {
+    /**
+     * Stores a message in tbl_item_outbox within the caller's transaction (or a new one when there is none).
+     * Messages of the same aggregate are published in the order they were enqueued.
+     */
+    void enqueue(String aggregateId, String exchange, String routingKey, Object payload);
+
+    /**
+     * Publishes due outbox messages in batches and waits for the broker confirms before deleting them.
+     */
+    void relay();
+}
@@ -0,0 +1,35 @@
+/*
+ * @ (#) PopularityService.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.services;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import vn.tphcm.itemservice.commons.PopularitySignal;
+import vn.tphcm.itemservice.models.Item;
+
+import java.util.List;
+
+public interface PopularityService {
+    // Adds the decayed weight of a signal to an item that is already ranked
+    void recordSignal(String itemId, PopularitySignal signal);
+
+    // (Re)ranks an AVAILABLE item from its stored counters
+    void track(Item item);
+
+    // Drops an item that left the AVAILABLE state
+    void untrack(String itemId);
+
+    List<String> getRankedItemIds(long offset, int limit, boolean descending);
+
+    long countRanked();
+
+    void rebuild();
+
+    void maintain();
+}
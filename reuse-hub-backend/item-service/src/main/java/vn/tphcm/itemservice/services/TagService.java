@@ -0,0 +1,30 @@
+/*
+ * @ (#) TagService.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.services;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import vn.tphcm.itemservice.models.Tag;
+
+import java.util.Collection;
+import java.util.Set;
+
+public interface TagService {
+    /**
+     * Looks the names up in the tag dictionary, adding the ones that are not there yet.
+     */
+    Set<Tag> resolveTags(Collection<String> names);
+
+    /**
+     * Links the tags to the item, keeping the ones it already has.
+     *
+     * @return the number of tags that were not linked before
+     */
+    int addTagsToItem(String itemId, Collection<String> names);
+}
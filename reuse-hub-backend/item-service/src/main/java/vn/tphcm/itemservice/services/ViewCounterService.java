@@ -0,0 +1,26 @@
+/*
+ * @ (#) ViewCounterService.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.services;
+
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+public interface ViewCounterService {
+    /**
+     * Records a view without touching Postgres.
+     *
+     * @return views of this item not yet flushed to tbl_items.view_count
+     */
+    long recordView(String itemId, String userId);
+
+    /**
+     * Writes the aggregated view counts and the buffered VIEW interactions to Postgres.
+     */
+    void flush();
+}
@@ -10,55 +10,125 @@ package vn.tphcm.itemservice.services.impl;
  * @date: 9/20/2025
  */
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Point;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
+import vn.tphcm.itemservice.configs.NearCacheConfig;
+import vn.tphcm.itemservice.configs.ReadReplicaRoutingDataSource;
 import vn.tphcm.itemservice.dtos.PageResponse;
 import vn.tphcm.itemservice.dtos.response.ItemResponse;
 import vn.tphcm.itemservice.services.CacheService;
+import vn.tphcm.itemservice.utils.GeoHash;
+import vn.tphcm.itemservice.utils.SingleFlightLoader;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j(topic = "CACHE-SERVICE")
 public class CacheServiceImpl implements CacheService {
-    private final RedisTemplate<String, Object> redisTemplate;
-    private final ObjectMapper objectMapper;
+    // Typed templates with the compact serializer, see RedisConfig
+    private final RedisTemplate<String, ItemResponse> itemRedisTemplate;
+    private final RedisTemplate<String, PageResponse<ItemResponse>> itemPageRedisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final SingleFlightLoader singleFlightLoader;
+
+    // L1: per-replica Caffeine caches in front of Redis, see NearCacheConfig
+    private final Cache<String, ItemResponse> itemNearCache;
+    private final Cache<String, PageResponse<ItemResponse>> itemListNearCache;
+
+    @Value("${item.near-cache.list-max-page:2}")
+    private int nearCacheListMaxPage;
+
+    // XFetch: a hit refreshes early with probability growing as the TTL runs out, 0 disables early refresh
+    @Value("${item.cache.early-refresh-beta:1.0}")
+    private double earlyRefreshBeta;
+
+    @Value("${item.cache.early-refresh-default-load-ms:50}")
+    private double earlyRefreshDefaultLoadMs;
+
+    // Nearby entries share one generation per area cell; an item change bumps every area its radius can reach
+    @Value("${item.nearby-cache.area-precision:5}")
+    private int nearbyAreaPrecision;
+
+    @Value("${item.nearby-cache.max-radius-meters:10000}")
+    private double nearbyMaxRadiusMeters;
+
+    @Value("${item.nearby-cache.cell-precision:7}")
+    private int nearbyCellPrecision;
+
+    @Value("${item.nearby-cache.ttl-seconds:300}")
+    private long nearbyTtlSeconds;
 
     private static final String ITEM_KEY_PREFIX = "item:";
-    private static final String POPULAR_ITEMS_KEY = "items:popular";
     private static final String USER_ITEMS_KEY_PREFIX = "items:user:";
-    private static final String VIEW_COUNT_PREFIX = "item:views:";
     private static final String ALL_ITEMS_KEY_PREFIX = "items:all:";
+    private static final String NEARBY_ITEMS_KEY_PREFIX = "items:nearby:";
+
+    // List families are versioned: the generation is part of every list key and invalidation is a single INCR,
+    // entries of older generations are never read again and expire through their TTL
+    private static final String ALL_ITEMS_GENERATION_KEY = "items:gen:all";
+    private static final String USER_ITEMS_GENERATION_PREFIX = "items:gen:user:";
+    private static final String NEARBY_GENERATION_PREFIX = "items:gen:nearby:";
+
+    private static final String NEAR_ALL_ITEMS_PREFIX = "all:";
 
     private static final Duration DEFAULT_TTL = Duration.ofMinutes(30);
     private static final Duration LIST_TTL = Duration.ofMinutes(15);
-    private static final Duration POPULAR_ITEMS_TTL = Duration.ofMinutes(10);
+    // Must outlive every list entry written under it, otherwise a reset counter could revive an old generation
+    private static final Duration GENERATION_TTL = Duration.ofDays(1);
 
     @Override
     public void cacheItem(String itemId, ItemResponse response) {
         try {
             String key = ITEM_KEY_PREFIX + itemId;
-            redisTemplate.opsForValue().set(key, response, DEFAULT_TTL);
+            itemRedisTemplate.opsForValue().set(key, response, DEFAULT_TTL);
+            itemNearCache.put(itemId, response);
             log.info("Cached item {} with key {}", itemId, key);
         } catch (Exception e) {
             log.error("Failed to cache item {}: {}", itemId, e.getMessage());
         }
     }
 
+    @Override
+    public void updateCachedItem(String itemId, ItemResponse response) {
+        cacheItem(itemId, response);
+        publishInvalidation(NearCacheInvalidationListener.ITEM_PREFIX + itemId);
+    }
+
     @Override
     public ItemResponse getCachedItem(String itemId) {
+        ItemResponse nearCached = itemNearCache.getIfPresent(itemId);
+        if (nearCached != null) {
+            return nearCached;
+        }
+
         try {
             String key = ITEM_KEY_PREFIX + itemId;
-            Object cachedData = redisTemplate.opsForValue().get(key);
-            if (cachedData != null) {
+            ItemResponse response = itemRedisTemplate.opsForValue().get(key);
+            recordRedisLookup("detail", response != null);
+            if (response != null) {
                 log.info("Cache hit for item {} with key {}", itemId, key);
-                return objectMapper.convertValue(cachedData, ItemResponse.class);
+                itemNearCache.put(itemId, response);
+                return response;
             }
         } catch (Exception e) {
             log.error("Failed to get cached item {}: {}", itemId, e.getMessage());
@@ -71,7 +141,9 @@ public class CacheServiceImpl implements CacheService {
     public void evictCachedItem(String itemId) {
         try {
             String key = ITEM_KEY_PREFIX + itemId;
-            redisTemplate.delete(key);
+            itemNearCache.invalidate(itemId);
+            itemRedisTemplate.delete(key);
+            publishInvalidation(NearCacheInvalidationListener.ITEM_PREFIX + itemId);
             log.info("Evicted cached item {} with key {}", itemId, key);
         } catch (Exception e) {
             log.error("Failed to evict cached item {}: {}", itemId, e.getMessage());
@@ -79,49 +151,66 @@ public class CacheServiceImpl implements CacheService {
     }
 
     @Override
-    public void cachePopularItems(PageResponse<ItemResponse> items) {
-        try {
-            redisTemplate.opsForValue().set(POPULAR_ITEMS_KEY, items, POPULAR_ITEMS_TTL);
-            log.info("Cached popular items with key {}", POPULAR_ITEMS_KEY);
-        } catch (Exception e) {
-            log.error("Failed to cache popular items: {}", e.getMessage());
+    public ItemResponse getOrLoadItem(String itemId, Supplier<ItemResponse> loader) {
+        ItemResponse nearCached = itemNearCache.getIfPresent(itemId);
+        if (nearCached != null) {
+            return nearCached;
         }
+
+        String key = ITEM_KEY_PREFIX + itemId;
+        ItemResponse cached = readThrough("detail", key, itemRedisTemplate);
+        if (cached != null) {
+            itemNearCache.put(itemId, cached);
+            return cached;
+        }
+
+        return singleFlightLoader.load("detail", key, () -> {
+            ItemResponse loaded = ReadReplicaRoutingDataSource.readOnPrimary(loader);
+            cacheItem(itemId, loaded);
+            return loaded;
+        });
     }
 
     @Override
-    public PageResponse<ItemResponse> getCachedPopularItems() {
-        try {
-            Object cached = redisTemplate.opsForValue().get(POPULAR_ITEMS_KEY);
-            if (cached != null) {
-                log.info("Cache hit for popular items with key {}", POPULAR_ITEMS_KEY);
-                return objectMapper.convertValue(cached, new TypeReference<PageResponse<ItemResponse>>() {});
+    public List<ItemResponse> getOrLoadItems(List<String> itemIds, Function<List<String>, List<ItemResponse>> loader) {
+        Map<String, ItemResponse> found = new HashMap<>(itemNearCache.getAllPresent(itemIds));
+
+        List<String> remoteIds = itemIds.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!remoteIds.isEmpty()) {
+            try {
+                List<ItemResponse> cached = itemRedisTemplate.opsForValue()
+                        .multiGet(remoteIds.stream().map(id -> ITEM_KEY_PREFIX + id).toList());
+                for (int i = 0; cached != null && i < remoteIds.size(); i++) {
+                    ItemResponse response = cached.get(i);
+                    recordRedisLookup("detail", response != null);
+                    if (response != null) {
+                        found.put(remoteIds.get(i), response);
+                        itemNearCache.put(remoteIds.get(i), response);
+                    }
+                }
+            } catch (Exception e) {
+                log.error("Failed to get cached items {}: {}", remoteIds, e.getMessage());
             }
-        } catch (Exception e) {
-            log.error("Failed to get cached popular items: {}", e.getMessage());
         }
-        return null;
-    }
 
-    @Override
-    public void evictCachedPopularItems() {
-        try {
-            Object cached = redisTemplate.opsForValue().get(POPULAR_ITEMS_KEY);
-            if (cached != null) {
-                redisTemplate.delete(POPULAR_ITEMS_KEY);
-                log.info("Evicted cached popular items with key {}", POPULAR_ITEMS_KEY);
-            } else {
-                log.info("No cached popular items to evict with key {}", POPULAR_ITEMS_KEY);
+        List<String> missingIds = itemIds.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!missingIds.isEmpty()) {
+            for (ItemResponse loaded : ReadReplicaRoutingDataSource.readOnPrimary(() -> loader.apply(missingIds))) {
+                cacheItem(loaded.getId(), loaded);
+                found.put(loaded.getId(), loaded);
             }
-        }catch (Exception e) {
-            log.error("Failed to evict cached popular items: {}", e.getMessage());
         }
+
+        // Keep the requested order, ids that no longer exist are skipped
+        return itemIds.stream().map(found::get).filter(Objects::nonNull).toList();
     }
 
     @Override
     public void cacheUserItems(String userId, PageResponse<ItemResponse> items, int page, int size, String sortBy, String sortDirection) {
         try {
             String key = generateUserItemsKey(userId, page, size, sortBy, sortDirection);
-            redisTemplate.opsForValue().set(key, items, DEFAULT_TTL);
+            itemPageRedisTemplate.opsForValue().set(key, items, DEFAULT_TTL);
+            stringRedisTemplate.expire(USER_ITEMS_GENERATION_PREFIX + userId, GENERATION_TTL);
             log.info("Cached items for user {} with key {}", userId, key);
         } catch (Exception e) {
             log.error("Failed to cache items for user {}: {}", userId, e.getMessage());
@@ -129,15 +218,13 @@ public class CacheServiceImpl implements CacheService {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public PageResponse<ItemResponse> getCachedUserItems(String userId, int page, int size, String sortBy, String sortDirection) {
         try {
             String key = generateUserItemsKey(userId, page, size, sortBy, sortDirection);
-            Object cached = redisTemplate.opsForValue().get(key);
+            PageResponse<ItemResponse> cached = itemPageRedisTemplate.opsForValue().get(key);
             if (cached != null) {
                 log.info("Cache hit for user {} items with key {}", userId, key);
-                return objectMapper.convertValue(cached, new TypeReference<PageResponse<ItemResponse>>() {
-                });
+                return cached;
             }
         } catch (Exception e) {
             log.error("Failed to get cached items for user {}: {}", userId, e.getMessage());
@@ -146,31 +233,19 @@ public class CacheServiceImpl implements CacheService {
         return null;
     }
 
-    @Override
-    public Long incrementItemViewCount(String itemId) {
-        try {
-            String key = VIEW_COUNT_PREFIX + itemId;
-            redisTemplate.opsForValue().increment(key);
-            redisTemplate.expire(key, Duration.ofDays(7));
-            log.info("Incremented view count for item {} with key {}", itemId, key);
-            return (Long) redisTemplate.opsForValue().get(key);
-        } catch (Exception e) {
-            log.error("Failed to increment view count for item {}: {}", itemId, e.getMessage());
-        }
-        return null;
-    }
-
     @Override
     public void evictAllUserItems(String userId) {
-        String key = USER_ITEMS_KEY_PREFIX + userId + ":*";
-        deleteKeysByPattern(key);
+        bumpGeneration(USER_ITEMS_GENERATION_PREFIX + userId, GENERATION_TTL);
     }
 
     @Override
     public void cacheAllItems(int page, int size, String sortBy, String sortDirection, PageResponse<ItemResponse> items) {
         try {
             String key = generateAllItemsKey(page, size, sortBy, sortDirection);
-            redisTemplate.opsForValue().set(key, items, LIST_TTL);
+            itemPageRedisTemplate.opsForValue().set(key, items, LIST_TTL);
+            if (page < nearCacheListMaxPage) {
+                itemListNearCache.put(nearAllItemsKey(page, size, sortBy, sortDirection), items);
+            }
             log.info("Cached all items with key {}", key);
         } catch (Exception e) {
             log.error("Failed to cache all items: {}", e.getMessage());
@@ -179,13 +254,26 @@ public class CacheServiceImpl implements CacheService {
 
     @Override
     public PageResponse<ItemResponse> getCachedAllItems(int page, int size, String sortBy, String sortDirection) {
+        boolean nearCacheable = page < nearCacheListMaxPage;
+        String nearKey = nearAllItemsKey(page, size, sortBy, sortDirection);
+
+        if (nearCacheable) {
+            PageResponse<ItemResponse> nearCached = itemListNearCache.getIfPresent(nearKey);
+            if (nearCached != null) {
+                return nearCached;
+            }
+        }
+
         try {
             String key = generateAllItemsKey(page, size, sortBy, sortDirection);
-            Object cached = redisTemplate.opsForValue().get(key);
-            if (cached != null) {
+            PageResponse<ItemResponse> response = itemPageRedisTemplate.opsForValue().get(key);
+            recordRedisLookup("list", response != null);
+            if (response != null) {
                 log.info("Cache hit for all items with key {}", key);
-                return objectMapper.convertValue(cached, new TypeReference<PageResponse<ItemResponse>>() {
-                });
+                if (nearCacheable) {
+                    itemListNearCache.put(nearKey, response);
+                }
+                return response;
             }
         } catch (Exception e) {
             log.error("Failed to get cached all items: {}", e.getMessage());
@@ -196,8 +284,9 @@ public class CacheServiceImpl implements CacheService {
 
     @Override
     public void evictAllItems() {
-        deleteKeysByPattern(ALL_ITEMS_KEY_PREFIX + "*");
-        evictCachedPopularItems();
+        bumpGeneration(ALL_ITEMS_GENERATION_KEY, null);
+        itemListNearCache.invalidateAll();
+        publishInvalidation(NearCacheInvalidationListener.LISTS);
     }
 
     @Override
@@ -207,25 +296,146 @@ public class CacheServiceImpl implements CacheService {
         evictAllUserItems(userId);
     }
 
+    @Override
+    public void cacheNearbyItems(String cell, String query, PageResponse<ItemResponse> items) {
+        try {
+            String area = nearbyArea(cell);
+            String key = generateNearbyKey(area, cell, query);
+            itemPageRedisTemplate.opsForValue().set(key, items, Duration.ofSeconds(nearbyTtlSeconds));
+            stringRedisTemplate.expire(NEARBY_GENERATION_PREFIX + area, GENERATION_TTL);
+            log.info("Cached nearby items with key {}", key);
+        } catch (Exception e) {
+            log.error("Failed to cache nearby items for cell {}: {}", cell, e.getMessage());
+        }
+    }
+
+    @Override
+    public PageResponse<ItemResponse> getCachedNearbyItems(String cell, String query) {
+        try {
+            String key = generateNearbyKey(nearbyArea(cell), cell, query);
+            PageResponse<ItemResponse> response = itemPageRedisTemplate.opsForValue().get(key);
+            recordRedisLookup("nearby", response != null);
+            if (response != null) {
+                log.info("Cache hit for nearby items with key {}", key);
+                return response;
+            }
+        } catch (Exception e) {
+            log.error("Failed to get cached nearby items for cell {}: {}", cell, e.getMessage());
+        }
+
+        return null;
+    }
+
+    @Override
+    public void evictNearbyItems(Point location) {
+        if (location == null) {
+            return;
+        }
+
+        // Entries hold what is around their cell center out to the padded radius, see ItemServiceImpl
+        Set<String> areas = GeoHash.covering(location.getY(), location.getX(),
+                GeoHash.paddedRadius(nearbyMaxRadiusMeters, nearbyCellPrecision), nearbyAreaPrecision);
+
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection conn = (StringRedisConnection) connection;
+                areas.forEach(area -> {
+                    conn.incr(NEARBY_GENERATION_PREFIX + area);
+                    conn.expire(NEARBY_GENERATION_PREFIX + area, GENERATION_TTL.toSeconds());
+                });
+                return null;
+            });
+            log.info("Bumped nearby cache generation of {} areas around ({}, {})", areas.size(), location.getY(), location.getX());
+        } catch (Exception e) {
+            log.error("Failed to evict nearby items around ({}, {}): {}", location.getY(), location.getX(), e.getMessage());
+        }
+    }
+
+    private String nearbyArea(String cell) {
+        return cell.substring(0, Math.min(nearbyAreaPrecision, cell.length()));
+    }
+
+    private String generateNearbyKey(String area, String cell, String query) {
+        long generation = currentGeneration(NEARBY_GENERATION_PREFIX + area);
+        return NEARBY_ITEMS_KEY_PREFIX + area + ":g" + generation + ":" + cell + ":" + query;
+    }
+
     private String generateUserItemsKey(String userId, int page, int size, String sortBy, String sortDirection) {
-        return USER_ITEMS_KEY_PREFIX + userId + ":page:" + page + ":size:" + size + ":sortBy:" + sortBy + ":sortDir:" + sortDirection;
+        long generation = currentGeneration(USER_ITEMS_GENERATION_PREFIX + userId);
+        return USER_ITEMS_KEY_PREFIX + userId + ":g" + generation + ":page:" + page + ":size:" + size + ":sortBy:" + sortBy + ":sortDir:" + sortDirection;
     }
 
     private String generateAllItemsKey(int page, int size, String sortBy, String sortDirection) {
-        return "items:all:page:" + page + ":size:" + size + ":sortBy:" + sortBy + ":sortDir:" + sortDirection;
-    }
-    
-    private void deleteKeysByPattern(String pattern){
-        try{
-            Set<String> keys = redisTemplate.keys(pattern);
-            if (!keys.isEmpty()) {
-                redisTemplate.delete(keys);
-                log.info("Deleted keys with pattern {}: {}", pattern, keys);
-            } else {
-                log.info("No keys found for pattern {}", pattern);
+        long generation = currentGeneration(ALL_ITEMS_GENERATION_KEY);
+        return ALL_ITEMS_KEY_PREFIX + "g" + generation + ":page:" + page + ":size:" + size + ":sortBy:" + sortBy + ":sortDir:" + sortDirection;
+    }
+
+    private String nearAllItemsKey(int page, int size, String sortBy, String sortDirection) {
+        return NEAR_ALL_ITEMS_PREFIX + page + ":" + size + ":" + sortBy + ":" + sortDirection;
+    }
+
+    /**
+     * Reads a Redis entry for a read-through cache. A hit that wins the early refresh draw is reported as a miss,
+     * so that caller reloads the entry through the single flight while its TTL has not run out yet.
+     */
+    private <T> T readThrough(String cache, String key, RedisTemplate<String, T> template) {
+        try {
+            T cached = template.opsForValue().get(key);
+            recordRedisLookup(cache, cached != null);
+            if (cached != null && shouldRefreshEarly(cache, key, template)) {
+                meterRegistry.counter("item.cache.early.refresh", "cache", cache).increment();
+                log.info("Refreshing {} ahead of expiry", key);
+                return null;
             }
-        }catch (Exception e){
-            log.error("Failed to delete keys by pattern {}: {}", pattern, e.getMessage());
+            return cached;
+        } catch (Exception e) {
+            log.error("Failed to read cache key {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean shouldRefreshEarly(String cache, String key, RedisTemplate<String, ?> template) {
+        if (earlyRefreshBeta <= 0) {
+            return false;
+        }
+
+        Long ttlMs = template.getExpire(key, TimeUnit.MILLISECONDS);
+        if (ttlMs == null || ttlMs < 0) {
+            return false;
+        }
+
+        double loadMs = singleFlightLoader.averageLoadMillis(cache, earlyRefreshDefaultLoadMs);
+        double draw = -Math.log(1.0 - ThreadLocalRandom.current().nextDouble());
+
+        return loadMs * earlyRefreshBeta * draw >= ttlMs;
+    }
+
+    private void publishInvalidation(String message) {
+        try {
+            stringRedisTemplate.convertAndSend(NearCacheConfig.INVALIDATION_CHANNEL, message);
+        } catch (Exception e) {
+            log.error("Failed to publish near cache invalidation {}: {}", message, e.getMessage());
+        }
+    }
+
+    private void recordRedisLookup(String cache, boolean hit) {
+        meterRegistry.counter("item.cache.redis", "cache", cache, "result", hit ? "hit" : "miss").increment();
+    }
+
+    private long currentGeneration(String generationKey) {
+        String generation = stringRedisTemplate.opsForValue().get(generationKey);
+        return generation != null ? Long.parseLong(generation) : 0L;
+    }
+
+    private void bumpGeneration(String generationKey, Duration ttl) {
+        try {
+            Long generation = stringRedisTemplate.opsForValue().increment(generationKey);
+            if (ttl != null) {
+                stringRedisTemplate.expire(generationKey, ttl);
+            }
+            log.info("Bumped cache generation {} to {}", generationKey, generation);
+        } catch (Exception e) {
+            log.error("Failed to bump cache generation {}: {}", generationKey, e.getMessage());
         }
     }
 }
@@ -0,0 +1,162 @@
+/*
+ * @ (#) ImageProcessingServiceImpl.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.services.impl;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.imgscalr.Scalr;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import vn.tphcm.itemservice.configs.FileUploadConfig;
+import vn.tphcm.itemservice.dtos.ProcessedImage;
+import vn.tphcm.itemservice.services.ImageProcessingService;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Decoding and resampling are CPU bound, so they run on a fixed pool sized to the available cores
+ * (or {@code file.upload.image.processing-parallelism}) instead of on the request or upload threads.
+ */
+@Service
+@Slf4j(topic = "IMAGE-PROCESSING-SERVICE")
+public class ImageProcessingServiceImpl implements ImageProcessingService, DisposableBean {
+    private static final String JPEG = "image/jpeg";
+    private static final String PNG = "image/png";
+    // GIFs may be animated and WebP has no ImageIO codec, both are stored unchanged
+    private static final Set<String> PROCESSABLE_TYPES = Set.of(JPEG, PNG);
+
+    private final FileUploadConfig.Image imageConfig;
+    private final ExecutorService processingExecutor;
+    private final Timer processingTimer;
+
+    public ImageProcessingServiceImpl(FileUploadConfig fileUploadConfig,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${file.upload.image.processing-parallelism:0}") int parallelism) {
+        this.imageConfig = fileUploadConfig.getImage();
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.processingExecutor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("image-processing-"));
+        this.processingTimer = Timer.builder("item.image.processing.duration")
+                .description("Decode, resize and encode time per uploaded image")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public CompletableFuture<ProcessedImage> process(MultipartFile file) {
+        if (!PROCESSABLE_TYPES.contains(file.getContentType())) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return CompletableFuture.supplyAsync(() -> processingTimer.record(() -> processNow(file)), processingExecutor);
+    }
+
+    @Override
+    public void destroy() {
+        processingExecutor.shutdown();
+    }
+
+    private ProcessedImage processNow(MultipartFile file) {
+        try {
+            BufferedImage source;
+            try (InputStream in = file.getInputStream()) {
+                source = ImageIO.read(in);
+            }
+
+            if (source == null) {
+                log.warn("No decoder for {}, storing it unchanged", file.getOriginalFilename());
+                return null;
+            }
+
+            BufferedImage image = fitWithin(source, imageConfig.getMaxWidth(), imageConfig.getMaxHeight());
+            BufferedImage thumbnail = fitWithin(image, imageConfig.getThumbnailSize(), imageConfig.getThumbnailSize());
+
+            ProcessedImage processed = ProcessedImage.builder()
+                    .content(encode(image, file.getContentType()))
+                    .thumbnail(encode(thumbnail, file.getContentType()))
+                    .contentType(file.getContentType())
+                    .build();
+
+            log.info("Processed {}: {}x{} -> {}x{}, {} -> {} bytes", file.getOriginalFilename(),
+                    source.getWidth(), source.getHeight(), image.getWidth(), image.getHeight(),
+                    file.getSize(), processed.getContent().length);
+
+            source.flush();
+            image.flush();
+            thumbnail.flush();
+
+            return processed;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not process {}, storing it unchanged: {}", file.getOriginalFilename(), e.getMessage());
+            return null;
+        }
+    }
+
+    private BufferedImage fitWithin(BufferedImage image, int maxWidth, int maxHeight) {
+        if (maxWidth <= 0 || maxHeight <= 0 || (image.getWidth() <= maxWidth && image.getHeight() <= maxHeight)) {
+            return image;
+        }
+
+        double scale = Math.min((double) maxWidth / image.getWidth(), (double) maxHeight / image.getHeight());
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        return Scalr.resize(image, Scalr.Method.QUALITY, Scalr.Mode.FIT_EXACT, width, height);
+    }
+
+    private byte[] encode(BufferedImage image, String contentType) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        if (PNG.equals(contentType)) {
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        }
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality((float) imageConfig.getCompressQuality());
+
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(toRgb(image), null, null), param);
+        } finally {
+            writer.dispose();
+        }
+
+        return out.toByteArray();
+    }
+
+    // The JPEG encoder rejects images with an alpha channel
+    private BufferedImage toRgb(BufferedImage image) {
+        if (!image.getColorModel().hasAlpha()) {
+            return image;
+        }
+
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        rgb.createGraphics().drawImage(image, 0, 0, java.awt.Color.WHITE, null);
+        return rgb;
+    }
+}
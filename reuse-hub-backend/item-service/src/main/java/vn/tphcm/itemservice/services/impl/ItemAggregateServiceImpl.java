@@ -0,0 +1,165 @@
+/*
+ * @ (#) ItemAggregateServiceImpl.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.services.impl;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.tphcm.itemservice.dtos.ApiResponse;
+import vn.tphcm.itemservice.exceptions.InvalidDataException;
+import vn.tphcm.itemservice.services.CacheService;
+import vn.tphcm.itemservice.services.ItemAggregateService;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.springframework.http.HttpStatus.OK;
+
+/**
+ * One-off rebuild of the incremental rating aggregates. Item ids are read in keyset chunks and every chunk is
+ * recomputed in its own transaction on a small pool. The chunk's rows are locked before the aggregates are read, so a
+ * feedback applied concurrently either lands in the recomputed values or is added on top of them, never lost.
+ */
+@Service
+@Slf4j(topic = "ITEM-AGGREGATE-SERVICE")
+public class ItemAggregateServiceImpl implements ItemAggregateService, DisposableBean {
+    private static final String SELECT_CHUNK_SQL = "SELECT id FROM tbl_items WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final String LOCK_CHUNK_SQL = "SELECT id FROM tbl_items WHERE id = ANY(?) ORDER BY id FOR UPDATE";
+
+    private static final String REBUILD_CHUNK_SQL = """
+            UPDATE tbl_items AS i
+            SET rating_count = COALESCE(r.rating_count, 0),
+                rating_sum = COALESCE(r.rating_sum, 0),
+                rating = CASE WHEN COALESCE(r.rating_count, 0) = 0 THEN 0 ELSE r.rating_sum / r.rating_count END,
+                comment_count = COALESCE(c.comment_count, 0),
+                -- Only rows whose aggregates drifted are picked up again by incremental exports
+                updated_at = CASE WHEN (i.rating_count, i.rating_sum, i.comment_count)
+                                           IS DISTINCT FROM (COALESCE(r.rating_count, 0), COALESCE(r.rating_sum, 0), COALESCE(c.comment_count, 0))
+                                  THEN now() ELSE i.updated_at END
+            FROM (SELECT UNNEST(?::VARCHAR[]) AS id) AS ids
+            LEFT JOIN (SELECT item_id, COUNT(rating) AS rating_count, SUM(rating) AS rating_sum
+                       FROM tbl_ratings WHERE item_id = ANY(?) GROUP BY item_id) AS r ON r.item_id = ids.id
+            LEFT JOIN (SELECT item_id, COUNT(*) AS comment_count
+                       FROM tbl_item_comments WHERE item_id = ANY(?) GROUP BY item_id) AS c ON c.item_id = ids.id
+            WHERE i.id = ids.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheService cacheService;
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final int chunkSize;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public ItemAggregateServiceImpl(JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    CacheService cacheService,
+                                    @Value("${item.aggregates.rebuild.parallelism:4}") int parallelism,
+                                    @Value("${item.aggregates.rebuild.chunk-size:500}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheService = cacheService;
+        this.parallelism = Math.max(1, parallelism);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.executor = Executors.newFixedThreadPool(this.parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "item-aggregate-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public ApiResponse<Integer> rebuildAggregates() {
+        if (!running.compareAndSet(false, true)) {
+            throw new InvalidDataException("Aggregate rebuild is already running");
+        }
+
+        long start = System.currentTimeMillis();
+        int rebuilt = 0;
+
+        try {
+            // Keep at most parallelism chunks in flight, reading the next chunk of ids while the others run
+            Semaphore inFlight = new Semaphore(parallelism);
+            List<Future<Integer>> futures = new ArrayList<>();
+            String lastId = "";
+
+            while (true) {
+                List<String> ids = jdbcTemplate.queryForList(SELECT_CHUNK_SQL, String.class, lastId, chunkSize);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                lastId = ids.get(ids.size() - 1);
+
+                inFlight.acquire();
+                futures.add(executor.submit(() -> {
+                    try {
+                        return rebuildChunk(ids);
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+
+                if (ids.size() < chunkSize) {
+                    break;
+                }
+            }
+
+            for (Future<Integer> future : futures) {
+                rebuilt += future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Aggregate rebuild was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Aggregate rebuild failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            running.set(false);
+        }
+
+        cacheService.evictAllItems();
+
+        log.info("Rebuilt rating and comment aggregates of {} items in {} ms", rebuilt, System.currentTimeMillis() - start);
+
+        return ApiResponse.<Integer>builder()
+                .status(OK.value())
+                .message("Item aggregates rebuilt successfully")
+                .data(rebuilt)
+                .timestamp(OffsetDateTime.now())
+                .build();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private int rebuildChunk(List<String> ids) {
+        String[] idArray = ids.toArray(String[]::new);
+
+        Integer updated = transactionTemplate.execute(status -> {
+            jdbcTemplate.queryForList(LOCK_CHUNK_SQL, String.class, (Object) idArray);
+            return jdbcTemplate.update(REBUILD_CHUNK_SQL, idArray, idArray, idArray);
+        });
+
+        ids.forEach(cacheService::evictCachedItem);
+
+        return updated == null ? 0 : updated;
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * @ (#) ItemExportServiceImpl.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.services.impl;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import vn.tphcm.itemservice.commons.ExportFormat;
+import vn.tphcm.itemservice.commons.ItemStatus;
+import vn.tphcm.itemservice.services.ItemExportService;
+
+import javax.sql.DataSource;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams items straight from a server-side cursor to the response: rows are fetched {@code fetchSize} at a time inside
+ * a read-only repeatable-read transaction (one consistent snapshot) and written as they arrive, so memory use does not
+ * depend on the number of exported items.
+ * <p>
+ * updated_at is set from now(), the start of the writing transaction, so a write that commits late can carry an
+ * updated_at older than rows an earlier export already returned. The updatedSince filter therefore reaches back by
+ * {@code watermarkOverlap}, which should exceed the longest write transaction on tbl_items; rows inside the overlap
+ * are exported again, consumers upsert by id.
+ */
+@Service
+@Slf4j(topic = "ITEM-EXPORT-SERVICE")
+public class ItemExportServiceImpl implements ItemExportService {
+    private static final String[] COLUMNS = {
+            "id", "user_id", "title", "description", "status", "price", "category", "category_slug", "tags",
+            "address", "latitude", "longitude", "view_count", "like_count", "comment_count", "rating", "rating_count",
+            "is_premium", "created_at", "updated_at"
+    };
+
+    private static final String SELECT_SQL = """
+            SELECT i.id, i.user_id, i.title, i.description, i.status::text AS status, i.price,
+                   c.name AS category, c.slug AS category_slug,
+                   ARRAY(SELECT g.name FROM tbl_item_tags t JOIN tbl_tags g ON g.id = t.tag_id
+                         WHERE t.item_id = i.id ORDER BY g.name) AS tags,
+                   i.address, ST_Y(i.location) AS latitude, ST_X(i.location) AS longitude,
+                   i.view_count, i.like_count, i.comment_count, i.rating, i.rating_count, i.is_premium,
+                   i.created_at, i.updated_at
+            FROM tbl_items i
+            LEFT JOIN tbl_category c ON c.id = i.category_id
+            """;
+
+    private final JdbcTemplate cursorTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Duration watermarkOverlap;
+
+    public ItemExportServiceImpl(DataSource dataSource,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${item.export.fetch-size:1000}") int fetchSize,
+                                 @Value("${item.export.watermark-overlap-ms:60000}") long watermarkOverlapMs) {
+        // Postgres only opens a cursor for a fetch size inside a transaction, see transactionTemplate
+        this.cursorTemplate = new JdbcTemplate(dataSource);
+        this.cursorTemplate.setFetchSize(fetchSize);
+
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.watermarkOverlap = Duration.ofMillis(watermarkOverlapMs);
+    }
+
+    @Override
+    public StreamingResponseBody exportItems(ExportFormat format, ItemStatus status, String categorySlug, LocalDateTime updatedSince) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL).append("WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+
+        if (status != null) {
+            sql.append(" AND i.status = CAST(? AS item_status)");
+            args.add(status.name());
+        }
+        if (categorySlug != null && !categorySlug.isBlank()) {
+            sql.append(" AND c.slug = ?");
+            args.add(categorySlug);
+        }
+        if (updatedSince != null) {
+            sql.append(" AND i.updated_at >= ?");
+            args.add(Timestamp.valueOf(updatedSince.minus(watermarkOverlap)));
+        }
+        sql.append(" ORDER BY i.updated_at, i.id");
+
+        Counter rows = Counter.builder("item.export.rows")
+                .tag("format", format.name().toLowerCase())
+                .register(meterRegistry);
+
+        return outputStream -> {
+            long start = System.currentTimeMillis();
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+            RowWriter rowWriter = format == ExportFormat.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+
+            long[] exported = {0};
+            try {
+                rowWriter.writeHeader();
+
+                transactionTemplate.executeWithoutResult(tx -> cursorTemplate.query(sql.toString(), resultSet -> {
+                    try {
+                        rowWriter.writeRow(resultSet);
+                    } catch (IOException e) {
+                        // Client went away, abort the query and release the cursor
+                        throw new UncheckedIOException(e);
+                    }
+                    exported[0]++;
+                }, args.toArray()));
+
+                rowWriter.finish();
+                writer.flush();
+            } catch (UncheckedIOException e) {
+                log.warn("Item export aborted after {} rows: {}", exported[0], e.getCause().getMessage());
+                throw e.getCause();
+            } finally {
+                rows.increment(exported[0]);
+            }
+
+            log.info("Exported {} items as {} in {} ms", exported[0], format, System.currentTimeMillis() - start);
+        };
+    }
+
+    private interface RowWriter {
+        void writeHeader() throws IOException;
+
+        void writeRow(ResultSet resultSet) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        private NdjsonRowWriter(Writer writer) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void writeHeader() {
+        }
+
+        @Override
+        public void writeRow(ResultSet resultSet) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (String column : COLUMNS) {
+                generator.writeFieldName(column);
+                writeValue(resultSet.getObject(column));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+
+        private void writeValue(Object value) throws SQLException, IOException {
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof Array array) {
+                generator.writeStartArray();
+                for (Object element : (Object[]) array.getArray()) {
+                    generator.writeString(String.valueOf(element));
+                }
+                generator.writeEndArray();
+            } else if (value instanceof Timestamp timestamp) {
+                generator.writeString(timestamp.toLocalDateTime().toString());
+            } else if (value instanceof Number number) {
+                generator.writeNumber(number.toString());
+            } else if (value instanceof Boolean bool) {
+                generator.writeBoolean(bool);
+            } else {
+                generator.writeString(value.toString());
+            }
+        }
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        private CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void writeHeader() throws IOException {
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void writeRow(ResultSet resultSet) throws SQLException, IOException {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeField(resultSet.getObject(COLUMNS[i]));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void finish() {
+        }
+
+        private void writeField(Object value) throws SQLException, IOException {
+            if (value == null) {
+                return;
+            }
+
+            String text;
+            if (value instanceof Array array) {
+                // Tags are joined with '|' inside one field
+                Object[] elements = (Object[]) array.getArray();
+                StringBuilder joined = new StringBuilder();
+                for (int i = 0; i < elements.length; i++) {
+                    joined.append(i > 0 ? "|" : "").append(elements[i]);
+                }
+                text = joined.toString();
+            } else if (value instanceof Timestamp timestamp) {
+                text = timestamp.toLocalDateTime().toString();
+            } else {
+                text = value.toString();
+            }
+
+            // RFC 4180: quote fields containing separators, quotes or line breaks, doubling embedded quotes
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(text);
+            }
+        }
+    }
+}
@@ -12,7 +12,10 @@ package vn.tphcm.itemservice.services.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Point;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -22,9 +25,12 @@ import org.springframework.web.multipart.MultipartFile;
 import vn.tphcm.event.dto.EventMessage;
 import vn.tphcm.event.dto.FeedbackEvent;
 import vn.tphcm.event.dto.NotificationMessage;
-import vn.tphcm.itemservice.commons.InteractionType;
+import vn.tphcm.itemservice.configs.ReadReplicaRoutingDataSource;
 import vn.tphcm.itemservice.commons.ItemStatus;
+import vn.tphcm.itemservice.commons.PopularitySignal;
 import vn.tphcm.itemservice.dtos.ApiResponse;
+import vn.tphcm.itemservice.dtos.CursorPageResponse;
+import vn.tphcm.itemservice.dtos.ItemSummary;
 import vn.tphcm.itemservice.dtos.PageResponse;
 import vn.tphcm.itemservice.dtos.request.ItemCreationRequest;
 import vn.tphcm.itemservice.dtos.request.ItemSearchRequest;
@@ -42,8 +48,15 @@ import vn.tphcm.itemservice.models.*;
 import vn.tphcm.itemservice.repositories.*;
 import vn.tphcm.itemservice.services.CacheService;
 import vn.tphcm.itemservice.services.ItemService;
+import vn.tphcm.itemservice.services.LikeService;
 import vn.tphcm.itemservice.services.MessageProducer;
+import vn.tphcm.itemservice.services.PopularityService;
 import vn.tphcm.itemservice.services.SupabaseStorageService;
+import vn.tphcm.itemservice.services.TagService;
+import vn.tphcm.itemservice.services.ViewCounterService;
+import vn.tphcm.itemservice.utils.GeoHash;
+import vn.tphcm.itemservice.utils.ItemCursor;
+import vn.tphcm.itemservice.utils.SearchTextNormalizer;
 
 import java.time.OffsetDateTime;
 import java.util.*;
@@ -56,7 +69,6 @@ import static org.springframework.http.HttpStatus.OK;
 @Slf4j(topic = "ITEM-SERVICE")
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
-    private final ItemInteractionRepository itemInteractionRepository;
     private final ItemMapper itemMapper;
     private final ItemCommentMapper itemCommentMapper;
     private final ItemRatingMapper itemRatingMapper;
@@ -66,6 +78,32 @@ public class ItemServiceImpl implements ItemService {
     private final ItemRatingRepository itemRatingRepository;
     private final ItemCommentRepository itemCommentRepository;
     private final CategoryRepository categoryRepository;
+    private final ViewCounterService viewCounterService;
+    private final PopularityService popularityService;
+    private final LikeService likeService;
+    private final TagService tagService;
+
+    private static final String POPULARITY_SORT = "popularity";
+
+    // Cacheable nearby searches share one Redis entry per geohash cell and radius step: the items around the cell
+    // center, far enough out to cover any point of the cell, which each request filters and orders for its own point
+    @Value("${item.nearby-cache.cell-precision:7}")
+    private int nearbyCellPrecision;
+
+    @Value("${item.nearby-cache.max-candidates:200}")
+    private int nearbyMaxCandidates;
+
+    @Value("${item.nearby-cache.radius-step-meters:100}")
+    private double nearbyRadiusStepMeters;
+
+    @Value("${item.nearby-cache.max-radius-meters:10000}")
+    private double nearbyMaxRadiusMeters;
+
+    @Value("${item.nearby.max-closest:100}")
+    private int maxClosestItems;
+
+    @Value("${item.batch.max-ids:100}")
+    private int maxBatchIds;
 
     @Override
     @Transactional
@@ -95,6 +133,7 @@ public class ItemServiceImpl implements ItemService {
         log.info("Saving item with id: {} for userId: {}", savedItem.getId(), userId);
 
         invalidateCachesOnItemChange(userId);
+        cacheService.evictNearbyItems(savedItem.getLocation());
 
         // Cache the newly created item
         cacheService.cacheItem(savedItem.getId(), itemResponse);
@@ -131,8 +170,14 @@ public class ItemServiceImpl implements ItemService {
             throw new InvalidDataException("You don't have permission to update this item");
         }
 
+        Point previousLocation = item.getLocation();
+
         itemMapper.updateItem(item, request);
 
+        if (request.getTags() != null) {
+            item.setTags(tagService.resolveTags(request.getTags()));
+        }
+
         if (request.getCategoryId() != null) {
              Category category = categoryRepository.findById(request.getCategoryId())
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
@@ -146,8 +191,12 @@ public class ItemServiceImpl implements ItemService {
         ItemResponse response = itemMapper.toResponse(savedItem);
 
         invalidateCachesOnItemChange(userId);
+        cacheService.evictNearbyItems(savedItem.getLocation());
+        if (previousLocation != null && !previousLocation.equalsExact(savedItem.getLocation())) {
+            cacheService.evictNearbyItems(previousLocation);
+        }
 
-        cacheService.cacheItem(itemId, response);
+        cacheService.updateCachedItem(itemId, response);
 
         EventMessage event = EventMessage.builder()
                 .eventId(UUID.randomUUID().toString())
@@ -158,7 +207,7 @@ public class ItemServiceImpl implements ItemService {
                 .itemOwnerId(savedItem.getUserId())
                 .category(savedItem.getCategory().getName())
                 .images(savedItem.getImages())
-                .tags(savedItem.getTags())
+                .tags(itemMapper.tagNames(savedItem.getTags()))
                 .build();
 
         messageProducer.publishItemEvent(event);
@@ -187,6 +236,8 @@ public class ItemServiceImpl implements ItemService {
         log.info("Item with id: {} has been marked as DELETED by user with id: {}", itemId, userId);
 
         cacheService.evictCachedItem(itemId);
+        cacheService.evictNearbyItems(item.getLocation());
+        popularityService.untrack(itemId);
 
         invalidateCachesOnItemChange(userId);
 
@@ -199,38 +250,21 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public ApiResponse<ItemResponse> getItemById(String itemId, String currentUserId) {
-        ItemResponse cachedItem = cacheService.getCachedItem(itemId);
-        if (cachedItem != null){
-            log.info("Cache Hit:Returning cached item with id: {}", itemId);
-            if (currentUserId != null && !cachedItem.getUserId().equals(currentUserId)) {
-                Long newViewCount = cacheService.incrementItemViewCount(itemId);
-                if (newViewCount != null) {
-                    cachedItem.setViewCount(newViewCount.intValue());
-                }
-                publishViewCount(cachedItem, currentUserId);
-            }
-            return ApiResponse.<ItemResponse>builder()
-                    .message("Item fetched by Id successfully")
-                    .status(OK.value())
-                    .data(cachedItem)
-                    .timestamp(OffsetDateTime.now())
-                    .build();
-        }
+        // Concurrent misses share one findById + toResponse, see CacheService#getOrLoadItem
+        ItemResponse cached = cacheService.getOrLoadItem(itemId, () -> itemMapper.toResponse(getItemIfExists(itemId)));
 
-        Item item = getItemIfExists(itemId);
+        // Cached instances are shared with the near cache and other callers, never mutate them
+        ItemResponse response = cached.toBuilder().build();
 
-        if (currentUserId != null && !item.getUserId().equals(currentUserId)) {
-            log.info("Incrementing view count for item with id: {}", itemId);
+        if (currentUserId != null && !response.getUserId().equals(currentUserId)) {
+            log.info("Recording view for item with id: {}", itemId);
 
-            countView(item, currentUserId);
+            long pendingViews = viewCounterService.recordView(itemId, currentUserId);
+            response.setViewCount(response.getViewCount() + (int) pendingViews);
 
-            publishViewCount(itemMapper.toResponse(item), currentUserId);
+            publishViewCount(response, currentUserId);
         }
 
-        ItemResponse response = itemMapper.toResponse(item);
-
-        cacheService.cacheItem(itemId, response);
-
         return ApiResponse.<ItemResponse>builder()
                 .status(OK.value())
                 .message("Item fetched successfully")
@@ -240,12 +274,12 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional
     public ApiResponse<Void> likeItem(String itemId, String userId) {
-        Item item = getItemIfExists(itemId);
+        ItemResponse item = cacheService.getOrLoadItem(itemId, () -> itemMapper.toResponse(getItemIfExists(itemId)));
 
-        Optional<ItemInteraction> existingLike = itemInteractionRepository.findByItemAndUserIdAndInteractionType(item, userId, InteractionType.LIKE);
-
-        if (existingLike.isPresent()) {
+        // The (item, user) key decides, like_count follows through LikeService's batched deltas
+        if (!likeService.like(itemId, userId)) {
             return ApiResponse.<Void>builder()
                     .status(OK.value())
                     .message("You have already liked this item")
@@ -253,26 +287,7 @@ public class ItemServiceImpl implements ItemService {
                     .build();
         }
 
-        createInteraction(item, userId, InteractionType.LIKE);
-
-        item.setLikeCount(item.getLikeCount() + 1);
-        itemRepository.save(item);
-
-        cacheService.evictCachedItem(itemId);
-
-        EventMessage event = EventMessage.builder()
-                .eventId(UUID.randomUUID().toString())
-                .eventType("ITEM_LIKED")
-                .itemId(item.getId())
-                .itemTitle(item.getTitle())
-                .actorUserId(userId)
-                .itemOwnerId(item.getUserId())
-                .category(item.getCategory().getName())
-                .images(item.getImages())
-                .tags(item.getTags())
-                .build();
-
-        messageProducer.publishItemEvent(event);
+        publishLikeEvent(item, userId, "ITEM_LIKED");
 
         if (!item.getUserId().equals(userId)) {
             NotificationMessage notification = NotificationMessage.builder()
@@ -283,7 +298,7 @@ public class ItemServiceImpl implements ItemService {
                     .type("ITEM_LIKED")
                     .itemId(item.getId())
                     .actorUserId(userId)
-                    .data(Map.of("itemTitle", item.getTitle(), "category", item.getCategory()))
+                    .data(Map.of("itemTitle", item.getTitle(), "category", Objects.toString(item.getCategory(), "")))
                     .build();
 
             messageProducer.publishNotification(notification);
@@ -297,12 +312,11 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional
     public ApiResponse<Void> unlikeItem(String itemId, String userId) {
-        Item item = getItemIfExists(itemId);
+        ItemResponse item = cacheService.getOrLoadItem(itemId, () -> itemMapper.toResponse(getItemIfExists(itemId)));
 
-        Optional<ItemInteraction> existingUnlike = itemInteractionRepository.findByItemAndUserIdAndInteractionType(item, userId, InteractionType.UNLIKE);
-
-        if (existingUnlike.isPresent()) {
+        if (!likeService.unlike(itemId, userId)) {
             return ApiResponse.<Void>builder()
                     .status(OK.value())
                     .message("You have already unliked this item")
@@ -310,26 +324,7 @@ public class ItemServiceImpl implements ItemService {
                     .build();
         }
 
-        createInteraction(item, userId, InteractionType.UNLIKE);
-
-        item.setLikeCount(Math.max(0, item.getLikeCount() - 1));
-        itemRepository.save(item);
-
-        cacheService.evictCachedItem(itemId);
-
-        EventMessage event = EventMessage.builder()
-                .eventId(UUID.randomUUID().toString())
-                .eventType("ITEM_UNLIKED")
-                .itemId(item.getId())
-                .itemTitle(item.getTitle())
-                .actorUserId(userId)
-                .itemOwnerId(item.getUserId())
-                .category(item.getCategory().getName())
-                .images(item.getImages())
-                .tags(item.getTags())
-                .build();
-
-        messageProducer.publishItemEvent(event);
+        publishLikeEvent(item, userId, "ITEM_UNLIKED");
 
         if (!item.getUserId().equals(userId)) {
             NotificationMessage notification = NotificationMessage.builder()
@@ -340,7 +335,7 @@ public class ItemServiceImpl implements ItemService {
                     .type("ITEM_UNLIKED")
                     .itemId(item.getId())
                     .actorUserId(userId)
-                    .data(Map.of("itemTitle", item.getTitle(), "category", item.getCategory()))
+                    .data(Map.of("itemTitle", item.getTitle(), "category", Objects.toString(item.getCategory(), "")))
                     .build();
 
             messageProducer.publishNotification(notification);
@@ -354,6 +349,7 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ApiResponse<PageResponse<ItemResponse>> getAllItems(int pageNo, int pageSize, String sortBy, String sortDirection) {
         log.info("Fetching all items with pageNo: {}, pageSize: {}, sortBy: {}, sortDirection: {}", pageNo, pageSize, sortBy, sortDirection);
 
@@ -372,11 +368,13 @@ public class ItemServiceImpl implements ItemService {
 
         Pageable pageable = createPageable(pageNo, pageSize, sortBy, sortDirection);
 
-        Page<Item> itemsPage = itemRepository.findByStatus(ItemStatus.AVAILABLE, pageable);
+        // Cached for everyone, see ReadReplicaRoutingDataSource#readOnPrimary
+        Page<ItemSummary> itemsPage = ReadReplicaRoutingDataSource.readOnPrimary(() ->
+                itemRepository.findByStatus(ItemStatus.AVAILABLE, pageable));
 
-        Page<ItemResponse> responsePage = itemsPage.map(itemMapper::toResponse);
+        Page<ItemResponse> responsePage = toResponsePage(itemsPage);
 
-        PageResponse<ItemResponse> pageResponse = createPageResponse(responsePage);
+        PageResponse<ItemResponse> pageResponse = PageResponse.of(responsePage);
 
         cacheService.cacheAllItems(pageNo, pageSize, sortBy, sortDirection, pageResponse);
 
@@ -389,6 +387,7 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ApiResponse<PageResponse<ItemResponse>> getMyItem(String userId, int pageNo, int pageSize, String sortBy, String sortDirection) {
         log.info("Fetching items for userId: {} with pageNo: {}, pageSize: {}, sortBy: {}, sortDirection: {}", userId, pageNo, pageSize, sortBy, sortDirection);
 
@@ -407,11 +406,12 @@ public class ItemServiceImpl implements ItemService {
 
         Pageable pageable = createPageable(pageNo, pageSize, sortBy, sortDirection);
 
-        Page<Item> itemsPage = itemRepository.findByUserIdAndStatusNot(userId, ItemStatus.DELETED, pageable);
+        Page<ItemSummary> itemsPage = ReadReplicaRoutingDataSource.readOnPrimary(() ->
+                itemRepository.findByUserIdAndStatusNot(userId, ItemStatus.DELETED, pageable));
 
-        Page<ItemResponse> responsePage = itemsPage.map(itemMapper::toResponse);
+        Page<ItemResponse> responsePage = toResponsePage(itemsPage);
 
-        PageResponse<ItemResponse> pageResponse = createPageResponse(responsePage);
+        PageResponse<ItemResponse> pageResponse = PageResponse.of(responsePage);
 
         cacheService.cacheUserItems(userId, pageResponse, pageNo, pageSize, sortBy, sortDirection);
 
@@ -424,14 +424,22 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ApiResponse<PageResponse<ItemResponse>> searchItems(ItemSearchRequest request, int pageNo, int pageSize, String sortBy, String sortDirection) {
-        log.info("Searching items with keyword: {}", request.getKeyword());
+        log.info("Searching items with keyword: {}, category: {}, price: [{}, {}], status: {}",
+                request.getKeyword(), request.getCategorySlug(), request.getMinPrice(), request.getMaxPrice(), request.getStatus());
+
+        if (request.getMinPrice() != null && request.getMaxPrice() != null && request.getMinPrice() > request.getMaxPrice()) {
+            throw new InvalidDataException("minPrice must not be greater than maxPrice");
+        }
+
+        String tsQuery = SearchTextNormalizer.toPrefixTsQuery(request.getKeyword());
 
         Pageable pageable = createPageable(pageNo, pageSize, sortBy, sortDirection);
 
-        Page<Item> items = itemRepository.findByKeyword(request.getKeyword(), pageable);
+        Page<Item> items = itemRepository.searchItems(tsQuery, request, pageable);
 
-        PageResponse<ItemResponse> responsePage = createPageResponse(items.map(itemMapper::toResponse));
+        PageResponse<ItemResponse> responsePage = PageResponse.of(items.map(itemMapper::toResponse));
         return ApiResponse.<PageResponse<ItemResponse>>builder()
                 .status(OK.value())
                 .message("Items searched successfully")
@@ -441,30 +449,115 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public ApiResponse<CursorPageResponse<ItemResponse>> getAllItemsAfter(String after, int pageSize, String sortBy, String sortDirection) {
+        log.info("Fetching all items after cursor: {}, pageSize: {}, sortBy: {}, sortDirection: {}", after, pageSize, sortBy, sortDirection);
+
+        ItemSearchRequest filter = new ItemSearchRequest();
+
+        return ApiResponse.<CursorPageResponse<ItemResponse>>builder()
+                .status(OK.value())
+                .message("All item fetched successfully")
+                .data(createCursorPageResponse(null, filter, after, pageSize, sortBy, sortDirection))
+                .timestamp(OffsetDateTime.now())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ApiResponse<CursorPageResponse<ItemResponse>> getMyItemAfter(String userId, String after, int pageSize, String sortBy, String sortDirection) {
+        log.info("Fetching items for userId: {} after cursor: {}, pageSize: {}", userId, after, pageSize);
+
+        ItemSearchRequest filter = new ItemSearchRequest();
+        filter.setUserId(userId);
+        filter.setStatus(null);
+
+        return ApiResponse.<CursorPageResponse<ItemResponse>>builder()
+                .status(OK.value())
+                .message("My items fetched successfully")
+                .data(createCursorPageResponse(null, filter, after, pageSize, sortBy, sortDirection))
+                .timestamp(OffsetDateTime.now())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ApiResponse<CursorPageResponse<ItemResponse>> getItemsByCategoryAfter(String categorySlug, String after, int pageSize, String sortBy, String sortDirection) {
+        log.info("Fetching items by category: {} after cursor: {}, pageSize: {}", categorySlug, after, pageSize);
+
+        ItemSearchRequest filter = new ItemSearchRequest();
+        filter.setCategorySlug(categorySlug);
+
+        return ApiResponse.<CursorPageResponse<ItemResponse>>builder()
+                .status(OK.value())
+                .message("Items by category fetched successfully")
+                .data(createCursorPageResponse(null, filter, after, pageSize, sortBy, sortDirection))
+                .timestamp(OffsetDateTime.now())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ApiResponse<CursorPageResponse<ItemResponse>> getItemsByTagsAfter(List<String> tags, String after, int pageSize, String sortBy, String sortDirection) {
+        log.info("Search for items by tags: {} after cursor: {}", tags, after);
+
+        ItemSearchRequest filter = new ItemSearchRequest();
+        filter.setTags(tags.stream().map(tag -> tag.trim().toLowerCase()).toList());
+
+        return ApiResponse.<CursorPageResponse<ItemResponse>>builder()
+                .status(OK.value())
+                .message("Items fetched successfully")
+                .data(createCursorPageResponse(null, filter, after, pageSize, sortBy, sortDirection))
+                .timestamp(OffsetDateTime.now())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ApiResponse<CursorPageResponse<ItemResponse>> searchItemsAfter(ItemSearchRequest request, String after, int pageSize, String sortBy, String sortDirection) {
+        log.info("Searching items with keyword: {} after cursor: {}", request.getKeyword(), after);
+
+        String tsQuery = SearchTextNormalizer.toPrefixTsQuery(request.getKeyword());
+
+        return ApiResponse.<CursorPageResponse<ItemResponse>>builder()
+                .status(OK.value())
+                .message("Items searched successfully")
+                .data(createCursorPageResponse(tsQuery, request, after, pageSize, sortBy, sortDirection))
+                .timestamp(OffsetDateTime.now())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public ApiResponse<PageResponse<ItemResponse>> getPopularItems(int pageNo, int pageSize, String sortBy, String sortDirection) {
         log.info("Fetching popular items with pageNo: {}, pageSize: {}, sortBy: {}, sortDirection: {}", pageNo, pageSize, sortBy, sortDirection);
 
-        PageResponse<ItemResponse> cachedItems = cacheService.getCachedPopularItems();
-
-        if (cachedItems != null && !cachedItems.getContent().isEmpty()) {
-            log.info("Returning cached popular items");
+        if (!POPULARITY_SORT.equalsIgnoreCase(sortBy)) {
+            // Explicit counter sorts are served as ordinary (cached) listing pages
+            return getAllItems(pageNo, pageSize, sortBy, sortDirection);
+        }
 
-            return ApiResponse.<PageResponse<ItemResponse>>builder()
-                    .status(OK.value())
-                    .message("Popular items fetched successfully")
-                    .data(cachedItems)
-                    .timestamp(OffsetDateTime.now())
-                    .build();
+        if (pageNo < 0 || pageSize < 1) {
+            throw new InvalidDataException("pageNo must not be negative and pageSize must be positive");
         }
 
-        Pageable pageable = createPageable(pageNo, pageSize, sortBy, sortDirection);
+        long totalElements = popularityService.countRanked();
+        List<String> ids = popularityService.getRankedItemIds((long) pageNo * pageSize, pageSize,
+                !"ASC".equalsIgnoreCase(sortDirection));
 
-        Page<Item> itemsPage = itemRepository.findPopularItemsByStatus(ItemStatus.AVAILABLE, pageable);
+        List<ItemResponse> content = cacheService.getOrLoadItems(ids, missingIds ->
+                itemRepository.findAllById(missingIds).stream().map(itemMapper::toResponse).toList());
 
-        Page<ItemResponse> responses = itemsPage.map(itemMapper::toResponse);
+        int totalPages = (int) Math.ceil((double) totalElements / pageSize);
 
-        PageResponse<ItemResponse> pageResponse = createPageResponse(responses);
-        cacheService.cachePopularItems(pageResponse);
+        PageResponse<ItemResponse> pageResponse = PageResponse.<ItemResponse>builder()
+                .content(content)
+                .pageNo(pageNo)
+                .pageSize(pageSize)
+                .totalElements(totalElements)
+                .totalPages(totalPages)
+                .last(pageNo + 1 >= totalPages)
+                .build();
 
         return ApiResponse.<PageResponse<ItemResponse>>builder()
                 .status(OK.value())
@@ -475,16 +568,17 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ApiResponse<PageResponse<ItemResponse>> getItemsByCategory(String categorySlug, int pageNo, int pageSize, String sortBy, String sortDirection) {
         log.info("Fetching items by category: {} with pageNo: {}, pageSize: {}, sortBy: {}, sortDirection: {}", categorySlug, pageNo, pageSize, sortBy, sortDirection);
 
         Pageable pageable = createPageable(pageNo, pageSize, sortBy, sortDirection);
 
-        Page<Item> itemsPage = itemRepository.findByCategorySlugAndStatus(categorySlug, ItemStatus.AVAILABLE, pageable);
+        Page<ItemSummary> itemsPage = itemRepository.findByCategorySlugAndStatus(categorySlug, ItemStatus.AVAILABLE, pageable);
 
-        Page<ItemResponse> responsePage = itemsPage.map(itemMapper::toResponse);
+        Page<ItemResponse> responsePage = toResponsePage(itemsPage);
 
-        PageResponse<ItemResponse> pageResponse = createPageResponse(responsePage);
+        PageResponse<ItemResponse> pageResponse = PageResponse.of(responsePage);
 
         return ApiResponse.<PageResponse<ItemResponse>>builder()
                 .status(OK.value())
@@ -495,6 +589,7 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ApiResponse<PageResponse<CommentResponse>> getItemComments(String itemId, int pageNo, int pageSize, String sortBy, String sortDirection) {
         log.info("Fetching comments for item with id: {}", itemId);
 
@@ -508,7 +603,7 @@ public class ItemServiceImpl implements ItemService {
 
         Page<CommentResponse> responsePage = commentsPage.map(itemCommentMapper::toCommentResponse);
 
-        PageResponse<CommentResponse> pageResponse = createPageResponse(responsePage);
+        PageResponse<CommentResponse> pageResponse = PageResponse.of(responsePage);
         return ApiResponse.<PageResponse<CommentResponse>>builder()
                 .status(OK.value())
                 .message("Item comments fetched successfully")
@@ -520,28 +615,71 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public ApiResponse<ItemResponse> getItemFeignById(String itemId) {
-        Item item = getItemIfExists(itemId);
+        ItemResponse item = cacheService.getOrLoadItem(itemId, () -> itemMapper.toResponse(getItemIfExists(itemId)));
 
         return ApiResponse.<ItemResponse>builder()
                 .status(OK.value())
                 .message("Item fetched successfully")
-                .data(itemMapper.toResponse(item))
+                .data(item)
                 .timestamp(OffsetDateTime.now())
                 .build();
     }
 
     @Override
+    public ApiResponse<List<ItemResponse>> getItemsByIds(List<String> itemIds) {
+        List<String> ids = itemIds == null ? List.of() : itemIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        if (ids.size() > maxBatchIds) {
+            throw new InvalidDataException("At most " + maxBatchIds + " item ids can be fetched at once");
+        }
+
+        // Near cache and one Redis MGET first, the misses are loaded with a single WHERE id IN (...)
+        List<ItemResponse> items = ids.isEmpty() ? List.of() : cacheService.getOrLoadItems(ids, missingIds ->
+                itemRepository.findAllById(missingIds).stream().map(itemMapper::toResponse).toList());
+
+        return ApiResponse.<List<ItemResponse>>builder()
+                .status(OK.value())
+                .message("Items fetched successfully")
+                .data(items)
+                .timestamp(OffsetDateTime.now())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public ApiResponse<PageResponse<ItemResponse>> searchItemsNearby(double latitude, double longitude, double radius, int pageNo, int pageSize) {
         log.info("Searching items nearby latitude: {}, longitude: {}, radius: {}", latitude, longitude, radius);
 
-        // Don't add sort to Pageable because native query already has ORDER BY ST_Distance
-        Pageable pageable = PageRequest.of(pageNo, pageSize);
-
-        Page<Item> items = itemRepository.searchItemNearby(latitude, longitude, radius, pageable);
+        if (radius <= 0) {
+            throw new InvalidDataException("radius must be positive");
+        }
 
-        Page<ItemResponse> responsePage = items.map(itemMapper::toResponse);
+        PageResponse<ItemResponse> pageResponse;
+
+        if (radius > nearbyMaxRadiusMeters) {
+            pageResponse = loadNearbyPage(latitude, longitude, radius, pageNo, pageSize);
+        } else {
+            String cell = GeoHash.encode(latitude, longitude, nearbyCellPrecision);
+            double snappedRadius = snapRadius(radius);
+            String query = "r" + (long) snappedRadius;
+
+            PageResponse<ItemResponse> candidates = cacheService.getCachedNearbyItems(cell, query);
+            if (candidates == null) {
+                double[] center = GeoHash.center(cell);
+                double reach = GeoHash.paddedRadius(snappedRadius, nearbyCellPrecision);
+                candidates = ReadReplicaRoutingDataSource.readOnPrimary(() ->
+                        loadNearbyPage(center[0], center[1], reach, 0, nearbyMaxCandidates));
+                cacheService.cacheNearbyItems(cell, query, candidates);
+            }
 
-        PageResponse<ItemResponse> pageResponse = createPageResponse(responsePage);
+            // More items around the cell than one entry holds: the page is read for the real point instead
+            pageResponse = candidates.getTotalElements() > candidates.getContent().size()
+                    ? loadNearbyPage(latitude, longitude, radius, pageNo, pageSize)
+                    : PageResponse.of(pageOf(byDistance(candidates.getContent(), latitude, longitude, radius), pageNo, pageSize));
+        }
 
         return ApiResponse.<PageResponse<ItemResponse>>builder()
                 .status(OK.value())
@@ -551,6 +689,73 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public ApiResponse<PageResponse<ItemResponse>> getClosestItems(double latitude, double longitude, double maxDistance, int limit) {
+        log.info("Fetching {} closest items to latitude: {}, longitude: {} within {} m", limit, latitude, longitude, maxDistance);
+
+        if (limit < 1 || limit > maxClosestItems) {
+            throw new InvalidDataException("limit must be between 1 and " + maxClosestItems);
+        }
+
+        if (maxDistance <= 0 || maxDistance > nearbyMaxRadiusMeters) {
+            throw new InvalidDataException("maxDistance must be between 0 and " + (long) nearbyMaxRadiusMeters + " meters");
+        }
+
+        String cell = GeoHash.encode(latitude, longitude, nearbyCellPrecision);
+        double[] center = GeoHash.center(cell);
+        double snappedDistance = snapRadius(maxDistance);
+        String query = "knn:r" + (long) snappedDistance;
+
+        PageResponse<ItemResponse> candidates = cacheService.getCachedNearbyItems(cell, query);
+        if (candidates == null) {
+            double reach = GeoHash.paddedRadius(snappedDistance, nearbyCellPrecision);
+            List<ItemResponse> closestToCenter = ReadReplicaRoutingDataSource.readOnPrimary(() ->
+                    itemRepository.findClosestItems(center[0], center[1], reach, nearbyMaxCandidates)
+                            .stream()
+                            .map(itemMapper::toResponse)
+                            .toList());
+
+            candidates = PageResponse.<ItemResponse>builder()
+                    .content(closestToCenter)
+                    .pageNo(0)
+                    .pageSize(nearbyMaxCandidates)
+                    .totalElements(closestToCenter.size())
+                    .totalPages(closestToCenter.isEmpty() ? 0 : 1)
+                    .build();
+
+            cacheService.cacheNearbyItems(cell, query, candidates);
+        }
+
+        List<ItemResponse> content = byDistance(candidates.getContent(), latitude, longitude, maxDistance).stream()
+                .limit(limit)
+                .toList();
+
+        // A full candidate list stops somewhere short of the padded radius; past that point only the real one counts
+        if (candidates.getContent().size() >= nearbyMaxCandidates && !reachesAll(candidates.getContent(), center,
+                latitude, longitude, content.size() < limit ? maxDistance : distance(content.get(limit - 1), latitude, longitude))) {
+            content = itemRepository.findClosestItems(latitude, longitude, maxDistance, limit)
+                    .stream()
+                    .map(itemMapper::toResponse)
+                    .toList();
+        }
+
+        PageResponse<ItemResponse> pageResponse = PageResponse.<ItemResponse>builder()
+                .content(content)
+                .pageNo(0)
+                .pageSize(limit)
+                .totalElements(content.size())
+                .totalPages(content.isEmpty() ? 0 : 1)
+                .build();
+
+        return ApiResponse.<PageResponse<ItemResponse>>builder()
+                .status(OK.value())
+                .data(pageResponse)
+                .message("Closest items fetched successfully")
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public ApiResponse<PageResponse<ItemResponse>> getItemsByTags(List<String> tags, int pageNo, int pageSize, String sortBy, String sortDirection) {
         log.info("Search for items by tags: {}", tags);
 
@@ -558,11 +763,11 @@ public class ItemServiceImpl implements ItemService {
 
         Pageable pageable = createPageable(pageNo, pageSize, sortBy, sortDirection);
 
-        Page<Item> items = itemRepository.findByTagsInAndStatusAvailable(tagsCleaned, pageable);
+        Page<ItemSummary> items = itemRepository.findByTagsInAndStatusAvailable(tagsCleaned, pageable);
 
-        Page<ItemResponse> responsePage = items.map(itemMapper::toResponse);
+        Page<ItemResponse> responsePage = toResponsePage(items);
 
-        PageResponse<ItemResponse> pageResponse = createPageResponse(responsePage);
+        PageResponse<ItemResponse> pageResponse = PageResponse.of(responsePage);
 
         return ApiResponse.<PageResponse<ItemResponse>>builder()
                 .status(OK.value())
@@ -572,14 +777,15 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ApiResponse<PageResponse<ItemResponse>> getItems(int pageNo, int pageSize, String sortBy, String sortDirection, String filter) {
         Pageable pageable = createPageable(pageNo, pageSize, sortBy, sortDirection);
 
-        Page<Item> items = itemRepository.findByCategorySlug(filter, pageable);
+        Page<ItemSummary> items = itemRepository.findByCategorySlug(filter, pageable);
 
-        Page<ItemResponse> responsePage = items.map(itemMapper::toResponse);
+        Page<ItemResponse> responsePage = toResponsePage(items);
 
-        PageResponse<ItemResponse> pageResponse = createPageResponse(responsePage);
+        PageResponse<ItemResponse> pageResponse = PageResponse.of(responsePage);
 
         return ApiResponse.<PageResponse<ItemResponse>>builder()
                 .status(OK.value())
@@ -603,27 +809,31 @@ public class ItemServiceImpl implements ItemService {
 
         log.info("SAGA: Item {} successfully boosted ", savedItem.getId());
 
-        cacheService.cacheItem(itemId, itemMapper.toResponse(savedItem));
+        cacheService.updateCachedItem(itemId, itemMapper.toResponse(savedItem));
         cacheService.evictAllItems();
-        cacheService.evictCachedPopularItems();
+
+        popularityService.recordSignal(itemId, PopularitySignal.PREMIUM);
     }
 
     @Override
     @Transactional
     public void processNewFeedback(FeedbackEvent event) {
-        log.info("SAGA: Processing new feedback event for itemId: {}", event.getItemId());
+        log.info("SAGA: Processing new feedback event for itemId: {}, transactionId: {}", event.getItemId(), event.getTransactionId());
 
         Item item = getItemIfExists(event.getItemId());
 
-        ItemRating rating = ItemRating.builder()
-                .item(item)
-                .userId(event.getReviewerId())
-                .rating(event.getRating())
-                .build();
+        // The unique transaction_id makes a redelivered event a no-op, legacy events without one are always applied
+        int inserted = itemRatingRepository.insertIfAbsent(UUID.randomUUID().toString(), event.getReviewerId(),
+                event.getRating(), item.getId(), event.getTransactionId());
+
+        if (inserted == 0) {
+            log.warn("SAGA Ignored: Feedback for transaction {} was already applied to item {}", event.getTransactionId(), item.getId());
+            return;
+        }
 
-        itemRatingRepository.save(rating);
+        boolean hasComment = event.getComment() != null && !event.getComment().isBlank();
 
-        if (event.getComment() != null && !event.getComment().isBlank()) {
+        if (hasComment) {
             ItemComment comment = ItemComment.builder()
                     .item(item)
                     .userId(event.getReviewerId())
@@ -631,42 +841,49 @@ public class ItemServiceImpl implements ItemService {
                     .build();
 
             itemCommentRepository.save(comment);
+
+            popularityService.recordSignal(item.getId(), PopularitySignal.COMMENT);
         }
 
-        Integer totalRatings = itemRatingRepository.countRatingsByItemId(item.getId());
-        Double averageRating = itemRatingRepository.calculateAverageRating(item.getId());
-        long commentCount = itemCommentRepository.countByItemId(item.getId());
+        itemRepository.applyFeedback(item.getId(),
+                event.getRating() != null ? event.getRating() : 0.0,
+                event.getRating() != null ? 1 : 0,
+                hasComment ? 1 : 0);
 
-        Item savedItem = itemRepository.save(item);
-        log.info("SAGA: Updated item {} with new rating info. Total Ratings: {}, Average Rating: {}, Comment Count: {}",
-                savedItem.getId(), totalRatings, averageRating, commentCount);
+        log.info("SAGA: Applied feedback to item {}. Rating: {}, Comment: {}", item.getId(), event.getRating(), hasComment);
 
-        cacheService.cacheItem(item.getId(), itemMapper.toResponse(savedItem));
+        // The loaded entity predates the update, let the next read reload the aggregates
+        cacheService.evictCachedItem(item.getId());
 
         invalidateCachesOnItemChange(item.getUserId());
     }
 
     @Override
+    @Transactional
     public void updateItemTagsFromAi(String itemId, List<String> tags) {
         log.info("SAGA: Updating tags for item {} from AI result.", itemId);
 
-        Item item = getItemIfExists(itemId);
-
-        Set<String> currentTags = new HashSet<>();
-        if (item.getTags() != null) {
-            currentTags.addAll(item.getTags());
+        if (!itemRepository.existsById(itemId)) {
+            log.error("Item with id: {} not found", itemId);
+            throw new ResourceNotFoundException("Item not found");
         }
-        currentTags.addAll(tags);
 
-        item.setTags(new ArrayList<>(currentTags));
-        itemRepository.save(item);
+        // Merged in SQL against the (item_id, tag_id) key, existing tags are kept and duplicates skipped
+        int added = tagService.addTagsToItem(itemId, tags);
 
-        cacheService.evictAllRelatedCaches(itemId, item.getUserId());
+        if (added == 0) {
+            log.info("SAGA: Item {} already had all AI tags {}", itemId, tags);
+            return;
+        }
 
-        log.info("SAGA: Tags updated successfully. New tags: {}", item.getTags());
+        // Only the item itself changed, listing pages pick the new tags up when they expire
+        cacheService.evictCachedItem(itemId);
+
+        log.info("SAGA: Added {} AI tags to item {}", added, itemId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ApiResponse<ItemStatisticsResponse> getItemStatistics() {
         List<Object[]> results = itemRepository.countItemsByStatus();
         Map<String, Long> stats = new HashMap<>();
@@ -692,6 +909,8 @@ public class ItemServiceImpl implements ItemService {
         item.setStatus(ItemStatus.DELETED);
 
         cacheService.evictCachedItem(itemId);
+        cacheService.evictNearbyItems(item.getLocation());
+        popularityService.untrack(itemId);
 
 
         itemRepository.save(item);
@@ -714,12 +933,20 @@ public class ItemServiceImpl implements ItemService {
         });
     }
 
-    private void createInteraction(Item item, String userId, InteractionType type) {
-        ItemInteraction interaction = new ItemInteraction();
-        interaction.setItem(item);
-        interaction.setUserId(userId);
-        interaction.setInteractionType(type);
-        itemInteractionRepository.save(interaction);
+    private void publishLikeEvent(ItemResponse item, String userId, String eventType) {
+        EventMessage event = EventMessage.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType(eventType)
+                .itemId(item.getId())
+                .itemTitle(item.getTitle())
+                .actorUserId(userId)
+                .itemOwnerId(item.getUserId())
+                .category(item.getCategory())
+                .images(item.getImages())
+                .tags(item.getTags())
+                .build();
+
+        messageProducer.publishItemEvent(event);
     }
 
     private void publishViewCount(ItemResponse response, String currentUserId) {
@@ -741,18 +968,6 @@ public class ItemServiceImpl implements ItemService {
         messageProducer.publishItemEvent(event);
     }
 
-    private void countView(Item item, String currentUserId) {
-        if (item == null || currentUserId == null || item.getUserId().equals(currentUserId)) {
-            return;
-        }
-
-        item.setViewCount(item.getViewCount() + 1);
-
-        itemRepository.save(item);
-
-        createInteraction(item, currentUserId, InteractionType.VIEW);
-    }
-
     private Pageable createPageable(int pageNo, int pageSize, String sortBy, String sortDirection) {
         Sort.Direction direction = "ASC".equalsIgnoreCase(sortDirection)
                 ? Sort.Direction.ASC : Sort.Direction.DESC;
@@ -761,10 +976,48 @@ public class ItemServiceImpl implements ItemService {
         return PageRequest.of(pageNo, pageSize, sort);
     }
 
+    private PageResponse<ItemResponse> loadNearbyPage(double latitude, double longitude, double radius, int pageNo, int pageSize) {
+        // Don't add sort to Pageable because native query already orders by distance
+        Pageable pageable = PageRequest.of(pageNo, pageSize);
+
+        Page<Item> items = itemRepository.searchItemNearby(latitude, longitude, radius, pageable);
+
+        return PageResponse.of(items.map(itemMapper::toResponse));
+    }
+
+    // Within the radius of the real point, closest first
+    private static List<ItemResponse> byDistance(List<ItemResponse> items, double latitude, double longitude, double radius) {
+        return items.stream()
+                .filter(item -> item.getLocation() != null && distance(item, latitude, longitude) <= radius)
+                .sorted(Comparator.comparingDouble((ItemResponse item) -> distance(item, latitude, longitude))
+                        .thenComparing(ItemResponse::getId))
+                .toList();
+    }
+
+    private static Page<ItemResponse> pageOf(List<ItemResponse> items, int pageNo, int pageSize) {
+        int from = Math.min(pageNo * pageSize, items.size());
+        return new PageImpl<>(items.subList(from, Math.min(from + pageSize, items.size())),
+                PageRequest.of(pageNo, pageSize), items.size());
+    }
+
+    private static boolean reachesAll(List<ItemResponse> closestToCenter, double[] center, double latitude,
+                                      double longitude, double distance) {
+        ItemResponse farthest = closestToCenter.get(closestToCenter.size() - 1);
+        return GeoHash.reaches(distance(farthest, center[0], center[1]),
+                GeoHash.distanceMeters(center[0], center[1], latitude, longitude), distance);
+    }
+
+    private static double distance(ItemResponse item, double latitude, double longitude) {
+        return GeoHash.distanceMeters(latitude, longitude, item.getLocation().getLatitude(), item.getLocation().getLongitude());
+    }
+
+    private double snapRadius(double radius) {
+        return Math.min(Math.ceil(radius / nearbyRadiusStepMeters) * nearbyRadiusStepMeters, nearbyMaxRadiusMeters);
+    }
+
     private void invalidateCachesOnItemChange(String userId) {
         cacheService.evictAllUserItems(userId);
         cacheService.evictAllItems();
-        cacheService.evictCachedPopularItems();
     }
 
     private void setImagesUrl(Item item, List<MultipartFile> images) {
@@ -778,17 +1031,30 @@ public class ItemServiceImpl implements ItemService {
                     .toList();
 
             item.setImages(urls);
+            item.setThumbnails(imageUrls.stream()
+                    .map(ImageUploadResponse::getThumbnailUrl)
+                    .toList());
         }
     }
 
-    private <T> PageResponse<T> createPageResponse(Page<T> page) {
-        return PageResponse.<T>builder()
-                .content(page.getContent())
-                .pageNo(page.getNumber())
-                .pageSize(page.getSize())
-                .totalElements(page.getTotalElements())
-                .totalPages(page.getTotalPages())
-                .last(page.isLast())
+    private CursorPageResponse<ItemResponse> createCursorPageResponse(String tsQuery, ItemSearchRequest filter, String after,
+                                                                      int pageSize, String sortBy, String sortDirection) {
+        Sort.Order order = createPageable(0, pageSize, sortBy, sortDirection).getSort().iterator().next();
+        ItemCursor cursor = ItemCursor.decode(after, ItemCursor.sortKey(order));
+
+        CursorPageResponse<Item> page = itemRepository.searchItemsAfter(tsQuery, filter, order, cursor, pageSize);
+
+        return CursorPageResponse.<ItemResponse>builder()
+                .content(page.getContent().stream().map(itemMapper::toResponse).toList())
+                .pageSize(page.getPageSize())
+                .nextCursor(page.getNextCursor())
+                .hasNext(page.isHasNext())
                 .build();
     }
+
+    private Page<ItemResponse> toResponsePage(Page<ItemSummary> page) {
+        itemRepository.fillTags(page.getContent());
+
+        return page.map(itemMapper::toResponse);
+    }
 }
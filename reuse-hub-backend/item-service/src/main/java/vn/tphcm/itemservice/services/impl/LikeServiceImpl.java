@@ -0,0 +1,188 @@
+/*
+ * @ (#) LikeServiceImpl.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.services.impl;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import vn.tphcm.itemservice.commons.InteractionType;
+import vn.tphcm.itemservice.exceptions.ResourceNotFoundException;
+import vn.tphcm.itemservice.services.CacheService;
+import vn.tphcm.itemservice.services.LikeService;
+import vn.tphcm.itemservice.utils.WriteBehindBuffer;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.UUID;
+
+/**
+ * Likes live in tbl_item_likes, one row per (item, user): a like is a single INSERT ... ON CONFLICT DO NOTHING and an
+ * unlike a single DELETE, so duplicates and races are settled by the primary key. Only a statement that changed the
+ * set produces a +1/-1, which is buffered in Redis after commit and written to tbl_items.like_count by a scheduled
+ * flush, see {@link WriteBehindBuffer}, as atomic {@code like_count = like_count + delta} UPDATEs in one transaction.
+ */
+@Service
+@Slf4j(topic = "LIKE-SERVICE")
+public class LikeServiceImpl implements LikeService {
+    private static final Duration FLUSH_LOCK_TTL = Duration.ofSeconds(30);
+    private static final String INSERT_INTERACTION = "INSERT INTO tbl_item_interaction (id, user_id, interaction_type, item_id, created_at, updated_at) " +
+            "VALUES (?, ?, CAST(? AS interaction_type), ?, ?, ?)";
+
+    private final StringRedisTemplate redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheService cacheService;
+    private final WriteBehindBuffer buffer;
+
+    private final DistributionSummary flushBatchSize;
+    private final Counter flushFailures;
+    private final Counter directUpdates;
+
+    public LikeServiceImpl(StringRedisTemplate redisTemplate,
+                           JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           CacheService cacheService,
+                           MeterRegistry meterRegistry,
+                           @Value("${item.like-counter.batch-size:1000}") int batchSize,
+                           @Value("${item.like-counter.drain-budget-ms:10000}") long drainBudgetMs) {
+        this.redisTemplate = redisTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheService = cacheService;
+        this.buffer = new WriteBehindBuffer(redisTemplate, jdbcTemplate, transactionManager, "item:likes",
+                "like_count = i.like_count + v.delta, updated_at = now()", batchSize, FLUSH_LOCK_TTL, Duration.ofMillis(drainBudgetMs));
+
+        this.flushBatchSize = DistributionSummary.builder("item.likes.flush.batch.size")
+                .description("Items updated per like-count flush")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("item.likes.flush.failures")
+                .register(meterRegistry);
+        this.directUpdates = Counter.builder("item.likes.direct.updates")
+                .description("Like deltas written straight to Postgres because Redis was unavailable")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean like(String itemId, String userId) {
+        int inserted;
+        try {
+            inserted = jdbcTemplate.update("INSERT INTO tbl_item_likes (item_id, user_id) VALUES (?, ?) ON CONFLICT DO NOTHING",
+                    itemId, userId);
+        } catch (DataIntegrityViolationException e) {
+            // Foreign key on tbl_items
+            throw new ResourceNotFoundException("Item not found");
+        }
+
+        if (inserted == 0) {
+            return false;
+        }
+
+        afterCommit(() -> recordDelta(itemId, userId, InteractionType.LIKE, 1));
+        return true;
+    }
+
+    @Override
+    public boolean unlike(String itemId, String userId) {
+        int deleted = jdbcTemplate.update("DELETE FROM tbl_item_likes WHERE item_id = ? AND user_id = ?", itemId, userId);
+
+        if (deleted == 0) {
+            return false;
+        }
+
+        afterCommit(() -> recordDelta(itemId, userId, InteractionType.UNLIKE, -1));
+        return true;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${item.like-counter.flush-interval-ms:1000}")
+    public void flush() {
+        try {
+            buffer.runLocked(() -> {
+                flushLikeCounts();
+                flushInteractions();
+            });
+        } catch (Exception e) {
+            flushFailures.increment();
+            log.error("Failed to flush like counters: {}", e.getMessage(), e);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A rolled back like must not leave a delta behind
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void recordDelta(String itemId, String userId, InteractionType type, int delta) {
+        try {
+            String entry = itemId + "|" + userId + "|" + type.name() + "|" + System.currentTimeMillis();
+
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection conn = (StringRedisConnection) connection;
+                conn.hIncrBy(buffer.getPendingKey(), itemId, delta);
+                conn.rPush(buffer.getInteractionsKey(), entry);
+                return null;
+            });
+        } catch (Exception e) {
+            // The like row is committed, so the counter must follow even without the buffer
+            log.error("Failed to buffer like delta for item {}, updating it directly: {}", itemId, e.getMessage());
+            directUpdates.increment();
+            jdbcTemplate.update("UPDATE tbl_items SET like_count = like_count + ?, updated_at = now() WHERE id = ?", delta, itemId);
+            cacheService.evictCachedItem(itemId);
+        }
+    }
+
+    private void flushLikeCounts() {
+        List<String> itemIds = buffer.flushDeltas();
+        if (itemIds.isEmpty()) {
+            return;
+        }
+
+        flushBatchSize.record(itemIds.size());
+
+        itemIds.forEach(cacheService::evictCachedItem);
+
+        log.info("Flushed like counts for {} items", itemIds.size());
+    }
+
+    private void flushInteractions() {
+        buffer.drainInteractions(INSERT_INTERACTION, entry -> {
+            String[] parts = entry.split("\\|", 4);
+            if (parts.length < 4) {
+                return null;
+            }
+            LocalDateTime at = LocalDateTime.ofInstant(
+                    Instant.ofEpochMilli(Long.parseLong(parts[3])), TimeZone.getDefault().toZoneId());
+            return new Object[]{UUID.randomUUID().toString(), parts[1], parts[2], parts[0], at, at};
+        });
+    }
+}
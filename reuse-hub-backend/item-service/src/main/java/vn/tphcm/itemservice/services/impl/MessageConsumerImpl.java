@@ -20,6 +20,7 @@ import org.springframework.transaction.annotation.Transactional;
 import vn.tphcm.event.commons.EventType;
 import vn.tphcm.event.dto.*;
 import vn.tphcm.itemservice.commons.ItemStatus;
+import vn.tphcm.itemservice.commons.PopularitySignal;
 import vn.tphcm.itemservice.exceptions.InvalidDataException;
 import vn.tphcm.itemservice.exceptions.ResourceNotFoundException;
 import vn.tphcm.itemservice.models.Item;
@@ -28,6 +29,7 @@ import vn.tphcm.itemservice.services.CacheService;
 import vn.tphcm.itemservice.services.ItemService;
 import vn.tphcm.itemservice.services.MessageConsumer;
 import vn.tphcm.itemservice.services.MessageProducer;
+import vn.tphcm.itemservice.services.PopularityService;
 
 import java.util.UUID;
 
@@ -39,6 +41,7 @@ public class MessageConsumerImpl implements MessageConsumer {
     private final MessageProducer messageProducer;
     private final ItemService itemService;
     private final CacheService cacheService;
+    private final PopularityService popularityService;
 
     @Override
     @RabbitListener(queues = "${rabbitmq.queue.item-process}")
@@ -116,6 +119,8 @@ public class MessageConsumerImpl implements MessageConsumer {
             messageProducer.publishItemReservationResult(itemReservationEvent);
 
             cacheService.evictCachedItem(item.getId());
+            cacheService.evictNearbyItems(item.getLocation());
+            popularityService.untrack(item.getId());
         } else {
             log.warn("SAGA Failed: Item {} is NOT AVAILABLE (Status: {}) for transaction {}",
                     item.getId(), item.getStatus(), event.getTransactionId());
@@ -138,6 +143,9 @@ public class MessageConsumerImpl implements MessageConsumer {
             itemRepository.save(item);
             log.info("SAGA Processed: Item {} status updated to AVAILABLE due to transaction {} cancellation",
                     item.getId(), event.getTransactionId());
+
+            cacheService.evictNearbyItems(item.getLocation());
+            popularityService.track(item);
         } else {
             log.warn("SAGA Ignored: Transaction {} cancelled, but item {} was not in RESERVED status (current: {}). No status change needed.",
                     event.getTransactionId(), item.getId(), item.getStatus());
@@ -227,6 +235,8 @@ public class MessageConsumerImpl implements MessageConsumer {
 
                     cacheService.evictCachedItem(event.getLinkedItemId());
                     cacheService.evictAllItems();
+                    cacheService.evictNearbyItems(item.getLocation());
+                    popularityService.track(item);
                     log.info("SAGA Processed: Item {} status updated to AVAILABLE after payment failure", item.getId());
                 } else {
                     log.warn("SAGA Ignored: Payment failed for item {} but item status is {} (expected RESERVED)",
@@ -270,5 +280,33 @@ public class MessageConsumerImpl implements MessageConsumer {
         }
     }
 
+    @Override
+    @RabbitListener(queues = "${rabbitmq.queue.item.popularity:q.item.popularity}")
+    public void handleItemActivity(EventMessage event, Channel channel, Message message) throws Exception {
+        try {
+            if (event == null || event.getItemId() == null || event.getEventType() == null) {
+                log.warn("Received item activity event without itemId or eventType");
+                channel.basicAck(message.getMessageProperties().getDeliveryTag(), false);
+                return;
+            }
+
+            PopularitySignal signal = switch (event.getEventType()) {
+                case "ITEM_CREATED" -> PopularitySignal.CREATED;
+                case "ITEM_VIEWED" -> PopularitySignal.VIEW;
+                case "ITEM_LIKED" -> PopularitySignal.LIKE;
+                case "ITEM_UNLIKED" -> PopularitySignal.UNLIKE;
+                default -> null;
+            };
 
+            if (signal != null) {
+                popularityService.recordSignal(event.getItemId(), signal);
+            }
+
+            channel.basicAck(message.getMessageProperties().getDeliveryTag(), false);
+        } catch (Exception e) {
+            log.error("Failed to apply item activity to popularity ranking: {}", e.getMessage(), e);
+            // Popularity is best effort, a lost signal is not worth a dead letter
+            channel.basicAck(message.getMessageProperties().getDeliveryTag(), false);
+        }
+    }
 }
@@ -19,12 +19,21 @@ import org.springframework.stereotype.Service;
 import vn.tphcm.event.dto.ItemReservationEvent;
 import vn.tphcm.event.dto.NotificationMessage;
 import vn.tphcm.itemservice.services.MessageProducer;
+import vn.tphcm.itemservice.services.OutboxService;
 
+/**
+ * State-changing events go through the transactional outbox (see OutboxServiceImpl) so they are committed together
+ * with the change that caused them and published even if the broker is down at that moment.
+ * View events stay fire-and-forget: they are lossy analytics and would otherwise add a row insert to every view.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j(topic = "MESSAGE-PRODUCER")
 public class MessageProducerImpl implements MessageProducer {
     private final RabbitTemplate rabbitTemplate;
+    private final OutboxService outboxService;
+
+    private static final String ITEM_VIEWED = "ITEM_VIEWED";
 
     @Value("${rabbitmq.exchange.item}")
     private String exchangeItem;
@@ -53,35 +62,37 @@ public class MessageProducerImpl implements MessageProducer {
 
     @Override
     public void publishItemEvent(EventMessage event) {
-        try {
-            String routingKey = getRoutingKeyForEventType(event.getEventType());
-            rabbitTemplate.convertAndSend(exchangeItem, routingKey, event);
-            log.info("Published item event: type={}, routingKey={} for item: {}", event.getEventType(), routingKey, event.getItemId());
-        } catch (Exception e) {
-            log.error("Failed to publish item event: {}", e.getMessage());
+        String routingKey = getRoutingKeyForEventType(event.getEventType());
+
+        if (ITEM_VIEWED.equals(event.getEventType())) {
+            try {
+                rabbitTemplate.convertAndSend(exchangeItem, routingKey, event);
+                log.info("Published item event: type={}, routingKey={} for item: {}", event.getEventType(), routingKey, event.getItemId());
+            } catch (Exception e) {
+                log.error("Failed to publish item event: {}", e.getMessage());
+            }
+            return;
         }
+
+        outboxService.enqueue(event.getItemId(), exchangeItem, routingKey, event);
+        log.info("Queued item event: type={}, routingKey={} for item: {}", event.getEventType(), routingKey, event.getItemId());
     }
 
     @Override
     public void publishNotification(NotificationMessage notification) {
-        try {
-            rabbitTemplate.convertAndSend(exchangeNotification, "notification.send", notification);
-            log.info("Published notification for user: {}", notification.getRecipientUserId());
-        } catch (Exception e) {
-            log.error("Failed to publish notification: {}", e.getMessage());
-        }
+        String aggregateId = notification.getItemId() != null ? notification.getItemId() : notification.getRecipientUserId();
+
+        outboxService.enqueue(aggregateId, exchangeNotification, "notification.send", notification);
+        log.info("Queued notification for user: {}", notification.getRecipientUserId());
     }
 
     @Override
     public void publishItemReservationResult(ItemReservationEvent event) {
         String routingKey = event.isSuccess() ? itemReservedRK : itemReservedFailedRK;
-        try {
-            rabbitTemplate.convertAndSend(sagaExchange, routingKey, event);
-            log.info("Published item reservation event: transactionId={}, success={}, routingKey={}",
-                    event.getTransactionId(), event.isSuccess(), routingKey);
-        } catch (Exception e) {
-            log.error("Failed to publish item reservation event: {}", e.getMessage());
-        }
+
+        outboxService.enqueue(event.getItemId(), sagaExchange, routingKey, event);
+        log.info("Queued item reservation event: transactionId={}, success={}, routingKey={}",
+                event.getTransactionId(), event.isSuccess(), routingKey);
     }
 
     private String getRoutingKeyForEventType(String eventType) {
@@ -91,7 +102,7 @@ public class MessageProducerImpl implements MessageProducer {
             case "ITEM_DELETED" -> routingKeyItemDeleted;
             case "ITEM_LIKED" -> routingKeyItemLiked;
             case "ITEM_UNLIKED" -> routingKeyItemUnliked;
-            case "ITEM_VIEWED" -> routingKeyItemViewed;
+            case ITEM_VIEWED -> routingKeyItemViewed;
             default -> "item.unknown";
         };
     }
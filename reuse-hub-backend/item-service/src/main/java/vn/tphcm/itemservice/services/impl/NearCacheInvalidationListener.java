@@ -0,0 +1,50 @@
+/*
+ * @ (#) NearCacheInvalidationListener.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.services.impl;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+import vn.tphcm.itemservice.dtos.PageResponse;
+import vn.tphcm.itemservice.dtos.response.ItemResponse;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Drops near cache entries when any item-service replica changes the Redis copy.
+ * Messages are {@code item:<id>} for a single item or {@code lists} for every cached list page.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j(topic = "NEAR-CACHE-INVALIDATION")
+public class NearCacheInvalidationListener implements MessageListener {
+    static final String ITEM_PREFIX = "item:";
+    static final String LISTS = "lists";
+
+    private final Cache<String, ItemResponse> itemNearCache;
+    private final Cache<String, PageResponse<ItemResponse>> itemListNearCache;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+
+        if (body.startsWith(ITEM_PREFIX)) {
+            itemNearCache.invalidate(body.substring(ITEM_PREFIX.length()));
+        } else if (LISTS.equals(body)) {
+            itemListNearCache.invalidateAll();
+        } else {
+            log.warn("Ignoring unknown near cache invalidation message: {}", body);
+        }
+    }
+}
@@ -0,0 +1,339 @@
+/*
+ * @ (#) OutboxServiceImpl.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.services.impl;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.tphcm.itemservice.services.OutboxService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transactional outbox. Producers insert into tbl_item_outbox in their own transaction; the relay publishes due rows
+ * with publisher confirms and deletes them once confirmed, so delivery is at-least-once (consumers see the outbox id
+ * as message id). Only one replica relays at a time (transaction-scoped advisory lock), and a row is sent only after
+ * every older row of the same aggregate was confirmed, which keeps per-item order across retries.
+ * <p>
+ * A row that used up its attempts is kept as FAILED and keeps blocking its aggregate, so consumers never see a later
+ * event of an item without the one before it. The stuck aggregate shows in item.outbox.failed and in the growing
+ * oldest-age gauge; setting the row back to PENDING retries it, deleting it lets the younger rows through.
+ */
+@Service
+@Slf4j(topic = "OUTBOX-SERVICE")
+public class OutboxServiceImpl implements OutboxService {
+    private static final long RELAY_LOCK_KEY = 0x6974656d6f7574L;
+    private static final String PENDING = "PENDING";
+    private static final String FAILED = "FAILED";
+
+    private static final String INSERT_SQL = "INSERT INTO tbl_item_outbox (aggregate_id, exchange, routing_key, payload_type, payload) " +
+            "VALUES (?, ?, ?, ?, ?)";
+    // A row waiting for a retry, or given up on, holds back the younger rows of its aggregate
+    private static final String SELECT_DUE_SQL = "SELECT o.id, o.aggregate_id, o.exchange, o.routing_key, o.payload_type, o.payload, o.attempts, " +
+            "EXTRACT(EPOCH FROM (NOW() - o.created_at)) * 1000 AS age_ms " +
+            "FROM tbl_item_outbox o " +
+            "WHERE o.status = 'PENDING' AND o.next_attempt_at <= NOW() " +
+            "AND NOT EXISTS (SELECT 1 FROM tbl_item_outbox b WHERE b.aggregate_id = o.aggregate_id " +
+            "AND b.id < o.id AND (b.status = 'FAILED' OR b.next_attempt_at > NOW())) " +
+            "ORDER BY o.id LIMIT ?";
+    private static final String DELETE_SQL = "DELETE FROM tbl_item_outbox WHERE id = ?";
+    private static final String RETRY_SQL = "UPDATE tbl_item_outbox SET attempts = attempts + 1, status = ?, last_error = ?, " +
+            "next_attempt_at = NOW() + make_interval(secs => ?) WHERE id = ?";
+    private static final String STATS_SQL = "SELECT COUNT(*), COALESCE(EXTRACT(EPOCH FROM (NOW() - MIN(created_at))) * 1000, 0) " +
+            "FROM tbl_item_outbox WHERE status = 'PENDING'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate relayTransaction;
+    private final TransactionTemplate standaloneTransaction;
+    private final MeterRegistry meterRegistry;
+
+    private final int batchSize;
+    private final long confirmTimeoutMs;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final long maxBackoffMs;
+
+    private final AtomicLong depth = new AtomicLong();
+    private final AtomicLong oldestAgeMs = new AtomicLong();
+    private final Timer relayLag;
+
+    public OutboxServiceImpl(JdbcTemplate jdbcTemplate,
+                             RabbitTemplate rabbitTemplate,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${item.outbox.batch-size:100}") int batchSize,
+                             @Value("${item.outbox.confirm-timeout-ms:5000}") long confirmTimeoutMs,
+                             @Value("${item.outbox.max-attempts:10}") int maxAttempts,
+                             @Value("${item.outbox.retry-backoff-ms:1000}") long retryBackoffMs,
+                             @Value("${item.outbox.max-backoff-ms:60000}") long maxBackoffMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rabbitTemplate = rabbitTemplate;
+        this.relayTransaction = new TransactionTemplate(transactionManager);
+        this.standaloneTransaction = new TransactionTemplate(transactionManager);
+        this.standaloneTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+
+        Gauge.builder("item.outbox.depth", depth, AtomicLong::get)
+                .description("Outbox messages waiting to be published")
+                .register(meterRegistry);
+        Gauge.builder("item.outbox.oldest.age", oldestAgeMs, AtomicLong::get)
+                .description("Age in milliseconds of the oldest unpublished outbox message")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        this.relayLag = Timer.builder("item.outbox.relay.lag")
+                .description("Time from enqueue to broker confirm")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void enqueue(String aggregateId, String exchange, String routingKey, Object payload) {
+        // Same wire format as convertAndSend: JSON body plus the __TypeId__ header consumers map back to a class
+        Message converted = rabbitTemplate.getMessageConverter().toMessage(payload, new MessageProperties());
+        Object payloadType = converted.getMessageProperties().getHeaders().get(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME);
+        String body = new String(converted.getBody(), StandardCharsets.UTF_8);
+
+        // Messages without an aggregate are still ordered among themselves, per routing key
+        Object[] args = {aggregateId != null ? aggregateId : routingKey, exchange, routingKey,
+                payloadType != null ? payloadType.toString() : null, body};
+
+        if (joinsCurrentTransaction()) {
+            jdbcTemplate.update(INSERT_SQL, args);
+        } else {
+            // No transaction, or one that is already doomed (e.g. a failure reply from a catch block)
+            standaloneTransaction.executeWithoutResult(status -> jdbcTemplate.update(INSERT_SQL, args));
+        }
+
+        log.debug("Enqueued outbox message for aggregate {} to {}/{}", aggregateId, exchange, routingKey);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${item.outbox.poll-interval-ms:200}")
+    public void relay() {
+        try {
+            int published;
+            // Keep draining while whole batches go through
+            do {
+                published = Objects.requireNonNullElse(relayTransaction.execute(status -> relayBatch()), 0);
+            } while (published >= batchSize);
+
+            refreshStats();
+        } catch (Exception e) {
+            log.error("Outbox relay failed: {}", e.getMessage());
+        }
+    }
+
+    private int relayBatch() {
+        Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, RELAY_LOCK_KEY);
+        if (!Boolean.TRUE.equals(locked)) {
+            return 0;
+        }
+
+        List<OutboxRow> rows = jdbcTemplate.query(SELECT_DUE_SQL, (rs, i) -> new OutboxRow(
+                rs.getLong("id"),
+                rs.getString("aggregate_id"),
+                rs.getString("exchange"),
+                rs.getString("routing_key"),
+                rs.getString("payload_type"),
+                rs.getString("payload"),
+                rs.getInt("attempts"),
+                rs.getLong("age_ms")), batchSize);
+
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Deque<OutboxRow>> byAggregate = new LinkedHashMap<>();
+        rows.forEach(row -> byAggregate.computeIfAbsent(row.getAggregateId(), id -> new ArrayDeque<>()).add(row));
+
+        List<Object[]> confirmedIds = new ArrayList<>();
+
+        // Each wave sends the oldest remaining row of every aggregate, so two rows of one item are never in flight together
+        while (!byAggregate.isEmpty()) {
+            List<PendingConfirm> wave = new ArrayList<>();
+            byAggregate.values().forEach(queue -> wave.add(send(queue.peekFirst())));
+
+            for (PendingConfirm pending : wave) {
+                OutboxRow row = pending.getRow();
+                String error = awaitConfirm(pending);
+
+                if (error == null) {
+                    confirmedIds.add(new Object[]{row.getId()});
+                    relayLag.record(row.getAgeMs(), TimeUnit.MILLISECONDS);
+                    byAggregate.get(row.getAggregateId()).pollFirst();
+                } else {
+                    scheduleRetry(row, error);
+                    byAggregate.remove(row.getAggregateId());
+                }
+            }
+
+            byAggregate.values().removeIf(Deque::isEmpty);
+        }
+
+        if (!confirmedIds.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_SQL, confirmedIds);
+        }
+
+        log.info("Outbox relay published {} of {} due messages", confirmedIds.size(), rows.size());
+
+        return confirmedIds.size();
+    }
+
+    private PendingConfirm send(OutboxRow row) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        if (row.getPayloadType() != null) {
+            properties.setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, row.getPayloadType());
+        }
+        properties.setMessageId("item-outbox-" + row.getId());
+        properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+
+        CorrelationData correlation = new CorrelationData(String.valueOf(row.getId()));
+
+        try {
+            rabbitTemplate.send(row.getExchange(), row.getRoutingKey(),
+                    new Message(row.getPayload().getBytes(StandardCharsets.UTF_8), properties), correlation);
+            return new PendingConfirm(row, correlation, null);
+        } catch (Exception e) {
+            return new PendingConfirm(row, correlation, e.getMessage());
+        }
+    }
+
+    /**
+     * @return null when the broker confirmed the message, otherwise the reason it has to be retried
+     */
+    private String awaitConfirm(PendingConfirm pending) {
+        if (pending.getSendError() != null) {
+            recordResult("error");
+            return pending.getSendError();
+        }
+
+        if (!rabbitTemplate.getConnectionFactory().isPublisherConfirms()) {
+            // Without spring.rabbitmq.publisher-confirm-type=correlated a successful send is all we get
+            recordResult("sent");
+            return null;
+        }
+
+        try {
+            CorrelationData.Confirm confirm = pending.getCorrelation().getFuture().get(confirmTimeoutMs, TimeUnit.MILLISECONDS);
+            if (!confirm.isAck()) {
+                recordResult("nack");
+                return "nack: " + confirm.getReason();
+            }
+
+            if (pending.getCorrelation().getReturned() != null) {
+                // Retrying cannot route it either
+                log.warn("Outbox message {} was not routable: {}", pending.getRow().getId(), pending.getCorrelation().getReturned());
+                recordResult("unroutable");
+                return null;
+            }
+
+            recordResult("ack");
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            recordResult("timeout");
+            return "interrupted";
+        } catch (Exception e) {
+            recordResult("timeout");
+            return "no confirm within " + confirmTimeoutMs + " ms";
+        }
+    }
+
+    private void scheduleRetry(OutboxRow row, String error) {
+        int attempt = row.getAttempts() + 1;
+        boolean exhausted = attempt >= maxAttempts;
+        long backoffMs = Math.min(retryBackoffMs << Math.min(attempt - 1, 20), maxBackoffMs);
+
+        jdbcTemplate.update(RETRY_SQL, exhausted ? FAILED : PENDING, error, backoffMs / 1000.0, row.getId());
+
+        if (exhausted) {
+            meterRegistry.counter("item.outbox.failed").increment();
+            log.error("Outbox message {} for aggregate {} failed {} times, giving up and holding back the aggregate: {}",
+                    row.getId(), row.getAggregateId(), attempt, error);
+        } else {
+            log.warn("Outbox message {} for aggregate {} failed (attempt {}), retrying in {} ms: {}", row.getId(), row.getAggregateId(), attempt, backoffMs, error);
+        }
+    }
+
+    private void refreshStats() {
+        jdbcTemplate.query(STATS_SQL, rs -> {
+            depth.set(rs.getLong(1));
+            oldestAgeMs.set(rs.getLong(2));
+        });
+    }
+
+    private void recordResult(String result) {
+        meterRegistry.counter("item.outbox.publish", "result", result).increment();
+    }
+
+    private boolean joinsCurrentTransaction() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return false;
+        }
+
+        try {
+            return !TransactionInterceptor.currentTransactionStatus().isRollbackOnly();
+        } catch (NoTransactionException e) {
+            // Programmatic transaction, nothing to inspect
+            return true;
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class OutboxRow {
+        private final long id;
+        private final String aggregateId;
+        private final String exchange;
+        private final String routingKey;
+        private final String payloadType;
+        private final String payload;
+        private final int attempts;
+        private final long ageMs;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class PendingConfirm {
+        private final OutboxRow row;
+        private final CorrelationData correlation;
+        private final String sendError;
+    }
+}
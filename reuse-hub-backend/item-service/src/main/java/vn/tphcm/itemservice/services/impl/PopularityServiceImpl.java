@@ -0,0 +1,274 @@
+/*
+ * @ (#) PopularityServiceImpl.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.services.impl;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import vn.tphcm.itemservice.commons.PopularitySignal;
+import vn.tphcm.itemservice.models.Item;
+import vn.tphcm.itemservice.services.PopularityService;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Popularity ranking of AVAILABLE items kept in a Redis sorted set.
+ * <p>
+ * Scores use forward decay: a signal of weight {@code w} at time {@code t} adds {@code w * 2^((t - epoch) / halfLife)},
+ * so older signals lose half their relative weight every half-life without ever rewriting existing members.
+ * The scores grow with time, so {@link #maintain()} periodically rescales the set to a new epoch.
+ * Score updates run in Lua against the epoch stored in Redis, which keeps them consistent with a concurrent rescale.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j(topic = "POPULARITY-SERVICE")
+public class PopularityServiceImpl implements PopularityService {
+    private static final String RANKING_KEY = "items:popularity";
+    private static final String REBUILD_KEY = "items:popularity:rebuild";
+    private static final String EPOCH_KEY = "items:popularity:epoch";
+    private static final String LOCK_KEY = "items:popularity:lock";
+    private static final Duration LOCK_TTL = Duration.ofMinutes(5);
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    // KEYS: ranking, epoch; ARGV: now ms, weight, half-life ms, NX|XX|SET, member
+    private static final RedisScript<String> ADD_SCORE = new DefaultRedisScript<>("""
+            local epoch = tonumber(redis.call('GET', KEYS[2]))
+            if not epoch then
+                epoch = tonumber(ARGV[1])
+                redis.call('SET', KEYS[2], ARGV[1])
+            end
+            local score = tonumber(ARGV[2]) * math.pow(2, (tonumber(ARGV[1]) - epoch) / tonumber(ARGV[3]))
+            if ARGV[4] == 'SET' then
+                redis.call('ZADD', KEYS[1], score, ARGV[5])
+                return tostring(score)
+            end
+            return redis.call('ZADD', KEYS[1], ARGV[4], 'INCR', score, ARGV[5])
+            """, String.class);
+
+    // KEYS: ranking, epoch; ARGV: now ms, half-life ms
+    private static final RedisScript<Long> REBASE = new DefaultRedisScript<>("""
+            local epoch = tonumber(redis.call('GET', KEYS[2]))
+            if not epoch then
+                return 0
+            end
+            local factor = math.pow(2, (epoch - tonumber(ARGV[1])) / tonumber(ARGV[2]))
+            redis.call('ZUNIONSTORE', KEYS[1], 1, KEYS[1], 'WEIGHTS', factor)
+            redis.call('SET', KEYS[2], ARGV[1])
+            return 1
+            """, Long.class);
+
+    // KEYS: rebuilt ranking, ranking, epoch; ARGV: epoch ms
+    private static final RedisScript<Long> PUBLISH_REBUILD = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                redis.call('RENAME', KEYS[1], KEYS[2])
+            else
+                redis.call('DEL', KEYS[2])
+            end
+            redis.call('SET', KEYS[3], ARGV[1])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${item.popularity.half-life-hours:72}")
+    private double halfLifeHours;
+
+    @Value("${item.popularity.weights.created:1}")
+    private double createdWeight;
+
+    @Value("${item.popularity.weights.view:1}")
+    private double viewWeight;
+
+    @Value("${item.popularity.weights.like:5}")
+    private double likeWeight;
+
+    @Value("${item.popularity.weights.comment:3}")
+    private double commentWeight;
+
+    @Value("${item.popularity.weights.premium:50}")
+    private double premiumWeight;
+
+    @Override
+    public void recordSignal(String itemId, PopularitySignal signal) {
+        // New items enter the ranking, every other signal only moves items that are already ranked (AVAILABLE)
+        String mode = signal == PopularitySignal.CREATED ? "NX" : "XX";
+        addScore(itemId, weightOf(signal), mode);
+    }
+
+    @Override
+    public void track(Item item) {
+        double weight = createdWeight
+                + item.getViewCount() * viewWeight
+                + item.getLikeCount() * likeWeight
+                + item.getCommentCount() * commentWeight
+                + (item.isPremium() ? premiumWeight : 0);
+
+        addScore(item.getId(), weight, "SET");
+    }
+
+    @Override
+    public void untrack(String itemId) {
+        try {
+            redisTemplate.opsForZSet().remove(RANKING_KEY, itemId);
+        } catch (Exception e) {
+            log.error("Failed to remove item {} from popularity ranking: {}", itemId, e.getMessage());
+        }
+    }
+
+    @Override
+    public List<String> getRankedItemIds(long offset, int limit, boolean descending) {
+        long end = offset + limit - 1;
+        Set<String> ids = descending
+                ? redisTemplate.opsForZSet().reverseRange(RANKING_KEY, offset, end)
+                : redisTemplate.opsForZSet().range(RANKING_KEY, offset, end);
+
+        return ids == null ? List.of() : new ArrayList<>(ids);
+    }
+
+    @Override
+    public long countRanked() {
+        Long size = redisTemplate.opsForZSet().zCard(RANKING_KEY);
+        return size == null ? 0 : size;
+    }
+
+    @Override
+    public void rebuild() {
+        if (!tryLock()) {
+            log.info("Popularity ranking rebuild already running on another replica");
+            return;
+        }
+
+        try {
+            long epoch = System.currentTimeMillis();
+            redisTemplate.delete(REBUILD_KEY);
+
+            List<Map.Entry<String, Double>> batch = new ArrayList<>(REBUILD_BATCH_SIZE);
+            long[] ranked = {0};
+
+            // Counters carry no history, so all of an item's activity is attributed to its last update
+            jdbcTemplate.query("SELECT id, view_count, like_count, comment_count, is_premium, updated_at " +
+                    "FROM tbl_items WHERE status = 'AVAILABLE'", rs -> {
+                Timestamp updatedAt = rs.getTimestamp("updated_at");
+                long at = updatedAt != null ? updatedAt.getTime() : epoch;
+
+                double weight = createdWeight
+                        + rs.getInt("view_count") * viewWeight
+                        + rs.getInt("like_count") * likeWeight
+                        + rs.getInt("comment_count") * commentWeight
+                        + (rs.getBoolean("is_premium") ? premiumWeight : 0);
+
+                batch.add(Map.entry(rs.getString("id"), weight * Math.pow(2, (at - epoch) / halfLifeMillis())));
+                ranked[0]++;
+
+                if (batch.size() == REBUILD_BATCH_SIZE) {
+                    writeRebuildBatch(batch);
+                }
+            });
+            writeRebuildBatch(batch);
+
+            redisTemplate.execute(PUBLISH_REBUILD, List.of(REBUILD_KEY, RANKING_KEY, EPOCH_KEY), String.valueOf(epoch));
+            log.info("Rebuilt popularity ranking with {} items", ranked[0]);
+        } finally {
+            redisTemplate.delete(LOCK_KEY);
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${item.popularity.rebase-interval-ms:86400000}",
+            initialDelayString = "${item.popularity.rebase-interval-ms:86400000}")
+    public void maintain() {
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(RANKING_KEY))) {
+            rebuild();
+            return;
+        }
+
+        if (!tryLock()) {
+            return;
+        }
+
+        try {
+            redisTemplate.execute(REBASE, List.of(RANKING_KEY, EPOCH_KEY),
+                    String.valueOf(System.currentTimeMillis()), String.valueOf(halfLifeMillis()));
+            log.info("Rescaled popularity ranking to a new epoch");
+        } finally {
+            redisTemplate.delete(LOCK_KEY);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfMissing() {
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.hasKey(RANKING_KEY))) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            log.error("Failed to initialize popularity ranking: {}", e.getMessage());
+        }
+    }
+
+    private void addScore(String itemId, double weight, String mode) {
+        try {
+            redisTemplate.execute(ADD_SCORE, List.of(RANKING_KEY, EPOCH_KEY),
+                    String.valueOf(System.currentTimeMillis()), String.valueOf(weight),
+                    String.valueOf(halfLifeMillis()), mode, itemId);
+        } catch (Exception e) {
+            log.error("Failed to update popularity of item {}: {}", itemId, e.getMessage());
+        }
+    }
+
+    private void writeRebuildBatch(List<Map.Entry<String, Double>> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            batch.forEach(entry -> conn.zAdd(REBUILD_KEY, entry.getValue(), entry.getKey()));
+            return null;
+        });
+        batch.clear();
+    }
+
+    private double weightOf(PopularitySignal signal) {
+        return switch (signal) {
+            case CREATED -> createdWeight;
+            case VIEW -> viewWeight;
+            case LIKE -> likeWeight;
+            case UNLIKE -> -likeWeight;
+            case COMMENT -> commentWeight;
+            case PREMIUM -> premiumWeight;
+        };
+    }
+
+    private boolean tryLock() {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, "1", LOCK_TTL));
+    }
+
+    private double halfLifeMillis() {
+        return halfLifeHours * 3_600_000;
+    }
+}
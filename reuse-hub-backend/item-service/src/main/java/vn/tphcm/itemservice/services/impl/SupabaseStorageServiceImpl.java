@@ -10,35 +10,52 @@ package vn.tphcm.itemservice.services.impl;
  * @date: 10/2/2025
  */
 
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
 import org.apache.commons.io.FilenameUtils;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import vn.tphcm.itemservice.configs.FileUploadConfig;
+import vn.tphcm.itemservice.dtos.ProcessedImage;
 import vn.tphcm.itemservice.dtos.response.ImageUploadResponse;
 import vn.tphcm.itemservice.exceptions.UploadFileFailedException;
+import vn.tphcm.itemservice.services.ImageProcessingService;
 import vn.tphcm.itemservice.services.SupabaseStorageService;
+import vn.tphcm.itemservice.utils.StoragePaths;
 
+import java.io.IOException;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j(topic = "SUPABASE-STORAGE-SERVICE")
-public class SupabaseStorageServiceImpl implements SupabaseStorageService {
+public class SupabaseStorageServiceImpl implements SupabaseStorageService, DisposableBean {
+    private static final String THUMBNAIL_SUFFIX = "_thumb";
+
     private final FileUploadConfig fileUploadConfig;
-    private final OkHttpClient httpClient = new OkHttpClient().newBuilder()
-            .connectTimeout(30, TimeUnit.MINUTES)
-            .writeTimeout(30, TimeUnit.MINUTES)
-            .readTimeout(30, TimeUnit.MINUTES)
-            .build();
+    private final ImageProcessingService imageProcessingService;
+
+    // Uploads run on OkHttp's dispatcher, bounded to `parallelism` concurrent calls across all requests
+    private final ExecutorService uploadExecutor;
+    private final OkHttpClient httpClient;
 
     @Value("${supabase.bucket}")
     private String bucketName;
@@ -52,6 +69,30 @@ public class SupabaseStorageServiceImpl implements SupabaseStorageService {
     @Value("${supabase.public-url}")
     private String publicUrl;
 
+    public SupabaseStorageServiceImpl(FileUploadConfig fileUploadConfig,
+                                      ImageProcessingService imageProcessingService,
+                                      @Value("${file.upload.parallelism:4}") int parallelism,
+                                      @Value("${file.upload.timeout-seconds:60}") long timeoutSeconds) {
+        this.fileUploadConfig = fileUploadConfig;
+        this.imageProcessingService = imageProcessingService;
+        // Unbounded on purpose: the dispatcher hands it every call under maxRequests and treats a rejection as a
+        // failed call, so concurrency is limited by the dispatcher alone
+        this.uploadExecutor = Executors.newCachedThreadPool(new CustomizableThreadFactory("supabase-upload-"));
+
+        Dispatcher dispatcher = new Dispatcher(uploadExecutor);
+        dispatcher.setMaxRequests(parallelism);
+        dispatcher.setMaxRequestsPerHost(parallelism);
+
+        this.httpClient = new OkHttpClient().newBuilder()
+                .dispatcher(dispatcher)
+                .connectTimeout(10, TimeUnit.SECONDS)
+                .writeTimeout(timeoutSeconds, TimeUnit.SECONDS)
+                .readTimeout(timeoutSeconds, TimeUnit.SECONDS)
+                // Upper bound for one file, from connect to the last response byte
+                .callTimeout(timeoutSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
     @Override
     public ImageUploadResponse uploadImage(MultipartFile file, String folder) {
         log.info("Uploading single image: {} to Supabase Storage in folder: {}", file.getOriginalFilename(), folder);
@@ -59,52 +100,9 @@ public class SupabaseStorageServiceImpl implements SupabaseStorageService {
         validateImage(file);
 
         try {
-            String fileName = generateFileName(file.getOriginalFilename());
-            String objectPath = joinPath(folder, fileName);
-
-            byte[] bytes = file.getBytes();
-            String ct = file.getContentType();
-
-            MediaType mediaType = (ct != null) ? MediaType.get(ct) : MediaType.parse("application/octet-stream");
-            RequestBody requestBody = RequestBody.create(
-                    bytes, mediaType
-            );
-
-            HttpUrl url = Objects.requireNonNull(HttpUrl.parse(supabaseUrl))
-                    .newBuilder()
-                    .addPathSegments("storage/v1/object")
-                    .addPathSegment(bucketName)
-                    .addPathSegments(objectPath)
-                    .build();
-
-            Request request = new Request.Builder()
-                    .url(url)
-                    .post(requestBody)
-                    .addHeader("Authorization", "Bearer " + serviceKey)
-                    .addHeader("apikey", serviceKey)
-                    .addHeader("x-upsert", "true")
-                    .build();
-
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    String errorBody = response.body() != null ? response.body().string() : "Unknown error";
-                    log.error("Failed to upload file: {}. Response code: {}, Body: {}", file.getOriginalFilename(), response.code(), errorBody);
-                    throw new UploadFileFailedException("Failed to upload file: " + file.getOriginalFilename());
-                }
-
-                String imageUrl = getPublicUrl(objectPath);
-
-                log.info("Successfully uploaded file: {} to Supabase Storage. URL: {}", file.getOriginalFilename(), imageUrl);
-
-                return ImageUploadResponse.builder()
-                        .fileName(fileName)
-                        .imageUrl(imageUrl)
-                        .fileSize(file.getSize())
-                        .build();
-            }
-
-        } catch (Exception e) {
-            log.error("Error uploading file: {}", file.getOriginalFilename(), e);
+            return startUpload(file, folder).getResult().join();
+        } catch (CompletionException e) {
+            log.error("Error uploading file: {}", file.getOriginalFilename(), e.getCause());
             throw new UploadFileFailedException("Error uploading file: " + file.getOriginalFilename());
         }
     }
@@ -121,27 +119,48 @@ public class SupabaseStorageServiceImpl implements SupabaseStorageService {
             throw new UploadFileFailedException("Exceeded maximum number of files: " + fileUploadConfig.getMaxImages());
         }
 
-        List<ImageUploadResponse> response = new ArrayList<>();
-        List<String> uploadUrls = new ArrayList<>();
+        // Reject the whole batch before anything is sent
+        files.forEach(this::validateImage);
 
-        for (MultipartFile file : files) {
-            try {
-                ImageUploadResponse uploadResponse = uploadImage(file, folder);
-                response.add(uploadResponse);
-                uploadUrls.add(uploadResponse.getImageUrl());
-            } catch (Exception e) {
-                log.error("Error uploading file: {}", file.getOriginalFilename(), e);
-                deleteImages(uploadUrls);
-                throw new UploadFileFailedException("Error uploading file: " + file.getOriginalFilename());
+        List<PendingUpload> uploads = files.stream()
+                .map(file -> startUpload(file, folder))
+                .toList();
+
+        // The first failure cancels the uploads still in flight
+        uploads.forEach(upload -> upload.getResult().whenComplete((response, error) -> {
+            if (error != null) {
+                uploads.forEach(PendingUpload::cancel);
+            }
+        }));
+
+        CompletableFuture.allOf(uploads.stream().map(PendingUpload::getResult).toArray(CompletableFuture[]::new))
+                .exceptionally(error -> null)
+                .join();
+
+        List<ImageUploadResponse> response = new ArrayList<>();
+        String failedFile = null;
+
+        for (int i = 0; i < uploads.size(); i++) {
+            CompletableFuture<ImageUploadResponse> result = uploads.get(i).getResult();
+            if (!result.isCompletedExceptionally()) {
+                response.add(result.join());
+            } else if (failedFile == null) {
+                failedFile = files.get(i).getOriginalFilename();
             }
         }
 
+        if (failedFile != null) {
+            // A cancelled or timed out call may still have been stored, so every object of the batch is rolled back
+            log.error("Error uploading file: {}, rolling back {} uploads", failedFile, uploads.size());
+            deleteImages(uploads.stream().flatMap(upload -> upload.storedUrls().stream()).toList());
+            throw new UploadFileFailedException("Error uploading file: " + failedFile);
+        }
+
         log.info("Successfully uploaded {} files to Supabase Storage", response.size());
 
         return response;
     }
 
-
     @Override
     public void deleteImage(String imageUrl) {
         if (imageUrl == null || imageUrl.isEmpty()) {
@@ -151,7 +170,7 @@ public class SupabaseStorageServiceImpl implements SupabaseStorageService {
         log.info("Deleting image at path: {} from Supabase Storage", imageUrl);
 
         try {
-            String objectPath = extractPathFromUrl(imageUrl);
+            String objectPath = StoragePaths.objectPath(imageUrl, bucketName);
 
             Request request = new Request.Builder()
                     .url(supabaseUrl + "/storage/v1/object/" + bucketName + "/" + objectPath)
@@ -218,26 +237,161 @@ public class SupabaseStorageServiceImpl implements SupabaseStorageService {
         return UUID.randomUUID().toString() + "_" + Instant.now().getEpochSecond() + "." + extension;
     }
 
-    private String getPublicUrl(String objectPath) {
-        String path = objectPath.replaceAll("^/+", "");
-        return publicUrl.replaceAll("/+$", "") + "/" +
-                bucketName + "/" + path;
+    @Override
+    public void destroy() {
+        uploadExecutor.shutdown();
+    }
+
+    /**
+     * Resizes the image on the processing pool, then stores it together with its thumbnail
+     * ({@code <name>_thumb.<ext>} in the same folder). Images that are stored as is use themselves as thumbnail.
+     */
+    private PendingUpload startUpload(MultipartFile file, String folder) {
+        String fileName = generateFileName(file.getOriginalFilename());
+        String objectPath = StoragePaths.join(folder, fileName);
+        String thumbnailPath = StoragePaths.join(folder, FilenameUtils.getBaseName(fileName) + THUMBNAIL_SUFFIX
+                + "." + FilenameUtils.getExtension(fileName));
+
+        String ct = file.getContentType();
+        MediaType mediaType = (ct != null) ? MediaType.get(ct) : MediaType.parse("application/octet-stream");
+
+        String imageUrl = StoragePaths.publicUrl(publicUrl, bucketName, objectPath);
+        PendingUpload pending = new PendingUpload(imageUrl);
+
+        imageProcessingService.process(file)
+                .thenCompose(processed -> {
+                    if (processed == null) {
+                        return send(pending, objectPath, streamingBody(file, mediaType), file)
+                                .thenApply(ignored -> buildResponse(fileName, imageUrl, imageUrl, file.getSize()));
+                    }
+
+                    String thumbnailUrl = StoragePaths.publicUrl(publicUrl, bucketName, thumbnailPath);
+                    pending.setThumbnailUrl(thumbnailUrl);
+
+                    return send(pending, objectPath, RequestBody.create(processed.getContent(), mediaType), file)
+                            .thenCombine(send(pending, thumbnailPath, RequestBody.create(processed.getThumbnail(), mediaType), file),
+                                    (main, thumbnail) -> buildResponse(fileName, imageUrl, thumbnailUrl, processed.getContent().length));
+                })
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        pending.getResult().completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+                    } else {
+                        pending.getResult().complete(response);
+                    }
+                });
+
+        return pending;
+    }
+
+    private CompletableFuture<Void> send(PendingUpload pending, String objectPath, RequestBody body, MultipartFile file) {
+        CompletableFuture<Void> sent = new CompletableFuture<>();
+
+        if (pending.isCancelled()) {
+            sent.completeExceptionally(new UploadFileFailedException("Upload cancelled: " + file.getOriginalFilename()));
+            return sent;
+        }
+
+        HttpUrl url = Objects.requireNonNull(HttpUrl.parse(supabaseUrl))
+                .newBuilder()
+                .addPathSegments("storage/v1/object")
+                .addPathSegment(bucketName)
+                .addPathSegments(objectPath)
+                .build();
+
+        Request request = new Request.Builder()
+                .url(url)
+                .post(body)
+                .addHeader("Authorization", "Bearer " + serviceKey)
+                .addHeader("apikey", serviceKey)
+                .addHeader("x-upsert", "true")
+                .build();
+
+        Call call = httpClient.newCall(request);
+        pending.getCalls().add(call);
+
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                sent.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) throws IOException {
+                try (response) {
+                    if (!response.isSuccessful()) {
+                        String errorBody = response.body() != null ? response.body().string() : "Unknown error";
+                        log.error("Failed to upload file: {}. Response code: {}, Body: {}", file.getOriginalFilename(), response.code(), errorBody);
+                        sent.completeExceptionally(new UploadFileFailedException("Failed to upload file: " + file.getOriginalFilename()));
+                        return;
+                    }
+
+                    log.info("Successfully uploaded file: {} to Supabase Storage. Path: {}", file.getOriginalFilename(), objectPath);
+                    sent.complete(null);
+                }
+            }
+        });
+
+        // cancel() may have run between the check above and registering the call
+        if (pending.isCancelled()) {
+            call.cancel();
+        }
+
+        return sent;
     }
 
-    private String joinPath(String... parts) {
-        String joined = String.join("/", parts)
-                .replaceAll("/{2,}", "/");
-        return joined.replaceAll('^' + "/", "")
-                .replaceAll("/$", "");
+    private ImageUploadResponse buildResponse(String fileName, String imageUrl, String thumbnailUrl, long fileSize) {
+        return ImageUploadResponse.builder()
+                .fileName(fileName)
+                .imageUrl(imageUrl)
+                .thumbnailUrl(thumbnailUrl)
+                .fileSize(fileSize)
+                .build();
     }
 
-    private String extractPathFromUrl(String url) {
-        if (url.contains("storage/v1/object/public/")) {
-            String[] parts = url.split("storage/v1/object/public/" + bucketName + "/");
-            if (parts.length > 1) {
-                return parts[1];
+    // Streams the multipart content (temp file or in-memory part) instead of copying it into a byte[]
+    private RequestBody streamingBody(MultipartFile file, MediaType mediaType) {
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return mediaType;
+            }
+
+            @Override
+            public long contentLength() {
+                return file.getSize();
+            }
+
+            @Override
+            public boolean isOneShot() {
+                return true;
             }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                try (Source source = Okio.source(file.getInputStream())) {
+                    sink.writeAll(source);
+                }
+            }
+        };
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class PendingUpload {
+        private final String imageUrl;
+        private final CompletableFuture<ImageUploadResponse> result = new CompletableFuture<>();
+        private final List<Call> calls = new CopyOnWriteArrayList<>();
+        @Setter
+        private volatile String thumbnailUrl;
+        private volatile boolean cancelled;
+
+        void cancel() {
+            cancelled = true;
+            calls.forEach(Call::cancel);
+        }
+
+        List<String> storedUrls() {
+            return thumbnailUrl != null ? List.of(imageUrl, thumbnailUrl) : List.of(imageUrl);
         }
-        return url;
     }
 }
@@ -0,0 +1,93 @@
+/*
+ * @ (#) TagServiceImpl.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.services.impl;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import vn.tphcm.itemservice.models.Tag;
+import vn.tphcm.itemservice.repositories.TagRepository;
+import vn.tphcm.itemservice.services.TagService;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j(topic = "TAG-SERVICE")
+public class TagServiceImpl implements TagService {
+    // Sorted input keeps concurrent upserts of overlapping tag sets from deadlocking on the unique index
+    private static final String UPSERT_TAGS_SQL =
+            "INSERT INTO tbl_tags (name) SELECT UNNEST(?::VARCHAR[]) ON CONFLICT (name) DO NOTHING";
+
+    private static final String LINK_TAGS_SQL =
+            "INSERT INTO tbl_item_tags (item_id, tag_id) SELECT ?, g.id FROM tbl_tags g WHERE g.name = ANY(?::VARCHAR[]) " +
+                    "ON CONFLICT DO NOTHING";
+
+    private final TagRepository tagRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public Set<Tag> resolveTags(Collection<String> names) {
+        List<String> normalized = normalize(names);
+        if (normalized.isEmpty()) {
+            return new LinkedHashSet<>();
+        }
+
+        jdbcTemplate.update(UPSERT_TAGS_SQL, (Object) sorted(normalized));
+
+        Map<String, Tag> byName = tagRepository.findByNameIn(normalized).stream()
+                .collect(Collectors.toMap(Tag::getName, Function.identity()));
+
+        return normalized.stream()
+                .map(byName::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    @Override
+    @Transactional
+    public int addTagsToItem(String itemId, Collection<String> names) {
+        List<String> normalized = normalize(names);
+        if (normalized.isEmpty()) {
+            return 0;
+        }
+
+        String[] tagNames = sorted(normalized);
+        jdbcTemplate.update(UPSERT_TAGS_SQL, (Object) tagNames);
+
+        int linked = jdbcTemplate.update(LINK_TAGS_SQL, itemId, tagNames);
+        log.info("Linked {} new tags to item {}", linked, itemId);
+
+        return linked;
+    }
+
+    private List<String> normalize(Collection<String> names) {
+        if (names == null) {
+            return List.of();
+        }
+
+        return names.stream()
+                .filter(Objects::nonNull)
+                .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                .filter(name -> !name.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    private String[] sorted(List<String> names) {
+        return names.stream().sorted().toArray(String[]::new);
+    }
+}
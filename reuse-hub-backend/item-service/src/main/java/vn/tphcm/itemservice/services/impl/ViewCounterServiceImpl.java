@@ -0,0 +1,156 @@
+/*
+ * @ (#) ViewCounterServiceImpl.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.services.impl;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import vn.tphcm.itemservice.services.CacheService;
+import vn.tphcm.itemservice.services.ViewCounterService;
+import vn.tphcm.itemservice.utils.WriteBehindBuffer;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind view counter. Each view is one pipelined round trip to Redis (HINCRBY on a pending hash and RPUSH of the
+ * interaction), and a scheduled flush moves the whole pending hash to tbl_items with UPDATE ... FROM (VALUES ...) in one
+ * transaction, see {@link WriteBehindBuffer}. A Redis lock makes sure only one item-service replica flushes at a time.
+ */
+@Service
+@Slf4j(topic = "VIEW-COUNTER-SERVICE")
+public class ViewCounterServiceImpl implements ViewCounterService {
+    private static final String PENDING_SINCE_KEY = "item:views:pending:since";
+    private static final Duration FLUSH_LOCK_TTL = Duration.ofSeconds(30);
+    private static final String INSERT_INTERACTION = "INSERT INTO tbl_item_interaction (id, user_id, interaction_type, item_id, created_at, updated_at) " +
+            "VALUES (?, ?, CAST('VIEW' AS interaction_type), ?, ?, ?)";
+
+    private final StringRedisTemplate redisTemplate;
+    private final CacheService cacheService;
+    private final WriteBehindBuffer buffer;
+
+    private final DistributionSummary flushBatchSize;
+    private final DistributionSummary interactionBatchSize;
+    private final Timer flushLag;
+    private final Timer flushDuration;
+    private final Counter flushFailures;
+
+    public ViewCounterServiceImpl(StringRedisTemplate redisTemplate,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  CacheService cacheService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${item.view-counter.batch-size:1000}") int batchSize,
+                                  @Value("${item.view-counter.drain-budget-ms:10000}") long drainBudgetMs) {
+        this.redisTemplate = redisTemplate;
+        this.cacheService = cacheService;
+        this.buffer = new WriteBehindBuffer(redisTemplate, jdbcTemplate, transactionManager, "item:views",
+                "view_count = i.view_count + v.delta, updated_at = now()", batchSize, FLUSH_LOCK_TTL, Duration.ofMillis(drainBudgetMs));
+
+        this.flushBatchSize = DistributionSummary.builder("item.views.flush.batch.size")
+                .description("Items updated per view-count flush")
+                .register(meterRegistry);
+        this.interactionBatchSize = DistributionSummary.builder("item.views.interactions.batch.size")
+                .description("VIEW interactions inserted per flush")
+                .register(meterRegistry);
+        this.flushLag = Timer.builder("item.views.flush.lag")
+                .description("Age of the oldest unflushed view when the flush starts")
+                .register(meterRegistry);
+        this.flushDuration = Timer.builder("item.views.flush.duration")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("item.views.flush.failures")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public long recordView(String itemId, String userId) {
+        try {
+            String now = String.valueOf(System.currentTimeMillis());
+
+            List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection conn = (StringRedisConnection) connection;
+                conn.hIncrBy(buffer.getPendingKey(), itemId, 1);
+                conn.rPush(buffer.getInteractionsKey(), itemId + "|" + userId + "|" + now);
+                conn.setNX(PENDING_SINCE_KEY, now);
+                return null;
+            });
+
+            return results.isEmpty() || results.get(0) == null ? 0 : ((Number) results.get(0)).longValue();
+        } catch (Exception e) {
+            log.error("Failed to record view for item {}: {}", itemId, e.getMessage());
+            return 0;
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${item.view-counter.flush-interval-ms:5000}")
+    public void flush() {
+        try {
+            buffer.runLocked(() -> flushDuration.record(() -> {
+                flushViewCounts();
+                flushInteractions();
+            }));
+        } catch (Exception e) {
+            flushFailures.increment();
+            log.error("Failed to flush view counters: {}", e.getMessage(), e);
+        }
+    }
+
+    private void flushViewCounts() {
+        List<String> itemIds = buffer.flushDeltas(() -> {
+            String since = redisTemplate.opsForValue().getAndDelete(PENDING_SINCE_KEY);
+            if (since != null) {
+                flushLag.record(System.currentTimeMillis() - Long.parseLong(since), TimeUnit.MILLISECONDS);
+            }
+        });
+        if (itemIds.isEmpty()) {
+            return;
+        }
+
+        flushBatchSize.record(itemIds.size());
+
+        // Cached detail responses carry the old view_count, drop them so the next read sees the flushed value
+        itemIds.forEach(cacheService::evictCachedItem);
+
+        log.info("Flushed view counts for {} items", itemIds.size());
+    }
+
+    private void flushInteractions() {
+        int inserted = buffer.drainInteractions(INSERT_INTERACTION, entry -> {
+            String[] parts = entry.split("\\|", 3);
+            if (parts.length < 3) {
+                return null;
+            }
+            LocalDateTime viewedAt = LocalDateTime.ofInstant(
+                    Instant.ofEpochMilli(Long.parseLong(parts[2])), TimeZone.getDefault().toZoneId());
+            return new Object[]{UUID.randomUUID().toString(), parts[1], parts[0], viewedAt, viewedAt};
+        });
+
+        if (inserted > 0) {
+            interactionBatchSize.record(inserted);
+        }
+    }
+}
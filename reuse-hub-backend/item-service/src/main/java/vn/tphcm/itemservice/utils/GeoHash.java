@@ -0,0 +1,166 @@
+/*
+ * @ (#) GeoHash.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.utils;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Minimal geohash codec used to bucket nearby searches: a cell of precision 7 is about 150 m wide,
+ * precision 5 about 4.9 km.
+ */
+public final class GeoHash {
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+    private static final double METERS_PER_DEGREE_LATITUDE = 111_320.0;
+    private static final double EARTH_RADIUS_METERS = 6_371_008.8;
+    // Distances on the sphere stay within this fraction of the spheroid distances PostGIS computes for geography
+    private static final double SPHERE_ERROR = 0.006;
+
+    private GeoHash() {
+    }
+
+    public static String encode(double latitude, double longitude, int precision) {
+        double[] latRange = {-90.0, 90.0};
+        double[] lonRange = {-180.0, 180.0};
+
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bit = 0;
+        int ch = 0;
+
+        while (hash.length() < precision) {
+            double[] range = evenBit ? lonRange : latRange;
+            double value = evenBit ? longitude : latitude;
+            double mid = (range[0] + range[1]) / 2;
+
+            if (value >= mid) {
+                ch = (ch << 1) | 1;
+                range[0] = mid;
+            } else {
+                ch = ch << 1;
+                range[1] = mid;
+            }
+
+            evenBit = !evenBit;
+            if (++bit == 5) {
+                hash.append(BASE32.charAt(ch));
+                bit = 0;
+                ch = 0;
+            }
+        }
+
+        return hash.toString();
+    }
+
+    /**
+     * @return {@code {minLat, minLon, maxLat, maxLon}} of the cell
+     */
+    public static double[] bounds(String hash) {
+        double[] latRange = {-90.0, 90.0};
+        double[] lonRange = {-180.0, 180.0};
+        boolean evenBit = true;
+
+        for (int i = 0; i < hash.length(); i++) {
+            int value = BASE32.indexOf(hash.charAt(i));
+            if (value < 0) {
+                throw new IllegalArgumentException("Invalid geohash: " + hash);
+            }
+
+            for (int shift = 4; shift >= 0; shift--) {
+                double[] range = evenBit ? lonRange : latRange;
+                double mid = (range[0] + range[1]) / 2;
+                if (((value >> shift) & 1) == 1) {
+                    range[0] = mid;
+                } else {
+                    range[1] = mid;
+                }
+                evenBit = !evenBit;
+            }
+        }
+
+        return new double[]{latRange[0], lonRange[0], latRange[1], lonRange[1]};
+    }
+
+    /**
+     * @return {@code {latitude, longitude}} of the cell center
+     */
+    public static double[] center(String hash) {
+        double[] bounds = bounds(hash);
+        return new double[]{(bounds[0] + bounds[2]) / 2, (bounds[1] + bounds[3]) / 2};
+    }
+
+    /**
+     * Great-circle distance on the mean-radius sphere.
+     */
+    public static double distanceMeters(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double dLat = Math.toRadians(latitude2 - latitude1);
+        double dLon = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * Radius a search from the center of a cell needs so that it holds everything within {@code radiusMeters}
+     * ({@link #distanceMeters}) of any point of the cell: half the cell diagonal where cells are widest, at the
+     * equator, and the gap to the spheroid distances of the database on top.
+     */
+    public static double paddedRadius(double radiusMeters, int precision) {
+        int bits = precision * 5;
+        double latSpan = 180.0 / (1L << (bits / 2));
+        double lonSpan = 360.0 / (1L << (bits - bits / 2));
+        double halfDiagonal = Math.hypot(latSpan, lonSpan) / 2 * METERS_PER_DEGREE_LATITUDE;
+        return (radiusMeters + halfDiagonal) * (1 + SPHERE_ERROR);
+    }
+
+    /**
+     * Whether a search from the cell center that returned {@code farthest} as its last row, in distance order, is
+     * sure to hold every row closer than {@code distance} to a point {@code offset} away from the center.
+     */
+    public static boolean reaches(double farthest, double offset, double distance) {
+        return distance + offset < farthest * (1 - 2 * SPHERE_ERROR);
+    }
+
+    /**
+     * Every cell of the given precision that intersects the box of {@code radiusMeters} around a point.
+     */
+    public static Set<String> covering(double latitude, double longitude, double radiusMeters, int precision) {
+        double latDelta = radiusMeters / METERS_PER_DEGREE_LATITUDE;
+        double cosLat = Math.max(Math.cos(Math.toRadians(latitude)), 0.01);
+        double lonDelta = Math.min(radiusMeters / (METERS_PER_DEGREE_LATITUDE * cosLat), 180.0);
+
+        double minLat = Math.max(latitude - latDelta, -90.0);
+        double maxLat = Math.min(latitude + latDelta, 90.0);
+        double minLon = longitude - lonDelta;
+        double maxLon = longitude + lonDelta;
+
+        double[] cell = bounds(encode(latitude, longitude, precision));
+        // Half a cell per step so no cell is skipped at the box edges
+        double latStep = (cell[2] - cell[0]) / 2;
+        double lonStep = (cell[3] - cell[1]) / 2;
+
+        Set<String> cells = new LinkedHashSet<>();
+        for (double lat = minLat; lat < maxLat + latStep; lat += latStep) {
+            for (double lon = minLon; lon < maxLon + lonStep; lon += lonStep) {
+                cells.add(encode(Math.min(lat, maxLat), normalizeLongitude(Math.min(lon, maxLon)), precision));
+            }
+        }
+
+        return cells;
+    }
+
+    private static double normalizeLongitude(double longitude) {
+        if (longitude > 180.0) {
+            return longitude - 360.0;
+        }
+        return longitude < -180.0 ? longitude + 360.0 : longitude;
+    }
+}
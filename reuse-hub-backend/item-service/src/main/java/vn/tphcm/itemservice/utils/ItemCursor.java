@@ -0,0 +1,71 @@
+/*
+ * @ (#) ItemCursor.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.utils;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+import vn.tphcm.itemservice.exceptions.InvalidDataException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position: the sort key of the last row of a page plus its id as tie breaker.
+ * Encoded as base64url of {@code sortKey|sortValue|id}, where the sort key is {@code property:direction}.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemCursor {
+    private static final String SEPARATOR = "|";
+
+    private final String sortKey;
+
+    private final String sortValue;
+
+    private final String id;
+
+    public String encode() {
+        String raw = sortKey + SEPARATOR + sortValue + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String sortKey(Sort.Order order) {
+        return order.getProperty() + ":" + (order.isAscending() ? "asc" : "desc");
+    }
+
+    /**
+     * @return the decoded cursor, or {@code null} for the first page
+     */
+    public static ItemCursor decode(String token, String expectedSortKey) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidDataException("Invalid cursor");
+        }
+
+        String[] parts = raw.split("\\|", 3);
+        if (parts.length != 3 || parts[2].isEmpty()) {
+            throw new InvalidDataException("Invalid cursor");
+        }
+
+        if (!parts[0].equals(expectedSortKey)) {
+            throw new InvalidDataException("Cursor was issued for a different sort: " + parts[0]);
+        }
+
+        return new ItemCursor(parts[0], parts[1], parts[2]);
+    }
+}
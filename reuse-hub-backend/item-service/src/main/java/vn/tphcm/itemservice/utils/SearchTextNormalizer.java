@@ -0,0 +1,57 @@
+/*
+ * @ (#) SearchTextNormalizer.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.utils;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Folds Vietnamese text the same way the {@code item_search_vector} SQL function does
+ * (lower-case, diacritics removed, "đ" -> "d") and turns a user keyword into a prefix tsquery.
+ */
+public final class SearchTextNormalizer {
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^a-z0-9]+");
+    private static final int MAX_TERMS = 8;
+
+    private SearchTextNormalizer() {
+    }
+
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("")
+                .replace('đ', 'd');
+    }
+
+    /**
+     * @return a tsquery such as {@code dien:* & thoai:*}, or {@code null} when the keyword has no searchable term
+     */
+    public static String toPrefixTsQuery(String keyword) {
+        String folded = fold(keyword);
+
+        String query = Arrays.stream(NON_WORD.split(folded))
+                .filter(term -> !term.isBlank())
+                .distinct()
+                .limit(MAX_TERMS)
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+
+        return query.isEmpty() ? null : query;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * @ (#) SingleFlightLoader.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.utils;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same cache key inside this replica: the first caller runs the loader,
+ * every caller arriving while it runs waits on the same future and gets the same value (or exception).
+ */
+@Component
+@Slf4j(topic = "SINGLE-FLIGHT")
+public class SingleFlightLoader {
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final long waitTimeoutMs;
+
+    public SingleFlightLoader(MeterRegistry meterRegistry,
+                              @Value("${item.cache.single-flight-wait-ms:5000}") long waitTimeoutMs) {
+        this.meterRegistry = meterRegistry;
+        this.waitTimeoutMs = waitTimeoutMs;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T load(String cache, String key, Supplier<T> loader) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+
+        if (existing != null) {
+            meterRegistry.counter("item.cache.load", "cache", cache, "result", "coalesced").increment();
+            return (T) await(key, existing, loader);
+        }
+
+        meterRegistry.counter("item.cache.load", "cache", cache, "result", "loaded").increment();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            T value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            sample.stop(loadTimer(cache));
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * @return the mean load time of a cache on this replica, or {@code defaultMillis} before its first load
+     */
+    public double averageLoadMillis(String cache, double defaultMillis) {
+        Timer timer = loadTimer(cache);
+        return timer.count() == 0 ? defaultMillis : timer.mean(TimeUnit.MILLISECONDS);
+    }
+
+    private Object await(String key, CompletableFuture<Object> flight, Supplier<?> loader) {
+        try {
+            return flight.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Load failed for key " + key, e.getCause());
+        } catch (TimeoutException e) {
+            // A stuck leader must not stall every follower, load independently instead
+            log.warn("Timed out after {} ms waiting for in-flight load of {}", waitTimeoutMs, key);
+            return loader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for key " + key, e);
+        }
+    }
+
+    private Timer loadTimer(String cache) {
+        return meterRegistry.timer("item.cache.load.duration", "cache", cache);
+    }
+}
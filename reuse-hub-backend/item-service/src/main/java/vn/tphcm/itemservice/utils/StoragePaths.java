@@ -0,0 +1,50 @@
+/*
+ * @ (#) StoragePaths.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.utils;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+/**
+ * Object path helpers for the Supabase storage bucket, kept free of state so they can be benchmarked on their own.
+ */
+public final class StoragePaths {
+    private static final String PUBLIC_OBJECT_PREFIX = "storage/v1/object/public/";
+
+    private StoragePaths() {
+    }
+
+    /**
+     * Joins path segments with single slashes, without a leading or trailing slash.
+     */
+    public static String join(String... parts) {
+        String joined = String.join("/", parts)
+                .replaceAll("/{2,}", "/");
+        return joined.replaceAll('^' + "/", "")
+                .replaceAll("/$", "");
+    }
+
+    public static String publicUrl(String baseUrl, String bucketName, String objectPath) {
+        String path = objectPath.replaceAll("^/+", "");
+        return baseUrl.replaceAll("/+$", "") + "/" +
+                bucketName + "/" + path;
+    }
+
+    /**
+     * @return the object path inside the bucket, or the url itself when it is not a public object url of the bucket
+     */
+    public static String objectPath(String url, String bucketName) {
+        if (url.contains(PUBLIC_OBJECT_PREFIX)) {
+            String[] parts = url.split(PUBLIC_OBJECT_PREFIX + bucketName + "/");
+            if (parts.length > 1) {
+                return parts[1];
+            }
+        }
+        return url;
+    }
+}
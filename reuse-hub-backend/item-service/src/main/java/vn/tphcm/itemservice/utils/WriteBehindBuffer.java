@@ -0,0 +1,226 @@
+/*
+ * @ (#) WriteBehindBuffer.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.utils;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Redis side of a write-behind counter on tbl_items: per-item deltas accumulate in a pending hash and interaction
+ * entries in a list, and a scheduled flush moves both to Postgres under a lock so only one replica flushes at a time.
+ * <p>
+ * The flush renames the pending hash to a flushing hash and applies that snapshot in one transaction. The flushing
+ * hash is deleted only after the commit, so a failed flush is retried with the same snapshot and never applied in part.
+ * Each snapshot carries a flush id that the transaction records in tbl_counter_flushes, so a snapshot whose delete was
+ * lost after the commit (crash, Redis error) is recognized on the retry and dropped instead of counted twice.
+ * Interaction entries are drained batch by batch until the list is empty or the time budget of the flush is used up.
+ */
+@Slf4j(topic = "WRITE-BEHIND-BUFFER")
+public class WriteBehindBuffer {
+    private static final RedisScript<Long> RENEW_LOCK = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+
+    private static final String RECORD_FLUSH = "INSERT INTO tbl_counter_flushes (flush_id) VALUES (?) ON CONFLICT DO NOTHING";
+    // Far longer than a snapshot can wait for its retry
+    private static final String PRUNE_FLUSHES = "DELETE FROM tbl_counter_flushes WHERE flushed_at < now() - INTERVAL '1 day'";
+
+    private static final RedisScript<Long> RELEASE_LOCK = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Getter
+    private final String pendingKey;
+    private final String flushingKey;
+    private final String flushIdKey;
+    @Getter
+    private final String interactionsKey;
+    private final String lockKey;
+
+    // e.g. "view_count = i.view_count + v.delta", applied to tbl_items AS i joined with the (id, delta) values
+    private final String setClause;
+    private final int batchSize;
+    private final Duration lockTtl;
+    private final Duration drainBudget;
+
+    private final ThreadLocal<String> lockToken = new ThreadLocal<>();
+
+    public WriteBehindBuffer(StringRedisTemplate redisTemplate, JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager, String keyPrefix, String setClause,
+                             int batchSize, Duration lockTtl, Duration drainBudget) {
+        this.redisTemplate = redisTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pendingKey = keyPrefix + ":pending";
+        this.flushingKey = keyPrefix + ":flushing";
+        this.flushIdKey = keyPrefix + ":flush-id";
+        this.interactionsKey = keyPrefix + ":interactions";
+        this.lockKey = keyPrefix + ":flush-lock";
+        this.setClause = setClause;
+        this.batchSize = batchSize;
+        this.lockTtl = lockTtl;
+        this.drainBudget = drainBudget;
+    }
+
+    /**
+     * Runs the flush unless another replica holds the lock. The lock carries a token of this run, so a run that
+     * outlived its lock never releases the lock of the next one.
+     *
+     * @return false when the lock was held
+     */
+    public boolean runLocked(Runnable flush) {
+        String token = UUID.randomUUID().toString();
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey, token, lockTtl))) {
+            return false;
+        }
+
+        lockToken.set(token);
+        try {
+            flush.run();
+        } finally {
+            lockToken.remove();
+            try {
+                redisTemplate.execute(RELEASE_LOCK, List.of(lockKey), token);
+            } catch (DataAccessException e) {
+                log.warn("Could not release {}, it expires in {}: {}", lockKey, lockTtl, e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    public List<String> flushDeltas() {
+        return flushDeltas(() -> {
+        });
+    }
+
+    /**
+     * Applies the pending deltas to tbl_items in one transaction. A snapshot left over by a failed flush is applied
+     * first, unless its transaction already committed; {@code beforeSnapshot} only runs when a new one is about to be
+     * taken.
+     *
+     * @return ids of the items whose counter changed, including those of a snapshot that turned out to be applied
+     */
+    public List<String> flushDeltas(Runnable beforeSnapshot) {
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(flushingKey))) {
+            beforeSnapshot.run();
+            if (!Boolean.TRUE.equals(redisTemplate.hasKey(pendingKey))) {
+                return List.of();
+            }
+            // Set ahead of the rename: an id left without a snapshot is simply replaced by the next one
+            redisTemplate.opsForValue().set(flushIdKey, UUID.randomUUID().toString());
+            if (!Boolean.TRUE.equals(redisTemplate.renameIfAbsent(pendingKey, flushingKey))) {
+                return List.of();
+            }
+        }
+
+        // A snapshot taken before flush ids existed gets one now
+        redisTemplate.opsForValue().setIfAbsent(flushIdKey, UUID.randomUUID().toString());
+        String flushId = redisTemplate.opsForValue().get(flushIdKey);
+        Map<Object, Object> pending = redisTemplate.opsForHash().entries(flushingKey);
+
+        List<Object[]> deltas = new ArrayList<>(pending.size());
+        pending.forEach((itemId, delta) -> {
+            long value = Long.parseLong(delta.toString());
+            if (value != 0) {
+                deltas.add(new Object[]{itemId.toString(), value});
+            }
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (jdbcTemplate.update(RECORD_FLUSH, flushId) == 0) {
+                log.warn("Snapshot {} of {} was already applied, dropping it", flushId, flushingKey);
+                return;
+            }
+            for (int from = 0; from < deltas.size(); from += batchSize) {
+                applyDeltas(deltas.subList(from, Math.min(from + batchSize, deltas.size())));
+            }
+            jdbcTemplate.update(PRUNE_FLUSHES);
+        });
+        redisTemplate.delete(List.of(flushingKey, flushIdKey));
+
+        return deltas.stream().map(delta -> (String) delta[0]).toList();
+    }
+
+    /**
+     * Inserts interaction entries until the list is empty, the drain budget is used up or the lock was lost. A batch
+     * that could not be inserted is pushed back in order for the next flush.
+     *
+     * @param toRow maps an entry to the insert arguments, or {@code null} to skip a malformed one
+     * @return rows inserted
+     */
+    public int drainInteractions(String insertSql, Function<String, Object[]> toRow) {
+        long deadline = System.nanoTime() + drainBudget.toNanos();
+        int drained = 0;
+
+        do {
+            List<String> entries = redisTemplate.opsForList().leftPop(interactionsKey, batchSize);
+            if (entries == null || entries.isEmpty()) {
+                break;
+            }
+
+            List<Object[]> rows = entries.stream().map(toRow).filter(Objects::nonNull).toList();
+            try {
+                jdbcTemplate.batchUpdate(insertSql, rows);
+            } catch (DataAccessException e) {
+                List<String> retry = new ArrayList<>(entries);
+                Collections.reverse(retry);
+                redisTemplate.opsForList().leftPushAll(interactionsKey, retry);
+                throw e;
+            }
+            drained += rows.size();
+        } while (System.nanoTime() < deadline && renewLock());
+
+        return drained;
+    }
+
+    private void applyDeltas(List<Object[]> deltas) {
+        StringBuilder sql = new StringBuilder("UPDATE tbl_items AS i SET ").append(setClause).append(" FROM (VALUES ");
+        Object[] args = new Object[deltas.size() * 2];
+
+        for (int idx = 0; idx < deltas.size(); idx++) {
+            sql.append(idx == 0 ? "" : ", ").append("(?, CAST(? AS INTEGER))");
+            args[idx * 2] = deltas.get(idx)[0];
+            args[idx * 2 + 1] = deltas.get(idx)[1];
+        }
+        sql.append(") AS v(id, delta) WHERE i.id = v.id");
+
+        jdbcTemplate.update(sql.toString(), args);
+    }
+
+    // Outside runLocked there is no lock to keep
+    private boolean renewLock() {
+        String token = lockToken.get();
+        if (token == null) {
+            return true;
+        }
+        Long renewed = redisTemplate.execute(RENEW_LOCK, List.of(lockKey), token, String.valueOf(lockTtl.toMillis()));
+        if (!Long.valueOf(1).equals(renewed)) {
+            log.warn("Lost {} while draining interactions, leaving the rest to the next flush", lockKey);
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * @ (#) ItemListingQueryCountTest.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.repositories;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import vn.tphcm.itemservice.commons.ItemStatus;
+import vn.tphcm.itemservice.dtos.ItemSummary;
+import vn.tphcm.itemservice.mapper.ItemMapper;
+import vn.tphcm.itemservice.mapper.ItemMapperImpl;
+import vn.tphcm.itemservice.models.Category;
+import vn.tphcm.itemservice.models.Item;
+import vn.tphcm.itemservice.models.Tag;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Guards the number of statements behind a listing page: it must not grow with the page size.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class ItemListingQueryCountTest {
+    private static final int SMALL_PAGE = 5;
+    private static final int LARGE_PAGE = 40;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(
+            DockerImageName.parse("postgis/postgis:16-3.4").asCompatibleSubstituteFor("postgres"));
+
+    // Only the JPA layer, the application class would also pull in Feign clients and scheduling
+    @Configuration
+    @EntityScan(basePackageClasses = Item.class)
+    @EnableJpaRepositories(basePackageClasses = ItemRepository.class)
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final ItemMapper itemMapper = new ItemMapperImpl();
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Category category = entityManager.persist(Category.builder().name("Books").slug("books").build());
+        Tag common = entityManager.persist(Tag.builder().name("common").build());
+        List<Tag> tags = IntStream.range(0, 4)
+                .mapToObj(i -> entityManager.persist(Tag.builder().name("tag-" + i).build()))
+                .toList();
+
+        IntStream.range(0, LARGE_PAGE * 2).forEach(i -> entityManager.persist(Item.builder()
+                .userId("user-" + (i % 3))
+                .title("Item " + i)
+                .tags(new LinkedHashSet<>(List.of(tags.get(i % 4), common)))
+                .price(1000L * i)
+                .category(category)
+                .build()));
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void statusPageLoadsTagsAndCategoryInFixedQueries() {
+        assertEquals(statementsForStatusPage(SMALL_PAGE), statementsForStatusPage(LARGE_PAGE));
+        // page, count, tags
+        assertEquals(3, statementsForStatusPage(LARGE_PAGE));
+    }
+
+    @Test
+    void categoryAndTagPagesLoadInFixedQueries() {
+        assertEquals(3, countStatements(() -> listed(itemRepository.findByCategorySlugAndStatus("books", ItemStatus.AVAILABLE, page(LARGE_PAGE)))));
+        assertEquals(3, countStatements(() -> listed(itemRepository.findByTagsInAndStatusAvailable(List.of("common"), page(LARGE_PAGE)))));
+        assertEquals(3, countStatements(() -> listed(itemRepository.findByUserIdAndStatusNot("user-1", ItemStatus.DELETED, page(SMALL_PAGE)))));
+    }
+
+    @Test
+    void entityReadsBatchTheirAssociations() {
+        List<String> ids = itemRepository.findAll().stream().map(Item::getId).toList();
+        entityManager.clear();
+
+        long small = countStatements(() -> itemRepository.findAllById(ids.subList(0, SMALL_PAGE)).forEach(itemMapper::toResponse));
+        entityManager.clear();
+        long large = countStatements(() -> itemRepository.findAllById(ids.subList(0, LARGE_PAGE)).forEach(itemMapper::toResponse));
+
+        assertEquals(small, large);
+    }
+
+    private long statementsForStatusPage(int pageSize) {
+        return countStatements(() -> listed(itemRepository.findByStatus(ItemStatus.AVAILABLE, page(pageSize))));
+    }
+
+    private void listed(Page<ItemSummary> page) {
+        itemRepository.fillTags(page.getContent());
+
+        page.map(itemMapper::toResponse).forEach(response -> {
+            assertEquals("Books", response.getCategory());
+            assertFalse(response.getTags().isEmpty());
+        });
+    }
+
+    private long countStatements(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private PageRequest page(int pageSize) {
+        return PageRequest.of(0, pageSize, Sort.by("createdAt").descending());
+    }
+}
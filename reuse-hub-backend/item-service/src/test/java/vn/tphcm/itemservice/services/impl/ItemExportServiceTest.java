@@ -0,0 +1,174 @@
+/*
+ * @ (#) ItemExportServiceTest.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.services.impl;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import vn.tphcm.itemservice.commons.ExportFormat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exports more rows than one cursor fetch holds and checks that every row comes out exactly once in (updated_at, id)
+ * order, that updatedSince reaches back by the watermark overlap, and that counter flushes and writes committing after
+ * the watermark was taken show up in the next incremental export.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ItemExportServiceTest {
+    private static final int ITEMS = 25;
+    private static final int FETCH_SIZE = 4;
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final long OVERLAP_MS = 60_000;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(
+            DockerImageName.parse("postgis/postgis:16-3.4").asCompatibleSubstituteFor("postgres"));
+
+    private static HikariDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+    private static ItemExportServiceImpl exportService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    static void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(postgres.getJdbcUrl());
+        dataSource.setUsername(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS postgis");
+        jdbcTemplate.execute("CREATE TYPE item_status AS ENUM ('AVAILABLE', 'RESERVED', 'SOLD', 'HIDDEN', 'DELETED', 'PENDING', 'REJECTED')");
+        jdbcTemplate.execute("CREATE TABLE tbl_category (id VARCHAR(255) PRIMARY KEY, name VARCHAR(255), slug VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE tbl_items (id VARCHAR(255) PRIMARY KEY, user_id VARCHAR(255) NOT NULL, " +
+                "title VARCHAR(255), description TEXT, address TEXT, location geometry(Point, 4326), " +
+                "status item_status DEFAULT 'AVAILABLE', view_count INTEGER DEFAULT 0, comment_count INTEGER DEFAULT 0, " +
+                "like_count INTEGER DEFAULT 0, rating DOUBLE PRECISION DEFAULT 0, rating_count INTEGER DEFAULT 0, " +
+                "price BIGINT DEFAULT 0, is_premium BOOLEAN DEFAULT FALSE, category_id VARCHAR(255) REFERENCES tbl_category(id), " +
+                "created_at TIMESTAMP DEFAULT NOW(), updated_at TIMESTAMP DEFAULT NOW())");
+        jdbcTemplate.execute("CREATE TABLE tbl_tags (id SERIAL PRIMARY KEY, name VARCHAR(255) NOT NULL UNIQUE)");
+        jdbcTemplate.execute("CREATE TABLE tbl_item_tags (item_id VARCHAR(255) NOT NULL REFERENCES tbl_items(id), " +
+                "tag_id INTEGER NOT NULL REFERENCES tbl_tags(id), PRIMARY KEY (item_id, tag_id))");
+
+        // Pairs of items share an updated_at, so the id tie-break is exercised across fetch boundaries
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            rows.add(new Object[]{String.format("item-%02d", i), "user-1", "Item " + i, Timestamp.valueOf(BASE.plusMinutes(i / 2))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tbl_items (id, user_id, title, updated_at) VALUES (?, ?, ?, ?)", rows);
+
+        exportService = new ItemExportServiceImpl(dataSource, new DataSourceTransactionManager(dataSource),
+                new ObjectMapper(), new SimpleMeterRegistry(), FETCH_SIZE, OVERLAP_MS);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    void exportsEveryRowOnceInUpdatedAtOrderAcrossFetches() throws Exception {
+        List<String> ids = exportIds(null);
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            expected.add(String.format("item-%02d", i));
+        }
+        assertEquals(expected, ids);
+    }
+
+    @Test
+    void updatedSinceReachesBackByTheOverlap() throws Exception {
+        // One minute back from here, item-08 and item-09 carry exactly the lower bound
+        List<String> ids = exportIds(BASE.plusMinutes(5));
+
+        assertEquals(ITEMS - 8, ids.size());
+        assertEquals("item-08", ids.get(0));
+        assertEquals("item-09", ids.get(1));
+        assertEquals(String.format("item-%02d", ITEMS - 1), ids.get(ids.size() - 1));
+    }
+
+    @Test
+    void writeCommittedAfterTheWatermarkIsExported() throws Exception {
+        jdbcTemplate.update("INSERT INTO tbl_items (id, user_id, updated_at) VALUES (?, ?, ?)",
+                "item-late", "user-1", Timestamp.valueOf(BASE));
+
+        try (Connection writer = dataSource.getConnection()) {
+            writer.setAutoCommit(false);
+            try (Statement statement = writer.createStatement()) {
+                // updated_at is the start of this transaction, before the watermark below
+                statement.executeUpdate("UPDATE tbl_items SET title = 'late', updated_at = now() WHERE id = 'item-late'");
+                Thread.sleep(200);
+                LocalDateTime watermark = LocalDateTime.now();
+                writer.commit();
+
+                assertTrue(exportIds(watermark).contains("item-late"));
+            }
+        } finally {
+            jdbcTemplate.update("DELETE FROM tbl_items WHERE id = ?", "item-late");
+        }
+    }
+
+    @Test
+    void counterFlushTouchesUpdatedAt() throws Exception {
+        LocalDateTime watermark = LocalDateTime.now().minusSeconds(1);
+        jdbcTemplate.update("INSERT INTO tbl_items (id, user_id, updated_at) VALUES (?, ?, ?)",
+                "item-flushed", "user-1", Timestamp.valueOf(BASE));
+
+        try {
+            // The statement a view-count flush issues, see WriteBehindBuffer
+            jdbcTemplate.update("UPDATE tbl_items AS i SET view_count = i.view_count + v.delta, updated_at = now() " +
+                    "FROM (VALUES (?, CAST(? AS INTEGER))) AS v(id, delta) WHERE i.id = v.id", "item-flushed", 3);
+
+            assertEquals(List.of("item-flushed"), exportIds(watermark));
+        } finally {
+            jdbcTemplate.update("DELETE FROM tbl_items WHERE id = ?", "item-flushed");
+        }
+    }
+
+    private List<String> exportIds(LocalDateTime updatedSince) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportItems(ExportFormat.NDJSON, null, null, updatedSince).writeTo(out);
+
+        List<String> ids = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isBlank()) {
+                JsonNode row = objectMapper.readTree(line);
+                ids.add(row.get("id").asText());
+            }
+        }
+        return ids;
+    }
+}
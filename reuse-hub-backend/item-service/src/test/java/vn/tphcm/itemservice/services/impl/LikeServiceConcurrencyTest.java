@@ -0,0 +1,199 @@
+/*
+ * @ (#) LikeServiceConcurrencyTest.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.services.impl;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import vn.tphcm.itemservice.services.CacheService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Fires 10k parallel likes (each user twice) while the scheduled flush keeps running, then checks that like_count
+ * and the like set agree exactly. Also replays a snapshot whose delete was lost after its commit.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class LikeServiceConcurrencyTest {
+    private static final String ITEM_ID = "item-1";
+    private static final int USERS = 10_000;
+    private static final int THREADS = 64;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(
+            DockerImageName.parse("postgis/postgis:16-3.4").asCompatibleSubstituteFor("postgres"));
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private static HikariDataSource dataSource;
+    private static LettuceConnectionFactory connectionFactory;
+    private static JdbcTemplate jdbcTemplate;
+    private static StringRedisTemplate redisTemplate;
+    private static LikeServiceImpl likeService;
+
+    @BeforeAll
+    static void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(postgres.getJdbcUrl());
+        dataSource.setUsername(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+        dataSource.setMaximumPoolSize(THREADS);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TYPE interaction_type AS ENUM ('VIEW', 'LIKE', 'UNLIKE', 'SAVE', 'SHARE', 'COMMENT')");
+        jdbcTemplate.execute("CREATE TABLE tbl_items (id VARCHAR(255) PRIMARY KEY, like_count INTEGER NOT NULL DEFAULT 0, " +
+                "updated_at TIMESTAMP DEFAULT NOW())");
+        jdbcTemplate.execute("CREATE TABLE tbl_item_interaction (id VARCHAR(255) PRIMARY KEY, user_id VARCHAR(255), " +
+                "interaction_type interaction_type, item_id VARCHAR(255) REFERENCES tbl_items(id), " +
+                "created_at TIMESTAMP DEFAULT NOW(), updated_at TIMESTAMP DEFAULT NOW())");
+        jdbcTemplate.execute("CREATE TABLE tbl_item_likes (item_id VARCHAR(255) NOT NULL REFERENCES tbl_items(id) ON DELETE CASCADE, " +
+                "user_id VARCHAR(255) NOT NULL, created_at TIMESTAMP NOT NULL DEFAULT NOW(), PRIMARY KEY (item_id, user_id))");
+        jdbcTemplate.execute("CREATE TABLE tbl_counter_flushes (flush_id VARCHAR(64) PRIMARY KEY, " +
+                "flushed_at TIMESTAMP NOT NULL DEFAULT NOW())");
+        jdbcTemplate.update("INSERT INTO tbl_items (id) VALUES (?)", ITEM_ID);
+
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+
+        likeService = new LikeServiceImpl(redisTemplate, jdbcTemplate, new DataSourceTransactionManager(dataSource),
+                mock(CacheService.class), new SimpleMeterRegistry(), 1000, 10_000);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    void parallelLikesAndUnlikesKeepTheCountExact() throws Exception {
+        AtomicInteger liked = new AtomicInteger();
+        runWhileFlushing(USERS * 2, idx -> {
+            // Every user likes twice, only the first one may count
+            if (likeService.like(ITEM_ID, "user-" + (idx % USERS))) {
+                liked.incrementAndGet();
+            }
+        });
+
+        assertEquals(USERS, liked.get());
+        assertEquals(USERS, likeCount());
+        assertEquals(USERS, likeRows());
+
+        int unlikers = USERS / 4;
+        AtomicInteger unliked = new AtomicInteger();
+        runWhileFlushing(unlikers * 2, idx -> {
+            if (likeService.unlike(ITEM_ID, "user-" + (idx % unlikers))) {
+                unliked.incrementAndGet();
+            }
+        });
+
+        assertEquals(unlikers, unliked.get());
+        assertEquals(USERS - unlikers, likeCount());
+        assertEquals(USERS - unlikers, likeRows());
+    }
+
+    @Test
+    void snapshotIsAppliedOnceWhenItsDeleteIsLost() {
+        String itemId = "item-replayed";
+        jdbcTemplate.update("INSERT INTO tbl_items (id) VALUES (?)", itemId);
+        likeService.like(itemId, "user-1");
+        likeService.flush();
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT like_count FROM tbl_items WHERE id = ?", Integer.class, itemId));
+
+        // What Redis still holds when the process dies between the commit and the delete
+        String flushId = jdbcTemplate.queryForObject("SELECT flush_id FROM tbl_counter_flushes ORDER BY flushed_at DESC LIMIT 1",
+                String.class);
+        redisTemplate.opsForHash().put("item:likes:flushing", itemId, "1");
+        redisTemplate.opsForValue().set("item:likes:flush-id", flushId);
+
+        likeService.flush();
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT like_count FROM tbl_items WHERE id = ?", Integer.class, itemId));
+        assertEquals(Boolean.FALSE, redisTemplate.hasKey("item:likes:flushing"));
+    }
+
+    private void runWhileFlushing(int tasks, IntConsumer task) throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(THREADS);
+        ExecutorService flusher = Executors.newSingleThreadExecutor();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            Future<?> flushing = flusher.submit(() -> {
+                while (running.get()) {
+                    likeService.flush();
+                }
+            });
+
+            List<Future<?>> futures = new ArrayList<>(tasks);
+            for (int idx = 0; idx < tasks; idx++) {
+                int current = idx;
+                futures.add(workers.submit(() -> {
+                    start.await();
+                    task.accept(current);
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+
+            running.set(false);
+            flushing.get(1, TimeUnit.MINUTES);
+        } finally {
+            workers.shutdownNow();
+            flusher.shutdownNow();
+        }
+
+        // Drain whatever the last concurrent flush did not pick up
+        likeService.flush();
+    }
+
+    private int likeCount() {
+        return jdbcTemplate.queryForObject("SELECT like_count FROM tbl_items WHERE id = ?", Integer.class, ITEM_ID);
+    }
+
+    private int likeRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tbl_item_likes WHERE item_id = ?", Integer.class, ITEM_ID);
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * @ (#) NearbySearchTest.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.services.impl;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import vn.tphcm.itemservice.dtos.response.ItemResponse;
+import vn.tphcm.itemservice.dtos.response.LocationResponse;
+import vn.tphcm.itemservice.mapper.ItemCommentMapper;
+import vn.tphcm.itemservice.mapper.ItemMapper;
+import vn.tphcm.itemservice.mapper.ItemRatingMapper;
+import vn.tphcm.itemservice.models.Item;
+import vn.tphcm.itemservice.repositories.CategoryRepository;
+import vn.tphcm.itemservice.repositories.ItemCommentRepository;
+import vn.tphcm.itemservice.repositories.ItemRatingRepository;
+import vn.tphcm.itemservice.repositories.ItemRepository;
+import vn.tphcm.itemservice.services.*;
+import vn.tphcm.itemservice.utils.GeoHash;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * A user standing in the corner of a geohash cell: an item close to them but farther than the radius from the cell
+ * center must be found, an item within the radius of the center but not of the user must not, and both the nearby
+ * page and the k-NN list come out in the user's distance order.
+ */
+class NearbySearchTest {
+    private static final double RADIUS = 500;
+
+    private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final ItemMapper itemMapper = mock(ItemMapper.class);
+    private final CacheService cacheService = mock(CacheService.class);
+
+    private double[] user;
+    private List<Item> items;
+    private ItemServiceImpl itemService;
+
+    @BeforeEach
+    void setUp() {
+        double[] cell = GeoHash.bounds(GeoHash.encode(10.7769, 106.7009, 7));
+        user = new double[]{cell[0] + 1e-6, cell[1] + 1e-6};
+        double[] center = GeoHash.center(GeoHash.encode(user[0], user[1], 7));
+
+        items = List.of(
+                // 450 m south-west of the user, about 550 m from the center
+                item("away-from-center", offset(user, -318, -318)),
+                // 480 m north-east of the center, about 590 m from the user
+                item("past-the-user", offset(center, 339, 339)),
+                item("next-to-the-user", offset(user, 70, 70)));
+
+        // Stands in for the GiST queries: everything within the distance of the given point, closest first
+        when(itemRepository.searchItemNearby(anyDouble(), anyDouble(), anyDouble(), any(Pageable.class))).thenAnswer(invocation -> {
+            Pageable pageable = invocation.getArgument(3);
+            List<Item> found = within(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+            int from = (int) Math.min(pageable.getOffset(), found.size());
+            return new PageImpl<>(found.subList(from, Math.min(from + pageable.getPageSize(), found.size())), pageable, found.size());
+        });
+        when(itemRepository.findClosestItems(anyDouble(), anyDouble(), anyDouble(), anyInt())).thenAnswer(invocation ->
+                within(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)).stream()
+                        .limit(invocation.<Integer>getArgument(3))
+                        .toList());
+        when(itemMapper.toResponse(any(Item.class))).thenAnswer(invocation -> {
+            Item item = invocation.getArgument(0);
+            return ItemResponse.builder()
+                    .id(item.getId())
+                    .location(LocationResponse.builder()
+                            .latitude(item.getLocation().getY())
+                            .longitude(item.getLocation().getX())
+                            .build())
+                    .build();
+        });
+
+        itemService = new ItemServiceImpl(itemRepository, itemMapper, mock(ItemCommentMapper.class),
+                mock(ItemRatingMapper.class), cacheService, mock(MessageProducer.class), mock(SupabaseStorageService.class),
+                mock(ItemRatingRepository.class), mock(ItemCommentRepository.class), mock(CategoryRepository.class),
+                mock(ViewCounterService.class), mock(PopularityService.class), mock(LikeService.class), mock(TagService.class));
+        ReflectionTestUtils.setField(itemService, "nearbyCellPrecision", 7);
+        ReflectionTestUtils.setField(itemService, "nearbyMaxCandidates", 200);
+        ReflectionTestUtils.setField(itemService, "nearbyRadiusStepMeters", 100.0);
+        ReflectionTestUtils.setField(itemService, "nearbyMaxRadiusMeters", 10_000.0);
+        ReflectionTestUtils.setField(itemService, "maxClosestItems", 100);
+    }
+
+    @Test
+    void nearbyPageIsCutAndOrderedForTheRealPoint() {
+        List<ItemResponse> page = itemService.searchItemsNearby(user[0], user[1], RADIUS, 0, 10).getData().getContent();
+
+        assertEquals(List.of("next-to-the-user", "away-from-center"), ids(page));
+    }
+
+    @Test
+    void closestItemsAreCutAndOrderedForTheRealPoint() {
+        List<ItemResponse> closest = itemService.getClosestItems(user[0], user[1], RADIUS, 5).getData().getContent();
+
+        assertEquals(List.of("next-to-the-user", "away-from-center"), ids(closest));
+    }
+
+    @Test
+    void crowdedCellIsReadForTheRealPoint() {
+        ReflectionTestUtils.setField(itemService, "nearbyMaxCandidates", 2);
+
+        List<ItemResponse> page = itemService.searchItemsNearby(user[0], user[1], RADIUS, 0, 10).getData().getContent();
+
+        assertEquals(List.of("next-to-the-user", "away-from-center"), ids(page));
+        verify(itemRepository).searchItemNearby(eq(user[0]), eq(user[1]), eq(RADIUS), any(Pageable.class));
+    }
+
+    private List<Item> within(double latitude, double longitude, double distance) {
+        return items.stream()
+                .filter(item -> distance(item, latitude, longitude) <= distance)
+                .sorted(Comparator.comparingDouble(item -> distance(item, latitude, longitude)))
+                .toList();
+    }
+
+    private static double distance(Item item, double latitude, double longitude) {
+        return GeoHash.distanceMeters(latitude, longitude, item.getLocation().getY(), item.getLocation().getX());
+    }
+
+    private Item item(String id, double[] point) {
+        Item item = Item.builder()
+                .location(geometryFactory.createPoint(new Coordinate(point[1], point[0])))
+                .build();
+        item.setId(id);
+        return item;
+    }
+
+    private static double[] offset(double[] point, double northMeters, double eastMeters) {
+        double metersPerDegree = 111_195.0;
+        return new double[]{point[0] + northMeters / metersPerDegree,
+                point[1] + eastMeters / (metersPerDegree * Math.cos(Math.toRadians(point[0])))};
+    }
+
+    private static List<String> ids(List<ItemResponse> items) {
+        return items.stream().map(ItemResponse::getId).toList();
+    }
+}
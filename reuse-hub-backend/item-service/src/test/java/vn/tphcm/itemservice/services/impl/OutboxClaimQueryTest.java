@@ -0,0 +1,136 @@
+/*
+ * @ (#) OutboxClaimQueryTest.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.services.impl;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the relay's claim query on Postgres: an older row of the same aggregate that waits for a retry or was given up
+ * on (FAILED) keeps the younger rows of that aggregate in the table, other aggregates are not affected.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class OutboxClaimQueryTest {
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(
+            DockerImageName.parse("postgis/postgis:16-3.4").asCompatibleSubstituteFor("postgres"));
+
+    private static HikariDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+
+    private final List<String> sentAggregates = new CopyOnWriteArrayList<>();
+    private OutboxServiceImpl outboxService;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(postgres.getJdbcUrl());
+        dataSource.setUsername(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE tbl_item_outbox (id BIGSERIAL PRIMARY KEY, aggregate_id VARCHAR(255) NOT NULL, " +
+                "exchange VARCHAR(255) NOT NULL, routing_key VARCHAR(255) NOT NULL, payload_type VARCHAR(255), " +
+                "payload TEXT NOT NULL, status VARCHAR(20) NOT NULL DEFAULT 'PENDING', attempts INTEGER NOT NULL DEFAULT 0, " +
+                "next_attempt_at TIMESTAMP NOT NULL DEFAULT NOW(), last_error TEXT, created_at TIMESTAMP NOT NULL DEFAULT NOW())");
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE tbl_item_outbox");
+
+        // Without publisher confirms a successful send counts as published
+        RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        when(rabbitTemplate.getConnectionFactory()).thenReturn(connectionFactory);
+        doAnswer(invocation -> {
+            sentAggregates.add(new String(invocation.<Message>getArgument(2).getBody()));
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        outboxService = new OutboxServiceImpl(jdbcTemplate, rabbitTemplate, new DataSourceTransactionManager(dataSource),
+                new SimpleMeterRegistry(), 100, 1000, 10, 1000, 60_000);
+    }
+
+    @Test
+    void failedRowKeepsBlockingItsAggregate() {
+        insert("item-a", "FAILED", "NOW()");
+        insert("item-a", "PENDING", "NOW()");
+        insert("item-b", "PENDING", "NOW()");
+
+        outboxService.relay();
+
+        assertEquals(List.of("item-b"), sentAggregates);
+        assertEquals(List.of("FAILED", "PENDING"), statusesOf("item-a"));
+    }
+
+    @Test
+    void rowWaitingForRetryBlocksItsAggregate() {
+        insert("item-a", "PENDING", "NOW() + INTERVAL '1 minute'");
+        insert("item-a", "PENDING", "NOW()");
+
+        outboxService.relay();
+
+        assertEquals(List.of(), sentAggregates);
+        assertEquals(List.of("PENDING", "PENDING"), statusesOf("item-a"));
+    }
+
+    @Test
+    void requeuedFailedRowGoesOutBeforeTheRowsItHeldBack() {
+        insert("item-a", "FAILED", "NOW()");
+        insert("item-a", "PENDING", "NOW()");
+        jdbcTemplate.update("UPDATE tbl_item_outbox SET status = 'PENDING' WHERE status = 'FAILED'");
+
+        outboxService.relay();
+
+        assertEquals(List.of("item-a", "item-a"), sentAggregates);
+        assertEquals(List.of(), statusesOf("item-a"));
+    }
+
+    // The payload carries the aggregate id so the test can tell sends apart
+    private void insert(String aggregateId, String status, String nextAttemptAt) {
+        jdbcTemplate.update("INSERT INTO tbl_item_outbox (aggregate_id, exchange, routing_key, payload, status, next_attempt_at) " +
+                "VALUES (?, 'item.exchange', 'item.updated', ?, ?, " + nextAttemptAt + ")", aggregateId, aggregateId, status);
+    }
+
+    private List<String> statusesOf(String aggregateId) {
+        return jdbcTemplate.queryForList("SELECT status FROM tbl_item_outbox WHERE aggregate_id = ? ORDER BY id",
+                String.class, aggregateId);
+    }
+}
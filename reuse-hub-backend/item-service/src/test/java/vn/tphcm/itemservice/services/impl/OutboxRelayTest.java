@@ -0,0 +1,247 @@
+/*
+ * @ (#) OutboxRelayTest.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.services.impl;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.sql.ResultSet;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Drives relay() against a mocked database and broker: the advisory lock claim, one-row-per-aggregate waves, the
+ * confirm outcomes and the retry backoff.
+ */
+class OutboxRelayTest {
+    private static final int MAX_ATTEMPTS = 10;
+    private static final long RETRY_BACKOFF_MS = 1000;
+    private static final long MAX_BACKOFF_MS = 60_000;
+    private static final long CONFIRM_TIMEOUT_MS = 200;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final ScheduledExecutorService broker = Executors.newSingleThreadScheduledExecutor();
+
+    // Due rows returned by the claim query, and how the broker answers each id (missing: ack)
+    private final List<Object[]> dueRows = new ArrayList<>();
+    private final Map<Long, String> outcomes = new ConcurrentHashMap<>();
+
+    private final List<Long> sent = new CopyOnWriteArrayList<>();
+    private final List<String> overlaps = new CopyOnWriteArrayList<>();
+    private final Map<String, CompletableFuture<CorrelationData.Confirm>> inFlight = new ConcurrentHashMap<>();
+
+    private OutboxServiceImpl outboxService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(jdbcTemplate.queryForObject(startsWith("SELECT pg_try_advisory_xact_lock"), eq(Boolean.class), anyLong()))
+                .thenReturn(true);
+        doAnswer(invocation -> {
+            RowMapper<?> mapper = invocation.getArgument(1);
+            List<Object> mapped = new ArrayList<>();
+            for (int i = 0; i < dueRows.size(); i++) {
+                mapped.add(mapper.mapRow(resultSet(dueRows.get(i)), i));
+            }
+            return mapped;
+        }).when(jdbcTemplate).query(startsWith("SELECT o.id"), any(RowMapper.class), anyInt());
+
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        when(connectionFactory.isPublisherConfirms()).thenReturn(true);
+        when(rabbitTemplate.getConnectionFactory()).thenReturn(connectionFactory);
+        doAnswer(invocation -> {
+            send(invocation.getArgument(2), invocation.getArgument(3));
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        outboxService = new OutboxServiceImpl(jdbcTemplate, rabbitTemplate, transactionManager, new SimpleMeterRegistry(),
+                100, CONFIRM_TIMEOUT_MS, MAX_ATTEMPTS, RETRY_BACKOFF_MS, MAX_BACKOFF_MS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broker.shutdownNow();
+    }
+
+    @Test
+    void nothingIsSentWhileAnotherReplicaHoldsTheRelayLock() {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT pg_try_advisory_xact_lock"), eq(Boolean.class), anyLong()))
+                .thenReturn(false);
+        dueRow(1, "item-a", 0);
+
+        outboxService.relay();
+
+        verify(jdbcTemplate, never()).query(startsWith("SELECT o.id"), any(RowMapper.class), anyInt());
+        assertTrue(sent.isEmpty());
+    }
+
+    @Test
+    void rowsOfOneAggregateGoOutOneAtATimeInIdOrder() {
+        dueRow(1, "item-a", 0);
+        dueRow(2, "item-b", 0);
+        dueRow(3, "item-a", 0);
+        dueRow(4, "item-a", 0);
+        dueRow(5, "item-b", 0);
+
+        outboxService.relay();
+
+        assertEquals(List.of(), overlaps, "a row was sent before the previous row of its aggregate was confirmed");
+        assertEquals(List.of(1L, 3L, 4L), sentOf(1, 3, 4));
+        assertEquals(List.of(2L, 5L), sentOf(2, 5));
+        assertEquals(Set.of(1L, 2L, 3L, 4L, 5L), deletedIds());
+        verify(jdbcTemplate, never()).update(startsWith("UPDATE tbl_item_outbox"), any(), any(), any(), any());
+    }
+
+    @Test
+    void nackIsRetriedWithBackoffAndHoldsBackYoungerRowsOfItsAggregate() {
+        dueRow(1, "item-a", 0);
+        dueRow(2, "item-b", 0);
+        dueRow(3, "item-a", 0);
+        outcomes.put(1L, "nack");
+
+        outboxService.relay();
+
+        assertEquals(List.of(1L, 2L), sent.stream().sorted().toList());
+        assertEquals(Set.of(2L), deletedIds());
+        verify(jdbcTemplate).update(startsWith("UPDATE tbl_item_outbox"), eq("PENDING"), eq("nack: rejected"), eq(1.0), eq(1L));
+    }
+
+    @Test
+    void backoffDoublesPerAttemptUpToTheCap() {
+        dueRow(1, "item-a", 2);
+        dueRow(2, "item-b", 7);
+        outcomes.put(1L, "nack");
+        outcomes.put(2L, "nack");
+
+        outboxService.relay();
+
+        verify(jdbcTemplate).update(startsWith("UPDATE tbl_item_outbox"), eq("PENDING"), anyString(), eq(4.0), eq(1L));
+        verify(jdbcTemplate).update(startsWith("UPDATE tbl_item_outbox"), eq("PENDING"), anyString(), eq(60.0), eq(2L));
+    }
+
+    @Test
+    void lastAttemptMarksTheRowFailed() {
+        dueRow(1, "item-a", MAX_ATTEMPTS - 1);
+        outcomes.put(1L, "nack");
+
+        outboxService.relay();
+
+        verify(jdbcTemplate).update(startsWith("UPDATE tbl_item_outbox"), eq("FAILED"), anyString(), anyDouble(), eq(1L));
+        assertEquals(Set.of(), deletedIds());
+    }
+
+    @Test
+    void missingConfirmAndSendErrorsAreRetried() {
+        dueRow(1, "item-a", 0);
+        dueRow(2, "item-b", 0);
+        outcomes.put(1L, "silent");
+        outcomes.put(2L, "throw");
+
+        outboxService.relay();
+
+        verify(jdbcTemplate).update(startsWith("UPDATE tbl_item_outbox"), eq("PENDING"),
+                eq("no confirm within " + CONFIRM_TIMEOUT_MS + " ms"), eq(1.0), eq(1L));
+        verify(jdbcTemplate).update(startsWith("UPDATE tbl_item_outbox"), eq("PENDING"), eq("connection reset"), eq(1.0), eq(2L));
+        assertEquals(Set.of(), deletedIds());
+    }
+
+    @Test
+    void unroutableMessagesAreNotRetried() {
+        dueRow(1, "item-a", 0);
+        outcomes.put(1L, "returned");
+
+        outboxService.relay();
+
+        assertEquals(Set.of(1L), deletedIds());
+        verify(jdbcTemplate, never()).update(startsWith("UPDATE tbl_item_outbox"), any(), any(), any(), any());
+    }
+
+    private void send(Message message, CorrelationData correlation) {
+        long id = Long.parseLong(correlation.getId());
+        String aggregate = aggregateOf(id);
+        sent.add(id);
+
+        CompletableFuture<CorrelationData.Confirm> previous = inFlight.put(aggregate, correlation.getFuture());
+        if (previous != null && !previous.isDone()) {
+            overlaps.add(message.getMessageProperties().getMessageId());
+        }
+
+        String outcome = outcomes.getOrDefault(id, "ack");
+        switch (outcome) {
+            case "throw" -> throw new IllegalStateException("connection reset");
+            case "silent" -> {
+            }
+            default -> broker.schedule(() -> {
+                if (outcome.equals("returned")) {
+                    correlation.setReturned(new ReturnedMessage(message, 312, "NO_ROUTE", "exchange", "key"));
+                }
+                correlation.getFuture().complete(new CorrelationData.Confirm(!outcome.equals("nack"),
+                        outcome.equals("nack") ? "rejected" : null));
+            }, 20, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void dueRow(long id, String aggregateId, int attempts) {
+        dueRows.add(new Object[]{id, aggregateId, attempts});
+    }
+
+    private String aggregateOf(long id) {
+        return dueRows.stream().filter(row -> (long) row[0] == id).map(row -> (String) row[1]).findFirst().orElseThrow();
+    }
+
+    private List<Long> sentOf(long... ids) {
+        Set<Long> wanted = new HashSet<>();
+        for (long id : ids) {
+            wanted.add(id);
+        }
+        return sent.stream().filter(wanted::contains).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Long> deletedIds() {
+        Set<Long> deleted = new HashSet<>();
+        mockingDetails(jdbcTemplate).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("batchUpdate")
+                        && invocation.getArgument(0).toString().startsWith("DELETE"))
+                .forEach(invocation -> ((List<Object[]>) invocation.getArgument(1)).forEach(args -> deleted.add((Long) args[0])));
+        return deleted;
+    }
+
+    private static ResultSet resultSet(Object[] row) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn((Long) row[0]);
+        when(rs.getString("aggregate_id")).thenReturn((String) row[1]);
+        when(rs.getString("exchange")).thenReturn("item.exchange");
+        when(rs.getString("routing_key")).thenReturn("item.updated");
+        when(rs.getString("payload_type")).thenReturn(null);
+        when(rs.getString("payload")).thenReturn("{}");
+        when(rs.getInt("attempts")).thenReturn((Integer) row[2]);
+        when(rs.getLong("age_ms")).thenReturn(10L);
+        return rs;
+    }
+}
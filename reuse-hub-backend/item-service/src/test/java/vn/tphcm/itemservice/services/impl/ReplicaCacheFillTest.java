@@ -0,0 +1,123 @@
+/*
+ * @ (#) ReplicaCacheFillTest.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.services.impl;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import vn.tphcm.itemservice.commons.ItemStatus;
+import vn.tphcm.itemservice.configs.ReadReplicaRoutingDataSource;
+import vn.tphcm.itemservice.configs.ReadYourWritesTracker;
+import vn.tphcm.itemservice.configs.ReplicaLagMonitor;
+import vn.tphcm.itemservice.dtos.ItemSummary;
+import vn.tphcm.itemservice.dtos.PageResponse;
+import vn.tphcm.itemservice.dtos.response.ItemResponse;
+import vn.tphcm.itemservice.mapper.ItemCommentMapper;
+import vn.tphcm.itemservice.mapper.ItemMapper;
+import vn.tphcm.itemservice.mapper.ItemRatingMapper;
+import vn.tphcm.itemservice.repositories.CategoryRepository;
+import vn.tphcm.itemservice.repositories.ItemCommentRepository;
+import vn.tphcm.itemservice.repositories.ItemRatingRepository;
+import vn.tphcm.itemservice.repositories.ItemRepository;
+import vn.tphcm.itemservice.services.*;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The replica still returns the listing as it was before a write the primary already committed (and whose cache
+ * generation bump already happened). The page that goes into the shared cache must come from the primary.
+ */
+class ReplicaCacheFillTest {
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final ItemMapper itemMapper = mock(ItemMapper.class);
+    private final CacheService cacheService = mock(CacheService.class);
+
+    private ReadReplicaRoutingDataSource routingDataSource;
+    private ItemServiceImpl itemService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+
+        ReplicaLagMonitor lagMonitor = mock(ReplicaLagMonitor.class);
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+        routingDataSource = new ReadReplicaRoutingDataSource(primary, replica, lagMonitor,
+                mock(ReadYourWritesTracker.class), new SimpleMeterRegistry());
+
+        // The first statement takes the connection, the replica has not replayed the new item yet
+        when(itemRepository.findByStatus(eq(ItemStatus.AVAILABLE), any(Pageable.class))).thenAnswer(invocation ->
+                page(routingDataSource.getConnection() == replicaConnection ? "stale" : "fresh"));
+        when(itemMapper.toResponse(any(ItemSummary.class))).thenAnswer(invocation ->
+                ItemResponse.builder().title(invocation.<ItemSummary>getArgument(0).getTitle()).build());
+
+        itemService = new ItemServiceImpl(itemRepository, itemMapper, mock(ItemCommentMapper.class),
+                mock(ItemRatingMapper.class), cacheService, mock(MessageProducer.class), mock(SupabaseStorageService.class),
+                mock(ItemRatingRepository.class), mock(ItemCommentRepository.class), mock(CategoryRepository.class),
+                mock(ViewCounterService.class), mock(PopularityService.class), mock(LikeService.class), mock(TagService.class));
+
+        // What @Transactional(readOnly = true) sets up around the service call
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void staleReplicaReadIsNotCachedUnderTheFreshGeneration() {
+        itemService.getAllItems(0, 10, "createdAt", "DESC");
+
+        verify(cacheService).cacheAllItems(eq(0), eq(10), eq("createdAt"), eq("DESC"), argThat(cached ->
+                "fresh".equals(((PageResponse<ItemResponse>) cached).getContent().get(0).getTitle())));
+    }
+
+    @Test
+    void readsThatAreNotCachedStayOnTheReplica() throws Exception {
+        assertSame(replicaConnection, routingDataSource.getConnection());
+        assertSame(primaryConnection, ReadReplicaRoutingDataSource.readOnPrimary(this::connection));
+        assertSame(replicaConnection, routingDataSource.getConnection());
+    }
+
+    private Connection connection() {
+        try {
+            return routingDataSource.getConnection();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Page<ItemSummary> page(String title) {
+        ItemSummary summary = mock(ItemSummary.class);
+        when(summary.getTitle()).thenReturn(title);
+        return new PageImpl<>(List.of(summary), Pageable.ofSize(10), 1);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * @ (#) SupabaseStorageServiceUploadTest.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.itemservice.services.impl;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+import vn.tphcm.itemservice.configs.FileUploadConfig;
+import vn.tphcm.itemservice.dtos.ProcessedImage;
+import vn.tphcm.itemservice.dtos.response.ImageUploadResponse;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Uploads a full batch of images, each with its thumbnail, against a slow local storage stub with far fewer upload
+ * slots than calls: every call has to wait for a slot instead of failing, and no more than {@code parallelism} calls
+ * may be in flight at once.
+ */
+class SupabaseStorageServiceUploadTest {
+    private static final int PARALLELISM = 4;
+    private static final int FILES = 10;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger stored = new AtomicInteger();
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private SupabaseStorageServiceImpl storageService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/storage/v1/object/", exchange -> {
+            int current = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+            try {
+                exchange.getRequestBody().readAllBytes();
+                Thread.sleep(100);
+                stored.incrementAndGet();
+                byte[] body = "{}".getBytes();
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                exchange.sendResponseHeaders(500, -1);
+            } finally {
+                inFlight.decrementAndGet();
+                exchange.close();
+            }
+        });
+        serverExecutor = Executors.newFixedThreadPool(FILES * 2);
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        FileUploadConfig config = new FileUploadConfig();
+        config.setMaxSize(5);
+        config.setMaxImages(FILES);
+        config.setAllowedTypes(List.of("image/jpeg"));
+
+        storageService = new SupabaseStorageServiceImpl(config,
+                file -> CompletableFuture.completedFuture(new ProcessedImage(new byte[2048], new byte[256], "image/jpeg")),
+                PARALLELISM, 30);
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        ReflectionTestUtils.setField(storageService, "bucketName", "items");
+        ReflectionTestUtils.setField(storageService, "supabaseUrl", baseUrl);
+        ReflectionTestUtils.setField(storageService, "serviceKey", "service-key");
+        ReflectionTestUtils.setField(storageService, "publicUrl", baseUrl + "/storage/v1/object/public/");
+    }
+
+    @AfterEach
+    void tearDown() {
+        storageService.destroy();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void uploadsMoreFilesThanParallelismWithoutRejections() {
+        List<MultipartFile> files = IntStream.range(0, FILES)
+                .<MultipartFile>mapToObj(i -> new MockMultipartFile("files", "image-" + i + ".jpg", "image/jpeg", new byte[4096]))
+                .toList();
+
+        List<ImageUploadResponse> responses = storageService.uploadImages(files, "items/user-1");
+
+        assertEquals(FILES, responses.size());
+        assertEquals(FILES * 2, stored.get(), "every image and every thumbnail is stored");
+        assertTrue(maxInFlight.get() <= PARALLELISM, "at most " + PARALLELISM + " uploads in flight, saw " + maxInFlight.get());
+    }
+}
@@ -21,6 +21,8 @@ import java.util.List;
 public interface SupabaseStorageService {
     ImageUploadResponse uploadImage(MultipartFile file, String folder);
 
+    List<ImageUploadResponse> uploadImages(List<MultipartFile> files, String folder);
+
     void deleteImage(String objectPath);
 
     void deleteImages(List<String> objectPaths);
@@ -27,8 +27,12 @@ import vn.tphcm.profileservice.dtos.response.ImageUploadResponse;
 import vn.tphcm.profileservice.utils.KycValidator;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -39,6 +43,10 @@ public class KycServiceImpl implements KycService {
     private final KycMapper kycMapper;
     private final SupabaseStorageService storageService;
 
+    private static final String FRONT = "front";
+    private static final String BACK = "back";
+    private static final String SELFIE = "selfie";
+
     @Override
     @Transactional
     public ApiResponse<KycResponse> submitKyc(String userId, KycSubmitRequest request,
@@ -63,18 +71,14 @@ public class KycServiceImpl implements KycService {
                 });
 
         // Upload images
-        String frontImageUrl = uploadImage(frontImage, userId, "front");
-        String backImageUrl = backImage != null && !backImage.isEmpty() 
-                ? uploadImage(backImage, userId, "back") : null;
-        String selfieImageUrl = selfieImage != null && !selfieImage.isEmpty() 
-                ? uploadImage(selfieImage, userId, "selfie") : null;
+        Map<String, String> imageUrls = uploadImages(userId, frontImage, backImage, selfieImage);
 
         // Create KYC entity
         KycVerification kyc = kycMapper.toEntity(request);
         kyc.setUserId(userId);
-        kyc.setFrontImageUrl(frontImageUrl);
-        kyc.setBackImageUrl(backImageUrl);
-        kyc.setSelfieImageUrl(selfieImageUrl);
+        kyc.setFrontImageUrl(imageUrls.get(FRONT));
+        kyc.setBackImageUrl(imageUrls.get(BACK));
+        kyc.setSelfieImageUrl(imageUrls.get(SELFIE));
         kyc.setStatus(KycStatus.PENDING);
         kyc.setSubmittedAt(LocalDateTime.now());
 
@@ -136,14 +140,15 @@ public class KycServiceImpl implements KycService {
                 });
 
         // Upload new images if provided
-        if (frontImage != null && !frontImage.isEmpty()) {
-            existingKyc.setFrontImageUrl(uploadImage(frontImage, userId, "front"));
+        Map<String, String> imageUrls = uploadImages(userId, frontImage, backImage, selfieImage);
+        if (imageUrls.containsKey(FRONT)) {
+            existingKyc.setFrontImageUrl(imageUrls.get(FRONT));
         }
-        if (backImage != null && !backImage.isEmpty()) {
-            existingKyc.setBackImageUrl(uploadImage(backImage, userId, "back"));
+        if (imageUrls.containsKey(BACK)) {
+            existingKyc.setBackImageUrl(imageUrls.get(BACK));
         }
-        if (selfieImage != null && !selfieImage.isEmpty()) {
-            existingKyc.setSelfieImageUrl(uploadImage(selfieImage, userId, "selfie"));
+        if (imageUrls.containsKey(SELFIE)) {
+            existingKyc.setSelfieImageUrl(imageUrls.get(SELFIE));
         }
 
         // Update KYC info
@@ -284,13 +289,35 @@ public class KycServiceImpl implements KycService {
                 .build();
     }
 
-    private String uploadImage(MultipartFile file, String userId, String type) {
+    // Uploads the provided images in parallel, keyed by image type; missing images are left out
+    private Map<String, String> uploadImages(String userId, MultipartFile frontImage, MultipartFile backImage, MultipartFile selfieImage) {
+        Map<String, MultipartFile> files = new LinkedHashMap<>();
+        if (frontImage != null && !frontImage.isEmpty()) {
+            files.put(FRONT, frontImage);
+        }
+        if (backImage != null && !backImage.isEmpty()) {
+            files.put(BACK, backImage);
+        }
+        if (selfieImage != null && !selfieImage.isEmpty()) {
+            files.put(SELFIE, selfieImage);
+        }
+
+        if (files.isEmpty()) {
+            return Map.of();
+        }
+
         try {
             String folder = String.format("kyc/%s", userId);
-            ImageUploadResponse response = storageService.uploadImage(file, folder);
-            return response.getImageUrl();
+            List<ImageUploadResponse> responses = storageService.uploadImages(new ArrayList<>(files.values()), folder);
+
+            Map<String, String> imageUrls = new HashMap<>();
+            int index = 0;
+            for (String type : files.keySet()) {
+                imageUrls.put(type, responses.get(index++).getImageUrl());
+            }
+            return imageUrls;
         } catch (Exception e) {
-            log.error("Failed to upload KYC image: {}", e.getMessage());
+            log.error("Failed to upload KYC images: {}", e.getMessage());
             throw new AppException(ErrorCode.FILE_UPLOAD_FAILED);
         }
     }
@@ -208,6 +208,7 @@ CREATE INDEX IF NOT EXISTS idx_kyc_status ON tbl_kyc_verifications(status);
 
 CREATE EXTENSION IF NOT EXISTS "pgcrypto";
 CREATE EXTENSION IF NOT EXISTS "postgis";
+CREATE EXTENSION IF NOT EXISTS "unaccent";
 
 -- Create ENUM types for item
 DO $$ BEGIN
@@ -217,11 +218,13 @@ EXCEPTION
 END $$;
 
 DO $$ BEGIN
-    CREATE TYPE interaction_type AS ENUM ('VIEW', 'LIKE', 'SAVE', 'SHARE', 'COMMENT');
+    CREATE TYPE interaction_type AS ENUM ('VIEW', 'LIKE', 'UNLIKE', 'SAVE', 'SHARE', 'COMMENT');
 EXCEPTION
     WHEN duplicate_object THEN null;
 END $$;
 
+ALTER TYPE interaction_type ADD VALUE IF NOT EXISTS 'UNLIKE';
+
 -- Create tables for item-service
 CREATE TABLE IF NOT EXISTS tbl_category (
     id VARCHAR(255) PRIMARY KEY,
@@ -237,26 +240,78 @@ CREATE TABLE IF NOT EXISTS tbl_items (
     title VARCHAR(255),
     description TEXT,
     images JSONB DEFAULT '[]',
+    thumbnails JSONB DEFAULT '[]',
     address TEXT,
     location geometry(Point, 4326),
+    -- Distance queries run on the geography twin so they can use a GiST index in meters
+    geog geography(Point, 4326) GENERATED ALWAYS AS (location::geography) STORED,
     status item_status DEFAULT 'AVAILABLE',
     view_count INTEGER DEFAULT 0,
     comment_count INTEGER DEFAULT 0,
     like_count INTEGER DEFAULT 0,
     rating DOUBLE PRECISION DEFAULT 0,
     rating_count INTEGER DEFAULT 0,
+    rating_sum DOUBLE PRECISION DEFAULT 0,
     price BIGINT DEFAULT 0,
     is_premium BOOLEAN DEFAULT FALSE,
     category_id VARCHAR(255) REFERENCES tbl_category(id),
+    search_vector TSVECTOR,
     created_at TIMESTAMP DEFAULT NOW(),
     updated_at TIMESTAMP DEFAULT NOW()
 );
 
+-- Databases created before the geography twin existed
+ALTER TABLE tbl_items ADD COLUMN IF NOT EXISTS geog geography(Point, 4326) GENERATED ALWAYS AS (location::geography) STORED;
+-- Databases created before uploads stored a thumbnail next to each image
+ALTER TABLE tbl_items ADD COLUMN IF NOT EXISTS thumbnails JSONB DEFAULT '[]';
+-- Databases created before full-text search; the rows are backfilled once the search triggers exist, see below
+ALTER TABLE tbl_items ADD COLUMN IF NOT EXISTS search_vector TSVECTOR;
+
+-- Tag dictionary, names are normalized (trimmed, lower-case) by item-service
+CREATE TABLE IF NOT EXISTS tbl_tags (
+    id SERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE
+);
+
 CREATE TABLE IF NOT EXISTS tbl_item_tags (
-    item_id VARCHAR(255) REFERENCES tbl_items(id),
-    tag_name VARCHAR(255)
+    item_id VARCHAR(255) NOT NULL REFERENCES tbl_items(id) ON DELETE CASCADE,
+    tag_id INTEGER NOT NULL REFERENCES tbl_tags(id),
+    PRIMARY KEY (item_id, tag_id)
 );
 
+-- Databases created before the tag dictionary still have tbl_item_tags(item_id, tag_name): move the names into
+-- tbl_tags and rebuild the link table on tag ids. Runs once, afterwards tag_name no longer exists
+DO
+$$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'tbl_item_tags' AND column_name = 'tag_name') THEN
+        INSERT INTO tbl_tags (name)
+        SELECT DISTINCT lower(trim(tag_name))
+        FROM tbl_item_tags
+        WHERE tag_name IS NOT NULL AND trim(tag_name) <> ''
+        ON CONFLICT (name) DO NOTHING;
+
+        CREATE TABLE tbl_item_tags_migrated (
+            item_id VARCHAR(255) NOT NULL REFERENCES tbl_items(id) ON DELETE CASCADE,
+            tag_id INTEGER NOT NULL REFERENCES tbl_tags(id),
+            PRIMARY KEY (item_id, tag_id)
+        );
+
+        INSERT INTO tbl_item_tags_migrated (item_id, tag_id)
+        SELECT DISTINCT t.item_id, g.id
+        FROM tbl_item_tags t
+        JOIN tbl_tags g ON g.name = lower(trim(t.tag_name))
+        WHERE t.item_id IS NOT NULL;
+
+        -- Drops the old tag_name trigger and idx_item_tags_item_id with it, both are recreated below on tag_id
+        DROP TABLE tbl_item_tags;
+        ALTER TABLE tbl_item_tags_migrated RENAME TO tbl_item_tags;
+        ALTER TABLE tbl_item_tags RENAME CONSTRAINT tbl_item_tags_migrated_pkey TO tbl_item_tags_pkey;
+    END IF;
+END
+$$;
+
 CREATE TABLE IF NOT EXISTS tbl_item_interaction (
     id VARCHAR(255) PRIMARY KEY,
     user_id VARCHAR(255),
@@ -266,15 +321,98 @@ CREATE TABLE IF NOT EXISTS tbl_item_interaction (
     updated_at TIMESTAMP DEFAULT NOW()
 );
 
+-- One row per (item, user) like; tbl_items.like_count is maintained from changes to this set
+CREATE TABLE IF NOT EXISTS tbl_item_likes (
+    item_id VARCHAR(255) NOT NULL REFERENCES tbl_items(id) ON DELETE CASCADE,
+    user_id VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (item_id, user_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_likes_user ON tbl_item_likes(user_id);
+
+-- Seed the set from the latest LIKE/UNLIKE interaction of each user, and restart like_count from it: the old counter
+-- was bumped per request, duplicates included, and deltas only keep it right from a count that matches the set.
+-- Runs once, while the set is still empty; afterwards like and unlike keep the two in step
+DO
+$$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM tbl_item_likes) THEN
+        INSERT INTO tbl_item_likes (item_id, user_id, created_at)
+        SELECT latest.item_id, latest.user_id, latest.created_at
+        FROM (
+            SELECT DISTINCT ON (item_id, user_id) item_id, user_id, interaction_type::text AS type, created_at
+            FROM tbl_item_interaction
+            WHERE interaction_type::text IN ('LIKE', 'UNLIKE') AND item_id IS NOT NULL AND user_id IS NOT NULL
+            ORDER BY item_id, user_id, created_at DESC
+        ) latest
+        WHERE latest.type = 'LIKE'
+        ON CONFLICT DO NOTHING;
+
+        UPDATE tbl_items i
+        SET like_count = (SELECT COUNT(*) FROM tbl_item_likes l WHERE l.item_id = i.id),
+            updated_at = now()
+        WHERE i.like_count IS DISTINCT FROM (SELECT COUNT(*) FROM tbl_item_likes l WHERE l.item_id = i.id);
+    END IF;
+END
+$$;
+
+-- Snapshots of the Redis counter buffers (views, likes) already applied to tbl_items, so a snapshot that outlived its
+-- commit is not counted twice. Rows older than a day are pruned by the flush itself
+CREATE TABLE IF NOT EXISTS tbl_counter_flushes (
+    flush_id VARCHAR(64) PRIMARY KEY,
+    flushed_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_counter_flushes_flushed_at ON tbl_counter_flushes(flushed_at);
+
 CREATE TABLE IF NOT EXISTS tbl_ratings (
     id VARCHAR(255) PRIMARY KEY,
     user_id VARCHAR(255),
     rating DOUBLE PRECISION,
     item_id VARCHAR(255) REFERENCES tbl_items(id),
+    -- One rating per completed transaction, makes redelivered FeedbackEvents no-ops
+    transaction_id VARCHAR(255) UNIQUE,
     created_at TIMESTAMP DEFAULT NOW(),
     updated_at TIMESTAMP DEFAULT NOW()
 );
 
+-- Databases created before ratings were tied to their transaction. Existing rows keep a NULL transaction_id, which
+-- the unique constraint allows any number of
+ALTER TABLE tbl_ratings ADD COLUMN IF NOT EXISTS transaction_id VARCHAR(255);
+
+DO
+$$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conrelid = 'tbl_ratings'::regclass AND conname = 'tbl_ratings_transaction_id_key') THEN
+        ALTER TABLE tbl_ratings ADD CONSTRAINT tbl_ratings_transaction_id_key UNIQUE (transaction_id);
+    END IF;
+END
+$$;
+
+-- Databases created before the rating aggregates were kept incrementally: add rating_sum and start it, and the count
+-- it is divided by, from the stored ratings. Runs once, afterwards the column exists
+DO
+$$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = current_schema() AND table_name = 'tbl_items' AND column_name = 'rating_sum') THEN
+        ALTER TABLE tbl_items ADD COLUMN rating_sum DOUBLE PRECISION DEFAULT 0;
+
+        UPDATE tbl_items i
+        SET rating_sum   = r.rating_sum,
+            rating_count = r.rating_count,
+            rating       = CASE WHEN r.rating_count = 0 THEN 0 ELSE r.rating_sum / r.rating_count END,
+            updated_at   = now()
+        FROM (SELECT item_id, COALESCE(SUM(rating), 0) AS rating_sum, COUNT(rating) AS rating_count
+              FROM tbl_ratings
+              GROUP BY item_id) r
+        WHERE i.id = r.item_id;
+    END IF;
+END
+$$;
+
 CREATE TABLE IF NOT EXISTS tbl_item_comments (
     id VARCHAR(255) PRIMARY KEY,
     user_id VARCHAR(255),
@@ -287,6 +425,95 @@ CREATE TABLE IF NOT EXISTS tbl_item_comments (
 -- Create indexes for item
 CREATE INDEX IF NOT EXISTS idx_items_user_id ON tbl_items(user_id);
 CREATE INDEX IF NOT EXISTS idx_category_name ON tbl_category(name);
+CREATE INDEX IF NOT EXISTS idx_items_search_vector ON tbl_items USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_items_status_category ON tbl_items(status, category_id);
+-- Keyset pagination seeks on (filter, sort key, id)
+CREATE INDEX IF NOT EXISTS idx_items_status_created_id ON tbl_items(status, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_items_status_views_id ON tbl_items(status, view_count, id);
+CREATE INDEX IF NOT EXISTS idx_items_status_likes_id ON tbl_items(status, like_count, id);
+CREATE INDEX IF NOT EXISTS idx_items_category_status_created_id ON tbl_items(category_id, status, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_items_user_created_id ON tbl_items(user_id, created_at, id);
+-- Incremental exports scan by (updated_at, id)
+CREATE INDEX IF NOT EXISTS idx_items_updated_id ON tbl_items(updated_at, id);
+-- Inverted index: items of a tag, and tag intersections, are answered from the index alone
+CREATE INDEX IF NOT EXISTS idx_item_tags_tag_item ON tbl_item_tags(tag_id, item_id);
+CREATE INDEX IF NOT EXISTS idx_ratings_item_id ON tbl_ratings(item_id);
+CREATE INDEX IF NOT EXISTS idx_item_comments_item_id ON tbl_item_comments(item_id);
+-- Radius (ST_DWithin) and k-NN (<->) searches only ever look at available items
+CREATE INDEX IF NOT EXISTS idx_items_available_geog ON tbl_items USING GIST (geog) WHERE status = 'AVAILABLE';
+
+-- Transactional outbox for item-service events, rows are deleted once the broker confirmed them
+CREATE TABLE IF NOT EXISTS tbl_item_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_id VARCHAR(255) NOT NULL,
+    exchange VARCHAR(255) NOT NULL,
+    routing_key VARCHAR(255) NOT NULL,
+    payload_type VARCHAR(255),
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_outbox_pending ON tbl_item_outbox(next_attempt_at, id) WHERE status = 'PENDING';
+-- Older rows that block a due row are PENDING or FAILED, which is every row in the table
+DROP INDEX IF EXISTS idx_item_outbox_aggregate;
+CREATE INDEX IF NOT EXISTS idx_item_outbox_aggregate_id ON tbl_item_outbox(aggregate_id, id);
+
+-- Full-text search for items
+-- unaccent() is only STABLE, pin the dictionary so it can be used in an IMMUTABLE function
+CREATE OR REPLACE FUNCTION f_unaccent(text) RETURNS text
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT AS
+$$ SELECT public.unaccent('public.unaccent'::regdictionary, $1) $$;
+
+-- Title > tags > description, folded to lower-case ASCII so "Điện thoại" matches "dien thoai"
+CREATE OR REPLACE FUNCTION item_search_vector(p_title TEXT, p_description TEXT, p_tags TEXT) RETURNS tsvector
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE AS
+$$ SELECT setweight(to_tsvector('simple', f_unaccent(lower(coalesce(p_title, '')))), 'A')
+       || setweight(to_tsvector('simple', f_unaccent(lower(coalesce(p_tags, '')))), 'B')
+       || setweight(to_tsvector('simple', f_unaccent(lower(coalesce(p_description, '')))), 'C') $$;
+
+CREATE OR REPLACE FUNCTION trg_items_search_vector() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    NEW.search_vector := item_search_vector(NEW.title, NEW.description,
+            (SELECT string_agg(g.name, ' ') FROM tbl_item_tags t JOIN tbl_tags g ON g.id = t.tag_id WHERE t.item_id = NEW.id));
+    RETURN NEW;
+END
+$$;
+
+CREATE OR REPLACE TRIGGER items_search_vector_update
+    BEFORE INSERT OR UPDATE OF title, description ON tbl_items
+    FOR EACH ROW EXECUTE FUNCTION trg_items_search_vector();
+
+CREATE OR REPLACE FUNCTION trg_item_tags_search_vector() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    v_item_id VARCHAR(255) := COALESCE(NEW.item_id, OLD.item_id);
+BEGIN
+    -- Tags are part of the exported item, so a link change counts as an update of the item
+    UPDATE tbl_items i
+    SET search_vector = item_search_vector(i.title, i.description,
+            (SELECT string_agg(g.name, ' ') FROM tbl_item_tags t JOIN tbl_tags g ON g.id = t.tag_id WHERE t.item_id = v_item_id)),
+        updated_at = now()
+    WHERE i.id = v_item_id;
+    RETURN NULL;
+END
+$$;
+
+CREATE OR REPLACE TRIGGER item_tags_search_vector_update
+    AFTER INSERT OR UPDATE OR DELETE ON tbl_item_tags
+    FOR EACH ROW EXECUTE FUNCTION trg_item_tags_search_vector();
+
+-- Backfill rows created before the trigger existed
+UPDATE tbl_items i
+SET search_vector = item_search_vector(i.title, i.description,
+        (SELECT string_agg(g.name, ' ') FROM tbl_item_tags t JOIN tbl_tags g ON g.id = t.tag_id WHERE t.item_id = i.id))
+WHERE i.search_vector IS NULL;
 
 -- ============================================
 -- TRANSACTION DATABASE - SETUP
@@ -435,6 +662,9 @@ CREATE INDEX IF NOT EXISTS idx_stripe_event_id ON tbl_webhook_events(stripe_even
 --     reserve_price BIGINT,
 --     start_time TIMESTAMP NOT NULL,
 --     end_time TIMESTAMP NOT NULL,
+--     -- Soft close (anti-sniping), NULL = hard close
+--     soft_close_window_seconds INTEGER,
+--     soft_close_extension_seconds INTEGER,
 --     status auction_status DEFAULT 'PENDING',
 --     bid_count INTEGER DEFAULT 0,
 --     winner_id VARCHAR(255),
@@ -448,13 +678,16 @@ CREATE INDEX IF NOT EXISTS idx_stripe_event_id ON tbl_webhook_events(stripe_even
 -- CREATE TABLE IF NOT EXISTS tbl_bids (
 --     id VARCHAR(255) PRIMARY KEY,
 --     auction_id VARCHAR(255) NOT NULL REFERENCES tbl_auctions(id),
+--     sequence BIGINT,
 --     bidder_id VARCHAR(255) NOT NULL,
 --     amount BIGINT NOT NULL,
 --     max_auto_bid BIGINT,
 --     status bid_status DEFAULT 'ACTIVE',
 --     is_auto_bid BOOLEAN DEFAULT FALSE,
 --     created_at TIMESTAMP DEFAULT NOW(),
---     updated_at TIMESTAMP DEFAULT NOW()
+--     updated_at TIMESTAMP DEFAULT NOW(),
+--     -- Position in the auction's bid log, one writer per sequence
+--     CONSTRAINT uk_bid_auction_sequence UNIQUE (auction_id, sequence)
 -- );
 
 -- -- Create indexes for auction
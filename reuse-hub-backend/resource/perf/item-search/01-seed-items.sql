@@ -0,0 +1,42 @@
+-- ============================================
+-- ITEM SEARCH BENCHMARK - SEED 1M ITEMS
+-- ============================================
+-- Run against the item database after db-init:
+--   psql -d item -f 01-seed-items.sql
+-- Then compare the two pgbench scripts (p99 comes from the per-transaction log):
+--   pgbench -n -c 16 -j 4 -T 60 -l --log-prefix=like -f search-like.sql item
+--   pgbench -n -c 16 -j 4 -T 60 -l --log-prefix=fts  -f search-fts.sql  item
+--   sort -n -k3 like.* | awk '{a[NR]=$3} END {print "p99(us):", a[int(NR*0.99)]}'
+
+\c item;
+
+INSERT INTO tbl_items (id, user_id, title, description, images, status, price, category_id, created_at, updated_at)
+SELECT gen_random_uuid(),
+       'bench-user-' || (n % 5000),
+       w.words[1 + (n % 12)] || ' ' || w.words[1 + ((n / 12) % 12)] || ' #' || n,
+       'Mô tả sản phẩm ' || w.words[1 + ((n / 7) % 12)] || ' còn mới, giao dịch tại TP.HCM',
+       '[]'::jsonb,
+       (CASE WHEN n % 10 = 0 THEN 'SOLD' ELSE 'AVAILABLE' END)::item_status,
+       10000 + (n % 1000) * 1000,
+       (SELECT id FROM tbl_category ORDER BY id OFFSET (n % 5) LIMIT 1),
+       NOW() - (n || ' seconds')::interval,
+       NOW()
+FROM generate_series(1, 1000000) AS n,
+     (SELECT ARRAY['Điện thoại', 'Máy tính', 'Áo khoác', 'Giày thể thao', 'Sách giáo khoa', 'Tủ lạnh',
+                   'Bàn học', 'Xe đạp', 'Tai nghe', 'Đồng hồ', 'Găng tay', 'Thảm yoga'] AS words) AS w;
+
+INSERT INTO tbl_tags (name)
+SELECT DISTINCT lower(split_part(i.title, ' ', 1))
+FROM tbl_items i
+WHERE i.user_id LIKE 'bench-user-%'
+ON CONFLICT (name) DO NOTHING;
+
+INSERT INTO tbl_item_tags (item_id, tag_id)
+SELECT i.id, g.id
+FROM tbl_items i
+JOIN tbl_tags g ON g.name = lower(split_part(i.title, ' ', 1))
+WHERE i.user_id LIKE 'bench-user-%';
+
+ANALYZE tbl_items;
+ANALYZE tbl_tags;
+ANALYZE tbl_item_tags;
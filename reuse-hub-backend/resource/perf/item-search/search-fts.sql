@@ -0,0 +1,6 @@
+-- ItemSearchRepositoryImpl.searchItems with sortBy=relevance (GIN index on search_vector)
+SELECT i.* FROM tbl_items i
+WHERE i.status = CAST('AVAILABLE' AS item_status)
+  AND i.search_vector @@ to_tsquery('simple', 'tai:* & nghe:*')
+ORDER BY ts_rank_cd(i.search_vector, to_tsquery('simple', 'tai:* & nghe:*')) DESC, i.id
+LIMIT 10 OFFSET 0;
@@ -0,0 +1,5 @@
+-- Previous ItemRepository.findByKeyword (sequential scan)
+SELECT i.* FROM tbl_items i
+WHERE i.title LIKE CONCAT('%', 'Tai nghe', '%') AND i.status = 'AVAILABLE'
+ORDER BY i.created_at DESC
+LIMIT 10 OFFSET 0;
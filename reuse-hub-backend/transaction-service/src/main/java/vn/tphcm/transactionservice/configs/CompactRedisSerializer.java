@@ -0,0 +1,117 @@
+/*
+ * @ (#) CompactRedisSerializer.java       1.0     10/18/2026
+ *
+ * Copyright (c) 2026. All rights reserved.
+ */
+
+package vn.tphcm.transactionservice.configs;
+/*
+ * @author: Luong Tan Dat
+ * @date: 10/18/2026
+ */
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Typed value serializer for cache entries. Unlike the default-typed Jackson serializer it writes no class names,
+ * the target type is fixed per template, so reads bind straight to the DTO without an {@code convertValue} pass.
+ * <p>
+ * Layout: one format byte, then either the encoded payload ({@link #RAW}) or the original length followed by
+ * the LZ4 block ({@link #LZ4}). Payloads are only compressed above {@code compressionThreshold} bytes.
+ * Values written by the previous JSON serializer start with {@code '{'} or {@code '['} and are read as misses.
+ */
+public class CompactRedisSerializer<T> implements RedisSerializer<T> {
+    public static final String FORMAT_SMILE = "smile";
+    public static final String FORMAT_JSON = "json";
+
+    static final byte RAW = 1;
+    static final byte LZ4 = 2;
+
+    private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+    private static final LZ4FastDecompressor DECOMPRESSOR = LZ4Factory.fastestInstance().fastDecompressor();
+
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+    private final int compressionThreshold;
+
+    public CompactRedisSerializer(ObjectMapper mapper, JavaType type, int compressionThreshold) {
+        this.reader = mapper.readerFor(type);
+        this.writer = mapper.writerFor(type);
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    public static ObjectMapper createMapper(String format) {
+        ObjectMapper mapper = FORMAT_JSON.equalsIgnoreCase(format) ? new ObjectMapper() : new SmileMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        return mapper;
+    }
+
+    @Override
+    public byte[] serialize(T value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+
+        byte[] payload;
+        try {
+            payload = writer.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write cache value", e);
+        }
+
+        if (compressionThreshold <= 0 || payload.length < compressionThreshold) {
+            return ByteBuffer.allocate(1 + payload.length)
+                    .put(RAW)
+                    .put(payload)
+                    .array();
+        }
+
+        byte[] compressed = new byte[COMPRESSOR.maxCompressedLength(payload.length)];
+        int compressedLength = COMPRESSOR.compress(payload, 0, payload.length, compressed, 0, compressed.length);
+
+        return ByteBuffer.allocate(1 + Integer.BYTES + compressedLength)
+                .put(LZ4)
+                .putInt(payload.length)
+                .put(compressed, 0, compressedLength)
+                .array();
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length < 2) {
+            return null;
+        }
+
+        try {
+            return switch (bytes[0]) {
+                case RAW -> reader.readValue(bytes, 1, bytes.length - 1);
+                case LZ4 -> {
+                    int length = ByteBuffer.wrap(bytes, 1, Integer.BYTES).getInt();
+                    byte[] payload = DECOMPRESSOR.decompress(bytes, 1 + Integer.BYTES, length);
+                    yield reader.readValue(payload);
+                }
+                // Legacy or foreign entry, let the caller reload it from the database
+                default -> null;
+            };
+        } catch (IOException e) {
+            throw new SerializationException("Could not read cache value", e);
+        }
+    }
+}
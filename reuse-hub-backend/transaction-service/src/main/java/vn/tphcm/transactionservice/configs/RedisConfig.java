@@ -17,6 +17,7 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
@@ -28,6 +29,7 @@ import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import vn.tphcm.transactionservice.dtos.response.TransactionResponse;
 
 import java.time.Duration;
 
@@ -35,6 +37,27 @@ import java.time.Duration;
 @EnableCaching
 @Slf4j(topic = "REDIS-CONFIG")
 public class RedisConfig {
+    @Value("${transaction.cache.serializer:smile}")
+    private String cacheSerializer;
+
+    @Value("${transaction.cache.compression-threshold-bytes:2048}")
+    private int compressionThreshold;
+
+    @Bean
+    public RedisTemplate<String, TransactionResponse> transactionRedisTemplate(RedisConnectionFactory factory) {
+        log.info("Initializing {} cache template for transactions", cacheSerializer);
+
+        ObjectMapper om = CompactRedisSerializer.createMapper(cacheSerializer);
+
+        RedisTemplate<String, TransactionResponse> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(factory);
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(new CompactRedisSerializer<TransactionResponse>(om, om.constructType(TransactionResponse.class), compressionThreshold));
+        redisTemplate.afterPropertiesSet();
+
+        return redisTemplate;
+    }
+
     @Bean
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory factory) {
         RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
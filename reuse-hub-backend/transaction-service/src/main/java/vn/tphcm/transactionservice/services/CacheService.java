@@ -10,11 +10,10 @@ package vn.tphcm.transactionservice.services;
  * @date: 10/31/2025
  */
 
-import org.springframework.data.domain.Page;
 import vn.tphcm.transactionservice.dtos.response.TransactionResponse;
 
 public interface CacheService {
     void cacheTransaction(String transactionId, TransactionResponse response);
-    Page<TransactionResponse> getCachedTransaction(String transactionId);
+    TransactionResponse getCachedTransaction(String transactionId);
     void evictCachedTransaction(String transactionId);
 }
@@ -10,11 +10,8 @@ package vn.tphcm.transactionservice.services.impl;
  * @date: 10/31/2025
  */
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 import vn.tphcm.transactionservice.dtos.response.TransactionResponse;
@@ -26,8 +23,7 @@ import java.time.Duration;
 @RequiredArgsConstructor
 @Slf4j(topic = "CACHE-SERVICE")
 public class CacheServiceImpl implements CacheService {
-    private final RedisTemplate<String, Object> redisTemplate;
-    private final ObjectMapper objectMapper;
+    private final RedisTemplate<String, TransactionResponse> transactionRedisTemplate;
 
     private static final String TRANSACTION_KEY_PREFIX = "transaction:";
 
@@ -37,7 +33,7 @@ public class CacheServiceImpl implements CacheService {
     public void cacheTransaction(String transactionId, TransactionResponse response) {
         try {
             String key = TRANSACTION_KEY_PREFIX + transactionId;
-            redisTemplate.opsForValue().set(key, response, DEFAULT_TTL);
+            transactionRedisTemplate.opsForValue().set(key, response, DEFAULT_TTL);
             log.info("Cached transaction {} with key {}", transactionId, key);
         } catch (Exception e) {
             log.error("Failed to cache transaction {}: {}", transactionId, e.getMessage());
@@ -45,13 +41,13 @@ public class CacheServiceImpl implements CacheService {
     }
 
     @Override
-    public Page<TransactionResponse> getCachedTransaction(String transactionId) {
+    public TransactionResponse getCachedTransaction(String transactionId) {
         try {
-            Object cached = redisTemplate.opsForValue().get(TRANSACTION_KEY_PREFIX);
+            String key = TRANSACTION_KEY_PREFIX + transactionId;
+            TransactionResponse cached = transactionRedisTemplate.opsForValue().get(key);
             if (cached != null) {
-                log.info("Cache hit for transaction {} with key {}", transactionId, TRANSACTION_KEY_PREFIX);
-                return objectMapper.convertValue(cached, new TypeReference<Page<TransactionResponse>>() {
-                });
+                log.info("Cache hit for transaction {} with key {}", transactionId, key);
+                return cached;
             }
         } catch (Exception e) {
             log.error("Failed to get cached transaction {}: {}", transactionId, e.getMessage());
@@ -62,12 +58,11 @@ public class CacheServiceImpl implements CacheService {
     @Override
     public void evictCachedTransaction(String transactionId) {
         try {
-            Object cached = redisTemplate.opsForValue().get(TRANSACTION_KEY_PREFIX);
-            if (cached != null) {
-                redisTemplate.delete(TRANSACTION_KEY_PREFIX);
-                log.info("Evicted cached transaction {} with key {}", transactionId, TRANSACTION_KEY_PREFIX);
+            String key = TRANSACTION_KEY_PREFIX + transactionId;
+            if (Boolean.TRUE.equals(transactionRedisTemplate.delete(key))) {
+                log.info("Evicted cached transaction {} with key {}", transactionId, key);
             } else {
-                log.info("No cached transaction found for key {}", TRANSACTION_KEY_PREFIX);
+                log.info("No cached transaction found for key {}", key);
             }
         } catch (Exception e) {
             log.error("Failed to evict cached transaction {}: {}", transactionId, e.getMessage());